@@ -0,0 +1,122 @@
+package com.multipedidos.common.benchmarks;
+
+import com.multipedidos.common.dto.PedidoDTO;
+import com.multipedidos.common.utils.AgrupadorPedidos;
+import com.multipedidos.common.utils.ClienteMicroservicios;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ráfaga de consultas simultáneas de pedidos contra un servidor HTTP local: una petición por
+ * pedido con {@link ClienteMicroservicios} frente a las mismas consultas agrupadas con
+ * {@link AgrupadorPedidos} en peticiones al endpoint de lotes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+@State(Scope.Benchmark)
+public class AgrupadorPedidosBenchmark {
+
+    @Param({"16", "64"})
+    private int consultasPorRafaga;
+
+    private HttpServer servidor;
+    private ExecutorService hilosServidor;
+    private ClienteMicroservicios cliente;
+    private AgrupadorPedidos agrupador;
+    private long siguienteId = 1;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        hilosServidor = Executors.newFixedThreadPool(8);
+        servidor.setExecutor(hilosServidor);
+        servidor.createContext("/api/pedidos/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            responder(exchange, pedido(path.substring(path.lastIndexOf('/') + 1)));
+        });
+        servidor.createContext("/api/pedidos/lote", exchange -> {
+            String ids = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            StringBuilder cuerpo = new StringBuilder("[");
+            for (String id : ids.substring(1, ids.length() - 1).split(",")) {
+                cuerpo.append(cuerpo.length() > 1 ? "," : "").append(pedido(id));
+            }
+            responder(exchange, cuerpo.append(']').toString());
+        });
+        servidor.start();
+        cliente = ClienteMicroservicios.builder("http://127.0.0.1:" + servidor.getAddress().getPort())
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        agrupador = AgrupadorPedidos.builder(cliente)
+                .ventana(Duration.ofMillis(1))
+                .maxLote(consultasPorRafaga)
+                .build();
+    }
+
+    private static String pedido(String id) {
+        return "{\"id\":" + id + ",\"codigo\":\"PED-" + id + "\",\"clienteId\":7,\"estado\":\"PENDIENTE\","
+                + "\"productos\":[{\"nombre\":\"Laptop\",\"precio\":1500.00}],\"total\":1500.00}";
+    }
+
+    private static void responder(HttpExchange exchange, String cuerpo) throws IOException {
+        byte[] bytes = cuerpo.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream salida = exchange.getResponseBody()) {
+            salida.write(bytes);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        agrupador.close();
+        servidor.stop(0);
+        hilosServidor.shutdownNow();
+    }
+
+    @Benchmark
+    public Object peticionesIndividuales() {
+        CompletableFuture<?>[] futuros = new CompletableFuture<?>[consultasPorRafaga];
+        for (int i = 0; i < futuros.length; i++) {
+            futuros[i] = cliente.obtenerPedidoJsonAsync(siguienteId++);
+        }
+        return CompletableFuture.allOf(futuros).join();
+    }
+
+    @Benchmark
+    public Object peticionesAgrupadas() {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<Optional<PedidoDTO>>[] futuros = new CompletableFuture[consultasPorRafaga];
+        for (int i = 0; i < futuros.length; i++) {
+            futuros[i] = agrupador.obtenerPedidoAsync(siguienteId++);
+        }
+        return CompletableFuture.allOf(futuros).join();
+    }
+}
@@ -0,0 +1,136 @@
+package com.multipedidos.common.benchmarks;
+
+import com.multipedidos.common.utils.CalculadoraDescuentos;
+import com.multipedidos.common.utils.IntegradorMicroservicios;
+import com.multipedidos.common.utils.ValidadorCodigos;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Arranque en frío: lanza una JVM nueva por medición que hace la primera llamada a
+ * {@code calcularTotalFinal}, {@code validarEmail} e {@code IntegradorMicroservicios.obtenerMetricas}
+ * y termina. Compara la JVM sin CDS ({@code -Xshare:off}), con el archivo CDS de la JDK (por
+ * defecto) y con un archivo AppCDS de las clases de la librería, generado antes con una corrida
+ * de entrenamiento ({@code -XX:ArchiveClassesAtExit}). Informa la mediana del tiempo de proceso
+ * y de cada primera llamada, y si alguna corrida arrancó el hilo selector de {@code HttpClient}.
+ *
+ * <p>No usa JMH porque cada medición es un proceso completo:</p>
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.multipedidos.common.benchmarks.ArranqueBenchmark [corridas]
+ * </pre>
+ */
+public final class ArranqueBenchmark {
+
+    private static final int CORRIDAS_POR_DEFECTO = 20;
+
+    private ArranqueBenchmark() {
+        throw new IllegalStateException("No se puede instanciar la clase de utilería");
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int corridas = args.length > 0 ? Integer.parseInt(args[0]) : CORRIDAS_POR_DEFECTO;
+        Path directorio = Files.createTempDirectory("arranque-cds");
+        Path archivo = directorio.resolve("multipedidos.jsa");
+        try {
+            medir(List.of("-XX:ArchiveClassesAtExit=" + archivo));
+            if (!Files.exists(archivo)) {
+                throw new IllegalStateException("La JVM no generó el archivo AppCDS " + archivo);
+            }
+
+            System.out.printf("%-14s %10s %14s %14s %14s %10s%n",
+                    "modo", "proceso ms", "calcular us", "validar us", "metricas us", "hilo HTTP");
+            imprimir("sin CDS", corridas, List.of("-Xshare:off"));
+            imprimir("CDS JDK", corridas, List.of());
+            imprimir("AppCDS", corridas, List.of("-XX:SharedArchiveFile=" + archivo, "-Xshare:on"));
+        } finally {
+            Files.deleteIfExists(archivo);
+            Files.deleteIfExists(directorio);
+        }
+    }
+
+    private static void imprimir(String modo, int corridas, List<String> opciones)
+            throws IOException, InterruptedException {
+        long[] proceso = new long[corridas];
+        long[][] llamadas = new long[3][corridas];
+        boolean hiloHttp = false;
+        for (int i = 0; i < corridas; i++) {
+            long inicio = System.nanoTime();
+            String[] campos = medir(opciones);
+            proceso[i] = System.nanoTime() - inicio;
+            for (int j = 0; j < llamadas.length; j++) {
+                llamadas[j][i] = Long.parseLong(campos[j]);
+            }
+            hiloHttp |= Boolean.parseBoolean(campos[3]);
+        }
+        System.out.printf("%-14s %10.1f %14.1f %14.1f %14.1f %10s%n", modo,
+                mediana(proceso) / 1e6, mediana(llamadas[0]) / 1e3, mediana(llamadas[1]) / 1e3,
+                mediana(llamadas[2]) / 1e3, hiloHttp ? "sí" : "no");
+    }
+
+    private static String[] medir(List<String> opciones) throws IOException, InterruptedException {
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        comando.addAll(opciones);
+        comando.add("-cp");
+        comando.add(System.getProperty("java.class.path"));
+        comando.add(PrimeraLlamada.class.getName());
+
+        Process proceso = new ProcessBuilder(comando)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        String linea;
+        try (BufferedReader salida = new BufferedReader(
+                new InputStreamReader(proceso.getInputStream(), StandardCharsets.UTF_8))) {
+            linea = salida.readLine();
+        }
+        int codigo = proceso.waitFor();
+        if (codigo != 0 || linea == null) {
+            throw new IllegalStateException("La corrida " + comando + " terminó con código " + codigo);
+        }
+        return linea.split(" ");
+    }
+
+    private static long mediana(long[] valores) {
+        long[] ordenados = valores.clone();
+        Arrays.sort(ordenados);
+        return ordenados[ordenados.length / 2];
+    }
+
+    /**
+     * Proceso medido: imprime en una línea los nanosegundos de cada primera llamada y si hay
+     * un hilo de {@code HttpClient} vivo.
+     */
+    public static final class PrimeraLlamada {
+
+        private PrimeraLlamada() {
+            throw new IllegalStateException("No se puede instanciar la clase de utilería");
+        }
+
+        public static void main(String[] args) {
+            long inicio = System.nanoTime();
+            BigDecimal total = CalculadoraDescuentos.calcularTotalFinal(new BigDecimal("1234.56"));
+            long calculo = System.nanoTime();
+            boolean email = ValidadorCodigos.validarEmail("cliente@multipedidos.com");
+            long validacion = System.nanoTime();
+            Object metricas = IntegradorMicroservicios.obtenerMetricas();
+            long fin = System.nanoTime();
+
+            boolean hiloHttp = Thread.getAllStackTraces().keySet().stream()
+                    .anyMatch(hilo -> hilo.getName().startsWith("HttpClient"));
+            if (total.signum() <= 0 || !email || metricas == null) {
+                throw new IllegalStateException("Resultado inesperado");
+            }
+            System.out.println((calculo - inicio) + " " + (validacion - calculo) + " "
+                    + (fin - validacion) + " " + hiloHttp);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.multipedidos.common.benchmarks;
+
+import com.multipedidos.common.dto.ProductoDTO;
+import com.multipedidos.common.utils.CalculadoraDescuentos;
+import com.multipedidos.common.utils.CarritoIncremental;
+import com.multipedidos.common.utils.ProductoLista;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Benchmarks de {@link CalculadoraDescuentos} sobre carritos de 1 a 10.000 productos
+ * y sobre montos en cada tramo de descuento, incluyendo entradas inválidas.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CalculadoraDescuentosBenchmark {
+
+    @State(Scope.Thread)
+    public static class Carrito {
+
+        @Param({"1", "10", "100", "1000", "10000"})
+        int tamanoCarrito;
+
+        List<ProductoDTO> productos;
+        ProductoLista lista;
+        CarritoIncremental incremental;
+        ProductoDTO ultimo;
+        ProductoDTO reemplazo;
+
+        @Setup(Level.Trial)
+        public void preparar() {
+            silenciarRegistro();
+            Random random = new Random(42);
+            productos = new ArrayList<>(tamanoCarrito);
+            for (int i = 0; i < tamanoCarrito; i++) {
+                BigDecimal precio = BigDecimal.valueOf(1 + random.nextInt(50_000), 2);
+                productos.add(new ProductoDTO("Producto " + i, precio));
+            }
+            lista = ProductoLista.desde(productos);
+            incremental = new CarritoIncremental();
+            productos.forEach(incremental::agregar);
+            ultimo = productos.get(tamanoCarrito - 1);
+            reemplazo = new ProductoDTO("Reemplazo", new BigDecimal("123.45"));
+        }
+
+        /** Intercambia el último producto del carrito con {@link #reemplazo}. */
+        void alternar() {
+            ProductoDTO anterior = ultimo;
+            ultimo = reemplazo;
+            reemplazo = anterior;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Monto {
+
+        /** Monto representativo de cada tramo: básico, medio y premium. */
+        @Param({"499.99", "2500.50", "7300.10"})
+        String monto;
+
+        BigDecimal valor;
+        BigDecimal negativo;
+        long centavos;
+
+        @Setup(Level.Trial)
+        public void preparar() {
+            silenciarRegistro();
+            valor = new BigDecimal(monto);
+            negativo = valor.negate();
+            centavos = CalculadoraDescuentos.aCentavos(valor);
+        }
+    }
+
+    /**
+     * Deja deshabilitado el registro FINE por llamada aunque la configuración de logging lo
+     * active, para medir solo el costo de consultar el nivel y de actualizar las métricas.
+     */
+    static void silenciarRegistro() {
+        Logger.getLogger(CalculadoraDescuentos.class.getName()).setLevel(java.util.logging.Level.WARNING);
+    }
+
+    @Benchmark
+    public BigDecimal calcularTotal(Carrito carrito) {
+        return CalculadoraDescuentos.calcularTotal(carrito.productos);
+    }
+
+    @Benchmark
+    public long calcularTotalCentavosLista(Carrito carrito) {
+        return CalculadoraDescuentos.calcularTotalCentavos(carrito.lista);
+    }
+
+    /** Edición de un carrito recalculando toda la lista, como hacía el servicio de carritos. */
+    @Benchmark
+    public BigDecimal editarYRecalcular(Carrito carrito) {
+        carrito.productos.set(carrito.tamanoCarrito - 1, carrito.reemplazo);
+        carrito.alternar();
+        return CalculadoraDescuentos.calcularTotal(carrito.productos);
+    }
+
+    /** La misma edición con {@link CarritoIncremental}: tiempo constante sin importar el tamaño. */
+    @Benchmark
+    public long editarIncremental(Carrito carrito) {
+        carrito.incremental.quitar(carrito.ultimo);
+        carrito.incremental.agregar(carrito.reemplazo);
+        carrito.alternar();
+        return carrito.incremental.getTotalCentavos();
+    }
+
+    @Benchmark
+    public BigDecimal calcularTotalFinal(Monto monto) {
+        return CalculadoraDescuentos.calcularTotalFinal(monto.valor);
+    }
+
+    @Benchmark
+    public BigDecimal aplicarDescuentoPersonalizado(Monto monto) {
+        return CalculadoraDescuentos.aplicarDescuentoPersonalizado(monto.valor, 12.5);
+    }
+
+    @Benchmark
+    public long calcularTotalFinalCentavos(Monto monto) {
+        return CalculadoraDescuentos.calcularTotalFinalCentavos(monto.centavos);
+    }
+
+    @Benchmark
+    public long aplicarDescuentoPersonalizadoCentavos(Monto monto) {
+        return CalculadoraDescuentos.aplicarDescuentoPersonalizadoCentavos(monto.centavos, 12.5);
+    }
+
+    @Benchmark
+    public Object calcularTotalFinalInvalido(Monto monto) {
+        try {
+            return CalculadoraDescuentos.calcularTotalFinal(monto.negativo);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object aplicarDescuentoPersonalizadoInvalido(Monto monto) {
+        try {
+            return CalculadoraDescuentos.aplicarDescuentoPersonalizado(monto.valor, 150.0);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+}
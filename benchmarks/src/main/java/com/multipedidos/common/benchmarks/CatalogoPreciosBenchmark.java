@@ -0,0 +1,134 @@
+package com.multipedidos.common.benchmarks;
+
+import com.multipedidos.common.utils.CatalogoPrecios;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda de precios en {@link CatalogoPrecios} frente a un {@link HashMap} en el heap, y
+ * costo de arranque: mapear el catálogo frente a leer el CSV completo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CatalogoPreciosBenchmark {
+
+    @Param({"1000", "100000"})
+    private int productos;
+
+    private Path directorio;
+    private Path csv;
+    private Path archivo;
+    private CatalogoPrecios catalogo;
+    private Map<Long, BigDecimal> preciosPorId;
+    private Map<String, BigDecimal> preciosPorNombre;
+    private String[] nombres;
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        directorio = Files.createTempDirectory("catalogo-benchmark");
+        csv = directorio.resolve("catalogo.csv");
+        archivo = directorio.resolve("catalogo.bin");
+        StringBuilder contenido = new StringBuilder("id,nombre,precio\n");
+        nombres = new String[productos];
+        for (int i = 0; i < productos; i++) {
+            nombres[i] = "Producto " + i;
+            contenido.append(i).append(',').append(nombres[i]).append(',').append(i % 10_000).append(".99\n");
+        }
+        Files.writeString(csv, contenido, StandardCharsets.UTF_8);
+        CatalogoPrecios.construir(csv, archivo);
+        catalogo = CatalogoPrecios.abrir(archivo);
+        preciosPorId = new HashMap<>();
+        preciosPorNombre = new HashMap<>();
+        cargarCsv(preciosPorId, preciosPorNombre);
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws IOException {
+        Files.deleteIfExists(csv);
+        Files.deleteIfExists(archivo);
+        Files.deleteIfExists(directorio);
+    }
+
+    private int siguiente() {
+        int i = siguiente;
+        siguiente = i + 1 == productos ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public long buscarPorIdCatalogo() {
+        return catalogo.precioCentavos(siguiente());
+    }
+
+    @Benchmark
+    public BigDecimal buscarPorIdHashMap() {
+        return preciosPorId.get((long) siguiente());
+    }
+
+    @Benchmark
+    public long buscarPorNombreCatalogo() {
+        return catalogo.precioCentavos(nombres[siguiente()]);
+    }
+
+    @Benchmark
+    public BigDecimal buscarPorNombreHashMap() {
+        return preciosPorNombre.get(nombres[siguiente()]);
+    }
+
+    /** Arranque con el catálogo mapeado: no lee ni copia los productos. */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public CatalogoPrecios arranqueCatalogo() throws IOException {
+        return CatalogoPrecios.abrir(archivo);
+    }
+
+    /** Arranque cargando el CSV en mapas del heap, como referencia. */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Map<Long, BigDecimal> arranqueHashMap() throws IOException {
+        Map<Long, BigDecimal> porId = new HashMap<>();
+        cargarCsv(porId, new HashMap<>());
+        return porId;
+    }
+
+    private void cargarCsv(Map<Long, BigDecimal> porId, Map<String, BigDecimal> porNombre) throws IOException {
+        try (BufferedReader lector = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            lector.readLine();
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                String[] columnas = linea.split(",");
+                BigDecimal precio = new BigDecimal(columnas[2]);
+                porId.put(Long.parseLong(columnas[0]), precio);
+                porNombre.put(columnas[1], precio);
+            }
+        }
+    }
+}
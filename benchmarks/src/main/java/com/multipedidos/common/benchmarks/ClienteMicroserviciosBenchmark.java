@@ -0,0 +1,97 @@
+package com.multipedidos.common.benchmarks;
+
+import com.multipedidos.common.utils.ClienteMicroservicios;
+import com.multipedidos.common.utils.IntegradorMicroservicios;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rendimiento de consultas de pedidos contra un servidor HTTP local: el camino estático de
+ * {@link IntegradorMicroservicios} frente a un {@link ClienteMicroservicios} construido una vez.
+ * El servidor del JDK solo habla HTTP/1.1, por lo que con {@code version=HTTP_2} se mide también
+ * el costo de la negociación h2c fallida; contra un servicio con h2c la comparación es directa.
+ * El servidor se ejecuta con TCP_NODELAY para que el algoritmo de Nagle no domine la medición.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+@Threads(4)
+@State(Scope.Benchmark)
+public class ClienteMicroserviciosBenchmark {
+
+    private static final byte[] PEDIDO = ("{\"id\":1,\"codigo\":\"PED-1\",\"clienteId\":7,\"estado\":\"PENDIENTE\","
+            + "\"productos\":[{\"nombre\":\"Laptop\",\"precio\":1500.00}],\"total\":1500.00}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"HTTP_1_1", "HTTP_2"})
+    private HttpClient.Version version;
+
+    private HttpServer servidor;
+    private ExecutorService hilosServidor;
+    private String baseUrl;
+    private ClienteMicroservicios cliente;
+    private final AtomicLong secuencia = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        hilosServidor = Executors.newFixedThreadPool(8);
+        servidor.setExecutor(hilosServidor);
+        servidor.createContext("/api/pedidos/", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, PEDIDO.length);
+            try (OutputStream salida = exchange.getResponseBody()) {
+                salida.write(PEDIDO);
+            }
+        });
+        servidor.start();
+        baseUrl = "http://127.0.0.1:" + servidor.getAddress().getPort();
+        cliente = ClienteMicroservicios.builder(baseUrl).version(version).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        servidor.stop(0);
+        hilosServidor.shutdownNow();
+    }
+
+    private long siguienteId() {
+        return 1 + (secuencia.getAndIncrement() & 1023);
+    }
+
+    @Benchmark
+    public Optional<String> integradorEstatico() {
+        return IntegradorMicroservicios.obtenerPedidoJson(baseUrl, siguienteId());
+    }
+
+    @Benchmark
+    public Optional<String> clienteInstancia() {
+        return cliente.obtenerPedidoJson(siguienteId());
+    }
+}
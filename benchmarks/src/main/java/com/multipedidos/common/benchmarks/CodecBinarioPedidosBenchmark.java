@@ -0,0 +1,115 @@
+package com.multipedidos.common.benchmarks;
+
+import com.multipedidos.common.dto.PedidoDTO;
+import com.multipedidos.common.dto.ProductoDTO;
+import com.multipedidos.common.utils.CodecBinarioPedidos;
+import com.multipedidos.common.utils.DecodificadorPedidosJson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara {@link CodecBinarioPedidos} con JSON al codificar y decodificar un pedido de 1 a
+ * 1.000 productos. El JSON se decodifica con {@link DecodificadorPedidosJson}; para codificarlo
+ * se usa un {@link StringBuilder} directo, el camino más barato posible sin dependencias.
+ * El tamaño de cada formato se imprime al preparar el estado.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class CodecBinarioPedidosBenchmark {
+
+    private static final String[] NOMBRES = {
+        "Teclado mecánico", "Monitor 27 pulgadas", "Mouse inalámbrico", "Cable HDMI 2m", "Silla ergonómica",
+        "Lámpara LED", "Audífonos", "Cámara web", "Base para laptop", "Hub USB-C"
+    };
+
+    @Param({"1", "10", "100", "1000"})
+    int productos;
+
+    PedidoDTO pedido;
+    byte[] binario;
+    byte[] json;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random random = new Random(42);
+        List<ProductoDTO> lista = new ArrayList<>(productos);
+        for (int i = 0; i < productos; i++) {
+            lista.add(new ProductoDTO(NOMBRES[random.nextInt(NOMBRES.length)],
+                    BigDecimal.valueOf(100 + random.nextInt(500_000), 2)));
+        }
+        pedido = new PedidoDTO(123_456L, "PED-123456", lista, new BigDecimal("1234.56"));
+        pedido.setClienteId(789L);
+        pedido.setEstado("PENDIENTE");
+
+        ByteBuffer mensaje = CodecBinarioPedidos.codificarPedido(pedido);
+        binario = new byte[mensaje.remaining()];
+        mensaje.get(binario);
+        json = codificarJson(pedido);
+        System.out.printf("%n%d productos: binario %d bytes, JSON %d bytes (%.1fx)%n",
+                productos, binario.length, json.length, (double) json.length / binario.length);
+    }
+
+    @Benchmark
+    public ByteBuffer codificarBinario() {
+        return CodecBinarioPedidos.codificarPedido(pedido);
+    }
+
+    @Benchmark
+    public byte[] codificarJson() {
+        return codificarJson(pedido);
+    }
+
+    @Benchmark
+    public PedidoDTO decodificarBinario() {
+        return CodecBinarioPedidos.decodificarPedido(ByteBuffer.wrap(binario));
+    }
+
+    @Benchmark
+    public PedidoDTO decodificarJson() {
+        return DecodificadorPedidosJson.leerPedido(new ByteArrayInputStream(json));
+    }
+
+    // Los nombres de prueba no requieren escapes
+    private static byte[] codificarJson(PedidoDTO pedido) {
+        StringBuilder sb = new StringBuilder(64 + pedido.getProductos().size() * 48);
+        sb.append("{\"id\":").append(pedido.getId())
+          .append(",\"codigo\":\"").append(pedido.getCodigo())
+          .append("\",\"clienteId\":").append(pedido.getClienteId())
+          .append(",\"estado\":\"").append(pedido.getEstado())
+          .append("\",\"productos\":[");
+        List<ProductoDTO> productos = pedido.getProductos();
+        for (int i = 0; i < productos.size(); i++) {
+            ProductoDTO producto = productos.get(i);
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"nombre\":\"").append(producto.getNombre())
+              .append("\",\"precio\":").append(producto.getPrecio().toPlainString()).append('}');
+        }
+        sb.append("],\"total\":").append(pedido.getTotal().toPlainString()).append('}');
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
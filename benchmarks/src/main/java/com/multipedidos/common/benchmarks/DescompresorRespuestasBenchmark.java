@@ -0,0 +1,137 @@
+package com.multipedidos.common.benchmarks;
+
+import com.multipedidos.common.utils.ClienteMicroservicios;
+import com.multipedidos.common.utils.DescompresorRespuestas;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Consulta de un pedido grande contra un servidor local que responde sin compresión, con gzip o
+ * con deflate según la ruta, y descompresión aislada del mismo cuerpo con el pool de
+ * {@link DescompresorRespuestas} frente a un {@link GZIPInputStream} nuevo por respuesta. Los
+ * tamaños en la red se imprimen al iniciar; en localhost la compresión solo agrega CPU, la
+ * ganancia aparece cuando el ancho de banda entre pods es el límite.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+@State(Scope.Benchmark)
+public class DescompresorRespuestasBenchmark {
+
+    @Param({"identity", "gzip", "deflate"})
+    private String codificacion;
+
+    @Param({"1000"})
+    private int productos;
+
+    private HttpServer servidor;
+    private ExecutorService hilosServidor;
+    private ClienteMicroservicios cliente;
+    private byte[] cuerpoGzip;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        StringBuilder json = new StringBuilder("{\"id\":1,\"codigo\":\"PED-1\",\"clienteId\":7,\"estado\":\"PENDIENTE\",\"productos\":[");
+        for (int i = 0; i < productos; i++) {
+            json.append(i > 0 ? "," : "").append("{\"nombre\":\"Producto ").append(i)
+                .append("\",\"precio\":").append(10 + i % 90).append(".50}");
+        }
+        byte[] plano = json.append("],\"total\":1500.00}").toString().getBytes(StandardCharsets.UTF_8);
+        cuerpoGzip = comprimir(plano, true);
+        Map<String, byte[]> cuerpos = Map.of("identity", plano, "gzip", cuerpoGzip, "deflate", comprimir(plano, false));
+        System.out.printf("%nbytes en la red: identity=%d gzip=%d deflate=%d%n",
+            plano.length, cuerpoGzip.length, cuerpos.get("deflate").length);
+
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        hilosServidor = Executors.newFixedThreadPool(4);
+        servidor.setExecutor(hilosServidor);
+        servidor.createContext("/", exchange -> {
+            String ruta = exchange.getRequestURI().getPath().split("/")[1];
+            responder(exchange, ruta, cuerpos.get(ruta));
+        });
+        servidor.start();
+        cliente = ClienteMicroservicios.builder("http://127.0.0.1:" + servidor.getAddress().getPort() + "/" + codificacion)
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    private static byte[] comprimir(byte[] datos, boolean gzip) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try (DeflaterOutputStream compresor = gzip ? new GZIPOutputStream(salida) : new DeflaterOutputStream(salida)) {
+            compresor.write(datos);
+        }
+        return salida.toByteArray();
+    }
+
+    private static void responder(HttpExchange exchange, String codificacion, byte[] cuerpo) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        if (!codificacion.equals("identity")) {
+            exchange.getResponseHeaders().set("Content-Encoding", codificacion);
+        }
+        exchange.sendResponseHeaders(200, cuerpo.length);
+        try (OutputStream salida = exchange.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        servidor.stop(0);
+        hilosServidor.shutdownNow();
+    }
+
+    @Benchmark
+    public Object obtenerPedidoJson() {
+        return cliente.obtenerPedidoJson(1);
+    }
+
+    @Benchmark
+    public Object obtenerPedido() {
+        return cliente.obtenerPedido(1);
+    }
+
+    @Benchmark
+    public long descomprimirConPool() throws IOException {
+        try (InputStream entrada = DescompresorRespuestas.descomprimir(new ByteArrayInputStream(cuerpoGzip), "gzip")) {
+            return entrada.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    @Benchmark
+    public long descomprimirGzipInputStream() throws IOException {
+        try (InputStream entrada = new GZIPInputStream(new ByteArrayInputStream(cuerpoGzip))) {
+            return entrada.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
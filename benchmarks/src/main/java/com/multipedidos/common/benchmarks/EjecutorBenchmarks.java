@@ -0,0 +1,31 @@
+package com.multipedidos.common.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto de entrada del jar de benchmarks.
+ * Acepta los mismos argumentos que el runner de JMH y agrega siempre el profiler
+ * de GC para reportar la tasa de asignación ({@code gc.alloc.rate.norm}) junto
+ * al throughput y al tiempo promedio.
+ */
+public final class EjecutorBenchmarks {
+
+    private EjecutorBenchmarks() {
+        throw new IllegalStateException("No se puede instanciar la clase de utilería");
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions lineaComandos = new CommandLineOptions(args);
+        Options opciones = new OptionsBuilder()
+                .parent(lineaComandos)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opciones).run();
+    }
+}
@@ -0,0 +1,65 @@
+package com.multipedidos.common.benchmarks;
+
+import com.multipedidos.common.utils.FormateadorCodigos;
+import com.multipedidos.common.utils.TipoCodigo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generación y lectura de códigos: {@code String.format} frente a {@link FormateadorCodigos}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class FormateadorCodigosBenchmark {
+
+    @Param({"42", "123456", "98765432"})
+    private long id;
+
+    private final char[] bufer = new char[FormateadorCodigos.LARGO_MAXIMO];
+    private String codigo;
+
+    @Setup
+    public void preparar() {
+        codigo = FormateadorCodigos.formatear(TipoCodigo.PEDIDO, id);
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format("PED-%06d", id);
+    }
+
+    @Benchmark
+    public String formatear() {
+        return FormateadorCodigos.formatear(TipoCodigo.PEDIDO, id);
+    }
+
+    @Benchmark
+    public int escribirEnBufer() {
+        return FormateadorCodigos.escribir(TipoCodigo.PEDIDO, id, bufer, 0);
+    }
+
+    @Benchmark
+    public long parsearConSubstring() {
+        return Long.parseLong(codigo.substring(4));
+    }
+
+    @Benchmark
+    public long parsearCodigo() {
+        return FormateadorCodigos.parsearCodigo(codigo);
+    }
+}
@@ -0,0 +1,78 @@
+package com.multipedidos.common.benchmarks;
+
+import com.multipedidos.common.dto.ProductoDTO;
+import com.multipedidos.common.utils.CalculadoraDescuentos;
+import com.multipedidos.common.utils.LotePedidos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el recálculo de un lote de pedidos llamando a {@code calcularTotal} por pedido
+ * contra el cálculo columnar de {@link LotePedidos}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Thread)
+public class LotePedidosBenchmark {
+
+    @Param({"1000", "100000"})
+    private int pedidos;
+
+    @Param({"5"})
+    private int lineasPorPedido;
+
+    private List<List<ProductoDTO>> carritos;
+    private LotePedidos lote;
+    private long[] totales;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        CalculadoraDescuentosBenchmark.silenciarRegistro();
+        Random random = new Random(42);
+        carritos = new ArrayList<>(pedidos);
+        lote = new LotePedidos(pedidos, pedidos * lineasPorPedido);
+        for (int p = 0; p < pedidos; p++) {
+            List<ProductoDTO> productos = new ArrayList<>(lineasPorPedido);
+            for (int i = 0; i < lineasPorPedido; i++) {
+                BigDecimal precio = BigDecimal.valueOf(1 + random.nextInt(50_000), 2);
+                productos.add(new ProductoDTO("Producto " + i, precio));
+                lote.agregarLinea(precio);
+            }
+            lote.cerrarPedido();
+            carritos.add(productos);
+        }
+        totales = new long[pedidos];
+    }
+
+    @Benchmark
+    public void calcularTotalPorPedido(Blackhole blackhole) {
+        for (List<ProductoDTO> productos : carritos) {
+            blackhole.consume(CalculadoraDescuentos.calcularTotal(productos));
+        }
+    }
+
+    @Benchmark
+    public long[] calcularTotalesLote() {
+        return lote.calcularTotales(totales);
+    }
+}
@@ -0,0 +1,61 @@
+package com.multipedidos.common.benchmarks;
+
+import com.multipedidos.common.utils.HistogramaLatencias;
+import com.multipedidos.common.utils.IntegradorMicroservicios;
+import com.multipedidos.common.utils.MetricasIntegrador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo por llamada de las métricas de {@link IntegradorMicroservicios}: lo que se agrega a
+ * cada petición HTTP al marcar su inicio y su fin, con y sin la búsqueda del endpoint.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MetricasIntegradorBenchmark {
+
+    private static final String BASE_URL = "http://pedidos:8080";
+    private static final String RUTA = "/api/pedidos/{id}";
+
+    private final MetricasIntegrador metricas = IntegradorMicroservicios.obtenerMetricas();
+    private final MetricasIntegrador.Endpoint endpoint = metricas.endpoint(BASE_URL, RUTA);
+    private final HistogramaLatencias histograma = new HistogramaLatencias();
+    private long latencia = 1_234_567;
+
+    /** Camino de {@link com.multipedidos.common.utils.ClienteMicroservicios}: endpoint ya resuelto. */
+    @Benchmark
+    public void registrarLlamada() {
+        endpoint.finalizar(endpoint.iniciar(), 200);
+    }
+
+    /** Camino de los métodos estáticos: busca el endpoint por URL base y ruta en cada llamada. */
+    @Benchmark
+    public void registrarLlamadaConBusqueda() {
+        MetricasIntegrador.Endpoint actual = metricas.endpoint(BASE_URL, RUTA);
+        actual.finalizar(actual.iniciar(), 200);
+    }
+
+    @Benchmark
+    public void registrarLatencia() {
+        histograma.registrar(latencia++);
+    }
+
+    /** Las dos lecturas de reloj que toda medición de latencia necesita, como referencia. */
+    @Benchmark
+    public long tiempoBase() {
+        return System.nanoTime() - System.nanoTime();
+    }
+}
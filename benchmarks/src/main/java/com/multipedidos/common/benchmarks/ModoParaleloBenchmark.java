@@ -0,0 +1,99 @@
+package com.multipedidos.common.benchmarks;
+
+import com.multipedidos.common.dto.ProductoDTO;
+import com.multipedidos.common.utils.CalculadoraDescuentos;
+import com.multipedidos.common.utils.ModoParalelo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca el punto de cruce entre el cálculo secuencial y el paralelo de {@link ModoParalelo}.
+ * Ejecutar en la máquina objetivo variando el paralelismo, por ejemplo:
+ * {@code java -jar benchmarks.jar ModoParalelo -p paralelismo=4,8,16}.
+ * El umbral de cada despliegue debe fijarse en el menor tamaño donde el paralelo gana.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ModoParaleloBenchmark {
+
+    @Param({"4", "8", "16"})
+    private int paralelismo;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int tamano;
+
+    private ForkJoinPool pool;
+    private ModoParalelo modo;
+    private List<ProductoDTO> productos;
+    private long[] precios;
+    private int[] inicios;
+    private long[] totales;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        CalculadoraDescuentosBenchmark.silenciarRegistro();
+        pool = new ForkJoinPool(paralelismo);
+        // Umbral 0: siempre paralelo, para comparar contra el secuencial en todos los tamaños
+        modo = new ModoParalelo(pool, 0);
+
+        Random random = new Random(42);
+        productos = new ArrayList<>(tamano);
+        precios = new long[tamano * 3];
+        inicios = new int[tamano + 1];
+        for (int i = 0; i < tamano; i++) {
+            productos.add(new ProductoDTO("Producto " + i, BigDecimal.valueOf(1 + random.nextInt(50_000), 2)));
+            inicios[i + 1] = (i + 1) * 3;
+        }
+        for (int i = 0; i < precios.length; i++) {
+            precios[i] = 1 + random.nextInt(50_000);
+        }
+        totales = new long[tamano];
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public BigDecimal subtotalSecuencial() {
+        return CalculadoraDescuentos.calcularTotal(productos);
+    }
+
+    @Benchmark
+    public BigDecimal subtotalParalelo() {
+        return CalculadoraDescuentos.calcularTotal(productos, modo);
+    }
+
+    @Benchmark
+    public int loteSecuencial() {
+        return CalculadoraDescuentos.calcularTotalesCentavos(precios, inicios, totales);
+    }
+
+    @Benchmark
+    public int loteParalelo() {
+        return CalculadoraDescuentos.calcularTotalesCentavos(precios, inicios, totales, modo);
+    }
+}
@@ -0,0 +1,79 @@
+package com.multipedidos.common.benchmarks;
+
+import com.multipedidos.common.utils.CalculadoraDescuentos;
+import com.multipedidos.common.utils.NucleoPrecios;
+import com.multipedidos.common.utils.TablaDescuentos;
+import com.multipedidos.common.vector.NucleoPreciosVectorial;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Total final (tramo, descuento e IVA) de un arreglo de subtotales: {@code calcularTotalFinal}
+ * con {@link BigDecimal} por elemento, el núcleo escalar en centavos y {@link NucleoPreciosVectorial}.
+ * El fork agrega {@code jdk.incubator.vector}; sin él, {@code vectorial} cae al núcleo escalar.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class NucleoPreciosBenchmark {
+
+    @Param({"1024", "1000000"})
+    private int cantidad;
+
+    private final TablaDescuentos tabla = TablaDescuentos.POR_DEFECTO;
+    private final NucleoPrecios vectorial = new NucleoPreciosVectorial();
+    private long[] subtotales;
+    private BigDecimal[] subtotalesDecimales;
+    private long[] totales;
+    private long[] aplicaciones;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        CalculadoraDescuentosBenchmark.silenciarRegistro();
+        SplittableRandom random = new SplittableRandom(42L);
+        subtotales = new long[cantidad];
+        subtotalesDecimales = new BigDecimal[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            // Hasta 10 000.00 para repartir los montos entre los tres tramos
+            subtotales[i] = random.nextLong(1_000_000L);
+            subtotalesDecimales[i] = CalculadoraDescuentos.desdeCentavos(subtotales[i]);
+        }
+        totales = new long[cantidad];
+        aplicaciones = new long[tabla.cantidadTramos()];
+    }
+
+    @Benchmark
+    public void bigDecimal(Blackhole bh) {
+        for (BigDecimal subtotal : subtotalesDecimales) {
+            bh.consume(CalculadoraDescuentos.calcularTotalFinal(subtotal, tabla));
+        }
+    }
+
+    @Benchmark
+    public long escalar() {
+        return NucleoPrecios.escalar().calcular(subtotales, totales, 0, cantidad, tabla, aplicaciones);
+    }
+
+    @Benchmark
+    public long vectorial() {
+        return vectorial.calcular(subtotales, totales, 0, cantidad, tabla, aplicaciones);
+    }
+}
@@ -0,0 +1,53 @@
+package com.multipedidos.common.benchmarks;
+
+import com.multipedidos.common.dto.ProductoCompacto;
+import com.multipedidos.common.dto.ProductoDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de {@link ProductoDTO} y {@link ProductoCompacto} en los usos de mapas y caches de catálogo.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ProductoDTOBenchmark {
+
+    private final ProductoDTO producto = new ProductoDTO("Teclado mecánico", new BigDecimal("89.90"));
+    private final ProductoDTO igual = new ProductoDTO("Teclado mecánico", new BigDecimal("89.90"));
+    private final ProductoCompacto compacto = new ProductoCompacto("Teclado mecánico", 8990);
+    private final ProductoCompacto compactoIgual = new ProductoCompacto(new String("Teclado mecánico"), 8990);
+
+    @Benchmark
+    public int hashCodeProducto() {
+        return producto.hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsProducto() {
+        return producto.equals(igual);
+    }
+
+    @Benchmark
+    public int hashCodeCompacto() {
+        return compacto.hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsCompacto() {
+        return compacto.equals(compactoIgual);
+    }
+}
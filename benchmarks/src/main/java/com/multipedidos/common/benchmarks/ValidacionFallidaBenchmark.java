@@ -0,0 +1,88 @@
+package com.multipedidos.common.benchmarks;
+
+import com.multipedidos.common.exceptions.DatosInvalidosException;
+import com.multipedidos.common.utils.CalculadoraDescuentos;
+import com.multipedidos.common.utils.CodigoError;
+import com.multipedidos.common.utils.ValidadorCodigos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Camino de rechazo de entradas inválidas: {@link IllegalArgumentException} con traza frente a
+ * la excepción sin traza de {@link CodigoError} y al {@link com.multipedidos.common.utils.Resultado}
+ * de las variantes {@code intentar*}. {@code profundidad} agrega marcos de pila antes de la
+ * llamada, como los de un controlador detrás de filtros y proxies, porque el costo de llenar la
+ * traza crece con ella.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidacionFallidaBenchmark {
+
+    @Param({"0", "100"})
+    private int profundidad;
+
+    private long subtotalInvalido = -1;
+    private String tipoInvalido = "CLIENTE";
+
+    @Benchmark
+    public Object totalLanzaIllegalArgument() {
+        return profundo(profundidad, () -> {
+            try {
+                return CalculadoraDescuentos.calcularTotalFinalCentavos(subtotalInvalido);
+            } catch (IllegalArgumentException e) {
+                return e;
+            }
+        });
+    }
+
+    @Benchmark
+    public Object totalLanzaSinTraza() {
+        return profundo(profundidad, () -> {
+            try {
+                return CalculadoraDescuentos.intentarCalcularTotalFinalCentavos(subtotalInvalido).valorOLanzar();
+            } catch (DatosInvalidosException e) {
+                return e;
+            }
+        });
+    }
+
+    @Benchmark
+    public Object totalResultado() {
+        return profundo(profundidad, () -> CalculadoraDescuentos.intentarCalcularTotalFinalCentavos(subtotalInvalido).getError());
+    }
+
+    @Benchmark
+    public Object codigoLanzaIllegalArgument() {
+        return profundo(profundidad, () -> {
+            try {
+                return ValidadorCodigos.generarCodigoUnico(tipoInvalido, 1L);
+            } catch (IllegalArgumentException e) {
+                return e;
+            }
+        });
+    }
+
+    @Benchmark
+    public Object codigoResultado() {
+        return profundo(profundidad, () -> ValidadorCodigos.intentarGenerarCodigoUnico(tipoInvalido, 1L).getError());
+    }
+
+    private static Object profundo(int marcos, Supplier<Object> llamada) {
+        return marcos == 0 ? llamada.get() : profundo(marcos - 1, llamada);
+    }
+}
@@ -0,0 +1,105 @@
+package com.multipedidos.common.benchmarks;
+
+import com.multipedidos.common.utils.GeneradorSecuencias;
+import com.multipedidos.common.utils.ValidadorCodigos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmarks de {@link ValidadorCodigos} con entradas válidas e inválidas. Los métodos
+ * {@code *Regex} miden los patrones originales como línea base de las validaciones sin regex.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ValidadorCodigosBenchmark {
+
+    private static final Pattern PATTERN_EMAIL = Pattern.compile(
+        "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$"
+    );
+    private static final Pattern PATTERN_CODIGO_PEDIDO = Pattern.compile("^PED-[0-9]{6}$");
+
+    @State(Scope.Thread)
+    public static class Email {
+
+        @Param({
+            "usuario@ejemplo.com",
+            "  nombre.apellido+pedidos@correo.empresa.com.ec  ",
+            "email-invalido",
+            "usuario@dominio",
+            "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaa@aaaaaaaaaaaaaaaaaaaaaaaaaaaaaa.a",
+            "a@a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a.a!"
+        })
+        String email;
+    }
+
+    @State(Scope.Thread)
+    public static class Codigo {
+
+        @Param({"PED-123456", " PED-000001 ", "PED-123", "FAC-123456", "PEDIDO-123456"})
+        String codigo;
+    }
+
+    @State(Scope.Thread)
+    public static class Tipo {
+
+        @Param({"PEDIDO", "fac", "CLIENTE"})
+        String tipoEntidad;
+    }
+
+    @Benchmark
+    public boolean validarEmail(Email estado) {
+        return ValidadorCodigos.validarEmail(estado.email);
+    }
+
+    @Benchmark
+    public boolean validarEmailRegex(Email estado) {
+        String email = estado.email;
+        return email != null && !email.trim().isEmpty() && PATTERN_EMAIL.matcher(email.trim()).matches();
+    }
+
+    @Benchmark
+    public boolean validarCodigoPedido(Codigo estado) {
+        return ValidadorCodigos.validarCodigoPedido(estado.codigo);
+    }
+
+    @Benchmark
+    public boolean validarCodigoPedidoRegex(Codigo estado) {
+        String codigo = estado.codigo;
+        return codigo != null && !codigo.trim().isEmpty() && PATTERN_CODIGO_PEDIDO.matcher(codigo.trim()).matches();
+    }
+
+    private static final GeneradorSecuencias GENERADOR = new GeneradorSecuencias(1);
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public Object generarCodigoUnico(Tipo estado) {
+        try {
+            return ValidadorCodigos.generarCodigoUnico(estado.tipoEntidad);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object generarCodigoSecuencial(Tipo estado) {
+        try {
+            return ValidadorCodigos.generarCodigoSecuencial(estado.tipoEntidad, GENERADOR);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.multipedidos.common.benchmarks;
+
+import com.multipedidos.common.utils.ModoParalelo;
+import com.multipedidos.common.utils.ValidadorCodigos;
+import com.multipedidos.common.utils.ValidadorLotes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validación de una importación de emails: un {@code String} y una llamada por fila frente a
+ * {@link ValidadorLotes} sobre el búfer de bytes del archivo, secuencial y en paralelo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ValidadorLotesBenchmark {
+
+    private static final String[] MUESTRAS = {
+        "usuario@ejemplo.com", "nombre.apellido+pedidos@correo.empresa.com.ec", "email-invalido", "usuario@dominio"
+    };
+
+    @Param({"100000", "1000000"})
+    private int filas;
+
+    private byte[] datos;
+    private int[] inicios;
+    private ModoParalelo modo;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random random = new Random(42);
+        StringBuilder contenido = new StringBuilder();
+        inicios = new int[filas + 1];
+        for (int i = 0; i < filas; i++) {
+            contenido.append(MUESTRAS[random.nextInt(MUESTRAS.length)]);
+            inicios[i + 1] = contenido.length();
+        }
+        datos = contenido.toString().getBytes(StandardCharsets.US_ASCII);
+        modo = ModoParalelo.comun();
+    }
+
+    @Benchmark
+    public BitSet filaPorFila() {
+        BitSet validas = new BitSet(filas);
+        for (int i = 0; i < filas; i++) {
+            String email = new String(datos, inicios[i], inicios[i + 1] - inicios[i], StandardCharsets.US_ASCII);
+            validas.set(i, ValidadorCodigos.validarEmail(email));
+        }
+        return validas;
+    }
+
+    @Benchmark
+    public BitSet loteSecuencial() {
+        return ValidadorLotes.validar(ValidadorLotes.Formato.EMAIL, datos, inicios);
+    }
+
+    @Benchmark
+    public BitSet loteParalelo() {
+        return ValidadorLotes.validar(ValidadorLotes.Formato.EMAIL, datos, inicios, modo);
+    }
+}
@@ -0,0 +1,104 @@
+package com.multipedidos.common.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * DTO compartido para representar pedidos intercambiados entre los microservicios.
+ */
+public class PedidoDTO {
+
+    private Long id;
+    private String codigo;
+    private Long clienteId;
+    private String estado;
+    private List<ProductoDTO> productos = new ArrayList<>();
+    private BigDecimal total;
+
+    public PedidoDTO() {
+    }
+
+    public PedidoDTO(Long id, String codigo, List<ProductoDTO> productos, BigDecimal total) {
+        this.id = id;
+        this.codigo = codigo;
+        this.productos = productos;
+        this.total = total;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public void setCodigo(String codigo) {
+        this.codigo = codigo;
+    }
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public void setClienteId(Long clienteId) {
+        this.clienteId = clienteId;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+
+    public List<ProductoDTO> getProductos() {
+        return productos;
+    }
+
+    public void setProductos(List<ProductoDTO> productos) {
+        this.productos = productos;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PedidoDTO that = (PedidoDTO) o;
+        return Objects.equals(id, that.id) && Objects.equals(codigo, that.codigo)
+                && Objects.equals(clienteId, that.clienteId) && Objects.equals(estado, that.estado)
+                && Objects.equals(productos, that.productos) && Objects.equals(total, that.total);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, codigo, clienteId, estado, productos, total);
+    }
+
+    @Override
+    public String toString() {
+        return "PedidoDTO{" +
+                "id=" + id +
+                ", codigo='" + codigo + '\'' +
+                ", clienteId=" + clienteId +
+                ", estado='" + estado + '\'' +
+                ", productos=" + productos +
+                ", total=" + total +
+                '}';
+    }
+}
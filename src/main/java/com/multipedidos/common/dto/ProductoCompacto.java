@@ -0,0 +1,110 @@
+package com.multipedidos.common.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Variante inmutable y compacta de {@link ProductoDTO} para carritos grandes y caches de
+ * catálogo: el precio se guarda como {@code long} en centavos en lugar de un {@link BigDecimal}
+ * y el hash se calcula una sola vez al construir el producto.
+ *
+ * <p>Es thread-safe y puede usarse como clave de mapas.</p>
+ */
+public final class ProductoCompacto {
+
+    private final String nombre;
+    private final long precioCentavos;
+    private final int hash;
+
+    /**
+     * @param nombre Nombre del producto (puede ser nulo, igual que en {@link ProductoDTO})
+     * @param precioCentavos Precio en centavos
+     */
+    public ProductoCompacto(String nombre, long precioCentavos) {
+        this.nombre = nombre;
+        this.precioCentavos = precioCentavos;
+        this.hash = 31 * Objects.hashCode(nombre) + Long.hashCode(precioCentavos);
+    }
+
+    /**
+     * Convierte un {@link ProductoDTO}.
+     *
+     * @param producto Producto a convertir
+     * @return Producto compacto equivalente
+     * @throws IllegalArgumentException si el producto o su precio es nulo, o si el precio tiene más de 2 decimales
+     * @throws ArithmeticException si el precio no cabe en un {@code long} de centavos
+     */
+    public static ProductoCompacto desde(ProductoDTO producto) {
+        if (producto == null) {
+            throw new IllegalArgumentException("El producto no puede ser nulo");
+        }
+        return new ProductoCompacto(producto.getNombre(), centavos(producto.getPrecio()));
+    }
+
+    /**
+     * Convierte un precio con a lo sumo 2 decimales a centavos. Es la única conversión de la
+     * librería: {@code CalculadoraDescuentos.aCentavos} delega aquí.
+     *
+     * @param precio Precio a convertir
+     * @return Precio en centavos
+     * @throws IllegalArgumentException si el precio es nulo o tiene más de 2 decimales
+     * @throws ArithmeticException si el precio no cabe en un {@code long} de centavos
+     */
+    public static long centavos(BigDecimal precio) {
+        if (precio == null) {
+            throw new IllegalArgumentException("El precio no puede ser nulo");
+        }
+        try {
+            return precio.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            if (precio.stripTrailingZeros().scale() > 2) {
+                throw new IllegalArgumentException("El precio no puede tener más de 2 decimales: " + precio);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return {@link ProductoDTO} mutable con el precio en escala 2
+     */
+    public ProductoDTO aProductoDTO() {
+        return new ProductoDTO(nombre, getPrecio());
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public long getPrecioCentavos() {
+        return precioCentavos;
+    }
+
+    /**
+     * @return Precio con escala 2; se crea en cada llamada
+     */
+    public BigDecimal getPrecio() {
+        return BigDecimal.valueOf(precioCentavos, 2);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ProductoCompacto)) return false;
+        ProductoCompacto that = (ProductoCompacto) o;
+        return hash == that.hash && precioCentavos == that.precioCentavos && Objects.equals(nombre, that.nombre);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductoCompacto{" +
+                "nombre='" + nombre + '\'' +
+                ", precio=" + getPrecio() +
+                '}';
+    }
+}
@@ -45,7 +45,8 @@ public class ProductoDTO {
 
     @Override
     public int hashCode() {
-        return Objects.hash(nombre, precio);
+        // Mismo valor que Objects.hash(nombre, precio), sin el arreglo varargs
+        return 31 * (31 + Objects.hashCode(nombre)) + Objects.hashCode(precio);
     }
 
     @Override
@@ -2,11 +2,30 @@ package com.multipedidos.common.exceptions;
 
 /**
  * Excepción personalizada para datos inválidos (400).
+ *
+ * <p>Las instancias de {@link #sinTraza(String)} no capturan la pila ni admiten excepciones
+ * suprimidas, por lo que pueden crearse una vez y lanzarse muchas veces en los rechazos de
+ * alto volumen, donde llenar la traza domina el costo. Tampoco se pueden modificar: la causa
+ * se fija en {@code null} al construirlas, así que {@code initCause} lanza
+ * {@link IllegalStateException}, y {@code setStackTrace} y {@code addSuppressed} no tienen efecto.</p>
  */
 public class DatosInvalidosException extends RuntimeException {
     
     public DatosInvalidosException(String mensaje) {
         super(mensaje);
     }
-}
 
+    protected DatosInvalidosException(String mensaje, Throwable causa, boolean suprimibles, boolean conTraza) {
+        super(mensaje, causa, suprimibles, conTraza);
+    }
+
+    /**
+     * Crea una excepción sin traza de pila, inmutable y reutilizable.
+     *
+     * @param mensaje Mensaje del error
+     * @return Excepción que puede guardarse en una constante y lanzarse desde varios hilos
+     */
+    public static DatosInvalidosException sinTraza(String mensaje) {
+        return new DatosInvalidosException(mensaje, null, false, false);
+    }
+}
@@ -6,11 +6,49 @@ package com.multipedidos.common.exceptions;
  */
 public class IntegracionMicroserviciosException extends RuntimeException {
 
+    /** Valor de {@link #getCodigoEstado()} cuando el error no proviene de una respuesta HTTP. */
+    public static final int SIN_CODIGO_ESTADO = -1;
+
+    private final int codigoEstado;
+
     public IntegracionMicroserviciosException(String message) {
         super(message);
+        this.codigoEstado = SIN_CODIGO_ESTADO;
     }
 
     public IntegracionMicroserviciosException(String message, Throwable cause) {
         super(message, cause);
+        this.codigoEstado = SIN_CODIGO_ESTADO;
+    }
+
+    public IntegracionMicroserviciosException(String message, int codigoEstado) {
+        super(message);
+        this.codigoEstado = codigoEstado;
+    }
+
+    protected IntegracionMicroserviciosException(String message, Throwable cause, int codigoEstado,
+                                                 boolean suprimibles, boolean conTraza) {
+        super(message, cause, suprimibles, conTraza);
+        this.codigoEstado = codigoEstado;
+    }
+
+    /**
+     * Crea una excepción sin traza de pila ni excepciones suprimidas, inmutable y reutilizable,
+     * para rechazos de alto volumen que la aplicación elige preasignar (por ejemplo, los de
+     * {@code IntegradorResiliente}); ver {@link DatosInvalidosException#sinTraza(String)}.
+     *
+     * @param message Mensaje del error
+     * @param codigoEstado Código HTTP de la respuesta, o {@link #SIN_CODIGO_ESTADO}
+     * @return Excepción sin traza
+     */
+    public static IntegracionMicroserviciosException sinTraza(String message, int codigoEstado) {
+        return new IntegracionMicroserviciosException(message, null, codigoEstado, false, false);
+    }
+
+    /**
+     * @return Código HTTP de la respuesta inesperada, o {@link #SIN_CODIGO_ESTADO}
+     */
+    public int getCodigoEstado() {
+        return codigoEstado;
     }
 }
@@ -12,5 +12,19 @@ public class RecursoNoEncontradoException extends RuntimeException {
     public RecursoNoEncontradoException(String recurso, Long id) {
         super(String.format("%s con ID %d no encontrado", recurso, id));
     }
-}
 
+    protected RecursoNoEncontradoException(String mensaje, Throwable causa, boolean suprimibles, boolean conTraza) {
+        super(mensaje, causa, suprimibles, conTraza);
+    }
+
+    /**
+     * Crea una excepción sin traza de pila, inmutable y reutilizable; ver
+     * {@link DatosInvalidosException#sinTraza(String)}.
+     *
+     * @param mensaje Mensaje del error
+     * @return Excepción que puede guardarse en una constante y lanzarse desde varios hilos
+     */
+    public static RecursoNoEncontradoException sinTraza(String mensaje) {
+        return new RecursoNoEncontradoException(mensaje, null, false, false);
+    }
+}
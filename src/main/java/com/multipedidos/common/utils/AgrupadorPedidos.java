@@ -0,0 +1,333 @@
+package com.multipedidos.common.utils;
+
+import com.multipedidos.common.dto.PedidoDTO;
+import com.multipedidos.common.exceptions.IntegracionMicroserviciosException;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Agrupa las consultas individuales de pedidos que llegan casi al mismo tiempo en una sola
+ * petición al endpoint de lotes del microservicio, para reducir la cantidad de peticiones y
+ * la latencia de cola en los picos de facturación. Es opcional: se construye sobre un
+ * {@link ClienteMicroservicios} y no cambia el comportamiento de los demás métodos.
+ *
+ * <p>Cada consulta se suma al lote pendiente, que se envía cuando vence la ventana (contada
+ * desde la primera consulta del lote) o cuando alcanza el tamaño máximo, lo que ocurra primero.
+ * El lote se envía como {@code POST} con un arreglo JSON de IDs (por ejemplo {@code [3,15,8]})
+ * y la respuesta es el arreglo de los pedidos encontrados, en JSON o en el formato de
+ * {@link CodecBinarioPedidos}; los IDs ausentes de la respuesta se resuelven como
+ * {@link Optional#empty()}, igual que un 404 individual. Las consultas repetidas de un mismo
+ * ID dentro de un lote comparten el resultado.</p>
+ *
+ * <p>Una respuesta del lote distinta de 2xx, incluido un 404 del endpoint de lotes, o un error
+ * de red hace fallar todas sus consultas con {@link IntegracionMicroserviciosException}. Es
+ * thread-safe; el candado solo protege el armado del lote y nunca se toma durante la petición.</p>
+ */
+public final class AgrupadorPedidos implements AutoCloseable {
+
+    private final HttpClient httpClient;
+    private final URI uriLote;
+    private final Duration timeoutPeticion;
+    private final Duration ventana;
+    private final int maxLote;
+    private final Executor temporizador;
+    private final MetricasIntegrador.Endpoint metricas;
+
+    private final Object candado = new Object();
+    private Lote pendiente;
+    private boolean cerrado;
+
+    private final LongAdder consultas = new LongAdder();
+    private final LongAdder lotes = new LongAdder();
+    private final LongAdder repetidas = new LongAdder();
+
+    private AgrupadorPedidos(Builder builder) {
+        ClienteMicroservicios cliente = builder.cliente;
+        this.httpClient = cliente.getHttpClient();
+        this.uriLote = URI.create(cliente.getBaseUri() + builder.rutaLote);
+        this.timeoutPeticion = cliente.getTimeoutPeticion();
+        this.ventana = builder.ventana;
+        this.maxLote = builder.maxLote;
+        this.temporizador = CompletableFuture.delayedExecutor(ventana.toNanos(), TimeUnit.NANOSECONDS);
+        this.metricas = IntegradorMicroservicios.obtenerMetricas()
+                .endpoint(cliente.getBaseUri().toString(), builder.rutaLote);
+    }
+
+    /**
+     * Valores por defecto: ventana de 2 ms, lotes de hasta 64 pedidos y ruta {@code /api/pedidos/lote}.
+     *
+     * @param cliente Cliente del microservicio de pedidos; se usan su {@link HttpClient}, su URL base y su timeout de petición
+     * @return Constructor del agrupador
+     */
+    public static Builder builder(ClienteMicroservicios cliente) {
+        return new Builder(cliente);
+    }
+
+    /**
+     * Suma la consulta al lote pendiente sin bloquear.
+     *
+     * @param pedidoId identificador del pedido a consultar
+     * @return Futuro con el pedido o {@link Optional#empty()} si no existe; se completa con
+     *         {@link IntegracionMicroserviciosException} si el lote falla
+     * @throws IllegalArgumentException si el ID no es mayor a cero
+     * @throws IllegalStateException si el agrupador está cerrado
+     */
+    public CompletableFuture<Optional<PedidoDTO>> obtenerPedidoAsync(long pedidoId) {
+        if (pedidoId <= 0) {
+            throw new IllegalArgumentException("El ID del pedido debe ser mayor a cero");
+        }
+
+        CompletableFuture<Optional<PedidoDTO>> futuro;
+        Lote nuevo = null;
+        Lote completo = null;
+        synchronized (candado) {
+            if (cerrado) {
+                throw new IllegalStateException("El agrupador de pedidos está cerrado");
+            }
+            if (pendiente == null) {
+                pendiente = new Lote();
+                nuevo = pendiente;
+            }
+            futuro = pendiente.futuros.get(pedidoId);
+            if (futuro == null) {
+                futuro = new CompletableFuture<>();
+                pendiente.futuros.put(pedidoId, futuro);
+            } else {
+                repetidas.increment();
+            }
+            if (pendiente.futuros.size() >= maxLote) {
+                completo = pendiente;
+                pendiente = null;
+            }
+        }
+        consultas.increment();
+
+        if (completo != null) {
+            enviar(completo);
+        } else if (nuevo != null) {
+            Lote programado = nuevo;
+            temporizador.execute(() -> vencer(programado));
+        }
+        // Cada llamador recibe su propia copia para que completarla no afecte a los demás
+        return futuro.copy();
+    }
+
+    /**
+     * Versión síncrona de {@link #obtenerPedidoAsync(long)}: espera a que se envíe y responda el lote.
+     *
+     * @param pedidoId identificador del pedido a consultar
+     * @return Pedido o {@link Optional#empty()} si no existe
+     * @throws IntegracionMicroserviciosException si el lote falla
+     */
+    public Optional<PedidoDTO> obtenerPedido(long pedidoId) {
+        try {
+            return obtenerPedidoAsync(pedidoId).join();
+        } catch (CompletionException e) {
+            throw IntegradorMicroservicios.errorAsincrono(e);
+        }
+    }
+
+    /**
+     * Envía el lote pendiente sin esperar la ventana y rechaza las consultas siguientes.
+     * No espera las respuestas de los lotes en vuelo.
+     */
+    @Override
+    public void close() {
+        Lote lote;
+        synchronized (candado) {
+            cerrado = true;
+            lote = pendiente;
+            pendiente = null;
+        }
+        if (lote != null) {
+            enviar(lote);
+        }
+    }
+
+    /**
+     * @return Contadores acumulados desde la creación del agrupador
+     */
+    public Estadisticas estadisticas() {
+        return new Estadisticas(consultas.sum(), lotes.sum(), repetidas.sum());
+    }
+
+    private void vencer(Lote lote) {
+        synchronized (candado) {
+            if (pendiente != lote) {
+                // Ya se envió por tamaño o al cerrar
+                return;
+            }
+            pendiente = null;
+        }
+        enviar(lote);
+    }
+
+    private void enviar(Lote lote) {
+        lotes.increment();
+        StringBuilder cuerpo = new StringBuilder(lote.futuros.size() * 8).append('[');
+        for (Long id : lote.futuros.keySet()) {
+            if (cuerpo.length() > 1) {
+                cuerpo.append(',');
+            }
+            cuerpo.append(id);
+        }
+        HttpRequest request = HttpRequest.newBuilder(uriLote)
+                .timeout(timeoutPeticion)
+                .header("Content-Type", "application/json")
+                .header("Accept", IntegradorMicroservicios.ACEPTA_BINARIO)
+                .header("Accept-Encoding", DescompresorRespuestas.ACEPTA_CODIFICACION)
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo.append(']').toString()))
+                .build();
+
+        try {
+            IntegradorMicroservicios.enviarAsync(httpClient, request, DescompresorRespuestas.ofByteArray(), metricas)
+                    .whenComplete((response, error) -> {
+                        if (error != null) {
+                            lote.fallar(IntegradorMicroservicios.errorAsincrono(error));
+                        } else {
+                            completar(lote, response);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            lote.fallar(IntegradorMicroservicios.errorAsincrono(e));
+        }
+    }
+
+    private void completar(Lote lote, HttpResponse<byte[]> response) {
+        int estado = response.statusCode();
+        if (estado < 200 || estado >= 300) {
+            lote.fallar(new IntegracionMicroserviciosException(
+                    String.format("Respuesta inesperada %d al consultar %s", estado, uriLote), estado));
+            return;
+        }
+        try {
+            if (IntegradorMicroservicios.esBinario(response)) {
+                CodecBinarioPedidos.decodificarPedidos(ByteBuffer.wrap(response.body()), lote::resolver);
+            } else {
+                DecodificadorPedidosJson.leerPedidos(new ByteArrayInputStream(response.body()), lote::resolver);
+            }
+        } catch (RuntimeException e) {
+            lote.fallar(IntegradorMicroservicios.errorAsincrono(e));
+            return;
+        }
+        for (CompletableFuture<Optional<PedidoDTO>> futuro : lote.futuros.values()) {
+            futuro.complete(Optional.empty());
+        }
+    }
+
+    public Duration getVentana() {
+        return ventana;
+    }
+
+    public int getMaxLote() {
+        return maxLote;
+    }
+
+    public URI getUriLote() {
+        return uriLote;
+    }
+
+    @Override
+    public String toString() {
+        return "AgrupadorPedidos{" +
+                "uriLote=" + uriLote +
+                ", ventana=" + ventana +
+                ", maxLote=" + maxLote +
+                '}';
+    }
+
+    /**
+     * Contadores del agrupador.
+     *
+     * @param consultas consultas individuales recibidas
+     * @param lotes peticiones enviadas al endpoint de lotes
+     * @param repetidas consultas que compartieron el resultado de otra del mismo ID en su lote
+     */
+    public record Estadisticas(long consultas, long lotes, long repetidas) {
+    }
+
+    /**
+     * Consultas de un lote por ID, en orden de llegada. Solo se modifica bajo el candado del
+     * agrupador mientras es el lote pendiente; después de enviarse solo se lee.
+     */
+    private static final class Lote {
+
+        private final Map<Long, CompletableFuture<Optional<PedidoDTO>>> futuros = new LinkedHashMap<>();
+
+        void resolver(PedidoDTO pedido) {
+            if (pedido == null || pedido.getId() == null) {
+                return;
+            }
+            CompletableFuture<Optional<PedidoDTO>> futuro = futuros.get(pedido.getId());
+            if (futuro != null) {
+                futuro.complete(Optional.of(pedido));
+            }
+        }
+
+        void fallar(RuntimeException error) {
+            for (CompletableFuture<Optional<PedidoDTO>> futuro : futuros.values()) {
+                futuro.completeExceptionally(error);
+            }
+        }
+    }
+
+    public static final class Builder {
+
+        private final ClienteMicroservicios cliente;
+        private Duration ventana = Duration.ofMillis(2);
+        private int maxLote = 64;
+        private String rutaLote = "/api/pedidos/lote";
+
+        private Builder(ClienteMicroservicios cliente) {
+            this.cliente = Objects.requireNonNull(cliente, "El cliente no puede ser nulo");
+        }
+
+        /** Tiempo máximo que espera la primera consulta de un lote antes de enviarlo. */
+        public Builder ventana(Duration ventana) {
+            Objects.requireNonNull(ventana, "La ventana no puede ser nula");
+            if (ventana.isNegative()) {
+                throw new IllegalArgumentException("La ventana no puede ser negativa");
+            }
+            this.ventana = ventana;
+            return this;
+        }
+
+        /** Cantidad de IDs distintos con la que el lote se envía sin esperar la ventana. */
+        public Builder maxLote(int maxLote) {
+            if (maxLote < 1) {
+                throw new IllegalArgumentException("El tamaño máximo del lote debe ser mayor a cero");
+            }
+            this.maxLote = maxLote;
+            return this;
+        }
+
+        /** Ruta del endpoint de lotes, relativa a la URL base del cliente. */
+        public Builder rutaLote(String rutaLote) {
+            Objects.requireNonNull(rutaLote, "La ruta del lote no puede ser nula");
+            if (!rutaLote.startsWith("/")) {
+                throw new IllegalArgumentException("La ruta del lote debe comenzar con /: " + rutaLote);
+            }
+            this.rutaLote = rutaLote;
+            return this;
+        }
+
+        public AgrupadorPedidos build() {
+            return new AgrupadorPedidos(this);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.multipedidos.common.utils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache en memoria opcional para las consultas de pedidos de {@link IntegradorMicroservicios}.
+ * - Acotada por cantidad de entradas, con expulsión LRU aproximada (algoritmo CLOCK)
+ * - Con tiempo de vida para pedidos encontrados y otro, normalmente menor, para los 404
+ * - Con coalescencia: si varios hilos piden el mismo ID ausente, solo uno hace la petición
+ *   y los demás esperan su resultado
+ *
+ * <p>Es thread-safe. Los aciertos no toman candados: leen un {@link ConcurrentHashMap} y solo
+ * marcan la entrada como referenciada si aún no lo estaba. Cada entrada ocupa una posición de
+ * un anillo de {@code maxEntradas} posiciones; al guardar, una manecilla lo recorre bajo un
+ * candado corto, da una segunda oportunidad a las entradas referenciadas y reutiliza la primera
+ * posición libre, vencida o no referenciada, con costo amortizado constante. Los errores del
+ * cargador, incluidos los {@link Error}, no se guardan: se propagan a todos los hilos que
+ * esperaban esa consulta y la siguiente llamada vuelve a intentarlo.</p>
+ */
+public final class CachePedidos {
+
+    private final int maxEntradas;
+    private final long ttlNanos;
+    private final long ttlNegativoNanos;
+    private final Function<Long, Optional<String>> cargador;
+    private final LongSupplier reloj;
+
+    private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<Optional<String>>> enCurso = new ConcurrentHashMap<>();
+    /** Posiciones del algoritmo CLOCK; el anillo y la manecilla se protegen con {@link #candadoExpulsion}. */
+    private final Entrada[] anillo;
+    private int manecilla;
+    private final Object candadoExpulsion = new Object();
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder coalescidas = new LongAdder();
+    private final LongAdder expulsiones = new LongAdder();
+
+    /**
+     * Crea una cache sobre el microservicio de pedidos indicado.
+     *
+     * @param baseUrl URL base del microservicio (por ejemplo, http://localhost:8080)
+     * @param maxEntradas Cantidad máxima de pedidos en memoria
+     * @param ttl Tiempo de vida de los pedidos encontrados
+     * @param ttlNegativo Tiempo de vida de los pedidos inexistentes (404)
+     */
+    public CachePedidos(String baseUrl, int maxEntradas, Duration ttl, Duration ttlNegativo) {
+        this(maxEntradas, ttl, ttlNegativo,
+                pedidoId -> IntegradorMicroservicios.obtenerPedidoJson(baseUrl, pedidoId), System::nanoTime);
+        Objects.requireNonNull(baseUrl, "La URL base no puede ser nula");
+    }
+
+    CachePedidos(int maxEntradas, Duration ttl, Duration ttlNegativo,
+                 Function<Long, Optional<String>> cargador, LongSupplier reloj) {
+        if (maxEntradas < 1) {
+            throw new IllegalArgumentException("La cache debe admitir al menos una entrada");
+        }
+        if (ttl == null || ttl.isNegative() || ttlNegativo == null || ttlNegativo.isNegative()) {
+            throw new IllegalArgumentException("Los tiempos de vida no pueden ser nulos o negativos");
+        }
+        this.maxEntradas = maxEntradas;
+        this.ttlNanos = ttl.toNanos();
+        this.ttlNegativoNanos = ttlNegativo.toNanos();
+        this.cargador = cargador;
+        this.reloj = reloj;
+        this.anillo = new Entrada[maxEntradas];
+    }
+
+    /**
+     * Devuelve el pedido desde la cache o lo consulta al microservicio si no está o expiró.
+     *
+     * @param pedidoId identificador del pedido
+     * @return JSON crudo del pedido; {@link Optional#empty()} si no existe
+     * @throws com.multipedidos.common.exceptions.IntegracionMicroserviciosException si la consulta falla
+     */
+    public Optional<String> obtenerPedidoJson(Long pedidoId) {
+        Objects.requireNonNull(pedidoId, "El ID del pedido no puede ser nulo");
+
+        Entrada entrada = buscarVigente(pedidoId);
+        if (entrada != null) {
+            aciertos.increment();
+            return entrada.valor;
+        }
+
+        CompletableFuture<Optional<String>> propia = new CompletableFuture<>();
+        CompletableFuture<Optional<String>> existente = enCurso.putIfAbsent(pedidoId, propia);
+        if (existente != null) {
+            coalescidas.increment();
+            return esperar(existente);
+        }
+        // Otra consulta pudo guardar el pedido y liberar su turno entre la búsqueda y putIfAbsent
+        entrada = buscarVigente(pedidoId);
+        if (entrada != null) {
+            enCurso.remove(pedidoId, propia);
+            propia.complete(entrada.valor);
+            aciertos.increment();
+            return entrada.valor;
+        }
+
+        fallos.increment();
+        try {
+            Optional<String> valor = cargador.apply(pedidoId);
+            long ttl = valor.isPresent() ? ttlNanos : ttlNegativoNanos;
+            Entrada nueva = new Entrada(pedidoId, valor, reloj.getAsLong() + ttl);
+            // Se guarda antes de liberar el turno, para que nadie vea el ID sin entrada ni consulta.
+            // Si se invalidó mientras se consultaba, el turno ya no es el propio: se entrega sin guardar
+            enCurso.computeIfPresent(pedidoId, (id, actual) -> {
+                if (actual != propia) {
+                    return actual;
+                }
+                guardar(nueva);
+                return null;
+            });
+            propia.complete(valor);
+            return valor;
+        } catch (Throwable e) {
+            // También los Error: un turno sin completar dejaría esperando para siempre a este ID
+            enCurso.remove(pedidoId, propia);
+            propia.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Descarta un pedido de la cache, incluida una consulta en curso para ese ID.
+     *
+     * @param pedidoId identificador del pedido
+     */
+    public void invalidar(Long pedidoId) {
+        enCurso.remove(pedidoId);
+        entradas.remove(pedidoId);
+    }
+
+    /**
+     * Descarta todos los pedidos de la cache.
+     */
+    public void invalidarTodo() {
+        enCurso.clear();
+        entradas.clear();
+    }
+
+    /**
+     * @return Contadores acumulados desde la creación de la cache
+     */
+    public Estadisticas estadisticas() {
+        return new Estadisticas(aciertos.sum(), fallos.sum(), coalescidas.sum(), expulsiones.sum(), entradas.size());
+    }
+
+    private Entrada buscarVigente(Long pedidoId) {
+        Entrada entrada = entradas.get(pedidoId);
+        if (entrada == null) {
+            return null;
+        }
+        if (reloj.getAsLong() - entrada.expiraEn >= 0) {
+            entradas.remove(pedidoId, entrada);
+            return null;
+        }
+        // Los aciertos repetidos sobre una entrada ya referenciada no escriben nada compartido
+        if (!entrada.referenciada) {
+            entrada.referenciada = true;
+        }
+        return entrada;
+    }
+
+    /**
+     * Ubica la entrada en el anillo y la publica. Una posición está libre si su entrada ya no es
+     * la vigente de su ID (invalidada, vencida o reemplazada); las referenciadas pierden la marca
+     * y se saltan, y las demás se expulsan solo si la cache está llena.
+     */
+    private void guardar(Entrada nueva) {
+        synchronized (candadoExpulsion) {
+            while (true) {
+                int posicion = manecilla;
+                manecilla = posicion + 1 == anillo.length ? 0 : posicion + 1;
+                Entrada ocupante = anillo[posicion];
+                if (ocupante == null || entradas.get(ocupante.clave) != ocupante) {
+                    ocupar(posicion, nueva);
+                    return;
+                }
+                if (reloj.getAsLong() - ocupante.expiraEn >= 0) {
+                    entradas.remove(ocupante.clave, ocupante);
+                    ocupar(posicion, nueva);
+                    return;
+                }
+                if (ocupante.referenciada) {
+                    ocupante.referenciada = false;
+                } else if (entradas.size() >= anillo.length) {
+                    if (entradas.remove(ocupante.clave, ocupante)) {
+                        expulsiones.increment();
+                    }
+                    ocupar(posicion, nueva);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void ocupar(int posicion, Entrada nueva) {
+        anillo[posicion] = nueva;
+        entradas.put(nueva.clave, nueva);
+    }
+
+    private static Optional<String> esperar(CompletableFuture<Optional<String>> consulta) {
+        try {
+            return consulta.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Contadores de la cache.
+     *
+     * @param aciertos consultas resueltas desde memoria
+     * @param fallos consultas que fueron al microservicio
+     * @param coalescidas consultas que esperaron una petición ya en curso para el mismo ID
+     * @param expulsiones entradas descartadas por exceder el tamaño máximo
+     * @param tamano entradas actualmente en memoria
+     */
+    public record Estadisticas(long aciertos, long fallos, long coalescidas, long expulsiones, int tamano) {
+    }
+
+    private static final class Entrada {
+
+        private final Long clave;
+        private final Optional<String> valor;
+        private final long expiraEn;
+        private volatile boolean referenciada;
+
+        Entrada(Long clave, Optional<String> valor, long expiraEn) {
+            this.clave = clave;
+            this.valor = valor;
+            this.expiraEn = expiraEn;
+        }
+    }
+}
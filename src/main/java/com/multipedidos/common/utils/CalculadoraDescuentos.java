@@ -1,27 +1,64 @@
 package com.multipedidos.common.utils;
 
+import com.multipedidos.common.dto.ProductoCompacto;
 import com.multipedidos.common.dto.ProductoDTO;
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.math.RoundingMode;
 import java.util.List;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Clase de utilidad para cálculos relacionados con descuentos, IVA y totales.
  * Implementa la lógica de negocio común para ambos microservicios.
+ *
+ * <p>Los métodos {@code intentar*} validan igual que sus equivalentes pero devuelven un
+ * {@link Resultado} con un {@link CodigoError} en lugar de lanzar {@link IllegalArgumentException}.</p>
  */
 public class CalculadoraDescuentos {
 
     private static final Logger log = Logger.getLogger(CalculadoraDescuentos.class.getName());
 
-    private static final BigDecimal IVA = new BigDecimal("0.15"); // 15% IVA
-    private static final BigDecimal DESCUENTO_BASICO = new BigDecimal("0.05"); // 5%
-    private static final BigDecimal DESCUENTO_MEDIO = new BigDecimal("0.10"); // 10%
-    private static final BigDecimal DESCUENTO_PREMIUM = new BigDecimal("0.15"); // 15%
-    
-    private static final BigDecimal UMBRAL_MEDIO = new BigDecimal("1000");
-    private static final BigDecimal UMBRAL_PREMIUM = new BigDecimal("5000");
+    private static final long ESCALA_PORCENTAJE = 10_000; // porcentaje con 4 decimales
+
+    // Tabla de tramos e IVA vigente; se lee sin bloqueos en cada cálculo
+    private static final AtomicReference<TablaDescuentos> TABLA_ACTIVA =
+            new AtomicReference<>(TablaDescuentos.POR_DEFECTO);
+
+    private static final MetricasCalculadora METRICAS = new MetricasCalculadora();
+
+    /**
+     * Reemplaza en caliente la tabla de descuentos e IVA usada por los métodos que no reciben
+     * una tabla explícita. Los cálculos en curso terminan con la tabla que ya leyeron.
+     *
+     * @param tabla Tabla compilada con {@link TablaDescuentos#compilar}
+     * @return Tabla que estaba activa
+     */
+    public static TablaDescuentos configurarTablaDescuentos(TablaDescuentos tabla) {
+        return TABLA_ACTIVA.getAndSet(Objects.requireNonNull(tabla, "La tabla de descuentos no puede ser nula"));
+    }
+
+    /**
+     * @return Tabla de descuentos e IVA activa
+     */
+    public static TablaDescuentos obtenerTablaDescuentos() {
+        return TABLA_ACTIVA.get();
+    }
+
+    /**
+     * @return Contadores acumulados de los cálculos, para exponerlos en lugar de registrar cada uno
+     */
+    public static MetricasCalculadora obtenerMetricas() {
+        return METRICAS;
+    }
 
     /**
      * Calcula el total de un pedido aplicando IVA.
@@ -30,18 +67,27 @@ public class CalculadoraDescuentos {
      * @return Total con IVA incluido
      */
     public static BigDecimal calcularTotalConIVA(BigDecimal subtotal) {
+        return calcularTotalConIVA(subtotal, TABLA_ACTIVA.get());
+    }
+
+    /**
+     * Calcula el total de un pedido aplicando el IVA de una tabla específica.
+     *
+     * @param subtotal Subtotal antes de impuestos
+     * @param tabla Tabla de descuentos e IVA del tenant o campaña
+     * @return Total con IVA incluido
+     */
+    public static BigDecimal calcularTotalConIVA(BigDecimal subtotal, TablaDescuentos tabla) {
         if (subtotal == null || subtotal.compareTo(BigDecimal.ZERO) < 0) {
             throw new IllegalArgumentException("El subtotal no puede ser nulo o negativo");
         }
         
-        BigDecimal iva = subtotal.multiply(IVA);
-        BigDecimal total = subtotal.add(iva);
-        
-        return total.setScale(2, RoundingMode.HALF_UP);
+        return tabla.aplicarIva(subtotal);
     }
 
     /**
-     * Aplica un descuento automático basado en el monto del pedido.
+     * Aplica un descuento automático basado en el monto del pedido, según la tabla activa.
+     * Con la tabla por defecto:
      * - Menos de 1000: 5% de descuento
      * - Entre 1000 y 5000: 10% de descuento
      * - Más de 5000: 15% de descuento
@@ -50,27 +96,28 @@ public class CalculadoraDescuentos {
      * @return Monto con descuento aplicado
      */
     public static BigDecimal aplicarDescuentoPorMonto(BigDecimal monto) {
+        return aplicarDescuentoPorMonto(monto, TABLA_ACTIVA.get());
+    }
+
+    /**
+     * Aplica el descuento del tramo que corresponde al monto en una tabla específica.
+     *
+     * @param monto Monto original
+     * @param tabla Tabla de descuentos e IVA del tenant o campaña
+     * @return Monto con descuento aplicado
+     */
+    public static BigDecimal aplicarDescuentoPorMonto(BigDecimal monto, TablaDescuentos tabla) {
         if (monto == null || monto.compareTo(BigDecimal.ZERO) < 0) {
             throw new IllegalArgumentException("El monto no puede ser nulo o negativo");
         }
 
-        BigDecimal descuento;
-        
-        if (monto.compareTo(UMBRAL_PREMIUM) >= 0) {
-            descuento = DESCUENTO_PREMIUM;
-            log.info("Aplicando descuento premium del 15%");
-        } else if (monto.compareTo(UMBRAL_MEDIO) >= 0) {
-            descuento = DESCUENTO_MEDIO;
-            log.info("Aplicando descuento medio del 10%");
-        } else {
-            descuento = DESCUENTO_BASICO;
-            log.info("Aplicando descuento básico del 5%");
+        int tramo = tabla.indiceTramo(monto);
+        tabla.registrarAplicacion(tramo);
+        if (log.isLoggable(Level.FINE)) {
+            log.fine(tabla.mensajeTramo(tramo));
         }
 
-        BigDecimal montoDescuento = monto.multiply(descuento);
-        BigDecimal total = monto.subtract(montoDescuento);
-        
-        return total.setScale(2, RoundingMode.HALF_UP);
+        return tabla.aplicarDescuento(monto, tramo);
     }
 
     /**
@@ -80,8 +127,20 @@ public class CalculadoraDescuentos {
      * @return Total final con descuentos e IVA aplicados
      */
     public static BigDecimal calcularTotalFinal(BigDecimal subtotal) {
-        BigDecimal conDescuento = aplicarDescuentoPorMonto(subtotal);
-        return calcularTotalConIVA(conDescuento);
+        return calcularTotalFinal(subtotal, TABLA_ACTIVA.get());
+    }
+
+    /**
+     * Calcula el total final aplicando descuentos e IVA de una tabla específica.
+     *
+     * @param subtotal Subtotal antes de descuentos e impuestos
+     * @param tabla Tabla de descuentos e IVA del tenant o campaña
+     * @return Total final con descuentos e IVA aplicados
+     */
+    public static BigDecimal calcularTotalFinal(BigDecimal subtotal, TablaDescuentos tabla) {
+        BigDecimal conDescuento = aplicarDescuentoPorMonto(subtotal, tabla);
+        METRICAS.registrarTotal(subtotal);
+        return calcularTotalConIVA(conDescuento, tabla);
     }
 
     /**
@@ -113,7 +172,7 @@ public class CalculadoraDescuentos {
      * @return Porcentaje de IVA
      */
     public static BigDecimal obtenerPorcentajeIVA() {
-        return IVA.multiply(new BigDecimal("100"));
+        return TABLA_ACTIVA.get().getIva().multiply(new BigDecimal("100"));
     }
 
     /**
@@ -134,10 +193,592 @@ public class CalculadoraDescuentos {
                 .filter(Objects::nonNull)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
-        log.info("Subtotal calculado para " + productos.size() + " productos: " + subtotal);
+        if (log.isLoggable(Level.FINE)) {
+            log.fine("Subtotal calculado para " + productos.size() + " productos: " + subtotal);
+        }
 
         // Aplicar lógica de descuentos + IVA
         return calcularTotalFinal(subtotal);
     }
-}
 
+    /**
+     * Versión en centavos de {@link #calcularTotalConIVA(BigDecimal)}.
+     * No crea objetos y produce exactamente el mismo redondeo HALF_UP.
+     *
+     * @param subtotalCentavos Subtotal antes de impuestos, en centavos
+     * @return Total con IVA incluido, en centavos
+     * @throws IllegalArgumentException si el subtotal es negativo
+     * @throws ArithmeticException si el resultado no cabe en un {@code long}
+     */
+    public static long calcularTotalConIVACentavos(long subtotalCentavos) {
+        return calcularTotalConIVACentavos(subtotalCentavos, TABLA_ACTIVA.get());
+    }
+
+    /**
+     * Versión en centavos de {@link #calcularTotalConIVA(BigDecimal, TablaDescuentos)}.
+     *
+     * @param subtotalCentavos Subtotal antes de impuestos, en centavos
+     * @param tabla Tabla de descuentos e IVA del tenant o campaña
+     * @return Total con IVA incluido, en centavos
+     */
+    public static long calcularTotalConIVACentavos(long subtotalCentavos, TablaDescuentos tabla) {
+        if (subtotalCentavos < 0) {
+            throw new IllegalArgumentException("El subtotal no puede ser nulo o negativo");
+        }
+        return tabla.aplicarIvaCentavos(subtotalCentavos);
+    }
+
+    /**
+     * Versión en centavos de {@link #aplicarDescuentoPorMonto(BigDecimal)}.
+     *
+     * @param montoCentavos Monto original, en centavos
+     * @return Monto con descuento aplicado, en centavos
+     * @throws IllegalArgumentException si el monto es negativo
+     */
+    public static long aplicarDescuentoPorMontoCentavos(long montoCentavos) {
+        return aplicarDescuentoPorMontoCentavos(montoCentavos, TABLA_ACTIVA.get());
+    }
+
+    /**
+     * Versión en centavos de {@link #aplicarDescuentoPorMonto(BigDecimal, TablaDescuentos)}.
+     *
+     * @param montoCentavos Monto original, en centavos
+     * @param tabla Tabla de descuentos e IVA del tenant o campaña
+     * @return Monto con descuento aplicado, en centavos
+     */
+    public static long aplicarDescuentoPorMontoCentavos(long montoCentavos, TablaDescuentos tabla) {
+        if (montoCentavos < 0) {
+            throw new IllegalArgumentException("El monto no puede ser nulo o negativo");
+        }
+        int tramo = tabla.indiceTramo(montoCentavos);
+        tabla.registrarAplicacion(tramo);
+        return tabla.aplicarDescuentoCentavos(montoCentavos, tramo);
+    }
+
+    /**
+     * Versión en centavos de {@link #calcularTotalFinal(BigDecimal)}.
+     *
+     * @param subtotalCentavos Subtotal antes de descuentos e impuestos, en centavos
+     * @return Total final con descuentos e IVA aplicados, en centavos
+     */
+    public static long calcularTotalFinalCentavos(long subtotalCentavos) {
+        return calcularTotalFinalCentavos(subtotalCentavos, TABLA_ACTIVA.get());
+    }
+
+    /**
+     * Versión en centavos de {@link #calcularTotalFinal(BigDecimal, TablaDescuentos)}.
+     *
+     * @param subtotalCentavos Subtotal antes de descuentos e impuestos, en centavos
+     * @param tabla Tabla de descuentos e IVA del tenant o campaña
+     * @return Total final con descuentos e IVA aplicados, en centavos
+     */
+    public static long calcularTotalFinalCentavos(long subtotalCentavos, TablaDescuentos tabla) {
+        long conDescuento = aplicarDescuentoPorMontoCentavos(subtotalCentavos, tabla);
+        METRICAS.registrarTotal(subtotalCentavos);
+        return calcularTotalConIVACentavos(conDescuento, tabla);
+    }
+
+    /**
+     * Versión de {@link #calcularTotal(List)} para una {@link ProductoLista}: suma los precios
+     * sobre el {@code long[]} de la lista, sin crear objetos.
+     *
+     * @param productos Lista columnar de productos
+     * @return Total final con descuentos e IVA aplicados, en centavos
+     * @throws IllegalArgumentException si la lista es nula o vacía, o si el subtotal es negativo
+     */
+    public static long calcularTotalCentavos(ProductoLista productos) {
+        return calcularTotalCentavos(productos, TABLA_ACTIVA.get());
+    }
+
+    /**
+     * Igual que {@link #calcularTotalCentavos(ProductoLista)} con una tabla propia.
+     *
+     * @param productos Lista columnar de productos
+     * @param tabla Tabla de descuentos e IVA del tenant o campaña
+     * @return Total final con descuentos e IVA aplicados, en centavos
+     */
+    public static long calcularTotalCentavos(ProductoLista productos, TablaDescuentos tabla) {
+        if (productos == null || productos.estaVacia()) {
+            throw new IllegalArgumentException("La lista de productos no puede ser nula o vacía");
+        }
+        return calcularTotalFinalCentavos(productos.subtotalCentavos(), tabla);
+    }
+
+    /**
+     * Versión en centavos de {@link #aplicarDescuentoPersonalizado(BigDecimal, double)}.
+     * El porcentaje se redondea a 4 decimales igual que en la versión con {@code BigDecimal}.
+     *
+     * @param montoCentavos Monto original, en centavos
+     * @param porcentajeDescuento Porcentaje de descuento (0-100)
+     * @return Monto con descuento aplicado, en centavos
+     */
+    public static long aplicarDescuentoPersonalizadoCentavos(long montoCentavos, double porcentajeDescuento) {
+        if (montoCentavos < 0) {
+            throw new IllegalArgumentException("El monto no puede ser nulo o negativo");
+        }
+
+        if (!(porcentajeDescuento >= 0 && porcentajeDescuento <= 100)) {
+            throw new IllegalArgumentException("El porcentaje debe estar entre 0 y 100");
+        }
+
+        long descuento = porcentajeEnDiezMilesimas(porcentajeDescuento);
+        return escalarHalfUp(montoCentavos, ESCALA_PORCENTAJE - descuento, ESCALA_PORCENTAJE);
+    }
+
+    /**
+     * Igual que {@link #calcularTotal(List)}, pero reparte la suma del subtotal sobre el pool
+     * del modo indicado cuando la lista alcanza su umbral. El resultado es idéntico al secuencial.
+     *
+     * @param productos Lista de productos con nombre y precio
+     * @param modo Configuración del cálculo paralelo
+     * @return Total final con descuentos e IVA aplicados
+     * @throws IllegalArgumentException si la lista es nula o vacía
+     */
+    public static BigDecimal calcularTotal(List<ProductoDTO> productos, ModoParalelo modo) {
+        Objects.requireNonNull(modo, "El modo paralelo no puede ser nulo");
+        if (productos == null || productos.isEmpty() || !modo.conviene(productos.size())) {
+            return calcularTotal(productos);
+        }
+
+        List<ProductoDTO> indexable = productos instanceof RandomAccess ? productos : List.copyOf(productos);
+        BigDecimal subtotal = modo.getPool().invoke(
+                new SumaSubtotal(indexable, 0, indexable.size(), modo.tamanoPorcion(indexable.size())));
+
+        if (log.isLoggable(Level.FINE)) {
+            log.fine("Subtotal calculado en paralelo para " + productos.size() + " productos: " + subtotal);
+        }
+
+        return calcularTotalFinal(subtotal);
+    }
+
+    /**
+     * Calcula en una sola pasada el total final (descuentos e IVA) de muchos pedidos
+     * almacenados en formato columnar, sin crear objetos por pedido ni registrar en el log.
+     * Los precios del pedido {@code i} ocupan {@code preciosCentavos[inicios[i]]} hasta
+     * {@code preciosCentavos[inicios[i + 1] - 1]}.
+     *
+     * @param preciosCentavos Precios de todas las líneas, en centavos
+     * @param inicios Desplazamientos de cada pedido; su longitud es la cantidad de pedidos + 1
+     * @param totalesCentavos Arreglo destino, con espacio para al menos un total por pedido
+     * @return Cantidad de pedidos calculados
+     * @throws IllegalArgumentException si los desplazamientos no empiezan en 0, no son estrictamente
+     *         crecientes (un pedido vacío o un desplazamiento que retrocede) o superan la cantidad de
+     *         precios, o si algún subtotal es negativo. Los desplazamientos se validan antes de escribir
+     *         el primer total
+     */
+    public static int calcularTotalesCentavos(long[] preciosCentavos, int[] inicios, long[] totalesCentavos) {
+        int pedidos = validarLote(preciosCentavos, inicios, totalesCentavos);
+        calcularTotalesCentavos(preciosCentavos, inicios, totalesCentavos, 0, pedidos, TABLA_ACTIVA.get());
+        return pedidos;
+    }
+
+    /**
+     * Igual que {@link #calcularTotalesCentavos(long[], int[], long[])}, pero reparte los pedidos
+     * sobre el pool del modo indicado cuando el lote alcanza su umbral.
+     *
+     * @param preciosCentavos Precios de todas las líneas, en centavos
+     * @param inicios Desplazamientos de cada pedido; su longitud es la cantidad de pedidos + 1
+     * @param totalesCentavos Arreglo destino, con espacio para al menos un total por pedido
+     * @param modo Configuración del cálculo paralelo
+     * @return Cantidad de pedidos calculados
+     */
+    public static int calcularTotalesCentavos(long[] preciosCentavos, int[] inicios, long[] totalesCentavos,
+                                              ModoParalelo modo) {
+        Objects.requireNonNull(modo, "El modo paralelo no puede ser nulo");
+        int pedidos = validarLote(preciosCentavos, inicios, totalesCentavos);
+        TablaDescuentos tabla = TABLA_ACTIVA.get();
+        if (modo.conviene(pedidos)) {
+            modo.getPool().invoke(new TotalesLote(preciosCentavos, inicios, totalesCentavos,
+                    0, pedidos, modo.tamanoPorcion(pedidos), tabla));
+        } else {
+            calcularTotalesCentavos(preciosCentavos, inicios, totalesCentavos, 0, pedidos, tabla);
+        }
+        return pedidos;
+    }
+
+    /**
+     * Calcula el total final (descuentos e IVA) de cada subtotal con la tabla activa, para
+     * recálculos masivos de precios.
+     *
+     * @see #calcularTotalesFinalesCentavos(long[], long[], TablaDescuentos)
+     */
+    public static void calcularTotalesFinalesCentavos(long[] subtotalesCentavos, long[] totalesCentavos) {
+        calcularTotalesFinalesCentavos(subtotalesCentavos, totalesCentavos, TABLA_ACTIVA.get());
+    }
+
+    /**
+     * Calcula {@code totalesCentavos[i] = calcularTotalFinalCentavos(subtotalesCentavos[i], tabla)}
+     * para todos los subtotales con el {@link NucleoPrecios} activo (vectorial si el módulo
+     * {@code common-library-vector} y {@code jdk.incubator.vector} están presentes, escalar si no).
+     * Las métricas se publican una vez por llamada.
+     *
+     * @param subtotalesCentavos Subtotales antes de descuentos e impuestos, en centavos
+     * @param totalesCentavos Arreglo destino, con espacio para al menos un total por subtotal
+     * @param tabla Tabla de descuentos e IVA del tenant o campaña
+     * @throws IllegalArgumentException si los arreglos son nulos, el destino es corto o algún subtotal es negativo
+     * @throws ArithmeticException si algún total no cabe en un {@code long}
+     */
+    public static void calcularTotalesFinalesCentavos(long[] subtotalesCentavos, long[] totalesCentavos,
+                                                      TablaDescuentos tabla) {
+        Objects.requireNonNull(tabla, "La tabla de descuentos no puede ser nula");
+        if (subtotalesCentavos == null || totalesCentavos == null) {
+            throw new IllegalArgumentException("Los arreglos de subtotales y totales no pueden ser nulos");
+        }
+        if (totalesCentavos.length < subtotalesCentavos.length) {
+            throw new IllegalArgumentException("El arreglo de totales debe tener espacio para "
+                    + subtotalesCentavos.length + " totales");
+        }
+
+        long[] aplicacionesPorTramo = new long[tabla.cantidadTramos()];
+        long montoAcumulado = NucleoActivo.NUCLEO.calcular(subtotalesCentavos, totalesCentavos,
+                0, subtotalesCentavos.length, tabla, aplicacionesPorTramo);
+        for (int tramo = 0; tramo < aplicacionesPorTramo.length; tramo++) {
+            tabla.registrarAplicaciones(tramo, aplicacionesPorTramo[tramo]);
+        }
+        METRICAS.registrarTotales(subtotalesCentavos.length, montoAcumulado);
+    }
+
+    /**
+     * @return Núcleo que usa {@link #calcularTotalesFinalesCentavos(long[], long[], TablaDescuentos)}
+     */
+    public static NucleoPrecios obtenerNucleoPrecios() {
+        return NucleoActivo.NUCLEO;
+    }
+
+    /**
+     * Busca el núcleo al primer uso, para no pagar el {@link ServiceLoader} en el arranque.
+     */
+    private static final class NucleoActivo {
+
+        static final NucleoPrecios NUCLEO = cargar();
+
+        private static NucleoPrecios cargar() {
+            try {
+                for (NucleoPrecios nucleo : ServiceLoader.load(NucleoPrecios.class, CalculadoraDescuentos.class.getClassLoader())) {
+                    if (nucleo.disponible()) {
+                        log.info("Núcleo de precios: " + nucleo.nombre());
+                        return nucleo;
+                    }
+                }
+            } catch (ServiceConfigurationError | LinkageError e) {
+                log.log(Level.WARNING, "No se pudo cargar el núcleo de precios; se usa el escalar", e);
+            }
+            return NucleoPrecios.escalar();
+        }
+    }
+
+    static int validarLote(long[] preciosCentavos, int[] inicios, long[] totalesCentavos) {
+        if (preciosCentavos == null || inicios == null || totalesCentavos == null) {
+            throw new IllegalArgumentException("Los arreglos del lote no pueden ser nulos");
+        }
+        if (inicios.length == 0 || inicios[0] != 0 || inicios[inicios.length - 1] > preciosCentavos.length) {
+            throw new IllegalArgumentException("Los desplazamientos del lote no corresponden a los precios");
+        }
+        // Se valida todo antes de escribir el primer total, para no dejar el destino a medias
+        for (int i = 1; i < inicios.length; i++) {
+            if (inicios[i] == inicios[i - 1]) {
+                throw new IllegalArgumentException("El pedido " + (i - 1) + " no tiene productos");
+            }
+            if (inicios[i] < inicios[i - 1]) {
+                throw new IllegalArgumentException("Los desplazamientos del lote deben ser crecientes; inicios["
+                        + i + "] = " + inicios[i] + " es menor que el anterior");
+            }
+        }
+
+        int pedidos = inicios.length - 1;
+        if (totalesCentavos.length < pedidos) {
+            throw new IllegalArgumentException("El arreglo de totales debe tener espacio para " + pedidos + " pedidos");
+        }
+        return pedidos;
+    }
+
+    static void calcularTotalesCentavos(long[] preciosCentavos, int[] inicios, long[] totalesCentavos,
+                                        int desde, int hasta, TablaDescuentos tabla) {
+        // Las métricas se acumulan localmente y se publican una vez por porción
+        long[] aplicacionesPorTramo = new long[tabla.cantidadTramos()];
+        long montoAcumulado = 0;
+        long fueraDeRango = 0;
+        for (int pedido = desde; pedido < hasta; pedido++) {
+            int inicio = inicios[pedido];
+            int fin = inicios[pedido + 1];
+            if (fin <= inicio) {
+                throw new IllegalArgumentException("El pedido " + pedido + " no tiene productos");
+            }
+
+            long subtotal = 0;
+            for (int linea = inicio; linea < fin; linea++) {
+                subtotal = Math.addExact(subtotal, preciosCentavos[linea]);
+            }
+            if (subtotal < 0) {
+                throw new IllegalArgumentException("El subtotal del pedido " + pedido + " no puede ser negativo");
+            }
+            int tramo = tabla.indiceTramo(subtotal);
+            aplicacionesPorTramo[tramo]++;
+            if (montoAcumulado > Long.MAX_VALUE - subtotal) {
+                fueraDeRango++;
+            } else {
+                montoAcumulado += subtotal;
+            }
+            totalesCentavos[pedido] = tabla.aplicarIvaCentavos(tabla.aplicarDescuentoCentavos(subtotal, tramo));
+        }
+        for (int tramo = 0; tramo < aplicacionesPorTramo.length; tramo++) {
+            tabla.registrarAplicaciones(tramo, aplicacionesPorTramo[tramo]);
+        }
+        METRICAS.registrarTotales(hasta - desde, montoAcumulado, fueraDeRango);
+    }
+
+    /**
+     * Versión de {@link #calcularTotalFinal(BigDecimal)} que no lanza excepciones ante datos inválidos.
+     *
+     * @param subtotal Subtotal antes de descuentos e impuestos
+     * @return Total final o {@link CodigoError#SUBTOTAL_INVALIDO}
+     */
+    public static Resultado<BigDecimal> intentarCalcularTotalFinal(BigDecimal subtotal) {
+        return intentarCalcularTotalFinal(subtotal, TABLA_ACTIVA.get());
+    }
+
+    /**
+     * Versión de {@link #calcularTotalFinal(BigDecimal, TablaDescuentos)} que no lanza excepciones ante datos inválidos.
+     *
+     * @param subtotal Subtotal antes de descuentos e impuestos
+     * @param tabla Tabla de descuentos e IVA del tenant o campaña
+     * @return Total final o {@link CodigoError#SUBTOTAL_INVALIDO}
+     */
+    public static Resultado<BigDecimal> intentarCalcularTotalFinal(BigDecimal subtotal, TablaDescuentos tabla) {
+        if (subtotal == null || subtotal.signum() < 0) {
+            return Resultado.error(CodigoError.SUBTOTAL_INVALIDO);
+        }
+        return Resultado.exito(calcularTotalFinal(subtotal, tabla));
+    }
+
+    /**
+     * Versión de {@link #calcularTotal(List)} que no lanza excepciones ante datos inválidos.
+     *
+     * @param productos Lista de productos con nombre y precio
+     * @return Total final, {@link CodigoError#PRODUCTOS_VACIOS} o {@link CodigoError#SUBTOTAL_INVALIDO}
+     */
+    public static Resultado<BigDecimal> intentarCalcularTotal(List<ProductoDTO> productos) {
+        if (productos == null || productos.isEmpty()) {
+            return Resultado.error(CodigoError.PRODUCTOS_VACIOS);
+        }
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (ProductoDTO producto : productos) {
+            if (producto.getPrecio() != null) {
+                subtotal = subtotal.add(producto.getPrecio());
+            }
+        }
+        return intentarCalcularTotalFinal(subtotal);
+    }
+
+    /**
+     * Versión de {@link #aplicarDescuentoPersonalizado(BigDecimal, double)} que no lanza excepciones ante datos inválidos.
+     *
+     * @param monto Monto original
+     * @param porcentajeDescuento Porcentaje de descuento (0-100)
+     * @return Monto con descuento, {@link CodigoError#MONTO_INVALIDO} o {@link CodigoError#PORCENTAJE_INVALIDO}
+     */
+    public static Resultado<BigDecimal> intentarAplicarDescuentoPersonalizado(BigDecimal monto, double porcentajeDescuento) {
+        if (monto == null || monto.signum() < 0) {
+            return Resultado.error(CodigoError.MONTO_INVALIDO);
+        }
+        if (!(porcentajeDescuento >= 0 && porcentajeDescuento <= 100)) {
+            return Resultado.error(CodigoError.PORCENTAJE_INVALIDO);
+        }
+        return Resultado.exito(aplicarDescuentoPersonalizado(monto, porcentajeDescuento));
+    }
+
+    /**
+     * Versión de {@link #calcularTotalFinalCentavos(long)} que no lanza excepciones ante datos inválidos.
+     *
+     * @param subtotalCentavos Subtotal antes de descuentos e impuestos, en centavos
+     * @return Total final en centavos, {@link CodigoError#SUBTOTAL_INVALIDO} o {@link CodigoError#DESBORDAMIENTO}
+     */
+    public static Resultado<Long> intentarCalcularTotalFinalCentavos(long subtotalCentavos) {
+        return intentarCalcularTotalFinalCentavos(subtotalCentavos, TABLA_ACTIVA.get());
+    }
+
+    /**
+     * Versión de {@link #calcularTotalFinalCentavos(long, TablaDescuentos)} que no lanza excepciones ante datos inválidos.
+     *
+     * @param subtotalCentavos Subtotal antes de descuentos e impuestos, en centavos
+     * @param tabla Tabla de descuentos e IVA del tenant o campaña
+     * @return Total final en centavos, {@link CodigoError#SUBTOTAL_INVALIDO} o {@link CodigoError#DESBORDAMIENTO}
+     */
+    public static Resultado<Long> intentarCalcularTotalFinalCentavos(long subtotalCentavos, TablaDescuentos tabla) {
+        if (subtotalCentavos < 0) {
+            return Resultado.error(CodigoError.SUBTOTAL_INVALIDO);
+        }
+        try {
+            return Resultado.exito(calcularTotalFinalCentavos(subtotalCentavos, tabla));
+        } catch (ArithmeticException e) {
+            // Solo con subtotales cercanos a Long.MAX_VALUE, que no son tráfico normal
+            return Resultado.error(CodigoError.DESBORDAMIENTO);
+        }
+    }
+
+    /**
+     * Versión de {@link #calcularTotalCentavos(ProductoLista)} que no lanza excepciones ante datos inválidos.
+     *
+     * @param productos Lista columnar de productos
+     * @return Total final en centavos, {@link CodigoError#PRODUCTOS_VACIOS},
+     *         {@link CodigoError#SUBTOTAL_INVALIDO} o {@link CodigoError#DESBORDAMIENTO}
+     */
+    public static Resultado<Long> intentarCalcularTotalCentavos(ProductoLista productos) {
+        if (productos == null || productos.estaVacia()) {
+            return Resultado.error(CodigoError.PRODUCTOS_VACIOS);
+        }
+        long subtotal;
+        try {
+            subtotal = productos.subtotalCentavos();
+        } catch (ArithmeticException e) {
+            return Resultado.error(CodigoError.DESBORDAMIENTO);
+        }
+        return intentarCalcularTotalFinalCentavos(subtotal, TABLA_ACTIVA.get());
+    }
+
+    /**
+     * Versión de {@link #aCentavos(BigDecimal)} que no lanza excepciones; a diferencia de aquella,
+     * tampoco usa excepciones internamente para detectar los decimales de más.
+     *
+     * @param monto Monto con a lo sumo 2 decimales
+     * @return Monto en centavos, {@link CodigoError#MONTO_INVALIDO}, {@link CodigoError#DEMASIADOS_DECIMALES}
+     *         o {@link CodigoError#DESBORDAMIENTO}
+     */
+    public static Resultado<Long> intentarACentavos(BigDecimal monto) {
+        if (monto == null) {
+            return Resultado.error(CodigoError.MONTO_INVALIDO);
+        }
+        if (monto.scale() > 2 && monto.stripTrailingZeros().scale() > 2) {
+            return Resultado.error(CodigoError.DEMASIADOS_DECIMALES);
+        }
+        BigInteger centavos = monto.setScale(2, RoundingMode.UNNECESSARY).unscaledValue();
+        if (centavos.bitLength() > 63) {
+            return Resultado.error(CodigoError.DESBORDAMIENTO);
+        }
+        return Resultado.exito(centavos.longValue());
+    }
+
+    /**
+     * Convierte un monto a centavos; equivale a {@link ProductoCompacto#centavos(BigDecimal)}.
+     *
+     * @param monto Monto con a lo sumo 2 decimales
+     * @return Monto en centavos
+     * @throws IllegalArgumentException si el monto es nulo o tiene más de 2 decimales
+     * @throws ArithmeticException si el monto no cabe en un {@code long}
+     */
+    public static long aCentavos(BigDecimal monto) {
+        return ProductoCompacto.centavos(monto);
+    }
+
+    /**
+     * Convierte un monto en centavos a {@link BigDecimal} con escala 2.
+     *
+     * @param centavos Monto en centavos
+     * @return Monto equivalente
+     */
+    public static BigDecimal desdeCentavos(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    /**
+     * Calcula {@code centavos * factor / escala} redondeando HALF_UP a un entero.
+     * Solo es válido para montos no negativos.
+     */
+    static long escalarHalfUp(long centavos, long factor, long escala) {
+        long producto = Math.multiplyExact(centavos, factor);
+        long cociente = producto / escala;
+        long resto = producto - cociente * escala;
+        return resto * 2 >= escala ? cociente + 1 : cociente;
+    }
+
+    /**
+     * Equivale a {@code new BigDecimal(porcentaje).divide(100, 4, HALF_UP)} expresado en
+     * diezmilésimas, sin crear objetos. El valor exacto del {@code double} se compara con
+     * los puntos medios mediante {@link Math#fma}, que redondea una sola vez y conserva el signo.
+     */
+    static long porcentajeEnDiezMilesimas(double porcentaje) {
+        long redondeado = (long) Math.floor(porcentaje * 100 + 0.5);
+        while (Math.fma(porcentaje, 200, -(2 * redondeado - 1)) < 0) {
+            redondeado--;
+        }
+        while (Math.fma(porcentaje, 200, -(2 * redondeado + 1)) >= 0) {
+            redondeado++;
+        }
+        return redondeado;
+    }
+
+    /**
+     * Suma los precios no nulos de un rango de la lista dividiéndolo en mitades.
+     */
+    private static final class SumaSubtotal extends RecursiveTask<BigDecimal> {
+
+        private final List<ProductoDTO> productos;
+        private final int desde;
+        private final int hasta;
+        private final int porcion;
+
+        SumaSubtotal(List<ProductoDTO> productos, int desde, int hasta, int porcion) {
+            this.productos = productos;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.porcion = porcion;
+        }
+
+        @Override
+        protected BigDecimal compute() {
+            if (hasta - desde <= porcion) {
+                BigDecimal suma = BigDecimal.ZERO;
+                for (int i = desde; i < hasta; i++) {
+                    BigDecimal precio = productos.get(i).getPrecio();
+                    if (precio != null) {
+                        suma = suma.add(precio);
+                    }
+                }
+                return suma;
+            }
+
+            int medio = (desde + hasta) >>> 1;
+            SumaSubtotal izquierda = new SumaSubtotal(productos, desde, medio, porcion);
+            izquierda.fork();
+            BigDecimal derecha = new SumaSubtotal(productos, medio, hasta, porcion).compute();
+            return izquierda.join().add(derecha);
+        }
+    }
+
+    /**
+     * Calcula los totales de un rango de pedidos de un lote dividiéndolo en mitades.
+     */
+    private static final class TotalesLote extends RecursiveAction {
+
+        private final long[] preciosCentavos;
+        private final int[] inicios;
+        private final long[] totalesCentavos;
+        private final int desde;
+        private final int hasta;
+        private final int porcion;
+        private final TablaDescuentos tabla;
+
+        TotalesLote(long[] preciosCentavos, int[] inicios, long[] totalesCentavos,
+                    int desde, int hasta, int porcion, TablaDescuentos tabla) {
+            this.preciosCentavos = preciosCentavos;
+            this.inicios = inicios;
+            this.totalesCentavos = totalesCentavos;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.porcion = porcion;
+            this.tabla = tabla;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde <= porcion) {
+                calcularTotalesCentavos(preciosCentavos, inicios, totalesCentavos, desde, hasta, tabla);
+                return;
+            }
+
+            int medio = (desde + hasta) >>> 1;
+            invokeAll(new TotalesLote(preciosCentavos, inicios, totalesCentavos, desde, medio, porcion, tabla),
+                    new TotalesLote(preciosCentavos, inicios, totalesCentavos, medio, hasta, porcion, tabla));
+        }
+    }
+}
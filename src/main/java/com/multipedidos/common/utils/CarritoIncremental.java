@@ -0,0 +1,240 @@
+package com.multipedidos.common.utils;
+
+import com.multipedidos.common.dto.ProductoCompacto;
+import com.multipedidos.common.dto.ProductoDTO;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Acumulador de un carrito que se edita muchas veces: lleva el subtotal en centavos y
+ * actualiza el tramo, el total con descuento y el total con IVA en tiempo constante por cada
+ * producto agregado o quitado, en lugar de recorrer la lista con
+ * {@link CalculadoraDescuentos#calcularTotal(java.util.List)} después de cada cambio.
+ *
+ * <p>El total coincide exactamente con el de {@code calcularTotal} sobre los mismos productos
+ * y la misma tabla. Los cambios de tramo (por ejemplo de básico a medio) se notifican a un
+ * {@link ObservadorTramo}. Las ediciones no se cuentan en las métricas de la calculadora,
+ * porque no son cálculos de total independientes.</p>
+ *
+ * <p>No es thread-safe: se usa uno por carrito, desde un hilo a la vez.</p>
+ */
+public final class CarritoIncremental {
+
+    /**
+     * Recibe los cambios de tramo del carrito, en el hilo que lo editó.
+     */
+    @FunctionalInterface
+    public interface ObservadorTramo {
+
+        /**
+         * @param carrito Carrito ya actualizado
+         * @param tramoAnterior Índice del tramo antes del cambio en la tabla del carrito
+         * @param tramoNuevo Índice del tramo actual
+         */
+        void tramoCambiado(CarritoIncremental carrito, int tramoAnterior, int tramoNuevo);
+    }
+
+    private final TablaDescuentos tabla;
+    private ObservadorTramo observador;
+
+    private long cantidadProductos;
+    private long subtotalCentavos;
+    private int tramo;
+    private long umbralActual;
+    private long umbralSiguiente;
+    private long totalConDescuentoCentavos;
+    private long totalCentavos;
+
+    /**
+     * Crea un carrito vacío con la tabla activa de {@link CalculadoraDescuentos}.
+     */
+    public CarritoIncremental() {
+        this(CalculadoraDescuentos.obtenerTablaDescuentos());
+    }
+
+    /**
+     * @param tabla Tabla de descuentos e IVA del tenant o campaña; el carrito la usa durante toda su vida
+     */
+    public CarritoIncremental(TablaDescuentos tabla) {
+        this.tabla = Objects.requireNonNull(tabla, "La tabla de descuentos no puede ser nula");
+        cambiarTramo(0);
+    }
+
+    /**
+     * @param observador Observador de cambios de tramo, o {@code null} para no notificar
+     * @return Este carrito
+     */
+    public CarritoIncremental alCambiarTramo(ObservadorTramo observador) {
+        this.observador = observador;
+        return this;
+    }
+
+    /**
+     * @param producto Producto a agregar
+     * @throws IllegalArgumentException si el producto o su precio es nulo, o si el precio tiene más de 2 decimales
+     */
+    public void agregar(ProductoDTO producto) {
+        agregarCentavos(precioDe(producto));
+    }
+
+    public void agregar(ProductoCompacto producto) {
+        if (producto == null) {
+            throw new IllegalArgumentException("El producto no puede ser nulo");
+        }
+        agregarCentavos(producto.getPrecioCentavos());
+    }
+
+    /**
+     * @param precioCentavos Precio del producto agregado, en centavos
+     * @throws ArithmeticException si el subtotal no cabe en un {@code long}
+     */
+    public void agregarCentavos(long precioCentavos) {
+        actualizar(Math.addExact(subtotalCentavos, precioCentavos), cantidadProductos + 1);
+    }
+
+    /**
+     * Quita un producto agregado antes. El carrito no guarda los productos, así que solo
+     * verifica que no quede vacío de más; quitar un precio que no se agregó deja el total mal.
+     *
+     * @param producto Producto a quitar
+     * @throws IllegalArgumentException si el producto o su precio es nulo, o si el precio tiene más de 2 decimales
+     * @throws IllegalStateException si el carrito está vacío
+     */
+    public void quitar(ProductoDTO producto) {
+        quitarCentavos(precioDe(producto));
+    }
+
+    public void quitar(ProductoCompacto producto) {
+        if (producto == null) {
+            throw new IllegalArgumentException("El producto no puede ser nulo");
+        }
+        quitarCentavos(producto.getPrecioCentavos());
+    }
+
+    /**
+     * @param precioCentavos Precio del producto quitado, en centavos
+     * @throws IllegalStateException si el carrito está vacío
+     */
+    public void quitarCentavos(long precioCentavos) {
+        if (cantidadProductos == 0) {
+            throw new IllegalStateException("El carrito no tiene productos para quitar");
+        }
+        long subtotal = Math.subtractExact(subtotalCentavos, precioCentavos);
+        actualizar(cantidadProductos == 1 ? 0 : subtotal, cantidadProductos - 1);
+    }
+
+    /**
+     * Vacía el carrito conservando la tabla y el observador; notifica si vuelve al primer tramo.
+     */
+    public void limpiar() {
+        actualizar(0, 0);
+    }
+
+    private static long precioDe(ProductoDTO producto) {
+        if (producto == null) {
+            throw new IllegalArgumentException("El producto no puede ser nulo");
+        }
+        return ProductoCompacto.centavos(producto.getPrecio());
+    }
+
+    private void actualizar(long subtotal, long cantidad) {
+        int anterior = tramo;
+        // Los umbrales del tramo vigente están en caché: solo se recorre la tabla al cruzar uno
+        int nuevo = subtotal < umbralActual || subtotal >= umbralSiguiente ? tabla.indiceTramo(subtotal) : tramo;
+        long conDescuento = 0;
+        long total = 0;
+        if (subtotal >= 0) {
+            // Se calcula antes de modificar el carrito para que un desborde no lo deje inconsistente
+            conDescuento = tabla.aplicarDescuentoCentavos(subtotal, nuevo);
+            total = tabla.aplicarIvaCentavos(conDescuento);
+        }
+        subtotalCentavos = subtotal;
+        cantidadProductos = cantidad;
+        totalConDescuentoCentavos = conDescuento;
+        totalCentavos = total;
+        if (nuevo != anterior) {
+            cambiarTramo(nuevo);
+        }
+        if (nuevo != anterior && observador != null) {
+            observador.tramoCambiado(this, anterior, tramo);
+        }
+    }
+
+    private void cambiarTramo(int nuevo) {
+        tramo = nuevo;
+        umbralActual = nuevo == 0 ? Long.MIN_VALUE : tabla.umbralTramoCentavos(nuevo);
+        umbralSiguiente = nuevo + 1 < tabla.cantidadTramos() ? tabla.umbralTramoCentavos(nuevo + 1) : Long.MAX_VALUE;
+    }
+
+    /**
+     * @return Total con descuento e IVA, en centavos; el mismo valor que {@code calcularTotal}
+     * @throws IllegalStateException si el carrito está vacío o su subtotal es negativo
+     */
+    public long getTotalCentavos() {
+        validarTotal();
+        return totalCentavos;
+    }
+
+    /**
+     * @return Total con descuento e IVA con escala 2; se crea en cada llamada
+     * @throws IllegalStateException si el carrito está vacío o su subtotal es negativo
+     */
+    public BigDecimal getTotal() {
+        return CalculadoraDescuentos.desdeCentavos(getTotalCentavos());
+    }
+
+    /**
+     * @return Subtotal con el descuento del tramo aplicado y antes de IVA, en centavos
+     * @throws IllegalStateException si el carrito está vacío o su subtotal es negativo
+     */
+    public long getTotalConDescuentoCentavos() {
+        validarTotal();
+        return totalConDescuentoCentavos;
+    }
+
+    private void validarTotal() {
+        if (cantidadProductos == 0) {
+            throw new IllegalStateException("El carrito no tiene productos");
+        }
+        if (subtotalCentavos < 0) {
+            throw new IllegalStateException("El subtotal del carrito es negativo: " + subtotalCentavos);
+        }
+    }
+
+    public long getSubtotalCentavos() {
+        return subtotalCentavos;
+    }
+
+    public long getCantidadProductos() {
+        return cantidadProductos;
+    }
+
+    public boolean estaVacio() {
+        return cantidadProductos == 0;
+    }
+
+    /**
+     * @return Índice del tramo vigente en {@link #getTabla()}
+     */
+    public int getTramo() {
+        return tramo;
+    }
+
+    public String getNombreTramo() {
+        return tabla.nombreTramo(tramo);
+    }
+
+    public TablaDescuentos getTabla() {
+        return tabla;
+    }
+
+    @Override
+    public String toString() {
+        return "CarritoIncremental{" +
+                "productos=" + cantidadProductos +
+                ", subtotalCentavos=" + subtotalCentavos +
+                ", tramo=" + tabla.nombreTramo(tramo) +
+                '}';
+    }
+}
@@ -0,0 +1,478 @@
+package com.multipedidos.common.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Catálogo de precios de solo lectura en un archivo mapeado en memoria con
+ * {@link FileChannel#map}. Se construye una vez, fuera de línea, a partir de un CSV
+ * ({@link #construir(Path, Path)}) y cada servicio lo abre en microsegundos sin cargarlo al
+ * heap: las páginas del archivo las comparte el sistema operativo entre todas las JVM del host.
+ *
+ * <p>Los precios se buscan por ID o por nombre en índices hash de direccionamiento abierto
+ * (sondeo lineal, ocupación máxima del 50%) y se devuelven en centavos, sin crear objetos,
+ * listos para {@link CalculadoraDescuentos#calcularTotalFinalCentavos(long)}. Es inmutable y
+ * thread-safe.</p>
+ *
+ * <p>Formato (little-endian): encabezado de {@value #LARGO_ENCABEZADO} bytes, entradas de
+ * {@value #LARGO_ENTRADA} bytes (ID, precio en centavos, desplazamiento y largo del nombre),
+ * índice por ID ({@code int} con entrada + 1), índice por nombre (hash y entrada + 1) y los
+ * nombres en UTF-8. Para reemplazar un catálogo en uso se construye uno nuevo y se renombra
+ * sobre el anterior: los procesos que ya lo tenían mapeado siguen leyendo la versión previa.</p>
+ */
+public final class CatalogoPrecios {
+
+    /** Valor devuelto cuando el producto no está en el catálogo. */
+    public static final long PRECIO_INEXISTENTE = -1L;
+
+    private static final int MAGIA = 0x4D50_4350; // "MPCP"
+    private static final int VERSION = 1;
+    private static final int LARGO_ENCABEZADO = 32;
+    private static final int LARGO_ENTRADA = 24;
+    private static final int LARGO_RANURA_NOMBRE = 8;
+    private static final String ENCABEZADO_CSV = "id,nombre,precio";
+
+    private final MappedByteBuffer datos;
+    private final int cantidad;
+    private final int mascara;
+    private final int inicioEntradas;
+    private final int inicioIndiceIds;
+    private final int inicioIndiceNombres;
+    private final int inicioNombres;
+
+    private CatalogoPrecios(MappedByteBuffer datos) {
+        this.datos = datos;
+        datos.order(ByteOrder.LITTLE_ENDIAN);
+        if (datos.capacity() < LARGO_ENCABEZADO || datos.getInt(0) != MAGIA) {
+            throw new IllegalArgumentException("El archivo no es un catálogo de precios");
+        }
+        if (datos.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Versión de catálogo no soportada: " + datos.getInt(4));
+        }
+        this.cantidad = datos.getInt(8);
+        int capacidad = datos.getInt(12);
+        this.mascara = capacidad - 1;
+        this.inicioEntradas = datos.getInt(16);
+        this.inicioIndiceIds = datos.getInt(20);
+        this.inicioIndiceNombres = datos.getInt(24);
+        this.inicioNombres = datos.getInt(28);
+        if (cantidad < 0 || Integer.bitCount(capacidad) != 1 || capacidad < cantidad
+                || inicioEntradas != LARGO_ENCABEZADO
+                || inicioIndiceIds != inicioEntradas + cantidad * LARGO_ENTRADA
+                || inicioIndiceNombres != inicioIndiceIds + capacidad * Integer.BYTES
+                || inicioNombres != inicioIndiceNombres + capacidad * LARGO_RANURA_NOMBRE
+                || inicioNombres > datos.capacity()) {
+            throw new IllegalArgumentException("El catálogo de precios está dañado");
+        }
+    }
+
+    /**
+     * Mapea un catálogo en memoria. El archivo puede cerrarse o reemplazarse después: el
+     * mapeo sigue vigente hasta que el catálogo deja de usarse.
+     *
+     * @param archivo Catálogo generado con {@link #construir(Path, Path)}
+     * @return Catálogo listo para consultas
+     * @throws IOException si el archivo no se puede leer
+     * @throws IllegalArgumentException si el archivo no es un catálogo válido
+     */
+    public static CatalogoPrecios abrir(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("El catálogo supera los 2 GB");
+            }
+            return new CatalogoPrecios(canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()));
+        }
+    }
+
+    /**
+     * Construye un catálogo a partir de un CSV con columnas {@code id,nombre,precio}; la
+     * primera línea puede ser ese encabezado. Los nombres con comas o comillas van entre
+     * comillas dobles, con las comillas internas duplicadas. El archivo se escribe primero
+     * en un temporal y luego se renombra, de modo que nunca se ve a medio escribir.
+     *
+     * @param csv CSV de origen en UTF-8
+     * @param destino Archivo del catálogo
+     * @return Cantidad de productos escritos
+     * @throws IOException si no se puede leer el CSV o escribir el catálogo
+     * @throws IllegalArgumentException si alguna línea es inválida o hay IDs o nombres repetidos
+     */
+    public static int construir(Path csv, Path destino) throws IOException {
+        try (Reader lector = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            return construir(lector, destino);
+        }
+    }
+
+    /**
+     * Igual que {@link #construir(Path, Path)} leyendo el CSV de un {@link Reader}, que no se cierra.
+     */
+    public static int construir(Reader csv, Path destino) throws IOException {
+        List<Producto> productos = leerCsv(csv instanceof BufferedReader ? (BufferedReader) csv : new BufferedReader(csv));
+        ByteBuffer contenido = serializar(productos);
+
+        Path directorio = destino.toAbsolutePath().getParent();
+        Path temporal = Files.createTempFile(directorio, destino.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.WRITE)) {
+                while (contenido.hasRemaining()) {
+                    canal.write(contenido);
+                }
+                canal.force(true);
+            }
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+        return productos.size();
+    }
+
+    /**
+     * Construye un catálogo desde la línea de comandos: {@code CatalogoPrecios <csv> <destino>}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: java " + CatalogoPrecios.class.getName() + " <catalogo.csv> <catalogo.bin>");
+            System.exit(2);
+        }
+        int escritos = construir(Path.of(args[0]), Path.of(args[1]));
+        System.out.println(escritos + " productos escritos en " + args[1]);
+    }
+
+    /**
+     * @param id ID del producto
+     * @return Precio en centavos, o {@link #PRECIO_INEXISTENTE} si el ID no está en el catálogo
+     */
+    public long precioCentavos(long id) {
+        int entrada = buscarId(id);
+        return entrada < 0 ? PRECIO_INEXISTENTE : datos.getLong(posicionEntrada(entrada) + 8);
+    }
+
+    /**
+     * @param nombre Nombre exacto del producto
+     * @return Precio en centavos, o {@link #PRECIO_INEXISTENTE} si el nombre no está en el catálogo
+     */
+    public long precioCentavos(CharSequence nombre) {
+        int entrada = buscarNombre(nombre);
+        return entrada < 0 ? PRECIO_INEXISTENTE : datos.getLong(posicionEntrada(entrada) + 8);
+    }
+
+    /**
+     * @param id ID del producto
+     * @return Nombre del producto, o {@code null} si el ID no está en el catálogo
+     */
+    public String nombre(long id) {
+        int entrada = buscarId(id);
+        if (entrada < 0) {
+            return null;
+        }
+        int posicion = posicionEntrada(entrada);
+        byte[] bytes = new byte[datos.getInt(posicion + 20)];
+        datos.get(inicioNombres + datos.getInt(posicion + 16), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Suma los precios de un carrito expresado como IDs (un ID por unidad), sin crear objetos.
+     *
+     * @param ids IDs de los productos
+     * @return Subtotal en centavos
+     * @throws IllegalArgumentException si algún ID no está en el catálogo
+     * @throws ArithmeticException si la suma no cabe en un {@code long}
+     */
+    public long subtotalCentavos(long[] ids) {
+        if (ids == null) {
+            throw new IllegalArgumentException("Los IDs del carrito no pueden ser nulos");
+        }
+        long subtotal = 0;
+        for (long id : ids) {
+            long precio = precioCentavos(id);
+            if (precio == PRECIO_INEXISTENTE) {
+                throw new IllegalArgumentException("El producto " + id + " no está en el catálogo");
+            }
+            subtotal = Math.addExact(subtotal, precio);
+        }
+        return subtotal;
+    }
+
+    /**
+     * @return Cantidad de productos del catálogo
+     */
+    public int cantidad() {
+        return cantidad;
+    }
+
+    private int posicionEntrada(int entrada) {
+        return inicioEntradas + entrada * LARGO_ENTRADA;
+    }
+
+    private int buscarId(long id) {
+        for (int ranura = hashId(id) & mascara; ; ranura = (ranura + 1) & mascara) {
+            int entrada = datos.getInt(inicioIndiceIds + ranura * Integer.BYTES) - 1;
+            if (entrada < 0 || datos.getLong(posicionEntrada(entrada)) == id) {
+                return entrada;
+            }
+        }
+    }
+
+    private int buscarNombre(CharSequence nombre) {
+        if (nombre == null) {
+            return -1;
+        }
+        int hash = hashNombre(nombre);
+        for (int ranura = hash & mascara; ; ranura = (ranura + 1) & mascara) {
+            int posicion = inicioIndiceNombres + ranura * LARGO_RANURA_NOMBRE;
+            int entrada = datos.getInt(posicion + 4) - 1;
+            if (entrada < 0) {
+                return -1;
+            }
+            if (datos.getInt(posicion) == hash && nombreIgual(entrada, nombre)) {
+                return entrada;
+            }
+        }
+    }
+
+    /** Compara el nombre UTF-8 de la entrada con los caracteres buscados, sin decodificarlo. */
+    private boolean nombreIgual(int entrada, CharSequence nombre) {
+        int posicionEntrada = posicionEntrada(entrada);
+        int posicion = inicioNombres + datos.getInt(posicionEntrada + 16);
+        int largo = datos.getInt(posicionEntrada + 20);
+        int fin = posicion + largo;
+        int caracteres = nombre.length();
+        int i = 0;
+        if (largo == caracteres) {
+            // Camino rápido para nombres ASCII, donde cada carácter ocupa un byte
+            while (i < caracteres && nombre.charAt(i) < 0x80) {
+                if (datos.get(posicion) != nombre.charAt(i)) {
+                    return false;
+                }
+                i++;
+                posicion++;
+            }
+            if (i == caracteres) {
+                return true;
+            }
+        }
+        for (; i < caracteres; i++) {
+            int c = nombre.charAt(i);
+            if (Character.isHighSurrogate((char) c) && i + 1 < caracteres
+                    && Character.isLowSurrogate(nombre.charAt(i + 1))) {
+                c = Character.toCodePoint((char) c, nombre.charAt(++i));
+            }
+            int bytes = c < 0x80 ? 1 : c < 0x800 ? 2 : c < 0x10000 ? 3 : 4;
+            if (fin - posicion < bytes) {
+                return false;
+            }
+            if (bytes == 1) {
+                if (datos.get(posicion++) != c) {
+                    return false;
+                }
+                continue;
+            }
+            int primero = bytes == 2 ? 0xC0 | (c >> 6) : bytes == 3 ? 0xE0 | (c >> 12) : 0xF0 | (c >> 18);
+            if ((datos.get(posicion++) & 0xFF) != primero) {
+                return false;
+            }
+            for (int desplazamiento = (bytes - 2) * 6; desplazamiento >= 0; desplazamiento -= 6) {
+                if ((datos.get(posicion++) & 0xFF) != (0x80 | ((c >> desplazamiento) & 0x3F))) {
+                    return false;
+                }
+            }
+        }
+        return posicion == fin;
+    }
+
+    private static int hashId(long id) {
+        long h = id * 0x9E37_79B9_7F4A_7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /** Mezcla el hash de {@link String#hashCode()}, que los {@code String} ya tienen calculado. */
+    private static int hashNombre(CharSequence nombre) {
+        int h;
+        if (nombre instanceof String) {
+            h = nombre.hashCode();
+        } else {
+            h = 0;
+            for (int i = 0; i < nombre.length(); i++) {
+                h = 31 * h + nombre.charAt(i);
+            }
+        }
+        return (h ^ (h >>> 16)) * 0x45D9_F3B;
+    }
+
+    private static ByteBuffer serializar(List<Producto> productos) {
+        int cantidad = productos.size();
+        int capacidad = Integer.highestOneBit(Math.max(1, cantidad) * 2 - 1) << 1;
+        List<byte[]> nombres = new ArrayList<>(cantidad);
+        long largoNombres = 0;
+        for (Producto producto : productos) {
+            byte[] nombre = producto.nombre.getBytes(StandardCharsets.UTF_8);
+            nombres.add(nombre);
+            largoNombres += nombre.length;
+        }
+        long largo = LARGO_ENCABEZADO + (long) cantidad * LARGO_ENTRADA
+                + (long) capacidad * (Integer.BYTES + LARGO_RANURA_NOMBRE) + largoNombres;
+        if (largo > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("El catálogo supera los 2 GB");
+        }
+
+        ByteBuffer salida = ByteBuffer.allocate((int) largo).order(ByteOrder.LITTLE_ENDIAN);
+        int inicioIndiceIds = LARGO_ENCABEZADO + cantidad * LARGO_ENTRADA;
+        int inicioIndiceNombres = inicioIndiceIds + capacidad * Integer.BYTES;
+        int inicioNombres = inicioIndiceNombres + capacidad * LARGO_RANURA_NOMBRE;
+        salida.putInt(MAGIA).putInt(VERSION).putInt(cantidad).putInt(capacidad)
+                .putInt(LARGO_ENCABEZADO).putInt(inicioIndiceIds).putInt(inicioIndiceNombres).putInt(inicioNombres);
+
+        int mascara = capacidad - 1;
+        int desplazamientoNombre = 0;
+        for (int entrada = 0; entrada < cantidad; entrada++) {
+            Producto producto = productos.get(entrada);
+            byte[] nombre = nombres.get(entrada);
+            salida.putLong(producto.id).putLong(producto.precioCentavos).putInt(desplazamientoNombre).putInt(nombre.length);
+            salida.put(inicioNombres + desplazamientoNombre, nombre);
+            desplazamientoNombre += nombre.length;
+
+            int ranura = hashId(producto.id) & mascara;
+            while (salida.getInt(inicioIndiceIds + ranura * Integer.BYTES) != 0) {
+                ranura = (ranura + 1) & mascara;
+            }
+            salida.putInt(inicioIndiceIds + ranura * Integer.BYTES, entrada + 1);
+
+            int hash = hashNombre(producto.nombre);
+            ranura = hash & mascara;
+            while (salida.getInt(inicioIndiceNombres + ranura * LARGO_RANURA_NOMBRE + 4) != 0) {
+                ranura = (ranura + 1) & mascara;
+            }
+            salida.putInt(inicioIndiceNombres + ranura * LARGO_RANURA_NOMBRE, hash);
+            salida.putInt(inicioIndiceNombres + ranura * LARGO_RANURA_NOMBRE + 4, entrada + 1);
+        }
+        salida.clear();
+        return salida;
+    }
+
+    private static List<Producto> leerCsv(BufferedReader lector) throws IOException {
+        List<Producto> productos = new ArrayList<>();
+        Set<Long> ids = new HashSet<>();
+        Set<String> nombres = new HashSet<>();
+        String linea;
+        int numero = 0;
+        while ((linea = lector.readLine()) != null) {
+            numero++;
+            if (linea.isBlank() || (numero == 1 && linea.trim().equalsIgnoreCase(ENCABEZADO_CSV))) {
+                continue;
+            }
+            Producto producto = leerLinea(linea, numero);
+            if (!ids.add(producto.id)) {
+                throw new IllegalArgumentException("ID repetido en la línea " + numero + ": " + producto.id);
+            }
+            if (!nombres.add(producto.nombre)) {
+                throw new IllegalArgumentException("Nombre repetido en la línea " + numero + ": " + producto.nombre);
+            }
+            productos.add(producto);
+        }
+        return productos;
+    }
+
+    private static Producto leerLinea(String linea, int numero) {
+        int primeraComa = linea.indexOf(',');
+        if (primeraComa < 0) {
+            throw lineaInvalida(numero, "se esperaban tres columnas");
+        }
+        int inicioNombre = primeraComa + 1;
+        String nombre;
+        int finNombre;
+        if (inicioNombre < linea.length() && linea.charAt(inicioNombre) == '"') {
+            StringBuilder sb = new StringBuilder();
+            int i = inicioNombre + 1;
+            while (true) {
+                if (i >= linea.length()) {
+                    throw lineaInvalida(numero, "comillas sin cerrar");
+                }
+                char c = linea.charAt(i++);
+                if (c == '"') {
+                    if (i < linea.length() && linea.charAt(i) == '"') {
+                        sb.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                } else {
+                    sb.append(c);
+                }
+            }
+            nombre = sb.toString();
+            finNombre = i;
+        } else {
+            finNombre = linea.indexOf(',', inicioNombre);
+            if (finNombre < 0) {
+                throw lineaInvalida(numero, "se esperaban tres columnas");
+            }
+            nombre = linea.substring(inicioNombre, finNombre).trim();
+        }
+        if (finNombre >= linea.length() || linea.charAt(finNombre) != ',') {
+            throw lineaInvalida(numero, "se esperaban tres columnas");
+        }
+        if (nombre.isEmpty()) {
+            throw lineaInvalida(numero, "el nombre no puede estar vacío");
+        }
+        for (int i = 0; i < nombre.length(); i++) {
+            char c = nombre.charAt(i);
+            if (Character.isSurrogate(c) && !(Character.isHighSurrogate(c) && i + 1 < nombre.length()
+                    && Character.isLowSurrogate(nombre.charAt(++i)))) {
+                throw lineaInvalida(numero, "el nombre no es UTF-16 válido");
+            }
+        }
+
+        try {
+            long id = Long.parseLong(linea.substring(0, primeraComa).trim());
+            long precio = CalculadoraDescuentos.aCentavos(new BigDecimal(linea.substring(finNombre + 1).trim()));
+            if (precio < 0) {
+                throw lineaInvalida(numero, "el precio no puede ser negativo");
+            }
+            return new Producto(id, nombre, precio);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw lineaInvalida(numero, "ID o precio inválido");
+        } catch (IllegalArgumentException e) {
+            throw lineaInvalida(numero, e.getMessage());
+        }
+    }
+
+    private static IllegalArgumentException lineaInvalida(int numero, String detalle) {
+        return new IllegalArgumentException("Línea " + numero + " del CSV inválida: " + detalle);
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogoPrecios{" +
+                "cantidad=" + cantidad +
+                ", bytes=" + datos.capacity() +
+                '}';
+    }
+
+    private static final class Producto {
+
+        private final long id;
+        private final String nombre;
+        private final long precioCentavos;
+
+        Producto(long id, String nombre, long precioCentavos) {
+            this.id = id;
+            this.nombre = nombre;
+            this.precioCentavos = precioCentavos;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.multipedidos.common.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuito interruptor sin bloqueos para llamadas a otro microservicio.
+ * - Cerrado: las llamadas pasan; tras {@code fallosParaAbrir} fallos seguidos se abre
+ * - Abierto: las llamadas fallan de inmediato hasta que vence {@code tiempoAbierto}
+ * - Semiabierto: se deja pasar una única llamada de prueba; si funciona se cierra,
+ *   si falla vuelve a abrirse
+ */
+public final class CircuitoInterruptor {
+
+    public enum Estado { CERRADO, ABIERTO, SEMIABIERTO }
+
+    private static final long CERRADO = 0L;
+
+    private final int fallosParaAbrir;
+    private final long tiempoAbiertoNanos;
+    private final LongSupplier reloj;
+
+    private final AtomicInteger fallosSeguidos = new AtomicInteger();
+    // 0 si está cerrado; si no, instante (nanoTime) hasta el que permanece abierto
+    private final AtomicLong abiertoHasta = new AtomicLong(CERRADO);
+    private final AtomicInteger pruebaEnCurso = new AtomicInteger();
+
+    CircuitoInterruptor(int fallosParaAbrir, long tiempoAbiertoNanos, LongSupplier reloj) {
+        this.fallosParaAbrir = fallosParaAbrir;
+        this.tiempoAbiertoNanos = tiempoAbiertoNanos;
+        this.reloj = reloj;
+    }
+
+    /**
+     * @return {@code true} si la llamada puede intentarse
+     */
+    boolean permitir() {
+        long hasta = abiertoHasta.get();
+        if (hasta == CERRADO) {
+            return true;
+        }
+        if (reloj.getAsLong() - hasta < 0) {
+            return false;
+        }
+        // Venció el tiempo abierto: solo un hilo hace la llamada de prueba
+        return pruebaEnCurso.compareAndSet(0, 1);
+    }
+
+    void registrarExito() {
+        fallosSeguidos.set(0);
+        if (abiertoHasta.get() != CERRADO) {
+            abiertoHasta.set(CERRADO);
+            pruebaEnCurso.set(0);
+        }
+    }
+
+    void registrarFallo() {
+        if (abiertoHasta.get() != CERRADO) {
+            // Falló la llamada de prueba: se reabre
+            abrir();
+            return;
+        }
+        if (fallosSeguidos.incrementAndGet() >= fallosParaAbrir) {
+            abrir();
+        }
+    }
+
+    /**
+     * Libera la llamada de prueba sin contarla como éxito ni fallo (por ejemplo, errores del cliente).
+     */
+    void registrarNeutro() {
+        if (abiertoHasta.get() != CERRADO) {
+            pruebaEnCurso.set(0);
+        }
+    }
+
+    private void abrir() {
+        long hasta = reloj.getAsLong() + tiempoAbiertoNanos;
+        abiertoHasta.set(hasta == CERRADO ? 1 : hasta);
+        fallosSeguidos.set(0);
+        pruebaEnCurso.set(0);
+    }
+
+    public Estado getEstado() {
+        long hasta = abiertoHasta.get();
+        if (hasta == CERRADO) {
+            return Estado.CERRADO;
+        }
+        return reloj.getAsLong() - hasta < 0 ? Estado.ABIERTO : Estado.SEMIABIERTO;
+    }
+}
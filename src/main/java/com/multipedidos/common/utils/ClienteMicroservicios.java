@@ -0,0 +1,219 @@
+package com.multipedidos.common.utils;
+
+import com.multipedidos.common.dto.PedidoDTO;
+import com.multipedidos.common.exceptions.IntegracionMicroserviciosException;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Cliente configurable para un microservicio destino. A diferencia de los métodos estáticos
+ * de {@link IntegradorMicroservicios}, se construye una vez por URL base y reutiliza su
+ * {@link HttpClient} (y sus conexiones) en todas las llamadas, con:
+ * - Versión HTTP preferida (HTTP/2, incluido h2c sobre http://, con caída a HTTP/1.1)
+ * - Executor propio, por ejemplo de hilos virtuales en JDK 21
+ * - Tiempos de conexión y de respuesta configurables
+ * - URL base validada una sola vez al construir el cliente
+ * - Métricas del endpoint resueltas una sola vez, en el registro de {@link IntegradorMicroservicios#obtenerMetricas()}
+ *
+ * <p>Es inmutable y thread-safe; debe compartirse en lugar de crearse por petición.</p>
+ */
+public final class ClienteMicroservicios {
+
+    private static final String RUTA_PEDIDOS = "/api/pedidos/";
+
+    private final URI baseUri;
+    private final String prefijoPedidos;
+    private final Duration timeoutPeticion;
+    private final HttpClient httpClient;
+    private final MetricasIntegrador.Endpoint metricasPedido;
+
+    private ClienteMicroservicios(Builder builder) {
+        this.baseUri = builder.baseUri;
+        this.prefijoPedidos = builder.baseUri.toString() + RUTA_PEDIDOS;
+        this.timeoutPeticion = builder.timeoutPeticion;
+        this.httpClient = builder.httpClient != null ? builder.httpClient : crearHttpClient(builder);
+        this.metricasPedido = IntegradorMicroservicios.obtenerMetricas()
+                .endpoint(builder.baseUri.toString(), IntegradorMicroservicios.RUTA_PEDIDO);
+    }
+
+    /**
+     * @param baseUrl URL base del microservicio (por ejemplo, http://localhost:8080)
+     * @return Constructor del cliente
+     * @throws IllegalArgumentException si la URL base no es una URI http(s) absoluta
+     */
+    public static Builder builder(String baseUrl) {
+        return new Builder(baseUrl);
+    }
+
+    private static HttpClient crearHttpClient(Builder builder) {
+        HttpClient.Builder httpBuilder = HttpClient.newBuilder()
+                .version(builder.version)
+                .connectTimeout(builder.timeoutConexion)
+                .followRedirects(HttpClient.Redirect.NORMAL);
+        if (builder.executor != null) {
+            httpBuilder.executor(builder.executor);
+        }
+        return httpBuilder.build();
+    }
+
+    /**
+     * Consulta el JSON de un pedido.
+     *
+     * @param pedidoId identificador del pedido a consultar
+     * @return JSON crudo del pedido cuando la respuesta es 2xx; {@link Optional#empty()} si la respuesta es 404
+     * @throws IntegracionMicroserviciosException cuando ocurre un error de red o una respuesta inesperada
+     */
+    public Optional<String> obtenerPedidoJson(long pedidoId) {
+        return obtenerPedidoJson(pedidoId, timeoutPeticion);
+    }
+
+    /**
+     * Consulta el JSON de un pedido con un tiempo máximo de respuesta propio, por ejemplo el
+     * que recibe la función de {@link IntegradorResiliente#ejecutar}.
+     */
+    public Optional<String> obtenerPedidoJson(long pedidoId, Duration timeout) {
+        HttpRequest request = peticionPedido(pedidoId, timeout);
+        HttpResponse<String> response = IntegradorMicroservicios.enviar(httpClient, request,
+                DescompresorRespuestas.ofString(), metricasPedido);
+        return IntegradorMicroservicios.interpretarRespuesta(response, request.uri().toString());
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerPedidoJson(long)}; usa el executor del cliente.
+     */
+    public CompletableFuture<Optional<String>> obtenerPedidoJsonAsync(long pedidoId) {
+        HttpRequest request = peticionPedido(pedidoId, timeoutPeticion);
+        return IntegradorMicroservicios.enviarAsync(httpClient, request, DescompresorRespuestas.ofString(), metricasPedido)
+                .handle((response, error) -> {
+                    if (error != null) {
+                        throw IntegradorMicroservicios.errorAsincrono(error);
+                    }
+                    return IntegradorMicroservicios.interpretarRespuesta(response, request.uri().toString());
+                });
+    }
+
+    /**
+     * Consulta un pedido y lo decodifica a medida que llega la respuesta, en el formato de
+     * {@link CodecBinarioPedidos} si el servicio lo ofrece o en JSON.
+     *
+     * @param pedidoId identificador del pedido a consultar
+     * @return Pedido decodificado; {@link Optional#empty()} si la respuesta es 404
+     */
+    public Optional<PedidoDTO> obtenerPedido(long pedidoId) {
+        HttpRequest request = IntegradorMicroservicios.peticionGet(uriPedido(pedidoId), timeoutPeticion)
+                .setHeader("Accept", IntegradorMicroservicios.ACEPTA_BINARIO)
+                .build();
+        return IntegradorMicroservicios.consultarEnFlujo(httpClient, request, metricasPedido,
+                        cuerpo -> Optional.ofNullable(DecodificadorPedidosJson.leerPedido(cuerpo)),
+                        binario -> Optional.ofNullable(CodecBinarioPedidos.decodificarPedido(binario)))
+                .flatMap(pedido -> pedido);
+    }
+
+    private HttpRequest peticionPedido(long pedidoId, Duration timeout) {
+        return IntegradorMicroservicios.peticionGet(uriPedido(pedidoId), timeout).build();
+    }
+
+    private URI uriPedido(long pedidoId) {
+        if (pedidoId <= 0) {
+            throw new IllegalArgumentException("El ID del pedido debe ser mayor a cero");
+        }
+        // El prefijo ya fue validado: concatenar un número no puede producir una URI inválida
+        return URI.create(prefijoPedidos + pedidoId);
+    }
+
+    public URI getBaseUri() {
+        return baseUri;
+    }
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    public Duration getTimeoutPeticion() {
+        return timeoutPeticion;
+    }
+
+    @Override
+    public String toString() {
+        return "ClienteMicroservicios{" +
+                "baseUri=" + baseUri +
+                ", version=" + httpClient.version() +
+                ", timeoutPeticion=" + timeoutPeticion +
+                '}';
+    }
+
+    public static final class Builder {
+
+        private final URI baseUri;
+        private HttpClient.Version version = HttpClient.Version.HTTP_2;
+        private Duration timeoutConexion = Duration.ofSeconds(5);
+        private Duration timeoutPeticion = Duration.ofSeconds(5);
+        private Executor executor;
+        private HttpClient httpClient;
+
+        private Builder(String baseUrl) {
+            Objects.requireNonNull(baseUrl, "La URL base no puede ser nula");
+            if (baseUrl.isBlank()) {
+                throw new IllegalArgumentException("La URL base no puede estar vacía");
+            }
+            String sinBarra = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+            URI uri = URI.create(sinBarra);
+            if (!uri.isAbsolute() || uri.getHost() == null
+                    || !("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme()))) {
+                throw new IllegalArgumentException("La URL base debe ser http(s) absoluta: " + baseUrl);
+            }
+            this.baseUri = uri;
+        }
+
+        /** Versión HTTP preferida; con HTTP_2 sobre http:// se intenta h2c y se cae a HTTP/1.1. */
+        public Builder version(HttpClient.Version version) {
+            this.version = Objects.requireNonNull(version, "La versión no puede ser nula");
+            return this;
+        }
+
+        public Builder timeoutConexion(Duration timeoutConexion) {
+            Objects.requireNonNull(timeoutConexion, "El timeout de conexión no puede ser nulo");
+            if (timeoutConexion.isNegative() || timeoutConexion.isZero()) {
+                throw new IllegalArgumentException("El timeout de conexión debe ser positivo");
+            }
+            this.timeoutConexion = timeoutConexion;
+            return this;
+        }
+
+        public Builder timeoutPeticion(Duration timeoutPeticion) {
+            Objects.requireNonNull(timeoutPeticion, "El timeout de petición no puede ser nulo");
+            if (timeoutPeticion.isNegative() || timeoutPeticion.isZero()) {
+                throw new IllegalArgumentException("El timeout de petición debe ser positivo");
+            }
+            this.timeoutPeticion = timeoutPeticion;
+            return this;
+        }
+
+        /** Executor para las tareas asíncronas del {@link HttpClient}; por defecto, el del JDK. */
+        public Builder executor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor, "El executor no puede ser nulo");
+            return this;
+        }
+
+        /**
+         * Usa un {@link HttpClient} existente, para compartirlo deliberadamente entre varios destinos.
+         * En ese caso se ignoran la versión, el executor y el timeout de conexión del builder.
+         */
+        public Builder httpClient(HttpClient httpClient) {
+            this.httpClient = Objects.requireNonNull(httpClient, "El HttpClient no puede ser nulo");
+            return this;
+        }
+
+        public ClienteMicroservicios build() {
+            return new ClienteMicroservicios(this);
+        }
+    }
+}
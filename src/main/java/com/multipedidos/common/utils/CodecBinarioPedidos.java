@@ -0,0 +1,582 @@
+package com.multipedidos.common.utils;
+
+import com.multipedidos.common.dto.PedidoDTO;
+import com.multipedidos.common.dto.ProductoDTO;
+import com.multipedidos.common.exceptions.IntegracionMicroserviciosException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Formato binario compacto para intercambiar productos y pedidos entre servicios, como
+ * alternativa al JSON cuando ambos extremos usan esta librería. Se negocia con el encabezado
+ * {@code Accept} usando {@link #TIPO_CONTENIDO}.
+ *
+ * <p>Cada mensaje tiene un encabezado fijo ({@code 'M' 'P'}, versión y tipo), el largo del
+ * cuerpo como varint y luego el cuerpo:
+ * - Diccionario: cantidad de cadenas y cada una como largo + bytes UTF-8; los nombres,
+ *   códigos y estados se escriben una sola vez y se referencian por índice
+ * - Montos: escala y valor sin escala como varints con zigzag, por lo que un precio
+ *   como 89.90 ocupa 4 bytes y se decodifica con la misma escala
+ * - Listas: cantidad como varint seguida de los elementos</p>
+ *
+ * <p>La decodificación lee directamente del {@link ByteBuffer} y avanza su posición hasta el
+ * final del mensaje, de modo que varios mensajes concatenados se leen uno tras otro;
+ * {@link #separarMensaje(ByteBuffer)} entrega cada mensaje como una vista, sin copiarlo.</p>
+ */
+public final class CodecBinarioPedidos {
+
+    /** Tipo de contenido del formato, para los encabezados {@code Accept} y {@code Content-Type}. */
+    public static final String TIPO_CONTENIDO = "application/x-multipedidos";
+
+    private static final byte MAGIA_0 = 'M';
+    private static final byte MAGIA_1 = 'P';
+    private static final byte VERSION = 1;
+    private static final byte TIPO_PRODUCTOS = 1;
+    private static final byte TIPO_PEDIDO = 2;
+    private static final byte TIPO_PEDIDOS = 3;
+    private static final int LARGO_ENCABEZADO = 4;
+    private static final int MAX_VARINT_INT = 5;
+
+    // Presencia de los campos de un pedido
+    private static final int CON_ID = 1;
+    private static final int CON_CODIGO = 1 << 1;
+    private static final int CON_CLIENTE = 1 << 2;
+    private static final int CON_ESTADO = 1 << 3;
+    private static final int CON_TOTAL = 1 << 4;
+    private static final int CON_PRODUCTOS = 1 << 5;
+    private static final int PEDIDO_NULO = 1 << 7;
+
+    // Referencias de un producto: 0 producto nulo, 1 nombre nulo, 2 + i entrada i del diccionario
+    private static final int PRODUCTO_NULO = 0;
+    private static final int NOMBRE_NULO = 1;
+
+    private CodecBinarioPedidos() {
+        throw new IllegalStateException("No se puede instanciar la clase de utilería");
+    }
+
+    /**
+     * @param productos Productos a codificar; se admiten elementos, nombres y precios nulos
+     * @return Mensaje codificado, con posición 0 y límite al final del mensaje
+     * @throws IllegalArgumentException si la lista es nula o algún precio no cabe en un {@code long} sin escala
+     */
+    public static ByteBuffer codificarProductos(List<ProductoDTO> productos) {
+        if (productos == null) {
+            throw new IllegalArgumentException("La lista de productos no puede ser nula");
+        }
+        Escritor escritor = new Escritor(16 + productos.size() * 8);
+        Diccionario diccionario = new Diccionario();
+        diccionario.agregarNombres(productos);
+        diccionario.escribir(escritor);
+        escribirProductos(escritor, diccionario, productos);
+        return escritor.terminar(TIPO_PRODUCTOS);
+    }
+
+    /**
+     * @param pedido Pedido a codificar; se admiten campos nulos
+     * @return Mensaje codificado, con posición 0 y límite al final del mensaje
+     * @throws IllegalArgumentException si el pedido es nulo o algún monto no cabe en un {@code long} sin escala
+     */
+    public static ByteBuffer codificarPedido(PedidoDTO pedido) {
+        if (pedido == null) {
+            throw new IllegalArgumentException("El pedido no puede ser nulo");
+        }
+        return codificarPedidos(List.of(pedido), TIPO_PEDIDO);
+    }
+
+    /**
+     * @param pedidos Pedidos a codificar, con un único diccionario para todos
+     * @return Mensaje codificado, con posición 0 y límite al final del mensaje
+     * @throws IllegalArgumentException si la colección es nula o algún monto no cabe en un {@code long} sin escala
+     */
+    public static ByteBuffer codificarPedidos(Collection<PedidoDTO> pedidos) {
+        if (pedidos == null) {
+            throw new IllegalArgumentException("La colección de pedidos no puede ser nula");
+        }
+        return codificarPedidos(pedidos, TIPO_PEDIDOS);
+    }
+
+    private static ByteBuffer codificarPedidos(Collection<PedidoDTO> pedidos, byte tipo) {
+        Escritor escritor = new Escritor(64 * Math.max(1, pedidos.size()));
+        Diccionario diccionario = new Diccionario();
+        for (PedidoDTO pedido : pedidos) {
+            if (pedido != null) {
+                diccionario.agregar(pedido.getCodigo());
+                diccionario.agregar(pedido.getEstado());
+                if (pedido.getProductos() != null) {
+                    diccionario.agregarNombres(pedido.getProductos());
+                }
+            }
+        }
+        diccionario.escribir(escritor);
+        if (tipo == TIPO_PEDIDOS) {
+            escritor.varint(pedidos.size());
+        }
+        for (PedidoDTO pedido : pedidos) {
+            escribirPedido(escritor, diccionario, pedido);
+        }
+        return escritor.terminar(tipo);
+    }
+
+    /**
+     * Decodifica una lista de productos y avanza la posición del búfer hasta el final del mensaje.
+     *
+     * @param mensaje Búfer posicionado al inicio del mensaje
+     * @return Productos en el orden en que se codificaron
+     * @throws IntegracionMicroserviciosException si el mensaje es inválido, está truncado o no es una lista de productos
+     */
+    public static List<ProductoDTO> decodificarProductos(ByteBuffer mensaje) {
+        Lector lector = abrir(mensaje, TIPO_PRODUCTOS);
+        String[] diccionario = lector.diccionario();
+        List<ProductoDTO> productos = leerProductos(lector, diccionario);
+        lector.cerrar();
+        return productos;
+    }
+
+    /**
+     * Decodifica un pedido y avanza la posición del búfer hasta el final del mensaje.
+     *
+     * @param mensaje Búfer posicionado al inicio del mensaje
+     * @return Pedido decodificado
+     * @throws IntegracionMicroserviciosException si el mensaje es inválido, está truncado o no es un pedido
+     */
+    public static PedidoDTO decodificarPedido(ByteBuffer mensaje) {
+        Lector lector = abrir(mensaje, TIPO_PEDIDO);
+        String[] diccionario = lector.diccionario();
+        PedidoDTO pedido = leerPedido(lector, diccionario);
+        lector.cerrar();
+        return pedido;
+    }
+
+    /**
+     * Decodifica una lista de pedidos entregando cada uno apenas se completa, y avanza la
+     * posición del búfer hasta el final del mensaje.
+     *
+     * @param mensaje Búfer posicionado al inicio del mensaje
+     * @param consumidor Recibe cada pedido en orden
+     * @return Cantidad de pedidos leídos
+     * @throws IntegracionMicroserviciosException si el mensaje es inválido, está truncado o no es una lista de pedidos
+     */
+    public static long decodificarPedidos(ByteBuffer mensaje, Consumer<PedidoDTO> consumidor) {
+        Objects.requireNonNull(consumidor, "El consumidor no puede ser nulo");
+        Lector lector = abrir(mensaje, TIPO_PEDIDOS);
+        String[] diccionario = lector.diccionario();
+        int cantidad = lector.cantidad();
+        for (int i = 0; i < cantidad; i++) {
+            consumidor.accept(leerPedido(lector, diccionario));
+        }
+        lector.cerrar();
+        return cantidad;
+    }
+
+    /**
+     * Separa el siguiente mensaje completo de un búfer con mensajes concatenados (por ejemplo,
+     * leídos de un socket) sin copiar sus bytes.
+     *
+     * @param origen Búfer posicionado al inicio de un mensaje
+     * @return Vista del mensaje, que comparte el contenido de {@code origen}; {@code null} si el
+     *         mensaje aún no está completo, en cuyo caso la posición de {@code origen} no cambia
+     * @throws IntegracionMicroserviciosException si el encabezado es inválido
+     */
+    public static ByteBuffer separarMensaje(ByteBuffer origen) {
+        int inicio = origen.position();
+        int limite = origen.limit();
+        if (limite - inicio < LARGO_ENCABEZADO + 1) {
+            return null;
+        }
+        validarEncabezado(origen, inicio);
+        int largo = 0;
+        int indice = inicio + LARGO_ENCABEZADO;
+        for (int desplazamiento = 0; ; desplazamiento += 7) {
+            if (indice == limite) {
+                return null;
+            }
+            byte b = origen.get(indice++);
+            // El último byte solo aporta los bits 28 a 30; más bits o una continuación no caben en el largo
+            if (desplazamiento == 7 * (MAX_VARINT_INT - 1) && (b & 0xF8) != 0) {
+                throw invalido("largo del mensaje mal formado");
+            }
+            largo |= (b & 0x7F) << desplazamiento;
+            if (b >= 0) {
+                break;
+            }
+        }
+        if (limite - indice < largo) {
+            return null;
+        }
+        ByteBuffer vista = origen.duplicate();
+        vista.limit(indice + largo);
+        origen.position(indice + largo);
+        return vista.slice();
+    }
+
+    private static void escribirProductos(Escritor escritor, Diccionario diccionario, List<ProductoDTO> productos) {
+        escritor.varint(productos.size());
+        for (ProductoDTO producto : productos) {
+            if (producto == null) {
+                escritor.varint(PRODUCTO_NULO);
+                continue;
+            }
+            String nombre = producto.getNombre();
+            escritor.varint(nombre == null ? NOMBRE_NULO : 2 + diccionario.indice(nombre));
+            escritor.monto(producto.getPrecio());
+        }
+    }
+
+    private static void escribirPedido(Escritor escritor, Diccionario diccionario, PedidoDTO pedido) {
+        if (pedido == null) {
+            escritor.byteSinSigno(PEDIDO_NULO);
+            return;
+        }
+        int campos = (pedido.getId() != null ? CON_ID : 0)
+                | (pedido.getCodigo() != null ? CON_CODIGO : 0)
+                | (pedido.getClienteId() != null ? CON_CLIENTE : 0)
+                | (pedido.getEstado() != null ? CON_ESTADO : 0)
+                | (pedido.getTotal() != null ? CON_TOTAL : 0)
+                | (pedido.getProductos() != null ? CON_PRODUCTOS : 0);
+        escritor.byteSinSigno(campos);
+        if (pedido.getId() != null) {
+            escritor.varlong(zigzag(pedido.getId()));
+        }
+        if (pedido.getCodigo() != null) {
+            escritor.varint(diccionario.indice(pedido.getCodigo()));
+        }
+        if (pedido.getClienteId() != null) {
+            escritor.varlong(zigzag(pedido.getClienteId()));
+        }
+        if (pedido.getEstado() != null) {
+            escritor.varint(diccionario.indice(pedido.getEstado()));
+        }
+        if (pedido.getTotal() != null) {
+            escritor.monto(pedido.getTotal());
+        }
+        if (pedido.getProductos() != null) {
+            escribirProductos(escritor, diccionario, pedido.getProductos());
+        }
+    }
+
+    private static List<ProductoDTO> leerProductos(Lector lector, String[] diccionario) {
+        int cantidad = lector.cantidad();
+        List<ProductoDTO> productos = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            int referencia = lector.varint();
+            if (referencia == PRODUCTO_NULO) {
+                productos.add(null);
+                continue;
+            }
+            String nombre = referencia == NOMBRE_NULO ? null : lector.entrada(diccionario, referencia - 2);
+            productos.add(new ProductoDTO(nombre, lector.monto()));
+        }
+        return productos;
+    }
+
+    private static PedidoDTO leerPedido(Lector lector, String[] diccionario) {
+        int campos = lector.byteSinSigno();
+        if (campos == PEDIDO_NULO) {
+            return null;
+        }
+        if ((campos & ~(CON_ID | CON_CODIGO | CON_CLIENTE | CON_ESTADO | CON_TOTAL | CON_PRODUCTOS)) != 0) {
+            throw invalido("campos de pedido desconocidos");
+        }
+        PedidoDTO pedido = new PedidoDTO();
+        if ((campos & CON_ID) != 0) {
+            pedido.setId(desZigzag(lector.varlong()));
+        }
+        if ((campos & CON_CODIGO) != 0) {
+            pedido.setCodigo(lector.entrada(diccionario, lector.varint()));
+        }
+        if ((campos & CON_CLIENTE) != 0) {
+            pedido.setClienteId(desZigzag(lector.varlong()));
+        }
+        if ((campos & CON_ESTADO) != 0) {
+            pedido.setEstado(lector.entrada(diccionario, lector.varint()));
+        }
+        if ((campos & CON_TOTAL) != 0) {
+            BigDecimal total = lector.monto();
+            if (total == null) {
+                throw invalido("total nulo marcado como presente");
+            }
+            pedido.setTotal(total);
+        }
+        pedido.setProductos((campos & CON_PRODUCTOS) != 0 ? leerProductos(lector, diccionario) : null);
+        return pedido;
+    }
+
+    private static Lector abrir(ByteBuffer mensaje, byte tipoEsperado) {
+        if (mensaje == null) {
+            throw new IllegalArgumentException("El mensaje no puede ser nulo");
+        }
+        ByteBuffer vista = separarMensaje(mensaje);
+        if (vista == null) {
+            throw invalido("mensaje truncado");
+        }
+        if (vista.get(3) != tipoEsperado) {
+            throw invalido("tipo de mensaje " + vista.get(3) + ", se esperaba " + tipoEsperado);
+        }
+        // separarMensaje ya avanzó el origen; el lector recorre la vista desde el cuerpo
+        vista.position(LARGO_ENCABEZADO);
+        Lector lector = new Lector(vista);
+        lector.varint();
+        return lector;
+    }
+
+    private static void validarEncabezado(ByteBuffer origen, int inicio) {
+        if (origen.get(inicio) != MAGIA_0 || origen.get(inicio + 1) != MAGIA_1) {
+            throw invalido("no es un mensaje binario de pedidos");
+        }
+        if (origen.get(inicio + 2) != VERSION) {
+            throw invalido("versión " + origen.get(inicio + 2) + " no soportada");
+        }
+    }
+
+    private static long zigzag(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+
+    private static long desZigzag(long valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    private static IntegracionMicroserviciosException invalido(String detalle) {
+        return new IntegracionMicroserviciosException("Mensaje binario inválido: " + detalle);
+    }
+
+    /**
+     * Cadenas del mensaje en orden de primera aparición.
+     */
+    private static final class Diccionario {
+
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final List<String> cadenas = new ArrayList<>();
+
+        void agregar(String cadena) {
+            if (cadena != null && !indices.containsKey(cadena)) {
+                indices.put(cadena, cadenas.size());
+                cadenas.add(cadena);
+            }
+        }
+
+        void agregarNombres(List<ProductoDTO> productos) {
+            for (ProductoDTO producto : productos) {
+                if (producto != null) {
+                    agregar(producto.getNombre());
+                }
+            }
+        }
+
+        int indice(String cadena) {
+            return indices.get(cadena);
+        }
+
+        void escribir(Escritor escritor) {
+            escritor.varint(cadenas.size());
+            for (String cadena : cadenas) {
+                escritor.cadena(cadena);
+            }
+        }
+    }
+
+    /**
+     * Arreglo creciente que deja espacio al inicio para el encabezado, de modo que el mensaje
+     * terminado se devuelve sin copiar el cuerpo.
+     */
+    private static final class Escritor {
+
+        private static final int RESERVA = LARGO_ENCABEZADO + MAX_VARINT_INT;
+
+        private byte[] datos;
+        private int posicion = RESERVA;
+
+        Escritor(int capacidad) {
+            datos = new byte[RESERVA + Math.max(16, capacidad)];
+        }
+
+        private void asegurar(int bytes) {
+            if (datos.length - posicion < bytes) {
+                datos = Arrays.copyOf(datos, Math.max(datos.length * 2, posicion + bytes));
+            }
+        }
+
+        void byteSinSigno(int valor) {
+            asegurar(1);
+            datos[posicion++] = (byte) valor;
+        }
+
+        void varint(int valor) {
+            varlong(valor & 0xFFFFFFFFL);
+        }
+
+        void varlong(long valor) {
+            asegurar(10);
+            while ((valor & ~0x7FL) != 0) {
+                datos[posicion++] = (byte) ((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            datos[posicion++] = (byte) valor;
+        }
+
+        void cadena(String cadena) {
+            int largo = cadena.length();
+            boolean ascii = true;
+            for (int i = 0; i < largo && ascii; i++) {
+                ascii = cadena.charAt(i) < 0x80;
+            }
+            if (!ascii) {
+                byte[] utf8 = cadena.getBytes(StandardCharsets.UTF_8);
+                varint(utf8.length);
+                asegurar(utf8.length);
+                System.arraycopy(utf8, 0, datos, posicion, utf8.length);
+                posicion += utf8.length;
+                return;
+            }
+            varint(largo);
+            asegurar(largo);
+            for (int i = 0; i < largo; i++) {
+                datos[posicion++] = (byte) cadena.charAt(i);
+            }
+        }
+
+        /** 0 para nulo; si no, la escala con zigzag + 1 y el valor sin escala con zigzag. */
+        void monto(BigDecimal monto) {
+            if (monto == null) {
+                varint(0);
+                return;
+            }
+            BigInteger sinEscala = monto.unscaledValue();
+            if (sinEscala.bitLength() > 63) {
+                throw new IllegalArgumentException("El monto no cabe en el formato binario: " + monto);
+            }
+            varlong(zigzag(monto.scale()) + 1);
+            varlong(zigzag(sinEscala.longValue()));
+        }
+
+        ByteBuffer terminar(byte tipo) {
+            int largo = posicion - RESERVA;
+            int bytesLargo = 1;
+            for (int resto = largo >>> 7; resto != 0; resto >>>= 7) {
+                bytesLargo++;
+            }
+            int inicio = RESERVA - bytesLargo - LARGO_ENCABEZADO;
+            datos[inicio] = MAGIA_0;
+            datos[inicio + 1] = MAGIA_1;
+            datos[inicio + 2] = VERSION;
+            datos[inicio + 3] = tipo;
+            int indice = inicio + LARGO_ENCABEZADO;
+            int resto = largo;
+            while ((resto & ~0x7F) != 0) {
+                datos[indice++] = (byte) ((resto & 0x7F) | 0x80);
+                resto >>>= 7;
+            }
+            datos[indice] = (byte) resto;
+            return ByteBuffer.wrap(datos, inicio, posicion - inicio).slice();
+        }
+    }
+
+    /**
+     * Lectura del cuerpo de un mensaje con validación de límites: cualquier entrada truncada o
+     * corrupta termina en {@link IntegracionMicroserviciosException}, nunca en reservas enormes.
+     */
+    private static final class Lector {
+
+        private final ByteBuffer datos;
+
+        Lector(ByteBuffer datos) {
+            this.datos = datos;
+        }
+
+        int byteSinSigno() {
+            if (!datos.hasRemaining()) {
+                throw invalido("mensaje truncado");
+            }
+            return datos.get() & 0xFF;
+        }
+
+        long varlong() {
+            long valor = 0;
+            for (int desplazamiento = 0; desplazamiento < 64; desplazamiento += 7) {
+                int b = byteSinSigno();
+                // El décimo byte solo aporta el bit 63
+                if (desplazamiento == 63 && b > 1) {
+                    break;
+                }
+                valor |= (long) (b & 0x7F) << desplazamiento;
+                if ((b & 0x80) == 0) {
+                    return valor;
+                }
+            }
+            throw invalido("varint mal formado");
+        }
+
+        int varint() {
+            long valor = varlong();
+            if (valor < 0 || valor > Integer.MAX_VALUE) {
+                throw invalido("valor fuera de rango " + valor);
+            }
+            return (int) valor;
+        }
+
+        /** Cantidad de elementos; cada elemento ocupa al menos un byte. */
+        int cantidad() {
+            int cantidad = varint();
+            if (cantidad > datos.remaining()) {
+                throw invalido("cantidad " + cantidad + " mayor que el contenido");
+            }
+            return cantidad;
+        }
+
+        String[] diccionario() {
+            String[] cadenas = new String[cantidad()];
+            for (int i = 0; i < cadenas.length; i++) {
+                int largo = varint();
+                if (largo > datos.remaining()) {
+                    throw invalido("cadena truncada");
+                }
+                if (datos.hasArray()) {
+                    cadenas[i] = new String(datos.array(), datos.arrayOffset() + datos.position(), largo,
+                            StandardCharsets.UTF_8);
+                    datos.position(datos.position() + largo);
+                } else {
+                    byte[] bytes = new byte[largo];
+                    datos.get(bytes);
+                    cadenas[i] = new String(bytes, StandardCharsets.UTF_8);
+                }
+            }
+            return cadenas;
+        }
+
+        String entrada(String[] diccionario, int indice) {
+            if (indice < 0 || indice >= diccionario.length) {
+                throw invalido("referencia " + indice + " fuera del diccionario");
+            }
+            return diccionario[indice];
+        }
+
+        BigDecimal monto() {
+            long escala = varlong();
+            if (escala == 0) {
+                return null;
+            }
+            long decodificada = desZigzag(escala - 1);
+            if (decodificada < Integer.MIN_VALUE || decodificada > Integer.MAX_VALUE) {
+                throw invalido("escala fuera de rango");
+            }
+            return BigDecimal.valueOf(desZigzag(varlong()), (int) decodificada);
+        }
+
+        void cerrar() {
+            if (datos.hasRemaining()) {
+                throw invalido("contenido adicional tras el mensaje");
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.multipedidos.common.utils;
+
+import com.multipedidos.common.exceptions.DatosInvalidosException;
+
+/**
+ * Motivos de rechazo de las variantes {@code intentar*} de {@link CalculadoraDescuentos} y
+ * {@link ValidadorCodigos}, que devuelven un {@link Resultado} en lugar de lanzar. Los mensajes
+ * coinciden con los de las variantes que lanzan {@link IllegalArgumentException}.
+ */
+public enum CodigoError {
+
+    MONTO_INVALIDO("El monto no puede ser nulo o negativo"),
+    SUBTOTAL_INVALIDO("El subtotal no puede ser nulo o negativo"),
+    PORCENTAJE_INVALIDO("El porcentaje debe estar entre 0 y 100"),
+    PRODUCTOS_VACIOS("La lista de productos no puede ser nula o vacía"),
+    DEMASIADOS_DECIMALES("El monto no puede tener más de 2 decimales"),
+    DESBORDAMIENTO("El monto excede el rango que admite el cálculo"),
+    ID_INVALIDO("El ID debe ser un número positivo"),
+    TIPO_ENTIDAD_INVALIDO("Tipo de entidad no soportado. Tipos válidos: PEDIDO, PED, FACTURA, FAC");
+
+    private final String mensaje;
+    private final DatosInvalidosException excepcion;
+    private final Resultado<?> resultado;
+
+    CodigoError(String mensaje) {
+        this.mensaje = mensaje;
+        this.excepcion = DatosInvalidosException.sinTraza(mensaje);
+        this.resultado = new Resultado<>(null, this);
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    /**
+     * @return Excepción sin traza, creada una sola vez por código y compartida entre hilos;
+     *         no admite causa, traza ni suprimidas ({@link DatosInvalidosException#sinTraza(String)})
+     */
+    public DatosInvalidosException excepcion() {
+        return excepcion;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> Resultado<T> resultado() {
+        return (Resultado<T>) resultado;
+    }
+}
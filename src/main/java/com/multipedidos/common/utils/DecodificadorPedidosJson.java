@@ -0,0 +1,400 @@
+package com.multipedidos.common.utils;
+
+import com.multipedidos.common.dto.PedidoDTO;
+import com.multipedidos.common.dto.ProductoDTO;
+import com.multipedidos.common.exceptions.IntegracionMicroserviciosException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Decodificador JSON incremental (sin dependencias) para pedidos y productos.
+ * Lee el cuerpo a medida que llega desde un {@link InputStream}, sin materializarlo
+ * como {@code String}, y construye directamente {@link PedidoDTO} con sus {@link ProductoDTO}.
+ * Los campos desconocidos se ignoran.
+ *
+ * <p>Un arreglo de pedidos se entrega elemento por elemento a un {@link Consumer}, de modo
+ * que en memoria solo vive el pedido que se está procesando.</p>
+ */
+public final class DecodificadorPedidosJson {
+
+    private DecodificadorPedidosJson() {
+        throw new IllegalStateException("No se puede instanciar la clase de utilería");
+    }
+
+    /**
+     * Decodifica un único pedido.
+     *
+     * @param entrada Cuerpo JSON en UTF-8; no se cierra
+     * @return Pedido decodificado, o {@code null} si el JSON es {@code null}
+     * @throws IntegracionMicroserviciosException si el JSON es inválido o no se puede leer
+     */
+    public static PedidoDTO leerPedido(InputStream entrada) {
+        Lector lector = new Lector(lectorUtf8(entrada));
+        PedidoDTO pedido = leerPedido(lector);
+        lector.esperarFin();
+        return pedido;
+    }
+
+    /**
+     * Decodifica un arreglo JSON de pedidos entregando cada uno apenas se completa.
+     *
+     * @param entrada Cuerpo JSON en UTF-8; no se cierra
+     * @param consumidor Recibe cada pedido en orden
+     * @return Cantidad de pedidos leídos
+     * @throws IntegracionMicroserviciosException si el JSON es inválido o no se puede leer
+     */
+    public static long leerPedidos(InputStream entrada, Consumer<PedidoDTO> consumidor) {
+        Objects.requireNonNull(consumidor, "El consumidor no puede ser nulo");
+        Lector lector = new Lector(lectorUtf8(entrada));
+        long cantidad = 0;
+        lector.esperar('[');
+        if (!lector.cerrar(']')) {
+            do {
+                consumidor.accept(leerPedido(lector));
+                cantidad++;
+            } while (lector.siguienteElemento(']'));
+        }
+        lector.esperarFin();
+        return cantidad;
+    }
+
+    private static Reader lectorUtf8(InputStream entrada) {
+        return new InputStreamReader(Objects.requireNonNull(entrada, "La entrada no puede ser nula"),
+                StandardCharsets.UTF_8);
+    }
+
+    static PedidoDTO leerPedido(Lector lector) {
+        if (lector.leerNulo()) {
+            return null;
+        }
+        PedidoDTO pedido = new PedidoDTO();
+        lector.esperar('{');
+        if (lector.cerrar('}')) {
+            return pedido;
+        }
+        do {
+            String campo = lector.leerCadena();
+            lector.esperar(':');
+            switch (campo) {
+                case "id":
+                    pedido.setId(lector.leerEntero());
+                    break;
+                case "codigo":
+                    pedido.setCodigo(lector.leerCadenaONulo());
+                    break;
+                case "clienteId":
+                    pedido.setClienteId(lector.leerEntero());
+                    break;
+                case "estado":
+                    pedido.setEstado(lector.leerCadenaONulo());
+                    break;
+                case "total":
+                    pedido.setTotal(lector.leerDecimal());
+                    break;
+                case "productos":
+                    pedido.setProductos(leerProductos(lector));
+                    break;
+                default:
+                    lector.omitirValor();
+            }
+        } while (lector.siguienteElemento('}'));
+        return pedido;
+    }
+
+    private static List<ProductoDTO> leerProductos(Lector lector) {
+        if (lector.leerNulo()) {
+            return null;
+        }
+        List<ProductoDTO> productos = new ArrayList<>();
+        lector.esperar('[');
+        if (lector.cerrar(']')) {
+            return productos;
+        }
+        do {
+            productos.add(leerProducto(lector));
+        } while (lector.siguienteElemento(']'));
+        return productos;
+    }
+
+    private static ProductoDTO leerProducto(Lector lector) {
+        if (lector.leerNulo()) {
+            return null;
+        }
+        ProductoDTO producto = new ProductoDTO();
+        lector.esperar('{');
+        if (lector.cerrar('}')) {
+            return producto;
+        }
+        do {
+            String campo = lector.leerCadena();
+            lector.esperar(':');
+            switch (campo) {
+                case "nombre":
+                    producto.setNombre(lector.leerCadenaONulo());
+                    break;
+                case "precio":
+                    producto.setPrecio(lector.leerDecimal());
+                    break;
+                default:
+                    lector.omitirValor();
+            }
+        } while (lector.siguienteElemento('}'));
+        return producto;
+    }
+
+    /**
+     * Analizador de tokens JSON sobre un {@link Reader} con búfer propio.
+     */
+    static final class Lector {
+
+        private static final int FIN = -1;
+
+        private final Reader reader;
+        private final char[] bufer = new char[8192];
+        private final StringBuilder texto = new StringBuilder(64);
+        private int posicion;
+        private int limite;
+        private long consumidos;
+
+        Lector(Reader reader) {
+            this.reader = reader;
+        }
+
+        /** Siguiente carácter significativo sin consumirlo. */
+        int mirar() {
+            while (true) {
+                if (posicion == limite && !llenar()) {
+                    return FIN;
+                }
+                char c = bufer[posicion];
+                if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                    posicion++;
+                } else {
+                    return c;
+                }
+            }
+        }
+
+        private int leerCaracter() {
+            if (posicion == limite && !llenar()) {
+                throw error("fin inesperado del JSON");
+            }
+            return bufer[posicion++];
+        }
+
+        private boolean llenar() {
+            try {
+                consumidos += limite;
+                int leidos;
+                do {
+                    leidos = reader.read(bufer, 0, bufer.length);
+                } while (leidos == 0);
+                posicion = 0;
+                limite = Math.max(leidos, 0);
+                return leidos > 0;
+            } catch (IOException e) {
+                throw new IntegracionMicroserviciosException("Error de E/S al leer JSON: " + e.getMessage(), e);
+            }
+        }
+
+        void esperar(char esperado) {
+            int c = mirar();
+            if (c != esperado) {
+                throw error("se esperaba '" + esperado + "'");
+            }
+            posicion++;
+        }
+
+        /** Consume {@code cierre} si es el siguiente carácter (contenedor vacío). */
+        boolean cerrar(char cierre) {
+            if (mirar() == cierre) {
+                posicion++;
+                return true;
+            }
+            return false;
+        }
+
+        /** Tras un elemento: {@code true} si sigue otro (coma), {@code false} si se cerró el contenedor. */
+        boolean siguienteElemento(char cierre) {
+            int c = mirar();
+            posicion++;
+            if (c == ',') {
+                return true;
+            }
+            if (c == cierre) {
+                return false;
+            }
+            throw error("se esperaba ',' o '" + cierre + "'");
+        }
+
+        void esperarFin() {
+            if (mirar() != FIN) {
+                throw error("contenido adicional tras el JSON");
+            }
+        }
+
+        boolean leerNulo() {
+            if (mirar() != 'n') {
+                return false;
+            }
+            literal("null");
+            return true;
+        }
+
+        String leerCadenaONulo() {
+            return leerNulo() ? null : leerCadena();
+        }
+
+        String leerCadena() {
+            esperar('"');
+            texto.setLength(0);
+            while (true) {
+                int c = leerCaracter();
+                if (c == '"') {
+                    return texto.toString();
+                }
+                if (c == '\\') {
+                    texto.append(leerEscape());
+                } else if (c < 0x20) {
+                    throw error("carácter de control en cadena");
+                } else {
+                    texto.append((char) c);
+                }
+            }
+        }
+
+        private char leerEscape() {
+            int c = leerCaracter();
+            switch (c) {
+                case '"':
+                case '\\':
+                case '/':
+                    return (char) c;
+                case 'b':
+                    return '\b';
+                case 'f':
+                    return '\f';
+                case 'n':
+                    return '\n';
+                case 'r':
+                    return '\r';
+                case 't':
+                    return '\t';
+                case 'u':
+                    int valor = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digito = Character.digit(leerCaracter(), 16);
+                        if (digito < 0) {
+                            throw error("escape unicode inválido");
+                        }
+                        valor = (valor << 4) | digito;
+                    }
+                    return (char) valor;
+                default:
+                    throw error("escape inválido");
+            }
+        }
+
+        Long leerEntero() {
+            if (leerNulo()) {
+                return null;
+            }
+            String numero = leerNumero();
+            try {
+                return Long.parseLong(numero);
+            } catch (NumberFormatException e) {
+                throw error("se esperaba un entero y se encontró " + numero);
+            }
+        }
+
+        BigDecimal leerDecimal() {
+            if (leerNulo()) {
+                return null;
+            }
+            String numero = leerNumero();
+            try {
+                return new BigDecimal(numero);
+            } catch (NumberFormatException e) {
+                throw error("número inválido " + numero);
+            }
+        }
+
+        private String leerNumero() {
+            int c = mirar();
+            if (c != '-' && (c < '0' || c > '9')) {
+                throw error("se esperaba un número");
+            }
+            texto.setLength(0);
+            while (c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E' || (c >= '0' && c <= '9')) {
+                texto.append((char) c);
+                posicion++;
+                if (posicion == limite && !llenar()) {
+                    break;
+                }
+                c = bufer[posicion];
+            }
+            return texto.toString();
+        }
+
+        void omitirValor() {
+            int c = mirar();
+            switch (c) {
+                case '{':
+                    posicion++;
+                    if (!cerrar('}')) {
+                        do {
+                            leerCadena();
+                            esperar(':');
+                            omitirValor();
+                        } while (siguienteElemento('}'));
+                    }
+                    break;
+                case '[':
+                    posicion++;
+                    if (!cerrar(']')) {
+                        do {
+                            omitirValor();
+                        } while (siguienteElemento(']'));
+                    }
+                    break;
+                case '"':
+                    leerCadena();
+                    break;
+                case 't':
+                    literal("true");
+                    break;
+                case 'f':
+                    literal("false");
+                    break;
+                case 'n':
+                    literal("null");
+                    break;
+                default:
+                    leerNumero();
+            }
+        }
+
+        private void literal(String esperado) {
+            mirar();
+            for (int i = 0; i < esperado.length(); i++) {
+                if (leerCaracter() != esperado.charAt(i)) {
+                    throw error("se esperaba " + esperado);
+                }
+            }
+        }
+
+        private IntegracionMicroserviciosException error(String detalle) {
+            return new IntegracionMicroserviciosException(
+                    "JSON inválido en la posición " + (consumidos + posicion) + ": " + detalle);
+        }
+    }
+}
@@ -0,0 +1,567 @@
+package com.multipedidos.common.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Descompresión de respuestas HTTP con {@code Content-Encoding: gzip} o {@code deflate}, que
+ * {@link java.net.http.HttpClient} no realiza por su cuenta. Las peticiones de
+ * {@link IntegradorMicroservicios} y {@link ClienteMicroservicios} anuncian
+ * {@value #ACEPTA_CODIFICACION} en {@code Accept-Encoding} y leen el cuerpo con estos manejadores.
+ *
+ * <p>El cuerpo se descomprime a medida que llega: los manejadores de {@code String} y
+ * {@code byte[]} inflan cada bloque recibido sin acumular el cuerpo comprimido, y el de
+ * {@link InputStream} infla solo lo que el lector pide. Los {@link Inflater} (y su memoria
+ * nativa) se reutilizan desde un pool acotado en lugar de crearse por respuesta. Con
+ * {@code deflate} se aceptan tanto el formato zlib del estándar como deflate sin envoltorio,
+ * que envían algunos servidores. Las respuestas sin codificación pasan sin cambios.</p>
+ */
+public final class DescompresorRespuestas {
+
+    /** Valor del encabezado {@code Accept-Encoding} de las peticiones de la librería. */
+    public static final String ACEPTA_CODIFICACION = "gzip, deflate";
+
+    private static final int MAX_INFLATERS_POR_POOL = 32;
+    private static final int MAX_CABECERA = 64 * 1024;
+    private static final int TAMANO_BLOQUE = 8192;
+    private static final int TAMANO_ENTRADA = 2048;
+
+    private static final PoolInflaters POOL_ZLIB = new PoolInflaters(false);
+    private static final PoolInflaters POOL_SIN_ENVOLTORIO = new PoolInflaters(true);
+
+    private static final LongAdder RESPUESTAS = new LongAdder();
+    private static final LongAdder BYTES_RECIBIDOS = new LongAdder();
+    private static final LongAdder BYTES_DESCOMPRIMIDOS = new LongAdder();
+    private static final LongAdder INFLATERS_CREADOS = new LongAdder();
+
+    private DescompresorRespuestas() {
+        throw new IllegalStateException("No se puede instanciar la clase de utilería");
+    }
+
+    /**
+     * Manejador que entrega el cuerpo como texto, descomprimiéndolo si hace falta. El juego de
+     * caracteres se toma del {@code Content-Type} (UTF-8 por defecto).
+     */
+    public static HttpResponse.BodyHandler<String> ofString() {
+        return info -> {
+            Charset charset = charsetDe(info.headers().firstValue("Content-Type").orElse(null));
+            String codificacion = codificacionDe(info);
+            if (codificacion == null) {
+                return HttpResponse.BodySubscribers.ofString(charset);
+            }
+            return HttpResponse.BodySubscribers.mapping(new SuscriptorDescomprimido(codificacion),
+                    bytes -> new String(bytes, charset));
+        };
+    }
+
+    /**
+     * Manejador que entrega el cuerpo completo descomprimido.
+     */
+    public static HttpResponse.BodyHandler<byte[]> ofByteArray() {
+        return info -> {
+            String codificacion = codificacionDe(info);
+            return codificacion == null
+                    ? HttpResponse.BodySubscribers.ofByteArray()
+                    : new SuscriptorDescomprimido(codificacion);
+        };
+    }
+
+    /**
+     * Manejador que entrega el cuerpo como flujo; si viene comprimido, se infla a medida que se
+     * lee. Cerrar el flujo devuelve el {@link Inflater} al pool.
+     */
+    public static HttpResponse.BodyHandler<InputStream> ofInputStream() {
+        return info -> {
+            String codificacion = codificacionDe(info);
+            if (codificacion == null) {
+                return HttpResponse.BodySubscribers.ofInputStream();
+            }
+            return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofInputStream(),
+                    cuerpo -> descomprimir(cuerpo, codificacion));
+        };
+    }
+
+    /**
+     * Envuelve un flujo comprimido para leerlo descomprimido con un {@link Inflater} del pool.
+     *
+     * @param comprimido Flujo con el cuerpo tal como llegó
+     * @param codificacion Valor de {@code Content-Encoding}; {@code null}, vacío o {@code identity} si no hay compresión
+     * @return Flujo descomprimido; cerrarlo cierra también {@code comprimido}
+     */
+    public static InputStream descomprimir(InputStream comprimido, String codificacion) {
+        String normalizada = normalizar(codificacion);
+        return normalizada == null ? comprimido : new EntradaDescomprimida(comprimido, new Inflado(normalizada));
+    }
+
+    /**
+     * @return Contadores acumulados de las respuestas comprimidas recibidas
+     */
+    public static Estadisticas estadisticas() {
+        return new Estadisticas(RESPUESTAS.sum(), BYTES_RECIBIDOS.sum(), BYTES_DESCOMPRIMIDOS.sum(),
+                INFLATERS_CREADOS.sum());
+    }
+
+    private static String codificacionDe(HttpResponse.ResponseInfo info) {
+        return normalizar(info.headers().firstValue("Content-Encoding").orElse(null));
+    }
+
+    private static String normalizar(String codificacion) {
+        if (codificacion == null) {
+            return null;
+        }
+        String normalizada = codificacion.trim().toLowerCase(Locale.ROOT);
+        return normalizada.isEmpty() || normalizada.equals("identity") ? null : normalizada;
+    }
+
+    static Charset charsetDe(String tipoContenido) {
+        if (tipoContenido != null) {
+            for (String parametro : tipoContenido.split(";")) {
+                String limpio = parametro.trim();
+                if (limpio.regionMatches(true, 0, "charset=", 0, 8)) {
+                    try {
+                        return Charset.forName(limpio.substring(8).replace("\"", "").trim());
+                    } catch (IllegalArgumentException e) {
+                        return StandardCharsets.UTF_8;
+                    }
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Contadores de descompresión.
+     *
+     * @param respuestas respuestas comprimidas leídas por completo o cerradas
+     * @param bytesRecibidos bytes comprimidos recibidos, con cabeceras y colas
+     * @param bytesDescomprimidos bytes entregados tras descomprimir
+     * @param inflatersCreados {@link Inflater} creados; si crece con cada respuesta, el pool es chico
+     */
+    public record Estadisticas(long respuestas, long bytesRecibidos, long bytesDescomprimidos,
+                               long inflatersCreados) {
+
+        /**
+         * @return Bytes que no viajaron gracias a la compresión (negativo si la compresión no convino)
+         */
+        public long bytesAhorrados() {
+            return bytesDescomprimidos - bytesRecibidos;
+        }
+    }
+
+    /**
+     * Pool acotado y sin bloqueos de {@link Inflater} del mismo tipo.
+     */
+    private static final class PoolInflaters {
+
+        private final boolean sinEnvoltorio;
+        private final ConcurrentLinkedQueue<Inflater> libres = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger cantidad = new AtomicInteger();
+
+        PoolInflaters(boolean sinEnvoltorio) {
+            this.sinEnvoltorio = sinEnvoltorio;
+        }
+
+        Inflater tomar() {
+            Inflater inflater = libres.poll();
+            if (inflater != null) {
+                cantidad.decrementAndGet();
+                return inflater;
+            }
+            INFLATERS_CREADOS.increment();
+            return new Inflater(sinEnvoltorio);
+        }
+
+        void devolver(Inflater inflater) {
+            inflater.reset();
+            if (cantidad.incrementAndGet() <= MAX_INFLATERS_POR_POOL) {
+                libres.offer(inflater);
+            } else {
+                cantidad.decrementAndGet();
+                inflater.end();
+            }
+        }
+    }
+
+    /**
+     * Máquina de estados que descomprime un cuerpo gzip o deflate entregado en bloques de
+     * cualquier tamaño: acumula la cabecera hasta poder interpretarla, infla los datos y
+     * verifica la cola de gzip (CRC-32 y largo). No es thread-safe.
+     */
+    private static final class Inflado {
+
+        private static final int CABECERA = 0;
+        private static final int DATOS = 1;
+        private static final int COLA = 2;
+        private static final int FIN = 3;
+
+        private final boolean gzip;
+        private final CRC32 crc;
+        private int estado = CABECERA;
+        private byte[] cabecera = new byte[16];
+        private int largoCabecera;
+        private final byte[] cola = new byte[8];
+        private int largoCola;
+        private PoolInflaters pool;
+        private Inflater inflater;
+        private ByteBuffer actual;
+        private long recibidos;
+        private long descomprimidos;
+        private boolean liberado;
+
+        Inflado(String codificacion) {
+            if (codificacion.equals("gzip") || codificacion.equals("x-gzip")) {
+                gzip = true;
+            } else if (codificacion.equals("deflate")) {
+                gzip = false;
+            } else {
+                throw new IllegalArgumentException("Content-Encoding no soportado: " + codificacion);
+            }
+            crc = gzip ? new CRC32() : null;
+        }
+
+        /**
+         * Recibe el siguiente bloque comprimido. En el estado de datos el {@link Inflater} lo
+         * consume directamente, por lo que no debe modificarse hasta que {@link #inflar} devuelva 0.
+         */
+        void alimentar(ByteBuffer entrada) throws IOException {
+            recibidos += entrada.remaining();
+            recibir(entrada);
+        }
+
+        private void recibir(ByteBuffer entrada) throws IOException {
+            if (estado == CABECERA) {
+                int nuevos = entrada.remaining();
+                if (largoCabecera + nuevos > MAX_CABECERA) {
+                    throw new IOException("La cabecera del cuerpo comprimido es demasiado grande");
+                }
+                if (largoCabecera + nuevos > cabecera.length) {
+                    cabecera = Arrays.copyOf(cabecera, Math.max(cabecera.length * 2, largoCabecera + nuevos));
+                }
+                entrada.get(cabecera, largoCabecera, nuevos);
+                largoCabecera += nuevos;
+                int datos = gzip ? finCabeceraGzip() : detectarDeflate();
+                if (datos < 0) {
+                    return;
+                }
+                estado = DATOS;
+                inflater = pool.tomar();
+                entrada = ByteBuffer.wrap(cabecera, datos, largoCabecera - datos);
+            }
+            if (estado == DATOS) {
+                actual = entrada;
+                inflater.setInput(entrada);
+            } else if (estado == COLA) {
+                int copiar = Math.min(entrada.remaining(), cola.length - largoCola);
+                entrada.get(cola, largoCola, copiar);
+                largoCola += copiar;
+                if (entrada.hasRemaining()) {
+                    throw new IOException("Datos inesperados después del cuerpo comprimido");
+                }
+            } else if (entrada.hasRemaining()) {
+                throw new IOException("Datos inesperados después del cuerpo comprimido");
+            }
+        }
+
+        /**
+         * @return Bytes descomprimidos escritos, 0 si hace falta más entrada o -1 al terminar el cuerpo
+         */
+        int inflar(byte[] destino, int desde, int largo) throws IOException {
+            while (true) {
+                if (estado == CABECERA) {
+                    return 0;
+                }
+                if (estado == COLA) {
+                    if (largoCola < cola.length) {
+                        return 0;
+                    }
+                    verificarCola();
+                    estado = FIN;
+                }
+                if (estado == FIN) {
+                    return -1;
+                }
+
+                int escritos;
+                try {
+                    escritos = inflater.inflate(destino, desde, largo);
+                } catch (DataFormatException e) {
+                    throw new IOException("Cuerpo comprimido inválido: " + e.getMessage(), e);
+                }
+                if (escritos > 0) {
+                    if (crc != null) {
+                        crc.update(destino, desde, escritos);
+                    }
+                    descomprimidos += escritos;
+                    return escritos;
+                }
+                if (inflater.finished()) {
+                    estado = gzip ? COLA : FIN;
+                    ByteBuffer sobrante = actual;
+                    actual = null;
+                    if (sobrante != null && sobrante.hasRemaining()) {
+                        recibir(sobrante);
+                    }
+                    continue;
+                }
+                if (inflater.needsDictionary()) {
+                    throw new IOException("El cuerpo comprimido requiere un diccionario");
+                }
+                return 0;
+            }
+        }
+
+        /**
+         * Confirma que el cuerpo llegó completo.
+         */
+        void terminar() throws IOException {
+            if (estado == COLA && largoCola == cola.length) {
+                verificarCola();
+                estado = FIN;
+            }
+            if (estado != FIN) {
+                throw new IOException("El cuerpo comprimido está truncado");
+            }
+        }
+
+        void liberar() {
+            if (liberado) {
+                return;
+            }
+            liberado = true;
+            if (inflater != null) {
+                pool.devolver(inflater);
+                inflater = null;
+            }
+            RESPUESTAS.increment();
+            BYTES_RECIBIDOS.add(recibidos);
+            BYTES_DESCOMPRIMIDOS.add(descomprimidos);
+        }
+
+        private void verificarCola() throws IOException {
+            long crcEsperado = leerEntero(0);
+            long largoEsperado = leerEntero(4);
+            if (crcEsperado != crc.getValue() || largoEsperado != (descomprimidos & 0xFFFF_FFFFL)) {
+                throw new IOException("La cola gzip no coincide con el cuerpo descomprimido");
+            }
+        }
+
+        private long leerEntero(int desde) {
+            return (cola[desde] & 0xFFL) | (cola[desde + 1] & 0xFFL) << 8
+                    | (cola[desde + 2] & 0xFFL) << 16 | (cola[desde + 3] & 0xFFL) << 24;
+        }
+
+        /**
+         * @return Posición donde empiezan los datos deflate, o -1 si la cabecera aún está incompleta
+         */
+        private int finCabeceraGzip() throws IOException {
+            if (largoCabecera < 10) {
+                return -1;
+            }
+            if ((cabecera[0] & 0xFF) != 0x1F || (cabecera[1] & 0xFF) != 0x8B || cabecera[2] != 8) {
+                throw new IOException("Cabecera gzip inválida");
+            }
+            int banderas = cabecera[3] & 0xFF;
+            int posicion = 10;
+            if ((banderas & 0x04) != 0) {
+                if (largoCabecera < posicion + 2) {
+                    return -1;
+                }
+                posicion += 2 + ((cabecera[posicion] & 0xFF) | (cabecera[posicion + 1] & 0xFF) << 8);
+            }
+            for (int bandera : new int[]{0x08, 0x10}) {
+                if ((banderas & bandera) != 0) {
+                    while (posicion < largoCabecera && cabecera[posicion] != 0) {
+                        posicion++;
+                    }
+                    if (posicion >= largoCabecera) {
+                        return -1;
+                    }
+                    posicion++;
+                }
+            }
+            if ((banderas & 0x02) != 0) {
+                posicion += 2;
+            }
+            if (posicion > largoCabecera) {
+                return -1;
+            }
+            pool = POOL_SIN_ENVOLTORIO;
+            return posicion;
+        }
+
+        /**
+         * Distingue zlib (el formato de {@code deflate} según HTTP) de deflate sin envoltorio
+         * por los dos primeros bytes; el {@link Inflater} interpreta la cabecera zlib.
+         */
+        private int detectarDeflate() {
+            if (largoCabecera < 2) {
+                return -1;
+            }
+            int cmf = cabecera[0] & 0xFF;
+            int flg = cabecera[1] & 0xFF;
+            boolean zlib = (cmf & 0x0F) == 8 && (cmf >> 4) <= 7 && ((cmf << 8) | flg) % 31 == 0;
+            pool = zlib ? POOL_ZLIB : POOL_SIN_ENVOLTORIO;
+            return 0;
+        }
+    }
+
+    /**
+     * Flujo que infla bajo demanda lo que el lector pide.
+     */
+    private static final class EntradaDescomprimida extends InputStream {
+
+        private final InputStream origen;
+        private final Inflado inflado;
+        private final byte[] bloque = new byte[TAMANO_ENTRADA];
+        private final byte[] unByte = new byte[1];
+
+        EntradaDescomprimida(InputStream origen, Inflado inflado) {
+            this.origen = origen;
+            this.inflado = inflado;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int leidos = read(unByte, 0, 1);
+            return leidos < 0 ? -1 : unByte[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] destino, int desde, int largo) throws IOException {
+            if (largo == 0) {
+                return 0;
+            }
+            while (true) {
+                int escritos = inflado.inflar(destino, desde, largo);
+                if (escritos != 0) {
+                    return escritos;
+                }
+                int leidos = origen.read(bloque);
+                if (leidos < 0) {
+                    inflado.terminar();
+                } else {
+                    inflado.alimentar(ByteBuffer.wrap(bloque, 0, leidos));
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            inflado.liberar();
+            origen.close();
+        }
+    }
+
+    /**
+     * Suscriptor que infla cada bloque del cuerpo al recibirlo; solo conserva la salida.
+     */
+    private static final class SuscriptorDescomprimido implements HttpResponse.BodySubscriber<byte[]> {
+
+        private final CompletableFuture<byte[]> resultado = new CompletableFuture<>();
+        private final Inflado inflado;
+        private final IllegalArgumentException error;
+        private Flow.Subscription suscripcion;
+        private byte[] salida = new byte[TAMANO_BLOQUE];
+        private int largo;
+
+        SuscriptorDescomprimido(String codificacion) {
+            Inflado creado = null;
+            IllegalArgumentException noSoportada = null;
+            try {
+                creado = new Inflado(codificacion);
+            } catch (IllegalArgumentException e) {
+                noSoportada = e;
+            }
+            this.inflado = creado;
+            this.error = noSoportada;
+        }
+
+        @Override
+        public CompletionStage<byte[]> getBody() {
+            return resultado;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.suscripcion = subscription;
+            if (error != null) {
+                subscription.cancel();
+                resultado.completeExceptionally(new IOException(error.getMessage(), error));
+                return;
+            }
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> bloques) {
+            if (resultado.isDone()) {
+                return;
+            }
+            try {
+                for (ByteBuffer bloque : bloques) {
+                    inflado.alimentar(bloque);
+                    drenar();
+                }
+            } catch (IOException e) {
+                suscripcion.cancel();
+                fallar(e);
+            }
+        }
+
+        private void drenar() throws IOException {
+            while (true) {
+                if (largo == salida.length) {
+                    salida = Arrays.copyOf(salida, salida.length * 2);
+                }
+                int escritos = inflado.inflar(salida, largo, salida.length - largo);
+                if (escritos <= 0) {
+                    return;
+                }
+                largo += escritos;
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            fallar(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (resultado.isDone()) {
+                return;
+            }
+            try {
+                inflado.terminar();
+            } catch (IOException e) {
+                fallar(e);
+                return;
+            }
+            inflado.liberar();
+            resultado.complete(largo == salida.length ? salida : Arrays.copyOf(salida, largo));
+        }
+
+        private void fallar(Throwable causa) {
+            if (inflado != null) {
+                inflado.liberar();
+            }
+            resultado.completeExceptionally(causa);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.multipedidos.common.utils;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Formateo y lectura de códigos PED-XXXXXX / FAC-XXXXXX sin {@code String.format}.
+ * Los códigos se escriben directamente en un {@code char[]}, {@link StringBuilder} o
+ * {@link ByteBuffer} reutilizable, y se leen como {@code long} primitivo sin crear objetos.
+ *
+ * <p>El formato es idéntico a {@code String.format("PED-%06d", id)}: al menos seis dígitos
+ * con ceros a la izquierda, y todos los dígitos necesarios para IDs desde 1.000.000.</p>
+ *
+ * <p>Un código también puede representarse como un único {@code long} ({@link #compactar}),
+ * útil como clave de mapas y cachés sin guardar el {@code String}.</p>
+ */
+public final class FormateadorCodigos {
+
+    /** Resultado de {@link #parsearCodigo} y {@link #compactar(CharSequence)} para códigos inválidos. */
+    public static final long CODIGO_INVALIDO = -1L;
+
+    /** Largo de un código con el mínimo de seis dígitos. */
+    public static final int LARGO_MINIMO = 10;
+
+    /** Largo máximo de un código: prefijo, guion y los 19 dígitos de {@link Long#MAX_VALUE}. */
+    public static final int LARGO_MAXIMO = 23;
+
+    private static final int DIGITOS_MINIMOS = 6;
+    private static final int BITS_ID = 60;
+    private static final long MASCARA_ID = (1L << BITS_ID) - 1;
+    private static final TipoCodigo[] TIPOS = TipoCodigo.values();
+
+    private FormateadorCodigos() {
+        throw new IllegalStateException("No se puede instanciar la clase de utilería");
+    }
+
+    /**
+     * @param id ID no negativo
+     * @return Cantidad de caracteres del código para ese ID
+     */
+    public static int largo(long id) {
+        validarId(id);
+        return 4 + Math.max(DIGITOS_MINIMOS, cantidadDigitos(id));
+    }
+
+    /**
+     * Escribe el código en un arreglo de caracteres.
+     *
+     * @param tipo Tipo de código
+     * @param id ID no negativo
+     * @param destino Arreglo destino, con espacio para {@link #largo(long)} caracteres
+     * @param desde Posición donde empieza el código
+     * @return Posición siguiente al último carácter escrito
+     * @throws IllegalArgumentException si el ID es negativo
+     */
+    public static int escribir(TipoCodigo tipo, long id, char[] destino, int desde) {
+        Objects.requireNonNull(tipo, "El tipo de código no puede ser nulo");
+        int fin = desde + largo(id);
+        Objects.checkFromToIndex(desde, fin, destino.length);
+
+        destino[desde] = tipo.letra(0);
+        destino[desde + 1] = tipo.letra(1);
+        destino[desde + 2] = tipo.letra(2);
+        destino[desde + 3] = '-';
+        long resto = id;
+        for (int i = fin - 1; i >= desde + 4; i--) {
+            destino[i] = (char) ('0' + resto % 10);
+            resto /= 10;
+        }
+        return fin;
+    }
+
+    /**
+     * Escribe el código en ASCII en la posición actual del búfer y la avanza.
+     *
+     * @return El mismo búfer
+     * @throws BufferOverflowException si no hay espacio para {@link #largo(long)} bytes
+     */
+    public static ByteBuffer escribir(TipoCodigo tipo, long id, ByteBuffer destino) {
+        Objects.requireNonNull(tipo, "El tipo de código no puede ser nulo");
+        int largo = largo(id);
+        if (destino.remaining() < largo) {
+            throw new BufferOverflowException();
+        }
+        int inicio = destino.position();
+        destino.put((byte) tipo.letra(0)).put((byte) tipo.letra(1)).put((byte) tipo.letra(2)).put((byte) '-');
+        long resto = id;
+        for (int i = inicio + largo - 1; i >= inicio + 4; i--) {
+            destino.put(i, (byte) ('0' + resto % 10));
+            resto /= 10;
+        }
+        destino.position(inicio + largo);
+        return destino;
+    }
+
+    /**
+     * Agrega el código al final de un {@link StringBuilder}.
+     *
+     * @return El mismo {@code StringBuilder}
+     */
+    public static StringBuilder agregar(TipoCodigo tipo, long id, StringBuilder destino) {
+        Objects.requireNonNull(tipo, "El tipo de código no puede ser nulo");
+        validarId(id);
+        destino.append(tipo.letra(0)).append(tipo.letra(1)).append(tipo.letra(2)).append('-');
+        for (int ceros = DIGITOS_MINIMOS - cantidadDigitos(id); ceros > 0; ceros--) {
+            destino.append('0');
+        }
+        return destino.append(id);
+    }
+
+    /**
+     * @return Código formateado, igual a {@code String.format("PED-%06d", id)} (o FAC)
+     */
+    public static String formatear(TipoCodigo tipo, long id) {
+        char[] codigo = new char[largo(id)];
+        escribir(tipo, id, codigo, 0);
+        return new String(codigo);
+    }
+
+    /**
+     * Lee el ID de un código PED o FAC, ignorando los espacios al inicio y al final.
+     * Solo acepta la forma que produce el formateador: al menos seis dígitos y, si son más,
+     * sin ceros a la izquierda. Acepta cualquier ID hasta {@link Long#MAX_VALUE}, incluidos
+     * los de {@link GeneradorSecuencias}, que superan los 60 bits de {@link #compactar}.
+     *
+     * @param codigo Código a leer
+     * @return ID del código, o {@link #CODIGO_INVALIDO} si no es válido
+     */
+    public static long parsearCodigo(CharSequence codigo) {
+        return leer(codigo, Long.MAX_VALUE, false);
+    }
+
+    /**
+     * Representa un código como un único {@code long} con el tipo y el ID. El tipo ocupa los
+     * bits sobre el ID, que debe caber en 60 bits: los IDs de {@link GeneradorSecuencias} con la
+     * época por defecto los superan desde el 2032-09-17 y esos códigos no se pueden compactar.
+     *
+     * @param codigo Código a leer
+     * @return Código compacto, o {@link #CODIGO_INVALIDO} si no es válido o su ID no cabe en 60 bits
+     */
+    public static long compactar(CharSequence codigo) {
+        return leer(codigo, MASCARA_ID, true);
+    }
+
+    /**
+     * @param tipo Tipo de código
+     * @param id ID entre 0 y 2^60 - 1
+     * @return Código compacto
+     */
+    public static long compactar(TipoCodigo tipo, long id) {
+        Objects.requireNonNull(tipo, "El tipo de código no puede ser nulo");
+        if (id < 0 || id > MASCARA_ID) {
+            throw new IllegalArgumentException("El ID debe estar entre 0 y " + MASCARA_ID + " para compactarse");
+        }
+        return ((long) (tipo.ordinal() + 1) << BITS_ID) | id;
+    }
+
+    /**
+     * @return Tipo de un código compacto
+     */
+    public static TipoCodigo tipoCompacto(long compacto) {
+        int indice = (int) (compacto >>> BITS_ID) - 1;
+        if (compacto < 0 || indice < 0 || indice >= TIPOS.length) {
+            throw new IllegalArgumentException("Código compacto inválido: " + compacto);
+        }
+        return TIPOS[indice];
+    }
+
+    /**
+     * @return ID de un código compacto
+     */
+    public static long idCompacto(long compacto) {
+        tipoCompacto(compacto);
+        return compacto & MASCARA_ID;
+    }
+
+    /**
+     * @return Código formateado a partir de su forma compacta
+     */
+    public static String expandir(long compacto) {
+        return formatear(tipoCompacto(compacto), compacto & MASCARA_ID);
+    }
+
+    private static long leer(CharSequence codigo, long idMaximo, boolean compacto) {
+        if (codigo == null) {
+            return CODIGO_INVALIDO;
+        }
+        int inicio = 0;
+        int fin = codigo.length();
+        while (inicio < fin && codigo.charAt(inicio) <= ' ') {
+            inicio++;
+        }
+        while (fin > inicio && codigo.charAt(fin - 1) <= ' ') {
+            fin--;
+        }
+
+        int digitos = fin - inicio - 4;
+        if (digitos < DIGITOS_MINIMOS || digitos > 19 || codigo.charAt(inicio + 3) != '-') {
+            return CODIGO_INVALIDO;
+        }
+        TipoCodigo tipo = tipoDePrefijo(codigo, inicio);
+        if (tipo == null || (digitos > DIGITOS_MINIMOS && codigo.charAt(inicio + 4) == '0')) {
+            return CODIGO_INVALIDO;
+        }
+
+        long id = 0;
+        for (int i = inicio + 4; i < fin; i++) {
+            int digito = codigo.charAt(i) - '0';
+            if (digito < 0 || digito > 9 || id > (idMaximo - digito) / 10) {
+                return CODIGO_INVALIDO;
+            }
+            id = id * 10 + digito;
+        }
+        return compacto ? compactar(tipo, id) : id;
+    }
+
+    private static TipoCodigo tipoDePrefijo(CharSequence codigo, int inicio) {
+        for (TipoCodigo tipo : TIPOS) {
+            if (codigo.charAt(inicio) == tipo.letra(0)
+                    && codigo.charAt(inicio + 1) == tipo.letra(1)
+                    && codigo.charAt(inicio + 2) == tipo.letra(2)) {
+                return tipo;
+            }
+        }
+        return null;
+    }
+
+    private static int cantidadDigitos(long id) {
+        int digitos = 1;
+        for (long limite = 10; digitos < 19 && id >= limite; limite *= 10) {
+            digitos++;
+        }
+        return digitos;
+    }
+
+    private static void validarId(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("El ID debe ser un número positivo");
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.multipedidos.common.utils;
+
+import java.time.Instant;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Generador de IDs únicos sin bloqueos, al estilo Snowflake. Cada ID de 63 bits combina:
+ * - 41 bits de milisegundos desde {@link #EPOCA_POR_DEFECTO} (unos 69 años)
+ * - 10 bits de nodo (0 a {@link #NODO_MAXIMO}), que evitan colisiones entre instancias
+ * - 12 bits de secuencia dentro del mismo milisegundo
+ *
+ * <p>Los IDs de un generador son estrictamente crecientes y nunca se repiten, aunque el reloj
+ * retroceda: el estado se actualiza con un único {@code compareAndSet}. Si se agota la secuencia
+ * de un milisegundo se toma prestado el siguiente, pero el tiempo de los IDs nunca se adelanta más
+ * de {@link #ADELANTO_MAXIMO_MS} al reloj: pasado ese límite el hilo espera a que el reloj avance.
+ * Así una instancia nueva del mismo nodo, creada tras un reinicio que tarde más que ese límite,
+ * no repite IDs ya entregados. Dos nodos distintos nunca producen el mismo ID; cada nodo debe
+ * tener un número propio en el despliegue.</p>
+ *
+ * <p>Los caminos calientes pueden reservar un {@link Rango} de hasta {@link #RANGO_MAXIMO} IDs
+ * con una sola operación atómica y consumirlo localmente, sin competir con otros hilos.</p>
+ */
+public final class GeneradorSecuencias {
+
+    /** Época de los IDs: 2024-01-01T00:00:00Z. */
+    public static final long EPOCA_POR_DEFECTO = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    public static final int NODO_MAXIMO = 1023;
+
+    /** IDs por milisegundo y tamaño máximo de un rango reservado. */
+    public static final int RANGO_MAXIMO = 4096;
+
+    /** Milisegundos que el tiempo de los IDs puede adelantarse al reloj al agotar la secuencia. */
+    public static final int ADELANTO_MAXIMO_MS = 4;
+
+    private static final long ESPERA_NANOS = 100_000;
+
+    private static final int BITS_SECUENCIA = 12;
+    private static final int BITS_NODO = 10;
+    private static final int DESPLAZAMIENTO_TIEMPO = BITS_SECUENCIA + BITS_NODO;
+    private static final long MASCARA_SECUENCIA = RANGO_MAXIMO - 1;
+    private static final long TIEMPO_MAXIMO = (1L << (63 - DESPLAZAMIENTO_TIEMPO)) - 1;
+
+    private final int nodo;
+    private final long epoca;
+    private final LongSupplier relojMillis;
+    private final Runnable esperar;
+    private final long bitsNodo;
+    private final AtomicLong ultimo;
+
+    /**
+     * @param nodo Número de esta instancia en el despliegue, entre 0 y {@link #NODO_MAXIMO}
+     * @throws IllegalArgumentException si el nodo está fuera de rango
+     */
+    public GeneradorSecuencias(int nodo) {
+        this(nodo, EPOCA_POR_DEFECTO, System::currentTimeMillis);
+    }
+
+    GeneradorSecuencias(int nodo, long epoca, LongSupplier relojMillis) {
+        this(nodo, epoca, relojMillis, () -> LockSupport.parkNanos(ESPERA_NANOS));
+    }
+
+    GeneradorSecuencias(int nodo, long epoca, LongSupplier relojMillis, Runnable esperar) {
+        if (nodo < 0 || nodo > NODO_MAXIMO) {
+            throw new IllegalArgumentException("El nodo debe estar entre 0 y " + NODO_MAXIMO);
+        }
+        this.nodo = nodo;
+        this.epoca = epoca;
+        this.relojMillis = relojMillis;
+        this.esperar = esperar;
+        this.bitsNodo = (long) nodo << BITS_SECUENCIA;
+        this.ultimo = new AtomicLong(bitsNodo);
+    }
+
+    /**
+     * @return Siguiente ID, mayor que todos los generados antes por esta instancia
+     * @throws IllegalStateException si el reloj está antes de la época o se agotó el rango de tiempo
+     */
+    public long siguiente() {
+        while (true) {
+            long actual = ultimo.get();
+            long ahora = ahora();
+            long tiempo = actual >>> DESPLAZAMIENTO_TIEMPO;
+            long nuevo;
+            if (ahora > tiempo) {
+                nuevo = componer(ahora, 0);
+            } else if ((actual & MASCARA_SECUENCIA) < MASCARA_SECUENCIA) {
+                nuevo = actual + 1;
+            } else if (tiempo - ahora < ADELANTO_MAXIMO_MS) {
+                nuevo = componer(tiempo + 1, 0);
+            } else {
+                esperar.run();
+                continue;
+            }
+            if (ultimo.compareAndSet(actual, nuevo)) {
+                return nuevo;
+            }
+        }
+    }
+
+    /**
+     * Reserva un rango de IDs consecutivos para consumirlo sin más operaciones atómicas.
+     *
+     * @param cantidad Cantidad de IDs, entre 1 y {@link #RANGO_MAXIMO}
+     * @return Rango reservado, para uso de un solo hilo
+     * @throws IllegalStateException si el reloj está antes de la época o se agotó el rango de tiempo
+     */
+    public Rango reservar(int cantidad) {
+        if (cantidad < 1 || cantidad > RANGO_MAXIMO) {
+            throw new IllegalArgumentException("La cantidad debe estar entre 1 y " + RANGO_MAXIMO);
+        }
+        while (true) {
+            long actual = ultimo.get();
+            long ahora = ahora();
+            long tiempo = actual >>> DESPLAZAMIENTO_TIEMPO;
+            long inicio;
+            if (ahora > tiempo) {
+                inicio = componer(ahora, 0);
+            } else if ((actual & MASCARA_SECUENCIA) + cantidad <= MASCARA_SECUENCIA) {
+                inicio = actual + 1;
+            } else if (tiempo - ahora < ADELANTO_MAXIMO_MS) {
+                // El rango no cabe en este milisegundo: se reserva completo en el siguiente
+                inicio = componer(tiempo + 1, 0);
+            } else {
+                esperar.run();
+                continue;
+            }
+            if (ultimo.compareAndSet(actual, inicio + cantidad - 1)) {
+                return new Rango(inicio, inicio + cantidad);
+            }
+        }
+    }
+
+    public int getNodo() {
+        return nodo;
+    }
+
+    /**
+     * @return Instante aproximado de generación de un ID de esta instancia
+     */
+    public Instant instanteDe(long id) {
+        return Instant.ofEpochMilli(epoca + (id >>> DESPLAZAMIENTO_TIEMPO));
+    }
+
+    /**
+     * @return Nodo que generó el ID
+     */
+    public static int nodoDe(long id) {
+        return (int) ((id >>> BITS_SECUENCIA) & NODO_MAXIMO);
+    }
+
+    private long ahora() {
+        long ahora = relojMillis.getAsLong() - epoca;
+        if (ahora < 0) {
+            throw new IllegalStateException("El reloj del sistema está antes de la época del generador");
+        }
+        return ahora;
+    }
+
+    private long componer(long tiempo, long secuencia) {
+        if (tiempo > TIEMPO_MAXIMO) {
+            throw new IllegalStateException("Se agotó el rango de tiempo del generador");
+        }
+        return (tiempo << DESPLAZAMIENTO_TIEMPO) | bitsNodo | secuencia;
+    }
+
+    @Override
+    public String toString() {
+        return "GeneradorSecuencias{" +
+                "nodo=" + nodo +
+                ", epoca=" + Instant.ofEpochMilli(epoca) +
+                '}';
+    }
+
+    /**
+     * IDs consecutivos reservados con {@link #reservar(int)}. No es thread-safe: cada hilo
+     * reserva y consume su propio rango.
+     */
+    public static final class Rango implements PrimitiveIterator.OfLong {
+
+        private long siguiente;
+        private final long fin;
+
+        private Rango(long inicio, long fin) {
+            this.siguiente = inicio;
+            this.fin = fin;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return siguiente < fin;
+        }
+
+        @Override
+        public long nextLong() {
+            if (siguiente >= fin) {
+                throw new NoSuchElementException("El rango de IDs está agotado");
+            }
+            return siguiente++;
+        }
+
+        public int restantes() {
+            return (int) (fin - siguiente);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.multipedidos.common.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias con cubetas logarítmicas, al estilo HdrHistogram y sin dependencias.
+ * Cada potencia de dos se divide en {@value #SUBCUBETAS} cubetas lineales, de modo que cualquier
+ * valor se reporta con un error relativo menor al 3,2%, desde nanosegundos hasta horas, con
+ * un arreglo fijo de contadores.
+ *
+ * <p>Registrar un valor es un incremento atómico sin bloqueos; las lecturas se hacen sobre una
+ * {@link Instantanea}, que copia los contadores y puede quedar levemente desfasada respecto de
+ * los registros concurrentes.</p>
+ */
+public final class HistogramaLatencias {
+
+    private static final int BITS_SUBCUBETA = 5;
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+    // Valores menores a 2 * SUBCUBETAS se cuentan exactos; luego una fila por potencia de dos
+    private static final int CUBETAS = (64 - BITS_SUBCUBETA) * SUBCUBETAS;
+
+    private final AtomicLongArray conteos = new AtomicLongArray(CUBETAS);
+    private final AtomicLong maximo = new AtomicLong();
+
+    /**
+     * Registra una latencia. Los valores negativos se cuentan como cero.
+     *
+     * @param nanos Duración en nanosegundos
+     */
+    public void registrar(long nanos) {
+        long valor = Math.max(0, nanos);
+        conteos.incrementAndGet(indice(valor));
+        long actual = maximo.get();
+        while (valor > actual && !maximo.weakCompareAndSetVolatile(actual, valor)) {
+            actual = maximo.get();
+        }
+    }
+
+    /**
+     * @return Copia de los contadores actuales
+     */
+    public Instantanea instantanea() {
+        long[] copia = new long[CUBETAS];
+        long total = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            copia[i] = conteos.get(i);
+            total += copia[i];
+        }
+        return new Instantanea(copia, total, maximo.get());
+    }
+
+    static int indice(long valor) {
+        if (valor < 2 * SUBCUBETAS) {
+            return (int) valor;
+        }
+        int desplazamiento = 63 - Long.numberOfLeadingZeros(valor) - BITS_SUBCUBETA;
+        return desplazamiento * SUBCUBETAS + (int) (valor >>> desplazamiento);
+    }
+
+    /** Mayor valor que cae en la cubeta. */
+    static long limiteSuperior(int indice) {
+        if (indice < 2 * SUBCUBETAS) {
+            return indice;
+        }
+        int desplazamiento = indice / SUBCUBETAS - 1;
+        long mantisa = indice - (long) desplazamiento * SUBCUBETAS;
+        return ((mantisa + 1) << desplazamiento) - 1;
+    }
+
+    /**
+     * Contadores de un histograma en un momento dado.
+     */
+    public static final class Instantanea {
+
+        private final long[] conteos;
+        private final long total;
+        private final long maximo;
+
+        private Instantanea(long[] conteos, long total, long maximo) {
+            this.conteos = conteos;
+            this.total = total;
+            this.maximo = maximo;
+        }
+
+        /**
+         * @return Cantidad de valores registrados
+         */
+        public long getTotal() {
+            return total;
+        }
+
+        /**
+         * @return Mayor valor registrado, exacto
+         */
+        public long getMaximo() {
+            return maximo;
+        }
+
+        /**
+         * Valor bajo el cual queda el porcentaje indicado de los registros; se reporta el límite
+         * superior de su cubeta, sin superar el máximo observado.
+         *
+         * @param percentil Percentil entre 0 y 100 (por ejemplo 99.9)
+         * @return Latencia en nanosegundos; 0 si no hay registros
+         */
+        public long percentil(double percentil) {
+            if (!(percentil >= 0 && percentil <= 100)) {
+                throw new IllegalArgumentException("El percentil debe estar entre 0 y 100");
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long objetivo = Math.max(1, (long) Math.ceil(total * percentil / 100));
+            long acumulado = 0;
+            for (int i = 0; i < conteos.length; i++) {
+                acumulado += conteos[i];
+                if (acumulado >= objetivo) {
+                    return Math.min(limiteSuperior(i), maximo);
+                }
+            }
+            return maximo;
+        }
+
+        public long getP50() {
+            return percentil(50);
+        }
+
+        public long getP99() {
+            return percentil(99);
+        }
+
+        public long getP999() {
+            return percentil(99.9);
+        }
+
+        @Override
+        public String toString() {
+            return "HistogramaLatencias{" +
+                    "total=" + total +
+                    ", p50=" + getP50() +
+                    ", p99=" + getP99() +
+                    ", p999=" + getP999() +
+                    ", maximo=" + maximo +
+                    '}';
+        }
+    }
+}
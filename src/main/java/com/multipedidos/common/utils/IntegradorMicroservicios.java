@@ -1,32 +1,78 @@
 package com.multipedidos.common.utils;
 
+import com.multipedidos.common.dto.PedidoDTO;
 import com.multipedidos.common.exceptions.IntegracionMicroserviciosException;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Utilidad ligera (sin Spring) para invocar endpoints REST de los microservicios
  * desde la librería común y así compartir la lógica de comunicación.
+ *
+ * <p>Los métodos síncronos pueden llamarse desde hilos virtuales (JDK 21+): la espera
+ * de {@link HttpClient#send} estaciona el hilo virtual sin fijarlo a su hilo portador,
+ * porque este código no bloquea dentro de bloques {@code synchronized}. Para combinar
+ * varias consultas sin ocupar un hilo por petición se ofrecen variantes asíncronas
+ * basadas en {@link HttpClient#sendAsync}.</p>
+ *
+ * <p>Todas las peticiones aceptan respuestas gzip o deflate, que se descomprimen al leer el
+ * cuerpo con {@link DescompresorRespuestas}.</p>
  */
 public final class IntegradorMicroservicios {
 
     private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
-    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
-            .connectTimeout(DEFAULT_TIMEOUT)
-            .followRedirects(HttpClient.Redirect.NORMAL)
-            .build();
+    private static final int DEFAULT_CONCURRENCIA = 8;
+    static final String RUTA_PEDIDO = "/api/pedidos/{id}";
+    static final String RUTA_LISTADO = "/api/pedidos";
+    private static final MetricasIntegrador METRICAS = new MetricasIntegrador();
+    /** Los métodos que devuelven DTOs aceptan el formato binario y, en su defecto, JSON. */
+    static final String ACEPTA_BINARIO = CodecBinarioPedidos.TIPO_CONTENIDO + ", application/json;q=0.9";
 
     private IntegradorMicroservicios() {
         throw new IllegalStateException("No se puede instanciar la clase de utilería");
     }
 
+    /**
+     * Cliente compartido de los métodos estáticos. Se crea en la primera petición y no al
+     * cargar la clase, porque {@link HttpClient} arranca su hilo selector al construirse y
+     * {@link #obtenerMetricas()} se usa sin hacer peticiones desde {@link ClienteMicroservicios}.
+     */
+    private static final class ClienteCompartido {
+
+        static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+                .connectTimeout(DEFAULT_TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * Métricas de todas las peticiones de la librería, incluidas las de {@link ClienteMicroservicios}.
+     *
+     * @return Registro de métricas por endpoint
+     */
+    public static MetricasIntegrador obtenerMetricas() {
+        return METRICAS;
+    }
+
     /**
      * Consulta el microservicio de Clientes/Pedidos para obtener la representación JSON
      * de un pedido específico. El método no depende de Spring y puede reutilizarse desde
@@ -38,48 +84,333 @@ public final class IntegradorMicroservicios {
      * @throws IntegracionMicroserviciosException cuando ocurre un error de red o la URL es inválida
      */
     public static Optional<String> obtenerPedidoJson(String baseUrl, Long pedidoId) {
+        return obtenerPedidoJson(baseUrl, pedidoId, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Igual que {@link #obtenerPedidoJson(String, Long)} con un tiempo máximo de respuesta propio.
+     * Lo usa {@link IntegradorResiliente} para acotar cada intento.
+     */
+    static Optional<String> obtenerPedidoJson(String baseUrl, Long pedidoId, Duration timeout) {
         validarParametros(baseUrl, pedidoId);
 
         String endpoint = construirEndpoint(baseUrl, "/api/pedidos/" + pedidoId);
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(endpoint))
-                .timeout(DEFAULT_TIMEOUT)
-                .GET()
-                .header("Accept", "application/json")
-                .build();
 
+        HttpRequest request;
         try {
-            HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+            request = construirPeticion(endpoint, timeout);
+        } catch (IllegalArgumentException e) {
+            throw uriInvalida(e);
+        }
 
-            if (response.statusCode() == 404) {
-                return Optional.empty();
-            }
+        HttpResponse<String> response = enviar(ClienteCompartido.HTTP_CLIENT, request, DescompresorRespuestas.ofString(),
+                METRICAS.endpoint(baseUrl, RUTA_PEDIDO));
+        return interpretarRespuesta(response, endpoint);
+    }
 
-            if (response.statusCode() >= 200 && response.statusCode() < 300) {
-                return Optional.ofNullable(response.body());
-            }
+    /**
+     * Versión asíncrona de {@link #obtenerPedidoJson(String, Long)} que no bloquea al hilo llamador.
+     *
+     * @param baseUrl  URL base del microservicio (por ejemplo, http://localhost:8080)
+     * @param pedidoId identificador del pedido a consultar
+     * @return Futuro con el JSON crudo del pedido o {@link Optional#empty()} si la respuesta es 404;
+     *         se completa con {@link IntegracionMicroserviciosException} ante errores de red o respuestas inesperadas
+     * @throws IllegalArgumentException si los parámetros son inválidos
+     */
+    public static CompletableFuture<Optional<String>> obtenerPedidoJsonAsync(String baseUrl, Long pedidoId) {
+        validarParametros(baseUrl, pedidoId);
+
+        String endpoint = construirEndpoint(baseUrl, "/api/pedidos/" + pedidoId);
+        HttpRequest request;
+        try {
+            request = construirPeticion(endpoint);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(uriInvalida(e));
+        }
+
+        return enviarAsync(ClienteCompartido.HTTP_CLIENT, request, DescompresorRespuestas.ofString(), METRICAS.endpoint(baseUrl, RUTA_PEDIDO))
+                .handle((response, error) -> {
+                    if (error != null) {
+                        throw errorAsincrono(error);
+                    }
+                    return interpretarRespuesta(response, endpoint);
+                });
+    }
+
+    /**
+     * Consulta varios pedidos con a lo sumo {@value #DEFAULT_CONCURRENCIA} peticiones en vuelo.
+     *
+     * @see #obtenerPedidosJson(String, Collection, int)
+     */
+    public static Map<Long, Optional<String>> obtenerPedidosJson(String baseUrl, Collection<Long> pedidoIds) {
+        return obtenerPedidosJson(baseUrl, pedidoIds, DEFAULT_CONCURRENCIA);
+    }
 
+    /**
+     * Consulta varios pedidos en paralelo y espera todos los resultados. Bloquea solo al hilo
+     * llamador, por lo que es adecuado también para hilos virtuales.
+     *
+     * @param baseUrl URL base del microservicio
+     * @param pedidoIds identificadores a consultar; los repetidos se consultan una vez
+     * @param maxConcurrencia máximo de peticiones simultáneas
+     * @return Resultado de cada pedido en el orden de {@code pedidoIds}
+     * @throws IntegracionMicroserviciosException si alguna consulta falla
+     */
+    public static Map<Long, Optional<String>> obtenerPedidosJson(String baseUrl, Collection<Long> pedidoIds,
+                                                                int maxConcurrencia) {
+        try {
+            return obtenerPedidosJsonAsync(baseUrl, pedidoIds, maxConcurrencia).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IntegracionMicroserviciosException) {
+                throw (IntegracionMicroserviciosException) e.getCause();
+            }
             throw new IntegracionMicroserviciosException(
-                    String.format("Respuesta inesperada %d al consultar %s", response.statusCode(), endpoint)
+                    "Error al consultar pedidos: " + e.getCause().getMessage(), e.getCause()
             );
+        }
+    }
+
+    /**
+     * Consulta varios pedidos con un límite de peticiones simultáneas, sin bloquear hilos:
+     * cada respuesta recibida dispara la siguiente consulta pendiente. Ante el primer error
+     * el futuro falla y no se lanzan más peticiones.
+     *
+     * @param baseUrl URL base del microservicio
+     * @param pedidoIds identificadores a consultar; los repetidos se consultan una vez
+     * @param maxConcurrencia máximo de peticiones simultáneas
+     * @return Futuro con el resultado de cada pedido en el orden de {@code pedidoIds}
+     * @throws IllegalArgumentException si los parámetros son inválidos
+     */
+    public static CompletableFuture<Map<Long, Optional<String>>> obtenerPedidosJsonAsync(
+            String baseUrl, Collection<Long> pedidoIds, int maxConcurrencia) {
+        Objects.requireNonNull(pedidoIds, "La colección de IDs no puede ser nula");
+        if (maxConcurrencia < 1) {
+            throw new IllegalArgumentException("La concurrencia máxima debe ser mayor a cero");
+        }
+
+        Long[] ids = new LinkedHashSet<>(pedidoIds).toArray(new Long[0]);
+        for (Long id : ids) {
+            validarParametros(baseUrl, id);
+        }
+
+        ConsultaMultiple consulta = new ConsultaMultiple(baseUrl, ids);
+        for (int i = 0; i < Math.min(maxConcurrencia, ids.length); i++) {
+            consulta.lanzarSiguiente();
+        }
+        if (ids.length == 0) {
+            consulta.resultado.complete(consulta.armarResultado());
+        }
+        return consulta.resultado;
+    }
+
+    /**
+     * Consulta un pedido y decodifica la respuesta a medida que llega, sin pasar por un
+     * {@code String} intermedio. Ofrece el formato de {@link CodecBinarioPedidos} en el
+     * encabezado {@code Accept}; si el servicio no lo soporta, responde y se lee JSON.
+     *
+     * @param baseUrl  URL base del microservicio (por ejemplo, http://localhost:8080)
+     * @param pedidoId identificador del pedido a consultar
+     * @return Pedido decodificado cuando la respuesta es 2xx; {@link Optional#empty()} si la respuesta es 404
+     * @throws IntegracionMicroserviciosException cuando ocurre un error de red, la URL es inválida o el JSON no es válido
+     */
+    public static Optional<PedidoDTO> obtenerPedido(String baseUrl, Long pedidoId) {
+        validarParametros(baseUrl, pedidoId);
+
+        String endpoint = construirEndpoint(baseUrl, "/api/pedidos/" + pedidoId);
+        return consultarEnFlujo(endpoint, METRICAS.endpoint(baseUrl, RUTA_PEDIDO), ACEPTA_BINARIO,
+                        cuerpo -> Optional.ofNullable(DecodificadorPedidosJson.leerPedido(cuerpo)),
+                        binario -> Optional.ofNullable(CodecBinarioPedidos.decodificarPedido(binario)))
+                .flatMap(pedido -> pedido);
+    }
+
+    /**
+     * Recorre el listado de pedidos del microservicio decodificando el arreglo JSON elemento
+     * por elemento, de modo que un listado grande nunca está completo en memoria. Pide solo JSON:
+     * el formato de {@link CodecBinarioPedidos} se decodifica desde un búfer con el cuerpo completo.
+     *
+     * @param baseUrl URL base del microservicio (por ejemplo, http://localhost:8080)
+     * @param consumidor Recibe cada pedido en el orden de la respuesta
+     * @return Cantidad de pedidos recorridos; 0 si el listado no existe (404)
+     * @throws IntegracionMicroserviciosException cuando ocurre un error de red, la URL es inválida o el JSON no es válido
+     */
+    public static long recorrerPedidos(String baseUrl, Consumer<PedidoDTO> consumidor) {
+        Objects.requireNonNull(baseUrl, "La URL base no puede ser nula");
+        Objects.requireNonNull(consumidor, "El consumidor no puede ser nulo");
+        if (baseUrl.isBlank()) {
+            throw new IllegalArgumentException("La URL base no puede estar vacía");
+        }
 
+        String endpoint = construirEndpoint(baseUrl, "/api/pedidos");
+        return consultarEnFlujo(endpoint, METRICAS.endpoint(baseUrl, RUTA_LISTADO), "application/json",
+                        cuerpo -> DecodificadorPedidosJson.leerPedidos(cuerpo, consumidor), null)
+                .orElse(0L);
+    }
+
+    private static <T> Optional<T> consultarEnFlujo(String endpoint, MetricasIntegrador.Endpoint metricas,
+                                                    String aceptar, Function<InputStream, T> decodificadorJson,
+                                                    Function<ByteBuffer, T> decodificadorBinario) {
+        HttpRequest request;
+        try {
+            request = peticionGet(URI.create(endpoint), DEFAULT_TIMEOUT).setHeader("Accept", aceptar).build();
+        } catch (IllegalArgumentException e) {
+            throw uriInvalida(e);
+        }
+        return consultarEnFlujo(ClienteCompartido.HTTP_CLIENT, request, metricas, decodificadorJson, decodificadorBinario);
+    }
+
+    /**
+     * Envía la petición y entrega el cuerpo al decodificador según su {@code Content-Type},
+     * cerrándolo al terminar: el JSON se decodifica como flujo y el formato binario desde un
+     * búfer con el cuerpo completo. Sin decodificador binario, el cuerpo se lee siempre como JSON.
+     * La latencia registrada llega hasta los encabezados de la respuesta.
+     */
+    static <T> Optional<T> consultarEnFlujo(HttpClient cliente, HttpRequest request, MetricasIntegrador.Endpoint metricas,
+                                            Function<InputStream, T> decodificadorJson,
+                                            Function<ByteBuffer, T> decodificadorBinario) {
+        HttpResponse<InputStream> response = enviar(cliente, request, DescompresorRespuestas.ofInputStream(), metricas);
+
+        try (InputStream cuerpo = response.body()) {
+            if (!esRespuestaExitosa(response.statusCode(), request.uri().toString())) {
+                return Optional.empty();
+            }
+            if (decodificadorBinario != null && esBinario(response)) {
+                return Optional.of(decodificadorBinario.apply(ByteBuffer.wrap(cuerpo.readAllBytes())));
+            }
+            return Optional.of(decodificadorJson.apply(cuerpo));
         } catch (IOException e) {
-            throw new IntegracionMicroserviciosException(
-                    "Error de E/S al invocar microservicio de pedidos: " + e.getMessage(), e
-            );
+            throw errorDeEntradaSalida(e);
+        }
+    }
+
+    /**
+     * Envía una petición síncrona traduciendo los errores de red e interrupciones
+     * a {@link IntegracionMicroserviciosException}, y registra su resultado en las métricas del endpoint.
+     */
+    static <T> HttpResponse<T> enviar(HttpClient cliente, HttpRequest request, HttpResponse.BodyHandler<T> manejador,
+                                      MetricasIntegrador.Endpoint metricas) {
+        long inicio = metricas.iniciar();
+        try {
+            HttpResponse<T> response = cliente.send(request, manejador);
+            metricas.finalizar(inicio, response.statusCode());
+            return response;
+        } catch (IOException e) {
+            metricas.finalizar(inicio, e);
+            throw errorDeEntradaSalida(e);
+        } catch (RuntimeException e) {
+            metricas.finalizar(inicio, e);
+            throw e;
         } catch (InterruptedException e) {
+            metricas.finalizar(inicio, e);
             Thread.currentThread().interrupt();
             throw new IntegracionMicroserviciosException(
                     "La petición al microservicio de pedidos fue interrumpida", e
             );
-        } catch (IllegalArgumentException e) {
-            throw new IntegracionMicroserviciosException(
-                    "URI inválida al construir la petición: " + e.getMessage(), e
-            );
         }
     }
 
-    private static void validarParametros(String baseUrl, Long pedidoId) {
+    /**
+     * Envía una petición asíncrona registrando su resultado en las métricas del endpoint.
+     */
+    static <T> CompletableFuture<HttpResponse<T>> enviarAsync(HttpClient cliente, HttpRequest request,
+                                                          HttpResponse.BodyHandler<T> manejador,
+                                                          MetricasIntegrador.Endpoint metricas) {
+        long inicio = metricas.iniciar();
+        CompletableFuture<HttpResponse<T>> respuesta;
+        try {
+            respuesta = cliente.sendAsync(request, manejador);
+        } catch (RuntimeException e) {
+            metricas.finalizar(inicio, e);
+            throw e;
+        }
+        return respuesta.whenComplete((response, error) -> {
+            if (error != null) {
+                metricas.finalizar(inicio, error);
+            } else {
+                metricas.finalizar(inicio, response.statusCode());
+            }
+        });
+    }
+
+    private static HttpRequest construirPeticion(String endpoint) {
+        return construirPeticion(endpoint, DEFAULT_TIMEOUT);
+    }
+
+    private static HttpRequest construirPeticion(String endpoint, Duration timeout) {
+        return peticionGet(URI.create(endpoint), timeout).build();
+    }
+
+    static HttpRequest.Builder peticionGet(URI uri, Duration timeout) {
+        return HttpRequest.newBuilder()
+                .uri(uri)
+                .timeout(timeout)
+                .GET()
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", DescompresorRespuestas.ACEPTA_CODIFICACION);
+    }
+
+    static boolean esBinario(HttpResponse<?> response) {
+        return response.headers().firstValue("Content-Type")
+                .map(tipo -> tipo.regionMatches(true, 0, CodecBinarioPedidos.TIPO_CONTENIDO, 0,
+                        CodecBinarioPedidos.TIPO_CONTENIDO.length()))
+                .orElse(false);
+    }
+
+    static Optional<String> interpretarRespuesta(HttpResponse<String> response, String endpoint) {
+        if (!esRespuestaExitosa(response.statusCode(), endpoint)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(response.body());
+    }
+
+    /**
+     * @return {@code true} para 2xx, {@code false} para 404
+     * @throws IntegracionMicroserviciosException para cualquier otro estado
+     */
+    static boolean esRespuestaExitosa(int estado, String endpoint) {
+        if (estado == 404) {
+            return false;
+        }
+
+        if (estado >= 200 && estado < 300) {
+            return true;
+        }
+
+        throw new IntegracionMicroserviciosException(
+                String.format("Respuesta inesperada %d al consultar %s", estado, endpoint), estado
+        );
+    }
+
+    /**
+     * Traduce el error de un envío asíncrono a {@link IntegracionMicroserviciosException}.
+     */
+    static RuntimeException errorAsincrono(Throwable error) {
+        Throwable causa = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        if (causa instanceof IntegracionMicroserviciosException) {
+            return (IntegracionMicroserviciosException) causa;
+        }
+        if (causa instanceof IOException) {
+            return errorDeEntradaSalida((IOException) causa);
+        }
+        return new IntegracionMicroserviciosException(
+                "Error al invocar microservicio de pedidos: " + causa.getMessage(), causa
+        );
+    }
+
+    static IntegracionMicroserviciosException errorDeEntradaSalida(IOException e) {
+        return new IntegracionMicroserviciosException(
+                "Error de E/S al invocar microservicio de pedidos: " + e.getMessage(), e
+        );
+    }
+
+    private static IntegracionMicroserviciosException uriInvalida(IllegalArgumentException e) {
+        return new IntegracionMicroserviciosException(
+                "URI inválida al construir la petición: " + e.getMessage(), e
+        );
+    }
+
+    static void validarParametros(String baseUrl, Long pedidoId) {
         Objects.requireNonNull(baseUrl, "La URL base no puede ser nula");
         Objects.requireNonNull(pedidoId, "El ID del pedido no puede ser nulo");
 
@@ -98,4 +429,56 @@ public final class IntegradorMicroservicios {
         }
         return baseUrl + path;
     }
+
+    /**
+     * Estado de una consulta múltiple: un índice compartido reparte los IDs pendientes
+     * entre las peticiones en vuelo y cada una guarda su resultado en su propia posición.
+     */
+    private static final class ConsultaMultiple {
+
+        private final String baseUrl;
+        private final Long[] ids;
+        private final AtomicReferenceArray<Optional<String>> resultados;
+        private final AtomicInteger siguiente = new AtomicInteger();
+        private final AtomicInteger pendientes;
+        private final CompletableFuture<Map<Long, Optional<String>>> resultado = new CompletableFuture<>();
+
+        ConsultaMultiple(String baseUrl, Long[] ids) {
+            this.baseUrl = baseUrl;
+            this.ids = ids;
+            this.resultados = new AtomicReferenceArray<>(ids.length);
+            this.pendientes = new AtomicInteger(ids.length);
+        }
+
+        void lanzarSiguiente() {
+            if (resultado.isDone()) {
+                return;
+            }
+            int indice = siguiente.getAndIncrement();
+            if (indice >= ids.length) {
+                return;
+            }
+
+            obtenerPedidoJsonAsync(baseUrl, ids[indice]).whenComplete((pedido, error) -> {
+                if (error != null) {
+                    resultado.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+                    return;
+                }
+                resultados.set(indice, pedido);
+                if (pendientes.decrementAndGet() == 0) {
+                    resultado.complete(armarResultado());
+                } else {
+                    lanzarSiguiente();
+                }
+            });
+        }
+
+        private Map<Long, Optional<String>> armarResultado() {
+            Map<Long, Optional<String>> mapa = new LinkedHashMap<>();
+            for (int i = 0; i < ids.length; i++) {
+                mapa.put(ids[i], resultados.get(i));
+            }
+            return mapa;
+        }
+    }
 }
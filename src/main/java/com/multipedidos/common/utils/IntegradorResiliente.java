@@ -0,0 +1,182 @@
+package com.multipedidos.common.utils;
+
+import com.multipedidos.common.exceptions.IntegracionMicroserviciosException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Envoltura de {@link IntegradorMicroservicios} que agrega, para un microservicio destino:
+ * - Plazo por intento y plazo total de la llamada
+ * - Reintentos con espera exponencial aleatorizada, solo para llamadas idempotentes (GET)
+ *   y solo ante errores de red, 5xx o 429
+ * - Circuito interruptor que falla de inmediato mientras el destino no responde
+ * - Límite de llamadas simultáneas (bulkhead) que rechaza en lugar de encolar
+ *
+ * <p>El camino de cada llamada usa solo operaciones atómicas; una instancia se comparte
+ * entre todos los hilos que consultan el mismo destino. Los rechazos por circuito abierto o
+ * sin cupo lanzan una excepción sin traza creada una vez por instancia, porque ocurren en
+ * ráfagas justamente cuando el destino está saturado.</p>
+ */
+public final class IntegradorResiliente {
+
+    private final String baseUrl;
+    private final PoliticaResiliencia politica;
+    private final CircuitoInterruptor circuito;
+    private final Semaphore llamadasDisponibles;
+    private final LongSupplier reloj;
+    private final IntegracionMicroserviciosException circuitoAbierto;
+    private final IntegracionMicroserviciosException sinCupo;
+
+    /**
+     * @param baseUrl URL base del microservicio (por ejemplo, http://localhost:8080)
+     * @param politica Configuración de plazos, reintentos, circuito y concurrencia
+     */
+    public IntegradorResiliente(String baseUrl, PoliticaResiliencia politica) {
+        this(baseUrl, politica, System::nanoTime);
+    }
+
+    IntegradorResiliente(String baseUrl, PoliticaResiliencia politica, LongSupplier reloj) {
+        this.baseUrl = Objects.requireNonNull(baseUrl, "La URL base no puede ser nula");
+        this.politica = Objects.requireNonNull(politica, "La política no puede ser nula");
+        this.reloj = reloj;
+        this.circuito = new CircuitoInterruptor(politica.getFallosParaAbrir(),
+                politica.getTiempoAbierto().toNanos(), reloj);
+        this.llamadasDisponibles = new Semaphore(politica.getMaxConcurrencia());
+        this.circuitoAbierto = IntegracionMicroserviciosException.sinTraza(
+                "Circuito abierto: " + baseUrl + " no está disponible", IntegracionMicroserviciosException.SIN_CODIGO_ESTADO);
+        this.sinCupo = IntegracionMicroserviciosException.sinTraza(
+                "Se alcanzó el máximo de " + politica.getMaxConcurrencia() + " llamadas simultáneas a " + baseUrl,
+                IntegracionMicroserviciosException.SIN_CODIGO_ESTADO);
+    }
+
+    /**
+     * Consulta un pedido aplicando la política de resiliencia.
+     *
+     * @param pedidoId identificador del pedido a consultar
+     * @return JSON crudo del pedido; {@link Optional#empty()} si la respuesta es 404
+     * @throws IllegalArgumentException si el ID es nulo o no es positivo, sin ocupar cupo ni tocar el circuito
+     * @throws IntegracionMicroserviciosException si se agotan los intentos o el plazo, el circuito
+     *         está abierto o se alcanzó el máximo de llamadas simultáneas
+     */
+    public Optional<String> obtenerPedidoJson(Long pedidoId) {
+        IntegradorMicroservicios.validarParametros(baseUrl, pedidoId);
+        return ejecutar(timeout -> IntegradorMicroservicios.obtenerPedidoJson(baseUrl, pedidoId, timeout), true);
+    }
+
+    /**
+     * Ejecuta una llamada arbitraria al destino aplicando la política. La función recibe el
+     * tiempo máximo del intento actual y debe respetarlo.
+     *
+     * @param llamada Llamada al microservicio destino
+     * @param idempotente {@code true} solo si repetirla no tiene efectos (por ejemplo, un GET)
+     * @return Resultado de la llamada. Las excepciones que no son {@link IntegracionMicroserviciosException}
+     *         se propagan sin reintentar y no cuentan como fallo del destino
+     */
+    public <T> T ejecutar(Function<Duration, T> llamada, boolean idempotente) {
+        Objects.requireNonNull(llamada, "La llamada no puede ser nula");
+        if (!llamadasDisponibles.tryAcquire()) {
+            throw sinCupo;
+        }
+        try {
+            return ejecutarConReintentos(llamada, idempotente ? politica.getMaxIntentos() : 1);
+        } finally {
+            llamadasDisponibles.release();
+        }
+    }
+
+    private <T> T ejecutarConReintentos(Function<Duration, T> llamada, int maxIntentos) {
+        long limite = reloj.getAsLong() + politica.getPlazoTotal().toNanos();
+        long timeoutIntento = politica.getTimeoutIntento().toNanos();
+
+        for (int intento = 1; ; intento++) {
+            if (!circuito.permitir()) {
+                throw circuitoAbierto;
+            }
+
+            long restante = limite - reloj.getAsLong();
+            if (restante <= 0) {
+                circuito.registrarNeutro();
+                throw new IntegracionMicroserviciosException("Se agotó el plazo total de la llamada a " + baseUrl);
+            }
+
+            try {
+                T resultado = llamada.apply(Duration.ofNanos(Math.min(timeoutIntento, restante)));
+                circuito.registrarExito();
+                return resultado;
+            } catch (IntegracionMicroserviciosException e) {
+                if (!esReintentable(e)) {
+                    circuito.registrarNeutro();
+                    throw e;
+                }
+                circuito.registrarFallo();
+
+                long espera = calcularEspera(intento);
+                if (intento >= maxIntentos || reloj.getAsLong() + espera - limite >= 0) {
+                    throw e;
+                }
+                esperar(espera, e);
+            } catch (RuntimeException | Error e) {
+                // Un error propio del llamador no dice nada del destino, pero debe liberar la prueba
+                circuito.registrarNeutro();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Errores de red (incluidos los timeouts), 5xx y 429 son transitorios; los demás no se reintentan.
+     */
+    static boolean esReintentable(IntegracionMicroserviciosException e) {
+        int estado = e.getCodigoEstado();
+        if (estado != IntegracionMicroserviciosException.SIN_CODIGO_ESTADO) {
+            return estado >= 500 || estado == 429;
+        }
+        return e.getCause() instanceof IOException;
+    }
+
+    /**
+     * Espera exponencial con aleatoriedad: entre la mitad y el total de
+     * {@code esperaInicial * 2^(intento - 1)}, sin superar {@code esperaMaxima}.
+     */
+    long calcularEspera(int intento) {
+        long base = politica.getEsperaInicial().toNanos();
+        long maxima = politica.getEsperaMaxima().toNanos();
+        long tope = intento - 1 >= Long.numberOfLeadingZeros(base) - 1 ? maxima : Math.min(maxima, base << (intento - 1));
+        long mitad = tope / 2;
+        return mitad + ThreadLocalRandom.current().nextLong(tope - mitad + 1);
+    }
+
+    private static void esperar(long nanos, IntegracionMicroserviciosException ultimoError) {
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            IntegracionMicroserviciosException interrumpida = new IntegracionMicroserviciosException(
+                    "La espera entre reintentos fue interrumpida", e);
+            interrumpida.addSuppressed(ultimoError);
+            throw interrumpida;
+        }
+    }
+
+    public CircuitoInterruptor.Estado getEstadoCircuito() {
+        return circuito.getEstado();
+    }
+
+    /**
+     * @return Llamadas que todavía pueden iniciarse sin superar el máximo simultáneo
+     */
+    public int getLlamadasDisponibles() {
+        return llamadasDisponibles.availablePermits();
+    }
+
+    public PoliticaResiliencia getPolitica() {
+        return politica;
+    }
+}
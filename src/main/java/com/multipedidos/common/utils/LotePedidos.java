@@ -0,0 +1,107 @@
+package com.multipedidos.common.utils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Buffer reutilizable para calcular totales de muchos pedidos en formato columnar.
+ * Las líneas de todos los pedidos se guardan en un único {@code long[]} de centavos y
+ * cada pedido se delimita con un desplazamiento, de modo que el cálculo del lote es un
+ * ciclo sobre arreglos primitivos.
+ *
+ * <p>No es thread-safe: cada hilo debe usar su propio lote y llamar a {@link #limpiar()}
+ * para reutilizarlo sin volver a reservar memoria.</p>
+ */
+public final class LotePedidos {
+
+    private long[] preciosCentavos;
+    private int[] inicios;
+    private int lineas;
+    private int pedidos;
+
+    public LotePedidos() {
+        this(64, 1024);
+    }
+
+    /**
+     * @param capacidadPedidos Cantidad de pedidos esperada
+     * @param capacidadLineas Cantidad total de líneas esperada
+     */
+    public LotePedidos(int capacidadPedidos, int capacidadLineas) {
+        if (capacidadPedidos < 1 || capacidadLineas < 1) {
+            throw new IllegalArgumentException("Las capacidades del lote deben ser mayores a cero");
+        }
+        this.preciosCentavos = new long[capacidadLineas];
+        this.inicios = new int[capacidadPedidos + 1];
+    }
+
+    /**
+     * Agrega una línea al pedido en curso.
+     *
+     * @param precioCentavos Precio de la línea, en centavos
+     */
+    public void agregarLinea(long precioCentavos) {
+        if (lineas == preciosCentavos.length) {
+            preciosCentavos = Arrays.copyOf(preciosCentavos, preciosCentavos.length * 2);
+        }
+        preciosCentavos[lineas++] = precioCentavos;
+    }
+
+    /**
+     * Agrega una línea al pedido en curso.
+     *
+     * @param precio Precio de la línea con a lo sumo 2 decimales
+     * @throws IllegalArgumentException si el precio es nulo o tiene más de 2 decimales
+     */
+    public void agregarLinea(BigDecimal precio) {
+        agregarLinea(CalculadoraDescuentos.aCentavos(precio));
+    }
+
+    /**
+     * Cierra el pedido en curso; las siguientes líneas pertenecen a un pedido nuevo.
+     *
+     * @return Índice del pedido cerrado dentro del lote
+     * @throws IllegalStateException si el pedido en curso no tiene líneas
+     */
+    public int cerrarPedido() {
+        if (lineas == inicios[pedidos]) {
+            throw new IllegalStateException("El pedido en curso no tiene productos");
+        }
+        if (pedidos + 1 == inicios.length - 1) {
+            inicios = Arrays.copyOf(inicios, inicios.length * 2);
+        }
+        inicios[++pedidos] = lineas;
+        return pedidos - 1;
+    }
+
+    /**
+     * Calcula el total final de cada pedido cerrado.
+     *
+     * @param totalesCentavos Arreglo destino reutilizable; si es nulo o pequeño se crea uno nuevo
+     * @return Arreglo con el total de cada pedido en centavos, en el orden en que se cerraron
+     */
+    public long[] calcularTotales(long[] totalesCentavos) {
+        long[] destino = totalesCentavos != null && totalesCentavos.length >= pedidos
+                ? totalesCentavos
+                : new long[pedidos];
+        CalculadoraDescuentos.calcularTotalesCentavos(preciosCentavos, inicios, destino, 0, pedidos,
+                CalculadoraDescuentos.obtenerTablaDescuentos());
+        return destino;
+    }
+
+    public int cantidadPedidos() {
+        return pedidos;
+    }
+
+    public int cantidadLineas() {
+        return lineas;
+    }
+
+    /**
+     * Vacía el lote conservando la memoria reservada.
+     */
+    public void limpiar() {
+        lineas = 0;
+        pedidos = 0;
+    }
+}
@@ -0,0 +1,90 @@
+package com.multipedidos.common.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de {@link CalculadoraDescuentos}, pensados para exponerse en un endpoint de
+ * métricas en lugar de registrar cada cálculo en el log. Se actualizan con {@link LongAdder},
+ * por lo que su costo por cálculo es de unos pocos nanosegundos incluso con muchos hilos.
+ *
+ * <p>Las aplicaciones por tramo se guardan en cada {@link TablaDescuentos}; la instantánea
+ * reporta las de la tabla activa en el momento de leerla.</p>
+ *
+ * <p>Los subtotales {@link BigDecimal} se llevan a centavos redondeando HALF_UP; los que no
+ * caben en un {@code long}, o que desbordarían la suma de un lote, se cuentan en
+ * {@code montosFueraDeRango} y no se suman al monto.</p>
+ */
+public final class MetricasCalculadora {
+
+    private final LongAdder totalesCalculados = new LongAdder();
+    private final LongAdder montoAcumuladoCentavos = new LongAdder();
+    private final LongAdder montosFueraDeRango = new LongAdder();
+
+    MetricasCalculadora() {
+    }
+
+    void registrarTotal(long subtotalCentavos) {
+        totalesCalculados.increment();
+        montoAcumuladoCentavos.add(subtotalCentavos);
+    }
+
+    void registrarTotal(BigDecimal subtotal) {
+        long subtotalCentavos;
+        try {
+            subtotalCentavos = subtotal.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        } catch (ArithmeticException e) {
+            totalesCalculados.increment();
+            montosFueraDeRango.increment();
+            return;
+        }
+        registrarTotal(subtotalCentavos);
+    }
+
+    void registrarTotales(long cantidad, long montoCentavos) {
+        totalesCalculados.add(cantidad);
+        montoAcumuladoCentavos.add(montoCentavos);
+    }
+
+    void registrarTotales(long cantidad, long montoCentavos, long fueraDeRango) {
+        registrarTotales(cantidad, montoCentavos);
+        if (fueraDeRango > 0) {
+            montosFueraDeRango.add(fueraDeRango);
+        }
+    }
+
+    /**
+     * @return Valores actuales de los contadores
+     */
+    public Instantanea instantanea() {
+        TablaDescuentos tabla = CalculadoraDescuentos.obtenerTablaDescuentos();
+        Map<String, Long> porTramo = new LinkedHashMap<>();
+        for (int i = 0; i < tabla.cantidadTramos(); i++) {
+            porTramo.put(tabla.nombreTramo(i), tabla.aplicacionesTramo(i));
+        }
+        return new Instantanea(totalesCalculados.sum(), montoAcumuladoCentavos.sum(), montosFueraDeRango.sum(),
+                Collections.unmodifiableMap(porTramo));
+    }
+
+    /**
+     * Valores de los contadores en un momento dado.
+     *
+     * @param totalesCalculados totales finales calculados, uno por pedido
+     * @param montoAcumuladoCentavos suma de los subtotales procesados, en centavos redondeados HALF_UP
+     * @param montosFueraDeRango subtotales que no caben en un {@code long} de centavos, o en la suma de
+     *                           su lote, y no se sumaron
+     * @param aplicacionesPorTramo descuentos aplicados por nombre de tramo de la tabla activa
+     */
+    public record Instantanea(long totalesCalculados, long montoAcumuladoCentavos, long montosFueraDeRango,
+                              Map<String, Long> aplicacionesPorTramo) {
+    }
+
+    @Override
+    public String toString() {
+        return "MetricasCalculadora{" + instantanea() + '}';
+    }
+}
@@ -0,0 +1,326 @@
+package com.multipedidos.common.utils;
+
+import com.multipedidos.common.exceptions.IntegracionMicroserviciosException;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Métricas de las llamadas HTTP de {@link IntegradorMicroservicios} y {@link ClienteMicroservicios},
+ * sin dependencias externas, para que cada servicio las exponga en su propio sistema de métricas.
+ * Por cada endpoint (URL base más la ruta con sus variables, por ejemplo
+ * {@code http://localhost:8080/api/pedidos/{id}}) se lleva:
+ * - Cantidad de peticiones por {@link ClaseRespuesta}
+ * - Peticiones en vuelo
+ * - Histograma de latencias ({@link HistogramaLatencias}) con p50, p99 y p999
+ *
+ * <p>El registro usa solo {@link LongAdder} y contadores atómicos, sin bloqueos. Con
+ * {@code MetricasIntegradorBenchmark} (JDK 17, un núcleo) una llamada completa,
+ * {@link Endpoint#iniciar()} más {@code finalizar}, cuesta unos 120-130 ns; unos 70 ns son las
+ * dos lecturas de {@link System#nanoTime()} que necesita cualquier medición de latencia, así que
+ * ese costo depende sobre todo del reloj de la máquina. Las lecturas se hacen con
+ * {@link #instantanea()} o, evento por evento, con un {@link Observador}.</p>
+ */
+public final class MetricasIntegrador {
+
+    private static final Logger log = Logger.getLogger(MetricasIntegrador.class.getName());
+    private static final Observador[] SIN_OBSERVADORES = new Observador[0];
+
+    /**
+     * Resultado de una petición.
+     */
+    public enum ClaseRespuesta {
+        /** Respuesta 2xx. */
+        EXITO,
+        /** Respuesta 404, que la librería interpreta como recurso inexistente. */
+        NO_ENCONTRADO,
+        /** Cualquier otro código de estado. */
+        OTRO_ESTADO,
+        /** Error de E/S u otra falla del envío, incluidos los timeouts. */
+        ERROR_ES,
+        /** Hilo interrumpido o petición asíncrona cancelada. */
+        INTERRUMPIDA;
+
+        private static final ClaseRespuesta[] VALORES = values();
+
+        static ClaseRespuesta deEstado(int estado) {
+            if (estado >= 200 && estado < 300) {
+                return EXITO;
+            }
+            return estado == 404 ? NO_ENCONTRADO : OTRO_ESTADO;
+        }
+
+        static ClaseRespuesta deError(Throwable error) {
+            Throwable causa = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+            if (causa instanceof InterruptedException || causa instanceof CancellationException) {
+                return INTERRUMPIDA;
+            }
+            return ERROR_ES;
+        }
+    }
+
+    /**
+     * Recibe cada petición completada, en el hilo que la completó; debe ser rápido y no bloquear.
+     * Las excepciones que lance se registran y no afectan a la petición.
+     */
+    @FunctionalInterface
+    public interface Observador {
+
+        /**
+         * @param endpoint Nombre del endpoint
+         * @param clase Resultado de la petición
+         * @param codigoEstado Código HTTP, o {@link IntegracionMicroserviciosException#SIN_CODIGO_ESTADO} si no hubo respuesta
+         * @param duracionNanos Latencia hasta recibir la respuesta (o el error)
+         */
+        void peticionCompletada(String endpoint, ClaseRespuesta clase, int codigoEstado, long duracionNanos);
+    }
+
+    // URL base tal como la recibe el método estático -> ruta -> endpoint; evita normalizar la URL en cada llamada
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Endpoint>> porDestino = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Endpoint> porNombre = new ConcurrentHashMap<>();
+    private volatile Observador[] observadores = SIN_OBSERVADORES;
+
+    MetricasIntegrador() {
+    }
+
+    /**
+     * Obtiene (o crea) las métricas de un endpoint. El resultado puede guardarse para
+     * instrumentar llamadas propias sin repetir la búsqueda.
+     *
+     * @param baseUrl URL base del microservicio. Se normaliza con {@link #normalizarDestino(String)},
+     *                así que la misma URL escrita de otra forma comparte las métricas
+     * @param ruta Ruta con sus variables, por ejemplo {@code /api/pedidos/{id}}
+     * @return Métricas del endpoint
+     */
+    public Endpoint endpoint(String baseUrl, String ruta) {
+        ConcurrentHashMap<String, Endpoint> porRuta = porDestino.get(baseUrl);
+        if (porRuta == null) {
+            porRuta = porDestino.computeIfAbsent(baseUrl, clave -> new ConcurrentHashMap<>());
+        }
+        Endpoint endpoint = porRuta.get(ruta);
+        if (endpoint == null) {
+            String base = normalizarDestino(baseUrl);
+            endpoint = porRuta.computeIfAbsent(ruta,
+                    clave -> porNombre.computeIfAbsent(base + clave, Endpoint::new));
+        }
+        return endpoint;
+    }
+
+    /**
+     * Forma canónica de una URL base para nombrar sus endpoints: esquema y host en minúsculas,
+     * sin el puerto por defecto del esquema ni barras finales. Si no es una URI válida solo se
+     * quitan las barras finales.
+     */
+    static String normalizarDestino(String baseUrl) {
+        int fin = baseUrl.length();
+        while (fin > 0 && baseUrl.charAt(fin - 1) == '/') {
+            fin--;
+        }
+        String sinBarras = baseUrl.substring(0, fin);
+        try {
+            URI uri = new URI(sinBarras);
+            String esquema = uri.getScheme();
+            String host = uri.getHost();
+            if (esquema == null || host == null) {
+                return sinBarras;
+            }
+            esquema = esquema.toLowerCase(Locale.ROOT);
+            int puerto = uri.getPort();
+            boolean puertoPorDefecto = puerto == -1
+                    || puerto == 80 && "http".equals(esquema)
+                    || puerto == 443 && "https".equals(esquema);
+            String ruta = uri.getRawPath() == null ? "" : uri.getRawPath();
+            return esquema + "://" + host.toLowerCase(Locale.ROOT) + (puertoPorDefecto ? "" : ":" + puerto) + ruta;
+        } catch (URISyntaxException e) {
+            return sinBarras;
+        }
+    }
+
+    /**
+     * @param observador Observador a notificar en cada petición completada
+     */
+    public synchronized void agregarObservador(Observador observador) {
+        Objects.requireNonNull(observador, "El observador no puede ser nulo");
+        Observador[] actuales = observadores;
+        Observador[] nuevos = Arrays.copyOf(actuales, actuales.length + 1);
+        nuevos[actuales.length] = observador;
+        observadores = nuevos;
+    }
+
+    /**
+     * @param observador Observador agregado antes
+     * @return {@code true} si estaba registrado
+     */
+    public synchronized boolean quitarObservador(Observador observador) {
+        Observador[] actuales = observadores;
+        for (int i = 0; i < actuales.length; i++) {
+            if (actuales[i] == observador) {
+                Observador[] nuevos = new Observador[actuales.length - 1];
+                System.arraycopy(actuales, 0, nuevos, 0, i);
+                System.arraycopy(actuales, i + 1, nuevos, i, nuevos.length - i);
+                observadores = nuevos;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Métricas de cada endpoint usado hasta ahora, ordenadas por nombre
+     */
+    public Map<String, InstantaneaEndpoint> instantanea() {
+        Map<String, InstantaneaEndpoint> resultado = new TreeMap<>();
+        for (Endpoint endpoint : porNombre.values()) {
+            resultado.put(endpoint.nombre, endpoint.instantanea());
+        }
+        return Collections.unmodifiableMap(resultado);
+    }
+
+    /**
+     * @return Peticiones en vuelo sumando todos los endpoints
+     */
+    public long enVuelo() {
+        long total = 0;
+        for (Endpoint endpoint : porNombre.values()) {
+            total += endpoint.enVuelo.sum();
+        }
+        return total;
+    }
+
+    private void notificar(String endpoint, ClaseRespuesta clase, int estado, long duracion) {
+        for (Observador observador : observadores) {
+            try {
+                observador.peticionCompletada(endpoint, clase, estado, duracion);
+            } catch (RuntimeException e) {
+                if (log.isLoggable(Level.WARNING)) {
+                    log.log(Level.WARNING, "El observador de métricas falló para " + endpoint, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Contadores de un endpoint. Cada llamada instrumentada hace {@link #iniciar()} y luego
+     * exactamente un {@code finalizar}, también cuando la petición falla.
+     */
+    public final class Endpoint {
+
+        private final String nombre;
+        private final LongAdder[] porClase = new LongAdder[ClaseRespuesta.VALORES.length];
+        private final LongAdder enVuelo = new LongAdder();
+        private final HistogramaLatencias latencias = new HistogramaLatencias();
+
+        private Endpoint(String nombre) {
+            this.nombre = nombre;
+            for (int i = 0; i < porClase.length; i++) {
+                porClase[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Marca el inicio de una petición.
+         *
+         * @return Instante de inicio, para pasarlo a {@code finalizar}
+         */
+        public long iniciar() {
+            enVuelo.increment();
+            return System.nanoTime();
+        }
+
+        /**
+         * Registra una petición que recibió respuesta.
+         *
+         * @param inicio Valor devuelto por {@link #iniciar()}
+         * @param codigoEstado Código HTTP de la respuesta
+         */
+        public void finalizar(long inicio, int codigoEstado) {
+            finalizar(inicio, ClaseRespuesta.deEstado(codigoEstado), codigoEstado);
+        }
+
+        /**
+         * Registra una petición que terminó sin respuesta.
+         *
+         * @param inicio Valor devuelto por {@link #iniciar()}
+         * @param error Error del envío
+         */
+        public void finalizar(long inicio, Throwable error) {
+            finalizar(inicio, ClaseRespuesta.deError(error), IntegracionMicroserviciosException.SIN_CODIGO_ESTADO);
+        }
+
+        private void finalizar(long inicio, ClaseRespuesta clase, int estado) {
+            long duracion = System.nanoTime() - inicio;
+            enVuelo.decrement();
+            porClase[clase.ordinal()].increment();
+            latencias.registrar(duracion);
+            if (observadores.length > 0) {
+                notificar(nombre, clase, estado, duracion);
+            }
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        /**
+         * @return Valores actuales del endpoint
+         */
+        public InstantaneaEndpoint instantanea() {
+            return new InstantaneaEndpoint(nombre,
+                    porClase[ClaseRespuesta.EXITO.ordinal()].sum(),
+                    porClase[ClaseRespuesta.NO_ENCONTRADO.ordinal()].sum(),
+                    porClase[ClaseRespuesta.OTRO_ESTADO.ordinal()].sum(),
+                    porClase[ClaseRespuesta.ERROR_ES.ordinal()].sum(),
+                    porClase[ClaseRespuesta.INTERRUMPIDA.ordinal()].sum(),
+                    enVuelo.sum(),
+                    latencias.instantanea());
+        }
+
+        @Override
+        public String toString() {
+            return "Endpoint{" + nombre + '}';
+        }
+    }
+
+    /**
+     * Métricas de un endpoint en un momento dado.
+     *
+     * @param endpoint nombre del endpoint
+     * @param exitos respuestas 2xx
+     * @param noEncontrados respuestas 404
+     * @param otrosEstados respuestas con cualquier otro código
+     * @param erroresES envíos fallidos por E/S o timeout
+     * @param interrumpidas envíos interrumpidos o cancelados
+     * @param enVuelo peticiones iniciadas y aún sin terminar
+     * @param latencias latencias de las peticiones terminadas, en nanosegundos
+     */
+    public record InstantaneaEndpoint(String endpoint, long exitos, long noEncontrados, long otrosEstados,
+                                      long erroresES, long interrumpidas, long enVuelo,
+                                      HistogramaLatencias.Instantanea latencias) {
+
+        /**
+         * @return Peticiones terminadas
+         */
+        public long total() {
+            return exitos + noEncontrados + otrosEstados + erroresES + interrumpidas;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MetricasIntegrador{" + instantanea() + '}';
+    }
+}
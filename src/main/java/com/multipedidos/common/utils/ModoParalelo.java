@@ -0,0 +1,73 @@
+package com.multipedidos.common.utils;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Configuración opcional para repartir los cálculos de {@link CalculadoraDescuentos}
+ * sobre un {@link ForkJoinPool}. Por debajo del umbral el cálculo sigue siendo secuencial,
+ * porque repartir trabajos pequeños cuesta más que sumarlos en un solo hilo.
+ *
+ * <p>Los resultados son deterministas e idénticos a los del camino secuencial: la suma de
+ * {@code BigDecimal} es exacta y cada pedido de un lote se calcula de forma independiente.</p>
+ */
+public final class ModoParalelo {
+
+    /**
+     * Umbral por defecto. Es un valor conservador sin medir: el punto de cruce depende de los
+     * núcleos y del pool, así que cada despliegue debe ajustarlo con {@code ModoParaleloBenchmark}.
+     */
+    public static final int UMBRAL_POR_DEFECTO = 50_000;
+
+    private final ForkJoinPool pool;
+    private final int umbral;
+
+    /**
+     * @param pool Pool donde se ejecutan las tareas
+     * @param umbral Cantidad mínima de elementos para calcular en paralelo
+     */
+    public ModoParalelo(ForkJoinPool pool, int umbral) {
+        this.pool = Objects.requireNonNull(pool, "El pool no puede ser nulo");
+        if (umbral < 0) {
+            throw new IllegalArgumentException("El umbral no puede ser negativo");
+        }
+        this.umbral = umbral;
+    }
+
+    /**
+     * Modo paralelo sobre el {@link ForkJoinPool#commonPool()} con el umbral por defecto.
+     *
+     * @return Configuración paralela compartida
+     */
+    public static ModoParalelo comun() {
+        return new ModoParalelo(ForkJoinPool.commonPool(), UMBRAL_POR_DEFECTO);
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getUmbral() {
+        return umbral;
+    }
+
+    boolean conviene(int elementos) {
+        return elementos >= umbral && pool.getParallelism() > 1;
+    }
+
+    /**
+     * Tamaño de las porciones que se calculan sin volver a dividir: unas cuatro por hilo
+     * para equilibrar la carga sin multiplicar tareas.
+     */
+    int tamanoPorcion(int elementos) {
+        return Math.max(1, elementos / (pool.getParallelism() * 4));
+    }
+
+    @Override
+    public String toString() {
+        return "ModoParalelo{" +
+                "paralelismo=" + pool.getParallelism() +
+                ", umbral=" + umbral +
+                '}';
+    }
+}
@@ -0,0 +1,47 @@
+package com.multipedidos.common.utils;
+
+/**
+ * Núcleo de cálculo masivo de totales en centavos (tramo de descuento, descuento e IVA con
+ * redondeo HALF_UP) que usa
+ * {@link CalculadoraDescuentos#calcularTotalesFinalesCentavos(long[], long[], TablaDescuentos)}.
+ *
+ * <p>La implementación se descubre con {@link java.util.ServiceLoader}: el módulo opcional
+ * {@code common-library-vector} aporta una con la Vector API de la JDK. Si no hay ninguna
+ * disponible se usa {@link #escalar()}. Toda implementación debe producir exactamente los
+ * mismos resultados que {@link CalculadoraDescuentos#calcularTotalFinalCentavos(long, TablaDescuentos)}
+ * y lanzar las mismas excepciones.</p>
+ */
+public interface NucleoPrecios {
+
+    /**
+     * @return Nombre del núcleo, para registros y métricas
+     */
+    String nombre();
+
+    /**
+     * @return {@code false} si el núcleo no puede usarse en esta JVM (por ejemplo, falta un módulo)
+     */
+    default boolean disponible() {
+        return true;
+    }
+
+    /**
+     * Escribe en {@code totalesCentavos[i]} el total final de {@code subtotalesCentavos[i]}
+     * para cada {@code i} en {@code [desde, hasta)}. No registra métricas: suma en
+     * {@code aplicacionesPorTramo} la cantidad de subtotales de cada tramo y devuelve la suma
+     * de los subtotales, que publica quien lo llama. Si lanza, los totales del rango quedan indefinidos.
+     *
+     * @return Suma de los subtotales del rango
+     * @throws IllegalArgumentException si algún subtotal es negativo
+     * @throws ArithmeticException si algún total no cabe en un {@code long}
+     */
+    long calcular(long[] subtotalesCentavos, long[] totalesCentavos, int desde, int hasta,
+                  TablaDescuentos tabla, long[] aplicacionesPorTramo);
+
+    /**
+     * @return Núcleo de referencia: un bucle escalar sobre la búsqueda binaria de tramos
+     */
+    static NucleoPrecios escalar() {
+        return NucleoPreciosEscalar.INSTANCIA;
+    }
+}
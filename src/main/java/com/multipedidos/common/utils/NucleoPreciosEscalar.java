@@ -0,0 +1,39 @@
+package com.multipedidos.common.utils;
+
+/**
+ * {@link NucleoPrecios} de referencia, disponible en cualquier JVM.
+ */
+final class NucleoPreciosEscalar implements NucleoPrecios {
+
+    static final NucleoPreciosEscalar INSTANCIA = new NucleoPreciosEscalar();
+
+    private NucleoPreciosEscalar() {
+    }
+
+    @Override
+    public String nombre() {
+        return "escalar";
+    }
+
+    @Override
+    public long calcular(long[] subtotalesCentavos, long[] totalesCentavos, int desde, int hasta,
+                         TablaDescuentos tabla, long[] aplicacionesPorTramo) {
+        long montoAcumulado = 0;
+        for (int i = desde; i < hasta; i++) {
+            long subtotal = subtotalesCentavos[i];
+            if (subtotal < 0) {
+                throw new IllegalArgumentException("El subtotal en la posición " + i + " no puede ser negativo");
+            }
+            int tramo = tabla.indiceTramo(subtotal);
+            aplicacionesPorTramo[tramo]++;
+            montoAcumulado += subtotal;
+            totalesCentavos[i] = tabla.aplicarIvaCentavos(tabla.aplicarDescuentoCentavos(subtotal, tramo));
+        }
+        return montoAcumulado;
+    }
+
+    @Override
+    public String toString() {
+        return nombre();
+    }
+}
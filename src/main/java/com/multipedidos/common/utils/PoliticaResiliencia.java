@@ -0,0 +1,161 @@
+package com.multipedidos.common.utils;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Configuración inmutable de {@link IntegradorResiliente}: plazos, reintentos con espera
+ * exponencial aleatorizada, circuito interruptor y límite de llamadas simultáneas.
+ */
+public final class PoliticaResiliencia {
+
+    private final Duration timeoutIntento;
+    private final Duration plazoTotal;
+    private final int maxIntentos;
+    private final Duration esperaInicial;
+    private final Duration esperaMaxima;
+    private final int fallosParaAbrir;
+    private final Duration tiempoAbierto;
+    private final int maxConcurrencia;
+
+    private PoliticaResiliencia(Builder builder) {
+        this.timeoutIntento = builder.timeoutIntento;
+        this.plazoTotal = builder.plazoTotal;
+        this.maxIntentos = builder.maxIntentos;
+        this.esperaInicial = builder.esperaInicial;
+        this.esperaMaxima = builder.esperaMaxima;
+        this.fallosParaAbrir = builder.fallosParaAbrir;
+        this.tiempoAbierto = builder.tiempoAbierto;
+        this.maxConcurrencia = builder.maxConcurrencia;
+    }
+
+    /**
+     * Valores por defecto: 2 s por intento, 5 s en total, 3 intentos con espera de 100 ms a 1 s,
+     * el circuito se abre tras 5 fallos seguidos durante 10 s y hasta 64 llamadas simultáneas.
+     *
+     * @return Constructor con los valores por defecto
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Duration getTimeoutIntento() {
+        return timeoutIntento;
+    }
+
+    public Duration getPlazoTotal() {
+        return plazoTotal;
+    }
+
+    public int getMaxIntentos() {
+        return maxIntentos;
+    }
+
+    public Duration getEsperaInicial() {
+        return esperaInicial;
+    }
+
+    public Duration getEsperaMaxima() {
+        return esperaMaxima;
+    }
+
+    public int getFallosParaAbrir() {
+        return fallosParaAbrir;
+    }
+
+    public Duration getTiempoAbierto() {
+        return tiempoAbierto;
+    }
+
+    public int getMaxConcurrencia() {
+        return maxConcurrencia;
+    }
+
+    @Override
+    public String toString() {
+        return "PoliticaResiliencia{" +
+                "timeoutIntento=" + timeoutIntento +
+                ", plazoTotal=" + plazoTotal +
+                ", maxIntentos=" + maxIntentos +
+                ", esperaInicial=" + esperaInicial +
+                ", esperaMaxima=" + esperaMaxima +
+                ", fallosParaAbrir=" + fallosParaAbrir +
+                ", tiempoAbierto=" + tiempoAbierto +
+                ", maxConcurrencia=" + maxConcurrencia +
+                '}';
+    }
+
+    public static final class Builder {
+
+        private Duration timeoutIntento = Duration.ofSeconds(2);
+        private Duration plazoTotal = Duration.ofSeconds(5);
+        private int maxIntentos = 3;
+        private Duration esperaInicial = Duration.ofMillis(100);
+        private Duration esperaMaxima = Duration.ofSeconds(1);
+        private int fallosParaAbrir = 5;
+        private Duration tiempoAbierto = Duration.ofSeconds(10);
+        private int maxConcurrencia = 64;
+
+        private Builder() {
+        }
+
+        /** Tiempo máximo de cada intento individual. */
+        public Builder timeoutIntento(Duration timeoutIntento) {
+            this.timeoutIntento = positivo(timeoutIntento, "timeoutIntento");
+            return this;
+        }
+
+        /** Tiempo máximo de la llamada completa, incluidos reintentos y esperas. */
+        public Builder plazoTotal(Duration plazoTotal) {
+            this.plazoTotal = positivo(plazoTotal, "plazoTotal");
+            return this;
+        }
+
+        /** Cantidad total de intentos; 1 desactiva los reintentos. */
+        public Builder maxIntentos(int maxIntentos) {
+            if (maxIntentos < 1) {
+                throw new IllegalArgumentException("maxIntentos debe ser mayor a cero");
+            }
+            this.maxIntentos = maxIntentos;
+            return this;
+        }
+
+        /** Espera base antes del primer reintento; se duplica en cada reintento hasta {@code esperaMaxima}. */
+        public Builder espera(Duration esperaInicial, Duration esperaMaxima) {
+            this.esperaInicial = positivo(esperaInicial, "esperaInicial");
+            this.esperaMaxima = positivo(esperaMaxima, "esperaMaxima");
+            return this;
+        }
+
+        /** Fallos consecutivos que abren el circuito y tiempo que permanece abierto. */
+        public Builder circuito(int fallosParaAbrir, Duration tiempoAbierto) {
+            if (fallosParaAbrir < 1) {
+                throw new IllegalArgumentException("fallosParaAbrir debe ser mayor a cero");
+            }
+            this.fallosParaAbrir = fallosParaAbrir;
+            this.tiempoAbierto = positivo(tiempoAbierto, "tiempoAbierto");
+            return this;
+        }
+
+        /** Máximo de llamadas simultáneas; las que exceden fallan de inmediato. */
+        public Builder maxConcurrencia(int maxConcurrencia) {
+            if (maxConcurrencia < 1) {
+                throw new IllegalArgumentException("maxConcurrencia debe ser mayor a cero");
+            }
+            this.maxConcurrencia = maxConcurrencia;
+            return this;
+        }
+
+        public PoliticaResiliencia build() {
+            return new PoliticaResiliencia(this);
+        }
+
+        private static Duration positivo(Duration duracion, String nombre) {
+            Objects.requireNonNull(duracion, nombre + " no puede ser nulo");
+            if (duracion.isNegative() || duracion.isZero()) {
+                throw new IllegalArgumentException(nombre + " debe ser mayor a cero");
+            }
+            return duracion;
+        }
+    }
+}
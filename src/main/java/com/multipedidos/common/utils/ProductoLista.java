@@ -0,0 +1,190 @@
+package com.multipedidos.common.utils;
+
+import com.multipedidos.common.dto.ProductoCompacto;
+import com.multipedidos.common.dto.ProductoDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lista de productos en formato columnar: los precios se guardan en un {@code long[]} de
+ * centavos y los nombres en un diccionario, de modo que cada fila ocupa un {@code long} y un
+ * {@code int} en lugar de un objeto con un {@link java.math.BigDecimal}. Los nombres repetidos
+ * (frecuentes en carritos y catálogos) se guardan una sola vez y se devuelven siempre como la
+ * misma instancia.
+ *
+ * <p>Se puede pasar directamente a {@link CalculadoraDescuentos#calcularTotalCentavos(ProductoLista)}.
+ * No es thread-safe: se arma en un hilo y luego puede leerse desde varios si nadie la modifica.</p>
+ */
+public final class ProductoLista {
+
+    private static final int SIN_NOMBRE = -1;
+
+    private long[] preciosCentavos;
+    private int[] indicesNombre;
+    private int tamano;
+    private String[] diccionario;
+    private int nombresDistintos;
+    private final Map<String, Integer> indicePorNombre = new HashMap<>();
+
+    public ProductoLista() {
+        this(16);
+    }
+
+    /**
+     * @param capacidad Cantidad de productos esperada
+     */
+    public ProductoLista(int capacidad) {
+        if (capacidad < 1) {
+            throw new IllegalArgumentException("La capacidad de la lista debe ser mayor a cero");
+        }
+        this.preciosCentavos = new long[capacidad];
+        this.indicesNombre = new int[capacidad];
+        this.diccionario = new String[Math.min(capacidad, 16)];
+    }
+
+    /**
+     * Convierte una lista de {@link ProductoDTO}.
+     *
+     * @param productos Productos a convertir
+     * @return Lista columnar con los mismos productos y en el mismo orden
+     * @throws IllegalArgumentException si la lista, algún producto o algún precio es nulo, o si algún precio tiene más de 2 decimales
+     */
+    public static ProductoLista desde(List<ProductoDTO> productos) {
+        if (productos == null) {
+            throw new IllegalArgumentException("La lista de productos no puede ser nula");
+        }
+        ProductoLista lista = new ProductoLista(Math.max(1, productos.size()));
+        for (ProductoDTO producto : productos) {
+            lista.agregar(producto);
+        }
+        return lista;
+    }
+
+    /**
+     * @param nombre Nombre del producto (puede ser nulo)
+     * @param precioCentavos Precio en centavos
+     */
+    public void agregar(String nombre, long precioCentavos) {
+        if (tamano == preciosCentavos.length) {
+            int capacidad = preciosCentavos.length * 2;
+            preciosCentavos = Arrays.copyOf(preciosCentavos, capacidad);
+            indicesNombre = Arrays.copyOf(indicesNombre, capacidad);
+        }
+        preciosCentavos[tamano] = precioCentavos;
+        indicesNombre[tamano] = indiceDe(nombre);
+        tamano++;
+    }
+
+    public void agregar(ProductoCompacto producto) {
+        if (producto == null) {
+            throw new IllegalArgumentException("El producto no puede ser nulo");
+        }
+        agregar(producto.getNombre(), producto.getPrecioCentavos());
+    }
+
+    /**
+     * @param producto Producto a agregar
+     * @throws IllegalArgumentException si el producto o su precio es nulo, o si el precio tiene más de 2 decimales
+     */
+    public void agregar(ProductoDTO producto) {
+        if (producto == null) {
+            throw new IllegalArgumentException("El producto no puede ser nulo");
+        }
+        agregar(producto.getNombre(), ProductoCompacto.centavos(producto.getPrecio()));
+    }
+
+    private int indiceDe(String nombre) {
+        if (nombre == null) {
+            return SIN_NOMBRE;
+        }
+        Integer indice = indicePorNombre.get(nombre);
+        if (indice != null) {
+            return indice;
+        }
+        if (nombresDistintos == diccionario.length) {
+            diccionario = Arrays.copyOf(diccionario, diccionario.length * 2);
+        }
+        diccionario[nombresDistintos] = nombre;
+        indicePorNombre.put(nombre, nombresDistintos);
+        return nombresDistintos++;
+    }
+
+    public int tamano() {
+        return tamano;
+    }
+
+    public boolean estaVacia() {
+        return tamano == 0;
+    }
+
+    /**
+     * @return Cantidad de nombres distintos guardados en el diccionario
+     */
+    public int cantidadNombres() {
+        return nombresDistintos;
+    }
+
+    public long precioCentavos(int indice) {
+        return preciosCentavos[validarIndice(indice)];
+    }
+
+    public String nombre(int indice) {
+        int nombre = indicesNombre[validarIndice(indice)];
+        return nombre == SIN_NOMBRE ? null : diccionario[nombre];
+    }
+
+    public ProductoCompacto producto(int indice) {
+        return new ProductoCompacto(nombre(indice), precioCentavos(indice));
+    }
+
+    /**
+     * Suma los precios sin crear objetos.
+     *
+     * @return Subtotal en centavos
+     * @throws ArithmeticException si la suma no cabe en un {@code long}
+     */
+    public long subtotalCentavos() {
+        long subtotal = 0;
+        for (int i = 0; i < tamano; i++) {
+            subtotal = Math.addExact(subtotal, preciosCentavos[i]);
+        }
+        return subtotal;
+    }
+
+    /**
+     * @return Productos como {@link ProductoDTO} mutables con precio en escala 2, en orden
+     */
+    public List<ProductoDTO> aProductosDTO() {
+        List<ProductoDTO> productos = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            productos.add(new ProductoDTO(nombre(i), CalculadoraDescuentos.desdeCentavos(preciosCentavos[i])));
+        }
+        return productos;
+    }
+
+    /**
+     * Vacía la lista conservando la memoria reservada y el diccionario de nombres.
+     */
+    public void limpiar() {
+        tamano = 0;
+    }
+
+    private int validarIndice(int indice) {
+        if (indice < 0 || indice >= tamano) {
+            throw new IndexOutOfBoundsException("Índice " + indice + " fuera de la lista de " + tamano + " productos");
+        }
+        return indice;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductoLista{" +
+                "tamano=" + tamano +
+                ", nombresDistintos=" + nombresDistintos +
+                '}';
+    }
+}
@@ -0,0 +1,113 @@
+package com.multipedidos.common.utils;
+
+import com.multipedidos.common.exceptions.DatosInvalidosException;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Valor o motivo de rechazo de una operación que no lanza excepciones ante entradas inválidas.
+ * Pensado para validar volúmenes altos de datos no confiables (tráfico automatizado, archivos de
+ * importación), donde crear y llenar la traza de una excepción por rechazo domina el costo.
+ *
+ * <p>Los resultados de error son constantes por {@link CodigoError}, así que rechazar no crea
+ * objetos. Es inmutable.</p>
+ *
+ * @param <T> Tipo del valor cuando la operación tiene éxito
+ */
+public final class Resultado<T> {
+
+    private final T valor;
+    private final CodigoError error;
+
+    Resultado(T valor, CodigoError error) {
+        this.valor = valor;
+        this.error = error;
+    }
+
+    /**
+     * @param valor Valor de la operación exitosa
+     * @return Resultado exitoso
+     */
+    public static <T> Resultado<T> exito(T valor) {
+        return new Resultado<>(Objects.requireNonNull(valor, "El valor no puede ser nulo"), null);
+    }
+
+    /**
+     * @param codigo Motivo del rechazo
+     * @return Resultado de error compartido del código
+     */
+    public static <T> Resultado<T> error(CodigoError codigo) {
+        return Objects.requireNonNull(codigo, "El código de error no puede ser nulo").resultado();
+    }
+
+    public boolean esExito() {
+        return error == null;
+    }
+
+    /**
+     * @return Motivo del rechazo, o {@code null} si la operación tuvo éxito
+     */
+    public CodigoError getError() {
+        return error;
+    }
+
+    /**
+     * @return Valor de la operación exitosa
+     * @throws IllegalStateException si el resultado es un error
+     */
+    public T getValor() {
+        if (error != null) {
+            throw new IllegalStateException("El resultado es un error: " + error);
+        }
+        return valor;
+    }
+
+    /**
+     * @param alternativo Valor a devolver si el resultado es un error
+     * @return Valor de la operación o {@code alternativo}
+     */
+    public T valorO(T alternativo) {
+        return error == null ? valor : alternativo;
+    }
+
+    /**
+     * Para quien prefiere una excepción en el borde (por ejemplo, un controlador que la traduce
+     * a 400) sin pagar la traza.
+     *
+     * @return Valor de la operación exitosa
+     * @throws DatosInvalidosException la excepción sin traza de {@link CodigoError#excepcion()}
+     */
+    public T valorOLanzar() {
+        if (error != null) {
+            throw error.excepcion();
+        }
+        return valor;
+    }
+
+    /**
+     * @param funcion Transformación del valor exitoso
+     * @return Resultado con el valor transformado, o el mismo error
+     */
+    public <R> Resultado<R> mapear(Function<? super T, ? extends R> funcion) {
+        return error == null ? exito(funcion.apply(valor)) : error.resultado();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Resultado<?> otro = (Resultado<?>) o;
+        return error == otro.error && Objects.equals(valor, otro.valor);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(valor, error);
+    }
+
+    @Override
+    public String toString() {
+        return error == null ? "Resultado{valor=" + valor + '}' : "Resultado{error=" + error + '}';
+    }
+}
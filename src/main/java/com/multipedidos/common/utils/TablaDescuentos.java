@@ -0,0 +1,316 @@
+package com.multipedidos.common.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tabla de tramos de descuento por monto e IVA, compilada a un evaluador inmutable.
+ * Los umbrales se ordenan una sola vez y el tramo de cada monto se busca con búsqueda
+ * binaria, tanto sobre {@link BigDecimal} como sobre centavos, por lo que una instancia
+ * puede compartirse entre hilos sin sincronización.
+ *
+ * <p>Cada tenant o campaña puede compilar su propia tabla; la tabla activa por defecto de
+ * {@link CalculadoraDescuentos} se reemplaza en caliente con
+ * {@link CalculadoraDescuentos#configurarTablaDescuentos(TablaDescuentos)}.</p>
+ */
+public final class TablaDescuentos {
+
+    /** Escala máxima admitida para descuentos e IVA, para que los factores en centavos no desborden. */
+    private static final int ESCALA_MAXIMA = 6;
+
+    /**
+     * Tabla vigente de MultiPedidos: 5% bajo 1000, 10% desde 1000, 15% desde 5000 e IVA del 15%.
+     */
+    public static final TablaDescuentos POR_DEFECTO = compilar(new BigDecimal("0.15"), List.of(
+            new Tramo("básico", BigDecimal.ZERO, new BigDecimal("0.05")),
+            new Tramo("medio", new BigDecimal("1000"), new BigDecimal("0.10")),
+            new Tramo("premium", new BigDecimal("5000"), new BigDecimal("0.15"))
+    ));
+
+    /**
+     * Tramo de descuento: aplica a los montos mayores o iguales a {@code umbral}
+     * y menores al umbral del tramo siguiente.
+     *
+     * @param nombre Nombre del tramo, usado en registros y métricas
+     * @param umbral Monto mínimo del tramo
+     * @param descuento Fracción de descuento entre 0 y 1 (por ejemplo 0.05 para 5%)
+     */
+    public record Tramo(String nombre, BigDecimal umbral, BigDecimal descuento) {
+
+        public Tramo {
+            Objects.requireNonNull(nombre, "El nombre del tramo no puede ser nulo");
+            Objects.requireNonNull(umbral, "El umbral del tramo no puede ser nulo");
+            Objects.requireNonNull(descuento, "El descuento del tramo no puede ser nulo");
+        }
+    }
+
+    private final BigDecimal iva;
+    private final long factorIva;
+    private final long escalaIva;
+
+    private final String[] nombres;
+    private final String[] mensajes;
+    private final BigDecimal[] umbrales;
+    private final BigDecimal[] descuentos;
+    private final long[] umbralesCentavos;
+    private final long[] factoresCentavos;
+    private final long[] escalasCentavos;
+    private final long escalaComun;
+    private final long[] factoresComunes;
+    private final LongAdder[] aplicaciones;
+
+    private TablaDescuentos(BigDecimal iva, List<Tramo> ordenados) {
+        this.iva = iva;
+        this.escalaIva = potenciaDeDiez(iva.scale());
+        this.factorIva = escalaIva + iva.unscaledValue().longValueExact();
+
+        int cantidad = ordenados.size();
+        nombres = new String[cantidad];
+        mensajes = new String[cantidad];
+        umbrales = new BigDecimal[cantidad];
+        descuentos = new BigDecimal[cantidad];
+        umbralesCentavos = new long[cantidad];
+        factoresCentavos = new long[cantidad];
+        escalasCentavos = new long[cantidad];
+        aplicaciones = new LongAdder[cantidad];
+
+        for (int i = 0; i < cantidad; i++) {
+            Tramo tramo = ordenados.get(i);
+            BigDecimal descuento = tramo.descuento();
+            nombres[i] = tramo.nombre();
+            mensajes[i] = "Aplicando descuento " + tramo.nombre() + " del "
+                    + descuento.movePointRight(2).stripTrailingZeros().toPlainString() + "%";
+            umbrales[i] = tramo.umbral();
+            descuentos[i] = descuento;
+            // c >= umbral * 100 equivale a c >= techo(umbral * 100) para centavos enteros
+            umbralesCentavos[i] = tramo.umbral().movePointRight(2).setScale(0, RoundingMode.CEILING).longValueExact();
+            escalasCentavos[i] = potenciaDeDiez(descuento.scale());
+            factoresCentavos[i] = escalasCentavos[i] - descuento.unscaledValue().longValueExact();
+            aplicaciones[i] = new LongAdder();
+        }
+
+        // Factores llevados a una escala común para evaluar todos los tramos con el mismo divisor
+        long maxima = 1;
+        for (long escala : escalasCentavos) {
+            maxima = Math.max(maxima, escala);
+        }
+        escalaComun = maxima;
+        factoresComunes = new long[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            factoresComunes[i] = factoresCentavos[i] * (maxima / escalasCentavos[i]);
+        }
+    }
+
+    /**
+     * Compila una tabla de tramos. El orden de la lista no importa.
+     *
+     * @param iva Fracción de IVA (por ejemplo 0.15 para 15%)
+     * @param tramos Tramos de descuento; debe existir uno con umbral cero
+     * @return Evaluador inmutable y thread-safe
+     * @throws IllegalArgumentException si la tabla no es válida
+     */
+    public static TablaDescuentos compilar(BigDecimal iva, List<Tramo> tramos) {
+        if (iva == null || iva.signum() < 0) {
+            throw new IllegalArgumentException("El IVA no puede ser nulo o negativo");
+        }
+        if (tramos == null || tramos.isEmpty()) {
+            throw new IllegalArgumentException("La tabla debe tener al menos un tramo");
+        }
+
+        List<Tramo> ordenados = new ArrayList<>(tramos);
+        ordenados.sort(Comparator.comparing(Tramo::umbral));
+
+        if (ordenados.get(0).umbral().signum() != 0) {
+            throw new IllegalArgumentException("La tabla debe tener un tramo con umbral cero");
+        }
+        for (int i = 0; i < ordenados.size(); i++) {
+            Tramo tramo = ordenados.get(i);
+            if (tramo.descuento().signum() < 0 || tramo.descuento().compareTo(BigDecimal.ONE) > 0) {
+                throw new IllegalArgumentException("El descuento del tramo " + tramo.nombre() + " debe estar entre 0 y 1");
+            }
+            if (i > 0 && tramo.umbral().compareTo(ordenados.get(i - 1).umbral()) == 0) {
+                throw new IllegalArgumentException("Umbral duplicado en la tabla: " + tramo.umbral());
+            }
+        }
+
+        return new TablaDescuentos(normalizar(iva), normalizar(ordenados));
+    }
+
+    /**
+     * Índice del tramo que corresponde a un monto no negativo.
+     */
+    public int indiceTramo(BigDecimal monto) {
+        int bajo = 0;
+        int alto = umbrales.length - 1;
+        while (bajo < alto) {
+            int medio = (bajo + alto + 1) >>> 1;
+            if (umbrales[medio].compareTo(monto) <= 0) {
+                bajo = medio;
+            } else {
+                alto = medio - 1;
+            }
+        }
+        return bajo;
+    }
+
+    /**
+     * Índice del tramo que corresponde a un monto no negativo en centavos.
+     */
+    public int indiceTramo(long montoCentavos) {
+        int bajo = 0;
+        int alto = umbralesCentavos.length - 1;
+        while (bajo < alto) {
+            int medio = (bajo + alto + 1) >>> 1;
+            if (umbralesCentavos[medio] <= montoCentavos) {
+                bajo = medio;
+            } else {
+                alto = medio - 1;
+            }
+        }
+        return bajo;
+    }
+
+    BigDecimal aplicarDescuento(BigDecimal monto, int tramo) {
+        BigDecimal montoDescuento = monto.multiply(descuentos[tramo]);
+        BigDecimal total = monto.subtract(montoDescuento);
+
+        return total.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    long aplicarDescuentoCentavos(long montoCentavos, int tramo) {
+        return CalculadoraDescuentos.escalarHalfUp(montoCentavos, factoresCentavos[tramo], escalasCentavos[tramo]);
+    }
+
+    BigDecimal aplicarIva(BigDecimal subtotal) {
+        BigDecimal montoIva = subtotal.multiply(iva);
+        BigDecimal total = subtotal.add(montoIva);
+
+        return total.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    long aplicarIvaCentavos(long subtotalCentavos) {
+        return CalculadoraDescuentos.escalarHalfUp(subtotalCentavos, factorIva, escalaIva);
+    }
+
+    void registrarAplicacion(int tramo) {
+        aplicaciones[tramo].increment();
+    }
+
+    void registrarAplicaciones(int tramo, long cantidad) {
+        if (cantidad > 0) {
+            aplicaciones[tramo].add(cantidad);
+        }
+    }
+
+    /**
+     * @return Cantidad de descuentos aplicados con este tramo de esta tabla desde su compilación
+     */
+    public long aplicacionesTramo(int tramo) {
+        return aplicaciones[tramo].sum();
+    }
+
+    String mensajeTramo(int tramo) {
+        return mensajes[tramo];
+    }
+
+    public BigDecimal getIva() {
+        return iva;
+    }
+
+    public int cantidadTramos() {
+        return nombres.length;
+    }
+
+    public String nombreTramo(int tramo) {
+        return nombres[tramo];
+    }
+
+    public BigDecimal umbralTramo(int tramo) {
+        return umbrales[tramo];
+    }
+
+    /**
+     * @return Umbral del tramo en centavos: los montos en centavos mayores o iguales pertenecen al tramo
+     */
+    public long umbralTramoCentavos(int tramo) {
+        return umbralesCentavos[tramo];
+    }
+
+    /**
+     * Factor del tramo sobre {@link #escalaDescuentos()}: el monto con descuento es
+     * {@code montoCentavos * factor / escala} redondeado HALF_UP. Para núcleos de cálculo
+     * masivo como {@link NucleoPrecios}.
+     */
+    public long factorDescuento(int tramo) {
+        return factoresComunes[tramo];
+    }
+
+    /**
+     * @return Potencia de diez común a los factores de todos los tramos (a lo sumo 10^6)
+     */
+    public long escalaDescuentos() {
+        return escalaComun;
+    }
+
+    /**
+     * Factor del IVA sobre {@link #escalaIva()}: el total es {@code subtotalCentavos * factor / escala}
+     * redondeado HALF_UP.
+     */
+    public long factorIva() {
+        return factorIva;
+    }
+
+    public long escalaIva() {
+        return escalaIva;
+    }
+
+    public BigDecimal descuentoTramo(int tramo) {
+        return descuentos[tramo];
+    }
+
+    private static BigDecimal normalizar(BigDecimal fraccion) {
+        // Conserva la escala original (0.10 y no 0.1) para producir los mismos BigDecimal de siempre
+        if (fraccion.scale() >= 0 && fraccion.scale() <= ESCALA_MAXIMA) {
+            return fraccion;
+        }
+        BigDecimal sinCeros = fraccion.stripTrailingZeros();
+        if (sinCeros.scale() > ESCALA_MAXIMA) {
+            throw new IllegalArgumentException("La fracción " + fraccion + " admite a lo sumo "
+                    + ESCALA_MAXIMA + " decimales");
+        }
+        return sinCeros.scale() < 0 ? sinCeros.setScale(0, RoundingMode.UNNECESSARY) : sinCeros;
+    }
+
+    private static List<Tramo> normalizar(List<Tramo> tramos) {
+        List<Tramo> normalizados = new ArrayList<>(tramos.size());
+        for (Tramo tramo : tramos) {
+            normalizados.add(new Tramo(tramo.nombre(), tramo.umbral(), normalizar(tramo.descuento())));
+        }
+        return normalizados;
+    }
+
+    private static long potenciaDeDiez(int exponente) {
+        long resultado = 1;
+        for (int i = 0; i < exponente; i++) {
+            resultado *= 10;
+        }
+        return resultado;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("TablaDescuentos{iva=").append(iva).append(", tramos=[");
+        for (int i = 0; i < nombres.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(nombres[i]).append(" >= ").append(umbrales[i]).append(": ").append(descuentos[i]);
+        }
+        return sb.append("]}").toString();
+    }
+}
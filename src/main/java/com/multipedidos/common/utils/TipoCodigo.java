@@ -0,0 +1,27 @@
+package com.multipedidos.common.utils;
+
+/**
+ * Tipos de código de negocio con su prefijo de tres letras.
+ */
+public enum TipoCodigo {
+
+    PEDIDO("PED"),
+    FACTURA("FAC");
+
+    private final String prefijo;
+
+    TipoCodigo(String prefijo) {
+        this.prefijo = prefijo;
+    }
+
+    /**
+     * @return Prefijo del código, sin guion (por ejemplo, PED)
+     */
+    public String getPrefijo() {
+        return prefijo;
+    }
+
+    char letra(int indice) {
+        return prefijo.charAt(indice);
+    }
+}
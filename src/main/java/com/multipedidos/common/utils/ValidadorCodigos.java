@@ -1,23 +1,21 @@
 package com.multipedidos.common.utils;
 
-import java.util.regex.Pattern;
-
 /**
  * Clase de utilidad para validar códigos y formatos comunes.
+ *
+ * <p>Las validaciones recorren la entrada una sola vez, sin expresiones regulares ni copias:
+ * los espacios al inicio y al final se saltan por índice, con la misma regla que
+ * {@link String#trim()}. Aceptan exactamente el mismo lenguaje que los patrones
+ * {@code ^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}$}, {@code ^PED-[0-9]{6}$} y
+ * {@code ^FAC-[0-9]{6}$}, y su costo es lineal en el largo de la entrada.</p>
+ *
+ * <p>Los generadores de códigos tienen variantes {@code intentar*} que devuelven un
+ * {@link Resultado} en lugar de lanzar {@link IllegalArgumentException}.</p>
  */
 public class ValidadorCodigos {
 
-    private static final Pattern PATTERN_EMAIL = Pattern.compile(
-        "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$"
-    );
-
-    private static final Pattern PATTERN_CODIGO_PEDIDO = Pattern.compile(
-        "^PED-[0-9]{6}$"
-    );
-
-    private static final Pattern PATTERN_CODIGO_FACTURA = Pattern.compile(
-        "^FAC-[0-9]{6}$"
-    );
+    private static final int LARGO_CODIGO = 10;
+    private static final int DIGITOS_CODIGO = 6;
 
     /**
      * Valida si un email tiene un formato válido.
@@ -26,10 +24,56 @@ public class ValidadorCodigos {
      * @return true si es válido, false en caso contrario
      */
     public static boolean validarEmail(String email) {
-        if (email == null || email.trim().isEmpty()) {
+        return validarEmail((CharSequence) email);
+    }
+
+    /**
+     * Valida si un email tiene un formato válido, sin copiar la entrada.
+     *
+     * @param email Email a validar (por ejemplo, un fragmento de un búfer)
+     * @return true si es válido, false en caso contrario
+     */
+    public static boolean validarEmail(CharSequence email) {
+        return email != null && esEmailValido(email, 0, email.length());
+    }
+
+    /**
+     * Valida el email contenido en {@code [desde, hasta)}; base de las validaciones por lote.
+     */
+    static boolean esEmailValido(CharSequence email, int desde, int hasta) {
+        int inicio = inicioSinEspacios(email, desde, hasta);
+        int fin = finSinEspacios(email, inicio, hasta);
+
+        // Parte local: [A-Za-z0-9+_.-]+ hasta la primera '@'
+        int i = inicio;
+        while (i < fin && esCaracterLocal(email.charAt(i))) {
+            i++;
+        }
+        if (i == inicio || i == fin || email.charAt(i) != '@') {
             return false;
         }
-        return PATTERN_EMAIL.matcher(email.trim()).matches();
+
+        // Dominio: [A-Za-z0-9.-]+ \. [A-Za-z]{2,}; como el sufijo no admite puntos,
+        // el punto separador es necesariamente el último del dominio
+        int inicioDominio = ++i;
+        int ultimoPunto = -1;
+        int letrasTrasPunto = 0;
+        boolean soloLetrasTrasPunto = false;
+        for (; i < fin; i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                ultimoPunto = i;
+                letrasTrasPunto = 0;
+                soloLetrasTrasPunto = true;
+            } else if (esLetra(c)) {
+                letrasTrasPunto++;
+            } else if (esDigito(c) || c == '-') {
+                soloLetrasTrasPunto = false;
+            } else {
+                return false;
+            }
+        }
+        return ultimoPunto > inicioDominio && soloLetrasTrasPunto && letrasTrasPunto >= 2;
     }
 
     /**
@@ -39,10 +83,17 @@ public class ValidadorCodigos {
      * @return true si es válido, false en caso contrario
      */
     public static boolean validarCodigoPedido(String codigo) {
-        if (codigo == null || codigo.trim().isEmpty()) {
-            return false;
-        }
-        return PATTERN_CODIGO_PEDIDO.matcher(codigo.trim()).matches();
+        return validarCodigoPedido((CharSequence) codigo);
+    }
+
+    /**
+     * Valida el formato de un código de pedido (PED-XXXXXX), sin copiar la entrada.
+     *
+     * @param codigo Código a validar
+     * @return true si es válido, false en caso contrario
+     */
+    public static boolean validarCodigoPedido(CharSequence codigo) {
+        return codigo != null && esCodigoPedidoValido(codigo, 0, codigo.length());
     }
 
     /**
@@ -52,10 +103,72 @@ public class ValidadorCodigos {
      * @return true si es válido, false en caso contrario
      */
     public static boolean validarCodigoFactura(String codigo) {
-        if (codigo == null || codigo.trim().isEmpty()) {
+        return validarCodigoFactura((CharSequence) codigo);
+    }
+
+    /**
+     * Valida el formato de un código de factura (FAC-XXXXXX), sin copiar la entrada.
+     *
+     * @param codigo Código a validar
+     * @return true si es válido, false en caso contrario
+     */
+    public static boolean validarCodigoFactura(CharSequence codigo) {
+        return codigo != null && esCodigoFacturaValido(codigo, 0, codigo.length());
+    }
+
+    static boolean esCodigoPedidoValido(CharSequence codigo, int desde, int hasta) {
+        return esCodigoValido(codigo, desde, hasta, 'P', 'E', 'D');
+    }
+
+    static boolean esCodigoFacturaValido(CharSequence codigo, int desde, int hasta) {
+        return esCodigoValido(codigo, desde, hasta, 'F', 'A', 'C');
+    }
+
+    private static boolean esCodigoValido(CharSequence codigo, int desde, int hasta, char p0, char p1, char p2) {
+        int inicio = inicioSinEspacios(codigo, desde, hasta);
+        int fin = finSinEspacios(codigo, inicio, hasta);
+        if (fin - inicio != LARGO_CODIGO
+                || codigo.charAt(inicio) != p0
+                || codigo.charAt(inicio + 1) != p1
+                || codigo.charAt(inicio + 2) != p2
+                || codigo.charAt(inicio + 3) != '-') {
             return false;
         }
-        return PATTERN_CODIGO_FACTURA.matcher(codigo.trim()).matches();
+        for (int i = fin - DIGITOS_CODIGO; i < fin; i++) {
+            if (!esDigito(codigo.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Misma regla que String.trim(): se descartan los caracteres <= ' ' de los extremos
+    private static int inicioSinEspacios(CharSequence valor, int desde, int hasta) {
+        int inicio = desde;
+        while (inicio < hasta && valor.charAt(inicio) <= ' ') {
+            inicio++;
+        }
+        return inicio;
+    }
+
+    private static int finSinEspacios(CharSequence valor, int inicio, int hasta) {
+        int fin = hasta;
+        while (fin > inicio && valor.charAt(fin - 1) <= ' ') {
+            fin--;
+        }
+        return fin;
+    }
+
+    private static boolean esCaracterLocal(char c) {
+        return esLetra(c) || esDigito(c) || c == '+' || c == '_' || c == '.' || c == '-';
+    }
+
+    private static boolean esLetra(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean esDigito(char c) {
+        return c >= '0' && c <= '9';
     }
 
     /**
@@ -68,7 +181,7 @@ public class ValidadorCodigos {
         if (id == null || id < 0) {
             throw new IllegalArgumentException("El ID debe ser un número positivo");
         }
-        return String.format("PED-%06d", id);
+        return FormateadorCodigos.formatear(TipoCodigo.PEDIDO, id);
     }
 
     /**
@@ -81,7 +194,7 @@ public class ValidadorCodigos {
         if (id == null || id < 0) {
             throw new IllegalArgumentException("El ID debe ser un número positivo");
         }
-        return String.format("FAC-%06d", id);
+        return FormateadorCodigos.formatear(TipoCodigo.FACTURA, id);
     }
 
     /**
@@ -106,27 +219,13 @@ public class ValidadorCodigos {
      * @throws IllegalArgumentException si el tipo no es válido o el ID es inválido
      */
     public static String generarCodigoUnico(String tipoEntidad, Long id) {
-        if (tipoEntidad == null || tipoEntidad.trim().isEmpty()) {
-            throw new IllegalArgumentException("El tipo de entidad no puede ser nulo o vacío");
-        }
+        TipoCodigo tipo = tipoDeEntidad(tipoEntidad);
 
         if (id == null || id < 0) {
             throw new IllegalArgumentException("El ID debe ser un número positivo");
         }
 
-        String tipo = tipoEntidad.trim().toUpperCase();
-
-        switch (tipo) {
-            case "PEDIDO":
-            case "PED":
-                return generarCodigoPedido(id);
-            case "FACTURA":
-            case "FAC":
-                return generarCodigoFactura(id);
-            default:
-                throw new IllegalArgumentException("Tipo de entidad no soportado: " + tipoEntidad +
-                    ". Tipos válidos: PEDIDO, PED, FACTURA, FAC");
-        }
+        return FormateadorCodigos.formatear(tipo, id);
     }
 
     /**
@@ -135,10 +234,110 @@ public class ValidadorCodigos {
      * @param tipoEntidad Tipo de entidad (PEDIDO/PED o FACTURA/FAC, case-insensitive)
      * @return Código formateado usando timestamp
      * @throws IllegalArgumentException si el tipo no es válido
+     * @deprecated Usa los últimos 6 dígitos del reloj: dos códigos generados en el mismo
+     * milisegundo colisionan y los valores se repiten cada ~16 minutos. Usar
+     * {@link #generarCodigoSecuencial(String, GeneradorSecuencias)}.
      */
+    @Deprecated
     public static String generarCodigoUnico(String tipoEntidad) {
         long timestamp = System.currentTimeMillis() % 1000000; // Últimos 6 dígitos del timestamp
         return generarCodigoUnico(tipoEntidad, timestamp);
     }
-}
 
+    /**
+     * Genera un código sin colisiones con el siguiente ID del generador indicado, que debe
+     * compartirse en toda la instancia (un nodo por instancia del despliegue).
+     *
+     * <p>Los IDs del generador tienen más de seis dígitos, por lo que el código resultante
+     * (por ejemplo PED-1234567890123456) no cumple {@link #validarCodigoPedido(CharSequence)},
+     * que solo acepta el formato histórico de seis dígitos; para leerlo o validarlo se usa
+     * {@link FormateadorCodigos#parsearCodigo(CharSequence)}, que acepta el ID completo. Desde el
+     * 2032-09-17 (con la época por defecto) el ID supera los 60 bits y el código ya no se puede
+     * pasar a {@link FormateadorCodigos#compactar(CharSequence)}.</p>
+     *
+     * @param tipoEntidad Tipo de entidad (PEDIDO/PED o FACTURA/FAC, case-insensitive)
+     * @param generador Generador de IDs de esta instancia
+     * @return Código formateado según el tipo
+     * @throws IllegalArgumentException si el tipo no es válido o el generador es nulo
+     */
+    public static String generarCodigoSecuencial(String tipoEntidad, GeneradorSecuencias generador) {
+        TipoCodigo tipo = tipoDeEntidad(tipoEntidad);
+        if (generador == null) {
+            throw new IllegalArgumentException("El generador de secuencias no puede ser nulo");
+        }
+        return FormateadorCodigos.formatear(tipo, generador.siguiente());
+    }
+
+    /**
+     * Versión de {@link #generarCodigoPedido(Long)} que no lanza excepciones.
+     *
+     * @param id ID del pedido
+     * @return Código formateado o {@link CodigoError#ID_INVALIDO}
+     */
+    public static Resultado<String> intentarGenerarCodigoPedido(Long id) {
+        return intentarFormatear(TipoCodigo.PEDIDO, id);
+    }
+
+    /**
+     * Versión de {@link #generarCodigoFactura(Long)} que no lanza excepciones.
+     *
+     * @param id ID de la factura
+     * @return Código formateado o {@link CodigoError#ID_INVALIDO}
+     */
+    public static Resultado<String> intentarGenerarCodigoFactura(Long id) {
+        return intentarFormatear(TipoCodigo.FACTURA, id);
+    }
+
+    /**
+     * Versión de {@link #generarCodigoUnico(String, Long)} que no lanza excepciones, para
+     * importaciones y peticiones donde los datos inválidos son frecuentes.
+     *
+     * @param tipoEntidad Tipo de entidad (PEDIDO/PED o FACTURA/FAC, case-insensitive)
+     * @param id ID numérico para el código
+     * @return Código formateado, {@link CodigoError#TIPO_ENTIDAD_INVALIDO} o {@link CodigoError#ID_INVALIDO}
+     */
+    public static Resultado<String> intentarGenerarCodigoUnico(String tipoEntidad, Long id) {
+        TipoCodigo tipo = tipoDeEntidadONulo(tipoEntidad);
+        if (tipo == null) {
+            return Resultado.error(CodigoError.TIPO_ENTIDAD_INVALIDO);
+        }
+        return intentarFormatear(tipo, id);
+    }
+
+    private static Resultado<String> intentarFormatear(TipoCodigo tipo, Long id) {
+        if (id == null || id < 0) {
+            return Resultado.error(CodigoError.ID_INVALIDO);
+        }
+        return Resultado.exito(FormateadorCodigos.formatear(tipo, id));
+    }
+
+    private static TipoCodigo tipoDeEntidad(String tipoEntidad) {
+        if (tipoEntidad == null || tipoEntidad.trim().isEmpty()) {
+            throw new IllegalArgumentException("El tipo de entidad no puede ser nulo o vacío");
+        }
+
+        TipoCodigo tipo = tipoDeEntidadONulo(tipoEntidad);
+        if (tipo == null) {
+            throw new IllegalArgumentException("Tipo de entidad no soportado: " + tipoEntidad +
+                ". Tipos válidos: PEDIDO, PED, FACTURA, FAC");
+        }
+        return tipo;
+    }
+
+    private static TipoCodigo tipoDeEntidadONulo(String tipoEntidad) {
+        if (tipoEntidad == null) {
+            return null;
+        }
+
+        switch (tipoEntidad.trim().toUpperCase()) {
+            case "PEDIDO":
+            case "PED":
+                return TipoCodigo.PEDIDO;
+            case "FACTURA":
+            case "FAC":
+                return TipoCodigo.FACTURA;
+            default:
+                return null;
+        }
+    }
+}
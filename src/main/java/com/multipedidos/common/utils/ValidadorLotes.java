@@ -0,0 +1,324 @@
+package com.multipedidos.common.utils;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Validación por lotes de emails y códigos para importaciones masivas (CSV y similares).
+ * Cada fila se valida con las mismas reglas de {@link ValidadorCodigos}, sin crear un
+ * {@code String} por fila, y el resultado es un {@link BitSet} con las filas válidas.
+ *
+ * <p>Las filas pueden venir como una lista de {@link CharSequence} o como un búfer plano
+ * ({@code char[]} o {@code byte[]}) con desplazamientos: la fila {@code i} ocupa
+ * {@code [inicios[i], inicios[i + 1])}, con la misma convención que
+ * {@link CalculadoraDescuentos#calcularTotalesCentavos(long[], int[], long[])}.</p>
+ */
+public final class ValidadorLotes {
+
+    /** Filas por palabra del resultado; las porciones paralelas se alinean a este tamaño. */
+    private static final int FILAS_POR_PALABRA = 64;
+
+    /**
+     * Formato que debe cumplir cada fila.
+     */
+    public enum Formato {
+        EMAIL {
+            @Override
+            boolean valida(CharSequence texto, int desde, int hasta) {
+                return ValidadorCodigos.esEmailValido(texto, desde, hasta);
+            }
+        },
+        CODIGO_PEDIDO {
+            @Override
+            boolean valida(CharSequence texto, int desde, int hasta) {
+                return ValidadorCodigos.esCodigoPedidoValido(texto, desde, hasta);
+            }
+        },
+        CODIGO_FACTURA {
+            @Override
+            boolean valida(CharSequence texto, int desde, int hasta) {
+                return ValidadorCodigos.esCodigoFacturaValido(texto, desde, hasta);
+            }
+        };
+
+        abstract boolean valida(CharSequence texto, int desde, int hasta);
+    }
+
+    private ValidadorLotes() {
+        throw new IllegalStateException("No se puede instanciar la clase de utilería");
+    }
+
+    /**
+     * Valida cada elemento de la lista; los elementos nulos son inválidos.
+     *
+     * @param formato Formato a validar
+     * @param valores Filas a validar
+     * @return Conjunto con el índice de cada fila válida
+     */
+    public static BitSet validar(Formato formato, List<? extends CharSequence> valores) {
+        return validar(formato, filasDeLista(valores), null);
+    }
+
+    /**
+     * Igual que {@link #validar(Formato, List)}, repartiendo las filas sobre el pool del modo
+     * indicado cuando el lote alcanza su umbral.
+     */
+    public static BitSet validar(Formato formato, List<? extends CharSequence> valores, ModoParalelo modo) {
+        return validar(formato, filasDeLista(valores), Objects.requireNonNull(modo, "El modo paralelo no puede ser nulo"));
+    }
+
+    /**
+     * Valida las filas de un búfer de caracteres.
+     *
+     * @param formato Formato a validar
+     * @param datos Contenido de todas las filas, una tras otra
+     * @param inicios Desplazamientos de cada fila; su longitud es la cantidad de filas + 1
+     * @return Conjunto con el índice de cada fila válida
+     * @throws IllegalArgumentException si los desplazamientos no corresponden al búfer
+     */
+    public static BitSet validar(Formato formato, char[] datos, int[] inicios) {
+        return validar(formato, datos, inicios, null);
+    }
+
+    /**
+     * Igual que {@link #validar(Formato, char[], int[])}, repartiendo las filas sobre el pool
+     * del modo indicado cuando el lote alcanza su umbral.
+     */
+    public static BitSet validar(Formato formato, char[] datos, int[] inicios, ModoParalelo modo) {
+        if (datos == null) {
+            throw new IllegalArgumentException("El búfer del lote no puede ser nulo");
+        }
+        validarDesplazamientos(inicios, datos.length);
+        return validar(formato, new FilasBufer(new TextoChars(datos), inicios), modo);
+    }
+
+    /**
+     * Valida las filas de un búfer de bytes en ASCII o UTF-8, tal como se leen del archivo.
+     * Cada byte se interpreta por separado: los caracteres multibyte nunca forman parte de un
+     * email o código válido, por lo que el resultado es el mismo que al decodificar primero.
+     *
+     * @param formato Formato a validar
+     * @param datos Contenido de todas las filas, una tras otra
+     * @param inicios Desplazamientos de cada fila; su longitud es la cantidad de filas + 1
+     * @return Conjunto con el índice de cada fila válida
+     * @throws IllegalArgumentException si los desplazamientos no corresponden al búfer
+     */
+    public static BitSet validar(Formato formato, byte[] datos, int[] inicios) {
+        return validar(formato, datos, inicios, null);
+    }
+
+    /**
+     * Igual que {@link #validar(Formato, byte[], int[])}, repartiendo las filas sobre el pool
+     * del modo indicado cuando el lote alcanza su umbral.
+     */
+    public static BitSet validar(Formato formato, byte[] datos, int[] inicios, ModoParalelo modo) {
+        if (datos == null) {
+            throw new IllegalArgumentException("El búfer del lote no puede ser nulo");
+        }
+        validarDesplazamientos(inicios, datos.length);
+        return validar(formato, new FilasBufer(new TextoBytes(datos), inicios), modo);
+    }
+
+    private static BitSet validar(Formato formato, Filas filas, ModoParalelo modo) {
+        Objects.requireNonNull(formato, "El formato no puede ser nulo");
+        int cantidad = filas.cantidad();
+        long[] palabras = new long[(cantidad + FILAS_POR_PALABRA - 1) / FILAS_POR_PALABRA];
+        if (modo != null && modo.conviene(cantidad)) {
+            int porcion = Math.max(FILAS_POR_PALABRA, modo.tamanoPorcion(cantidad));
+            modo.getPool().invoke(new ValidacionLote(formato, filas, palabras, 0, cantidad, porcion));
+        } else {
+            validar(formato, filas, palabras, 0, cantidad);
+        }
+        return BitSet.valueOf(palabras);
+    }
+
+    private static void validar(Formato formato, Filas filas, long[] palabras, int desde, int hasta) {
+        for (int fila = desde; fila < hasta; fila++) {
+            if (filas.valida(formato, fila)) {
+                palabras[fila / FILAS_POR_PALABRA] |= 1L << fila;
+            }
+        }
+    }
+
+    private static Filas filasDeLista(List<? extends CharSequence> valores) {
+        if (valores == null) {
+            throw new IllegalArgumentException("La lista del lote no puede ser nula");
+        }
+        // Evita el acceso lineal por índice de las listas enlazadas
+        return valores instanceof RandomAccess
+                ? new FilasLista(valores)
+                : new FilasLista(Arrays.asList(valores.toArray(new CharSequence[0])));
+    }
+
+    private static void validarDesplazamientos(int[] inicios, int largo) {
+        if (inicios == null || inicios.length == 0 || inicios[0] != 0) {
+            throw new IllegalArgumentException("Los desplazamientos del lote deben comenzar en cero");
+        }
+        for (int i = 1; i < inicios.length; i++) {
+            if (inicios[i] < inicios[i - 1]) {
+                throw new IllegalArgumentException("Los desplazamientos del lote deben ser crecientes (fila " + (i - 1) + ")");
+            }
+        }
+        if (inicios[inicios.length - 1] > largo) {
+            throw new IllegalArgumentException("Los desplazamientos del lote exceden el búfer");
+        }
+    }
+
+    /**
+     * Acceso por índice a las filas de un lote.
+     */
+    private abstract static class Filas {
+
+        abstract int cantidad();
+
+        abstract boolean valida(Formato formato, int fila);
+    }
+
+    private static final class FilasLista extends Filas {
+
+        private final List<? extends CharSequence> valores;
+
+        FilasLista(List<? extends CharSequence> valores) {
+            this.valores = valores;
+        }
+
+        @Override
+        int cantidad() {
+            return valores.size();
+        }
+
+        @Override
+        boolean valida(Formato formato, int fila) {
+            CharSequence valor = valores.get(fila);
+            return valor != null && formato.valida(valor, 0, valor.length());
+        }
+    }
+
+    private static final class FilasBufer extends Filas {
+
+        private final CharSequence texto;
+        private final int[] inicios;
+
+        FilasBufer(CharSequence texto, int[] inicios) {
+            this.texto = texto;
+            this.inicios = inicios;
+        }
+
+        @Override
+        int cantidad() {
+            return inicios.length - 1;
+        }
+
+        @Override
+        boolean valida(Formato formato, int fila) {
+            return formato.valida(texto, inicios[fila], inicios[fila + 1]);
+        }
+    }
+
+    /**
+     * Vista inmutable de un {@code char[]} completo; las filas se delimitan por índice.
+     */
+    private static final class TextoChars implements CharSequence {
+
+        private final char[] datos;
+
+        TextoChars(char[] datos) {
+            this.datos = datos;
+        }
+
+        @Override
+        public int length() {
+            return datos.length;
+        }
+
+        @Override
+        public char charAt(int indice) {
+            return datos[indice];
+        }
+
+        @Override
+        public CharSequence subSequence(int inicio, int fin) {
+            return new String(datos, inicio, fin - inicio);
+        }
+
+        @Override
+        public String toString() {
+            return new String(datos);
+        }
+    }
+
+    /**
+     * Vista inmutable de un {@code byte[]} completo, byte a byte.
+     */
+    private static final class TextoBytes implements CharSequence {
+
+        private final byte[] datos;
+
+        TextoBytes(byte[] datos) {
+            this.datos = datos;
+        }
+
+        @Override
+        public int length() {
+            return datos.length;
+        }
+
+        @Override
+        public char charAt(int indice) {
+            return (char) (datos[indice] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int inicio, int fin) {
+            StringBuilder sb = new StringBuilder(fin - inicio);
+            for (int i = inicio; i < fin; i++) {
+                sb.append(charAt(i));
+            }
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, datos.length).toString();
+        }
+    }
+
+    /**
+     * Valida un rango de filas; las porciones se alinean a palabras completas del resultado
+     * para que cada tarea escriba en palabras propias sin sincronización.
+     */
+    private static final class ValidacionLote extends RecursiveAction {
+
+        private final Formato formato;
+        private final Filas filas;
+        private final long[] palabras;
+        private final int desde;
+        private final int hasta;
+        private final int porcion;
+
+        ValidacionLote(Formato formato, Filas filas, long[] palabras, int desde, int hasta, int porcion) {
+            this.formato = formato;
+            this.filas = filas;
+            this.palabras = palabras;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.porcion = porcion;
+        }
+
+        @Override
+        protected void compute() {
+            int medio = ((desde + hasta) >>> 1) & -FILAS_POR_PALABRA;
+            if (hasta - desde <= porcion || medio <= desde) {
+                validar(formato, filas, palabras, desde, hasta);
+                return;
+            }
+
+            invokeAll(new ValidacionLote(formato, filas, palabras, desde, medio, porcion),
+                    new ValidacionLote(formato, filas, palabras, medio, hasta, porcion));
+        }
+    }
+}
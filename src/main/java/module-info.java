@@ -0,0 +1,15 @@
+/**
+ * Librería compartida de MultiPedidos: DTOs, excepciones y utilidades de cálculo, validación e
+ * integración entre microservicios. Solo depende de módulos de la JDK; {@code java.net.http} se
+ * requiere de forma transitiva porque la API pública expone sus tipos.
+ */
+module com.multipedidos.common {
+    requires java.logging;
+    requires transitive java.net.http;
+
+    exports com.multipedidos.common.dto;
+    exports com.multipedidos.common.exceptions;
+    exports com.multipedidos.common.utils;
+
+    uses com.multipedidos.common.utils.NucleoPrecios;
+}
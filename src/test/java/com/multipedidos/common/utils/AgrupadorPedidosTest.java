@@ -0,0 +1,166 @@
+package com.multipedidos.common.utils;
+
+import com.multipedidos.common.dto.PedidoDTO;
+import com.multipedidos.common.exceptions.IntegracionMicroserviciosException;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests de AgrupadorPedidos contra un servidor HTTP local con endpoint de lotes.
+ */
+class AgrupadorPedidosTest {
+
+    /** Lotes recibidos por el servidor; existen los pedidos con ID par. */
+    private final List<List<Long>> lotesRecibidos = new CopyOnWriteArrayList<>();
+
+    private ServidorPrueba servidorDeLotes(boolean binario) {
+        return new ServidorPrueba().manejar("/api/pedidos/lote", exchange -> {
+            assertEquals("POST", exchange.getRequestMethod());
+            String cuerpo = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            List<Long> ids = new ArrayList<>();
+            for (String id : cuerpo.substring(1, cuerpo.length() - 1).split(",")) {
+                ids.add(Long.parseLong(id));
+            }
+            lotesRecibidos.add(ids);
+
+            List<PedidoDTO> encontrados = new ArrayList<>();
+            for (Long id : ids) {
+                if (id % 2 == 0) {
+                    encontrados.add(new PedidoDTO(id, "PED-" + id, List.of(), null));
+                }
+            }
+            if (binario) {
+                ByteBuffer mensaje = CodecBinarioPedidos.codificarPedidos(encontrados);
+                byte[] bytes = new byte[mensaje.remaining()];
+                mensaje.get(bytes);
+                exchange.getResponseHeaders().set("Content-Type", CodecBinarioPedidos.TIPO_CONTENIDO);
+                ServidorPrueba.responder(exchange, 200, bytes);
+            } else {
+                StringBuilder json = new StringBuilder("[");
+                for (PedidoDTO pedido : encontrados) {
+                    json.append(json.length() > 1 ? "," : "")
+                        .append("{\"id\":").append(pedido.getId()).append(",\"codigo\":\"").append(pedido.getCodigo()).append("\"}");
+                }
+                ServidorPrueba.responder(exchange, 200, json.append(']').toString());
+            }
+        });
+    }
+
+    @Test
+    void testAgrupaConsultasConcurrentes() throws Exception {
+        try (ServidorPrueba servidor = servidorDeLotes(false);
+             AgrupadorPedidos agrupador = AgrupadorPedidos.builder(ClienteMicroservicios.builder(servidor.baseUrl()).build())
+                 .ventana(Duration.ofMillis(200))
+                 .build()) {
+            ExecutorService hilos = Executors.newFixedThreadPool(8);
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<Optional<PedidoDTO>>> resultados = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                long id = i / 2 + 1;
+                resultados.add(hilos.submit(() -> {
+                    largada.await();
+                    return agrupador.obtenerPedido(id);
+                }));
+            }
+            largada.countDown();
+
+            for (int i = 0; i < 40; i++) {
+                long id = i / 2 + 1;
+                Optional<PedidoDTO> pedido = resultados.get(i).get(10, TimeUnit.SECONDS);
+                if (id % 2 == 0) {
+                    assertEquals("PED-" + id, pedido.orElseThrow().getCodigo());
+                } else {
+                    assertTrue(pedido.isEmpty());
+                }
+            }
+            hilos.shutdown();
+
+            AgrupadorPedidos.Estadisticas estadisticas = agrupador.estadisticas();
+            int idsEnviados = lotesRecibidos.stream().mapToInt(List::size).sum();
+            assertEquals(40, estadisticas.consultas());
+            assertEquals(lotesRecibidos.size(), estadisticas.lotes());
+            assertEquals(40, idsEnviados + estadisticas.repetidas());
+            assertTrue(lotesRecibidos.size() < 10, "Se esperaban pocos lotes: " + lotesRecibidos);
+        }
+    }
+
+    @Test
+    void testEnviaAlAlcanzarElTamanoMaximo() {
+        try (ServidorPrueba servidor = servidorDeLotes(false)) {
+            AgrupadorPedidos agrupador = AgrupadorPedidos.builder(ClienteMicroservicios.builder(servidor.baseUrl()).build())
+                .ventana(Duration.ofSeconds(30))
+                .maxLote(10)
+                .build();
+            List<CompletableFuture<Optional<PedidoDTO>>> futuros = new ArrayList<>();
+            for (long id = 1; id <= 25; id++) {
+                futuros.add(agrupador.obtenerPedidoAsync(id));
+            }
+            futuros.get(9).join();
+            futuros.get(19).join();
+            assertEquals(List.of(10, 10), lotesRecibidos.stream().map(List::size).toList());
+            assertFalse(futuros.get(24).isDone());
+
+            agrupador.close();
+            assertEquals(Optional.of(24L), futuros.get(23).join().map(PedidoDTO::getId));
+            assertEquals(Optional.empty(), futuros.get(24).join());
+            assertEquals(List.of(10, 10, 5), lotesRecibidos.stream().map(List::size).toList());
+        }
+    }
+
+    @Test
+    void testEnviaAlVencerLaVentanaConRespuestaBinaria() {
+        try (ServidorPrueba servidor = servidorDeLotes(true);
+             AgrupadorPedidos agrupador = AgrupadorPedidos.builder(ClienteMicroservicios.builder(servidor.baseUrl()).build())
+                 .ventana(Duration.ofMillis(50))
+                 .build()) {
+            CompletableFuture<Optional<PedidoDTO>> dos = agrupador.obtenerPedidoAsync(2);
+            CompletableFuture<Optional<PedidoDTO>> tres = agrupador.obtenerPedidoAsync(3);
+
+            assertEquals("PED-2", dos.join().orElseThrow().getCodigo());
+            assertEquals(Optional.empty(), tres.join());
+            assertEquals(List.of(List.of(2L, 3L)), new ArrayList<>(lotesRecibidos));
+
+            assertEquals(Optional.of(4L), agrupador.obtenerPedido(4).map(PedidoDTO::getId));
+            assertEquals(2, lotesRecibidos.size());
+        }
+    }
+
+    @Test
+    void testErroresDelLoteYCierre() {
+        try (ServidorPrueba servidor = new ServidorPrueba()
+                 .manejar("/api/pedidos/lote", exchange -> ServidorPrueba.responder(exchange, 503, "{}"))) {
+            ClienteMicroservicios cliente = ClienteMicroservicios.builder(servidor.baseUrl()).build();
+            AgrupadorPedidos agrupador = AgrupadorPedidos.builder(cliente).ventana(Duration.ofSeconds(30)).build();
+
+            CompletableFuture<Optional<PedidoDTO>> pendiente = agrupador.obtenerPedidoAsync(6);
+            agrupador.close();
+            CompletionException error = assertThrows(CompletionException.class, pendiente::join);
+            assertEquals(503, ((IntegracionMicroserviciosException) error.getCause()).getCodigoEstado());
+            assertThrows(IllegalStateException.class, () -> agrupador.obtenerPedidoAsync(7));
+
+            AgrupadorPedidos sinRuta = AgrupadorPedidos.builder(cliente).rutaLote("/inexistente").ventana(Duration.ZERO).build();
+            IntegracionMicroserviciosException noEncontrado =
+                assertThrows(IntegracionMicroserviciosException.class, () -> sinRuta.obtenerPedido(8));
+            assertEquals(404, noEncontrado.getCodigoEstado());
+
+            assertThrows(IllegalArgumentException.class, () -> sinRuta.obtenerPedidoAsync(0));
+            assertThrows(IllegalArgumentException.class, () -> AgrupadorPedidos.builder(cliente).maxLote(0));
+            assertThrows(IllegalArgumentException.class, () -> AgrupadorPedidos.builder(cliente).rutaLote("lote"));
+        }
+    }
+}
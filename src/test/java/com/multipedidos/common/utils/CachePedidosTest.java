@@ -0,0 +1,252 @@
+package com.multipedidos.common.utils;
+
+import com.multipedidos.common.exceptions.IntegracionMicroserviciosException;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Tests unitarios para CachePedidos con un cargador simulado y un reloj manual.
+ */
+class CachePedidosTest {
+
+    private final AtomicLong reloj = new AtomicLong();
+    private final AtomicInteger consultas = new AtomicInteger();
+
+    private final Function<Long, Optional<String>> cargador = id -> {
+        consultas.incrementAndGet();
+        if (id == 404L) {
+            return Optional.empty();
+        }
+        if (id == 500L) {
+            throw new IntegracionMicroserviciosException("Respuesta inesperada 500");
+        }
+        return Optional.of("{\"id\":" + id + "}");
+    };
+
+    private CachePedidos crearCache(int maxEntradas) {
+        return new CachePedidos(maxEntradas, Duration.ofSeconds(10), Duration.ofSeconds(1), cargador, reloj::get);
+    }
+
+    @Test
+    void testAciertosYExpiracion() {
+        CachePedidos cache = crearCache(10);
+
+        assertEquals(Optional.of("{\"id\":1}"), cache.obtenerPedidoJson(1L));
+        assertEquals(Optional.of("{\"id\":1}"), cache.obtenerPedidoJson(1L));
+        assertEquals(1, consultas.get());
+
+        reloj.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        cache.obtenerPedidoJson(1L);
+        assertEquals(2, consultas.get());
+
+        CachePedidos.Estadisticas estadisticas = cache.estadisticas();
+        assertEquals(1, estadisticas.aciertos());
+        assertEquals(2, estadisticas.fallos());
+    }
+
+    @Test
+    void testCacheNegativaConTiempoPropio() {
+        CachePedidos cache = crearCache(10);
+
+        assertEquals(Optional.empty(), cache.obtenerPedidoJson(404L));
+        assertEquals(Optional.empty(), cache.obtenerPedidoJson(404L));
+        assertEquals(1, consultas.get());
+
+        reloj.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        cache.obtenerPedidoJson(404L);
+        assertEquals(2, consultas.get());
+    }
+
+    @Test
+    void testExpulsaMenosUsadoRecientemente() {
+        CachePedidos cache = crearCache(2);
+
+        cache.obtenerPedidoJson(1L);
+        cache.obtenerPedidoJson(2L);
+        cache.obtenerPedidoJson(1L);
+        cache.obtenerPedidoJson(3L);
+
+        assertEquals(1, cache.estadisticas().expulsiones());
+        assertEquals(2, cache.estadisticas().tamano());
+
+        cache.obtenerPedidoJson(1L);
+        assertEquals(3, consultas.get());
+        cache.obtenerPedidoJson(2L);
+        assertEquals(4, consultas.get());
+    }
+
+    @Test
+    void testErroresNoSeGuardan() {
+        CachePedidos cache = crearCache(10);
+
+        assertThrows(IntegracionMicroserviciosException.class, () -> cache.obtenerPedidoJson(500L));
+        assertThrows(IntegracionMicroserviciosException.class, () -> cache.obtenerPedidoJson(500L));
+        assertEquals(2, consultas.get());
+        assertEquals(0, cache.estadisticas().tamano());
+    }
+
+    @Test
+    void testTamanoAcotadoConInvalidacionesYExpiraciones() {
+        CachePedidos cache = crearCache(8);
+
+        // IDs por encima de los que el cargador trata como 404 y 500
+        for (long id = 1_001; id <= 2_000; id++) {
+            cache.obtenerPedidoJson(id);
+            if (id % 3 == 0) {
+                cache.obtenerPedidoJson(id - 1);
+            }
+            if (id % 7 == 0) {
+                cache.invalidar(id - 2);
+            }
+            if (id % 50 == 0) {
+                reloj.addAndGet(TimeUnit.SECONDS.toNanos(10));
+            }
+            assertTrue(cache.estadisticas().tamano() <= 8);
+        }
+        // Las posiciones liberadas por invalidaciones y expiraciones se reutilizan sin expulsar
+        CachePedidos.Estadisticas estadisticas = cache.estadisticas();
+        assertEquals(8, estadisticas.tamano());
+        assertTrue(estadisticas.expulsiones() < 1_000 - 8, String.valueOf(estadisticas));
+    }
+
+    @Test
+    void testErrorDelCargadorNoDejaEsperandoAlSiguiente() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch cargando = new CountDownLatch(1);
+        CachePedidos cache = new CachePedidos(10, Duration.ofSeconds(10), Duration.ofSeconds(1), id -> {
+            if (consultas.incrementAndGet() == 1) {
+                cargando.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new StackOverflowError("cargador");
+            }
+            return Optional.of("{\"id\":" + id + "}");
+        }, reloj::get);
+
+        ExecutorService hilos = Executors.newFixedThreadPool(2);
+        try {
+            Future<Optional<String>> primera = hilos.submit(() -> cache.obtenerPedidoJson(13L));
+            assertTrue(cargando.await(5, TimeUnit.SECONDS));
+            Future<Optional<String>> coalescida = hilos.submit(() -> cache.obtenerPedidoJson(13L));
+            while (cache.estadisticas().coalescidas() < 1) {
+                Thread.sleep(1);
+            }
+            liberar.countDown();
+
+            ExecutionException error = assertThrows(ExecutionException.class, () -> primera.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, error.getCause());
+            error = assertThrows(ExecutionException.class, () -> coalescida.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, error.getCause());
+
+            // El turno se liberó: la siguiente consulta vuelve a cargar en lugar de esperar para siempre
+            Future<Optional<String>> siguiente = hilos.submit(() -> cache.obtenerPedidoJson(13L));
+            assertEquals(Optional.of("{\"id\":13}"), siguiente.get(5, TimeUnit.SECONDS));
+            assertEquals(2, consultas.get());
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    @Test
+    void testInvalidacion() {
+        CachePedidos cache = crearCache(10);
+
+        cache.obtenerPedidoJson(1L);
+        cache.obtenerPedidoJson(2L);
+        cache.invalidar(1L);
+        cache.obtenerPedidoJson(1L);
+        assertEquals(3, consultas.get());
+
+        cache.invalidarTodo();
+        assertEquals(0, cache.estadisticas().tamano());
+    }
+
+    @Test
+    void testConsultasConcurrentesSeCoalescen() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch cargando = new CountDownLatch(1);
+        CachePedidos cache = new CachePedidos(10, Duration.ofSeconds(10), Duration.ofSeconds(1), id -> {
+            consultas.incrementAndGet();
+            cargando.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.of("{\"id\":" + id + "}");
+        }, reloj::get);
+
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Optional<String>>> resultados = new ArrayList<>();
+            resultados.add(hilos.submit(() -> cache.obtenerPedidoJson(9L)));
+            assertTrue(cargando.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                resultados.add(hilos.submit(() -> cache.obtenerPedidoJson(9L)));
+            }
+            while (cache.estadisticas().coalescidas() < 7) {
+                Thread.sleep(1);
+            }
+            liberar.countDown();
+
+            for (Future<Optional<String>> resultado : resultados) {
+                assertEquals(Optional.of("{\"id\":9}"), resultado.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, consultas.get());
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    @Test
+    void testCadaIdSeConsultaUnaVezBajoConcurrencia() throws Exception {
+        ConcurrentHashMap<Long, AtomicInteger> porId = new ConcurrentHashMap<>();
+        CachePedidos cache = new CachePedidos(100, Duration.ofSeconds(10), Duration.ofSeconds(1), id -> {
+            porId.computeIfAbsent(id, clave -> new AtomicInteger()).incrementAndGet();
+            Thread.yield();
+            return Optional.of("{\"id\":" + id + "}");
+        }, reloj::get);
+
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int hilo = 0; hilo < 8; hilo++) {
+                tareas.add(hilos.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        long id = 1 + i % 50;
+                        assertEquals(Optional.of("{\"id\":" + id + "}"), cache.obtenerPedidoJson(id));
+                    }
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            hilos.shutdownNow();
+        }
+
+        assertEquals(50, porId.size());
+        porId.forEach((id, cantidad) -> assertEquals(1, cantidad.get(), "consultas del pedido " + id));
+        CachePedidos.Estadisticas estadisticas = cache.estadisticas();
+        assertEquals(50, estadisticas.fallos());
+        assertEquals(8 * 5_000, estadisticas.aciertos() + estadisticas.fallos() + estadisticas.coalescidas());
+    }
+}
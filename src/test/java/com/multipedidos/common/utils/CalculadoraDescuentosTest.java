@@ -3,7 +3,18 @@ package com.multipedidos.common.utils;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.multipedidos.common.dto.ProductoDTO;
+
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
 
 /**
  * Tests unitarios para CalculadoraDescuentos.
@@ -77,5 +88,299 @@ class CalculadoraDescuentosTest {
             CalculadoraDescuentos.aplicarDescuentoPersonalizado(new BigDecimal("100"), 150.0);
         });
     }
-}
 
+    @Test
+    void testCalcularTotalFinalCentavos() {
+        // 1000.00 - 10% = 900, 900 + 15% IVA = 1035.00
+        assertEquals(103_500L, CalculadoraDescuentos.calcularTotalFinalCentavos(100_000L));
+        assertEquals(0L, CalculadoraDescuentos.calcularTotalFinalCentavos(0L));
+        assertThrows(IllegalArgumentException.class, () ->
+            CalculadoraDescuentos.calcularTotalFinalCentavos(-1L));
+    }
+
+    @Test
+    void testAplicarDescuentoPersonalizadoCentavos() {
+        // 200 - 20% = 160.00
+        assertEquals(16_000L, CalculadoraDescuentos.aplicarDescuentoPersonalizadoCentavos(20_000L, 20.0));
+        assertThrows(IllegalArgumentException.class, () ->
+            CalculadoraDescuentos.aplicarDescuentoPersonalizadoCentavos(10_000L, Double.NaN));
+    }
+
+    @Test
+    void testConversionCentavos() {
+        assertEquals(12_345L, CalculadoraDescuentos.aCentavos(new BigDecimal("123.45")));
+        assertEquals(12_000L, CalculadoraDescuentos.aCentavos(new BigDecimal("1.2E+2")));
+        assertEquals(new BigDecimal("123.45"), CalculadoraDescuentos.desdeCentavos(12_345L));
+        assertThrows(IllegalArgumentException.class, () ->
+            CalculadoraDescuentos.aCentavos(new BigDecimal("1.005")));
+    }
+
+    /**
+     * Prueba diferencial: el camino en centavos debe coincidir bit a bit con el de BigDecimal.
+     */
+    @Test
+    void testCentavosCoincideConBigDecimal() {
+        Logger logger = Logger.getLogger(CalculadoraDescuentos.class.getName());
+        Level nivelOriginal = logger.getLevel();
+        logger.setLevel(Level.WARNING);
+        try {
+            compararCentavosConBigDecimal(new SplittableRandom(20240501L));
+        } finally {
+            logger.setLevel(nivelOriginal);
+        }
+    }
+
+    private static void compararCentavosConBigDecimal(SplittableRandom random) {
+        for (int i = 0; i < 2_000_000; i++) {
+            // Alternar montos pequeños, cercanos a los umbrales y grandes
+            long centavos;
+            switch (i % 3) {
+                case 0:
+                    centavos = random.nextLong(200_000L);
+                    break;
+                case 1:
+                    centavos = (i % 2 == 0 ? 100_000L : 500_000L) + random.nextLong(-50, 50);
+                    break;
+                default:
+                    centavos = random.nextLong(1_000_000_000_000L);
+                    break;
+            }
+            BigDecimal monto = BigDecimal.valueOf(centavos, 2);
+
+            assertEquals(CalculadoraDescuentos.calcularTotalFinal(monto),
+                    CalculadoraDescuentos.desdeCentavos(CalculadoraDescuentos.calcularTotalFinalCentavos(centavos)),
+                    "calcularTotalFinal " + monto);
+
+            double porcentaje = i % 5 == 0
+                    ? random.nextInt(100_001) / 1000.0
+                    : random.nextDouble(0, 100);
+            assertEquals(CalculadoraDescuentos.aplicarDescuentoPersonalizado(monto, porcentaje),
+                    CalculadoraDescuentos.desdeCentavos(
+                            CalculadoraDescuentos.aplicarDescuentoPersonalizadoCentavos(centavos, porcentaje)),
+                    "aplicarDescuentoPersonalizado " + monto + " " + porcentaje);
+        }
+    }
+
+    @Test
+    void testCalcularTotalesCentavosPorLote() {
+        long[] precios = {50_000L, 60_000L, 25_000L, 700_000L};
+        int[] inicios = {0, 2, 3, 4};
+        long[] totales = new long[3];
+
+        assertEquals(3, CalculadoraDescuentos.calcularTotalesCentavos(precios, inicios, totales));
+        // 1100 -> 990 -> 1138.50; 250 -> 237.50 -> 273.13 (HALF_UP); 7000 -> 5950 -> 6842.50
+        assertArrayEquals(new long[]{113_850L, 27_313L, 684_250L}, totales);
+
+        assertThrows(IllegalArgumentException.class, () ->
+            CalculadoraDescuentos.calcularTotalesCentavos(precios, new int[]{0, 2, 2, 4}, totales));
+    }
+
+    @Test
+    void testDesplazamientosInvalidosNoEscribenTotales() {
+        long[] precios = {50_000L, 60_000L, 25_000L, 700_000L};
+        long[] totales = {-1, -1, -1};
+        int[][] invalidos = {{0, 3, 1, 4}, {0, 1, 9, 4}, {0, 1, 2, 2}, {0, 1, 2, 5}, {1, 2, 3, 4}};
+
+        for (int[] inicios : invalidos) {
+            assertThrows(IllegalArgumentException.class,
+                () -> CalculadoraDescuentos.calcularTotalesCentavos(precios, inicios, totales), Arrays.toString(inicios));
+            ForkJoinPool pool = new ForkJoinPool(2);
+            try {
+                assertThrows(IllegalArgumentException.class, () -> CalculadoraDescuentos.calcularTotalesCentavos(
+                    precios, inicios, totales, new ModoParalelo(pool, 1)), Arrays.toString(inicios));
+            } finally {
+                pool.shutdown();
+            }
+            assertArrayEquals(new long[]{-1, -1, -1}, totales);
+        }
+    }
+
+    @Test
+    void testMetricasDelLoteNoDesbordan() {
+        // Cada subtotal cabe en un long y su total también, pero la suma del lote no
+        long subtotal = 500_000_000_000_000L;
+        int pedidos = 20_000;
+        long[] precios = new long[pedidos];
+        int[] inicios = new int[pedidos + 1];
+        for (int i = 0; i < pedidos; i++) {
+            precios[i] = subtotal;
+            inicios[i + 1] = i + 1;
+        }
+        long sumables = Long.MAX_VALUE / subtotal;
+
+        MetricasCalculadora.Instantanea antes = CalculadoraDescuentos.obtenerMetricas().instantanea();
+        CalculadoraDescuentos.calcularTotalesCentavos(precios, inicios, new long[pedidos]);
+        MetricasCalculadora.Instantanea despues = CalculadoraDescuentos.obtenerMetricas().instantanea();
+
+        assertEquals(pedidos, despues.totalesCalculados() - antes.totalesCalculados());
+        assertEquals(sumables * subtotal, despues.montoAcumuladoCentavos() - antes.montoAcumuladoCentavos());
+        assertEquals(pedidos - sumables, despues.montosFueraDeRango() - antes.montosFueraDeRango());
+    }
+
+    @Test
+    void testCalcularTotalesFinalesCentavosMasivo() {
+        TablaDescuentos tabla = TablaDescuentos.compilar(new BigDecimal("0.125"), List.of(
+            new TablaDescuentos.Tramo("base", BigDecimal.ZERO, new BigDecimal("0.0333")),
+            new TablaDescuentos.Tramo("alto", new BigDecimal("999.995"), new BigDecimal("0.2"))));
+        assertEquals(10_000L, tabla.escalaDescuentos());
+        assertEquals(8_000L, tabla.factorDescuento(1));
+        assertEquals(100_000L, tabla.umbralTramoCentavos(1));
+
+        SplittableRandom random = new SplittableRandom(11L);
+        long[] subtotales = new long[1_003];
+        for (int i = 0; i < subtotales.length; i++) {
+            subtotales[i] = i % 10 == 0 ? 99_999 + i % 3 : random.nextLong(2_000_000);
+        }
+        long[] totales = new long[subtotales.length];
+        long[] referencia = new long[subtotales.length];
+        CalculadoraDescuentos.calcularTotalesFinalesCentavos(subtotales, totales, tabla);
+        NucleoPrecios.escalar().calcular(subtotales, referencia, 0, subtotales.length, tabla, new long[2]);
+        for (int i = 0; i < subtotales.length; i++) {
+            assertEquals(CalculadoraDescuentos.calcularTotalFinalCentavos(subtotales[i], tabla), totales[i]);
+            assertEquals(referencia[i], totales[i]);
+        }
+        assertEquals(subtotales.length, tabla.aplicacionesTramo(0) + tabla.aplicacionesTramo(1) - subtotales.length);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> CalculadoraDescuentos.calcularTotalesFinalesCentavos(new long[]{1, -1}, new long[2]));
+        assertThrows(IllegalArgumentException.class,
+            () -> CalculadoraDescuentos.calcularTotalesFinalesCentavos(new long[3], new long[2]));
+        assertNotNull(CalculadoraDescuentos.obtenerNucleoPrecios().nombre());
+    }
+
+    @Test
+    void testLotePedidosCoincideConCalcularTotal() {
+        SplittableRandom random = new SplittableRandom(7L);
+        LotePedidos lote = new LotePedidos(2, 4);
+        List<BigDecimal> esperados = new ArrayList<>();
+
+        for (int pedido = 0; pedido < 200; pedido++) {
+            List<ProductoDTO> productos = new ArrayList<>();
+            int lineas = 1 + random.nextInt(20);
+            for (int i = 0; i < lineas; i++) {
+                BigDecimal precio = BigDecimal.valueOf(random.nextLong(100_000L), 2);
+                productos.add(new ProductoDTO("Producto " + i, precio));
+                lote.agregarLinea(precio);
+            }
+            lote.cerrarPedido();
+            esperados.add(CalculadoraDescuentos.calcularTotal(productos));
+        }
+
+        long[] totales = lote.calcularTotales(null);
+        assertEquals(esperados.size(), lote.cantidadPedidos());
+        for (int i = 0; i < esperados.size(); i++) {
+            assertEquals(esperados.get(i), CalculadoraDescuentos.desdeCentavos(totales[i]));
+        }
+
+        lote.limpiar();
+        assertEquals(0, lote.cantidadPedidos());
+        assertThrows(IllegalStateException.class, lote::cerrarPedido);
+        assertThrows(IllegalArgumentException.class, () -> lote.agregarLinea((BigDecimal) null));
+    }
+
+    @Test
+    void testModoParaleloCoincideConSecuencial() {
+        SplittableRandom random = new SplittableRandom(11L);
+        List<ProductoDTO> productos = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            BigDecimal precio = i % 97 == 0 ? null : BigDecimal.valueOf(random.nextLong(100_000L), 2);
+            productos.add(new ProductoDTO("Producto " + i, precio));
+        }
+
+        long[] precios = new long[30_000];
+        int[] inicios = new int[10_001];
+        for (int i = 0; i < precios.length; i++) {
+            precios[i] = random.nextLong(500_000L);
+        }
+        for (int i = 1; i < inicios.length; i++) {
+            inicios[i] = i * 3;
+        }
+        long[] secuencial = new long[10_000];
+        CalculadoraDescuentos.calcularTotalesCentavos(precios, inicios, secuencial);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ModoParalelo modo = new ModoParalelo(pool, 1_000);
+            assertEquals(CalculadoraDescuentos.calcularTotal(productos),
+                    CalculadoraDescuentos.calcularTotal(productos, modo));
+
+            long[] paralelo = new long[10_000];
+            CalculadoraDescuentos.calcularTotalesCentavos(precios, inicios, paralelo, modo);
+            assertArrayEquals(secuencial, paralelo);
+
+            inicios[5_000] = inicios[4_999];
+            assertThrows(IllegalArgumentException.class, () ->
+                CalculadoraDescuentos.calcularTotalesCentavos(precios, inicios, paralelo, modo));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testMetricasPorTramoYRegistroCondicional() {
+        TablaDescuentos tabla = TablaDescuentos.compilar(new BigDecimal("0.15"), List.of(
+                new TablaDescuentos.Tramo("básico", BigDecimal.ZERO, new BigDecimal("0.05")),
+                new TablaDescuentos.Tramo("premium", new BigDecimal("5000"), new BigDecimal("0.15"))));
+        TablaDescuentos anterior = CalculadoraDescuentos.configurarTablaDescuentos(tabla);
+
+        Logger logger = Logger.getLogger(CalculadoraDescuentos.class.getName());
+        List<String> registros = new ArrayList<>();
+        Handler captura = new Handler() {
+            @Override
+            public void publish(LogRecord registro) {
+                registros.add(registro.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        captura.setLevel(Level.ALL);
+        Level nivelOriginal = logger.getLevel();
+        logger.addHandler(captura);
+        try {
+            MetricasCalculadora.Instantanea antes = CalculadoraDescuentos.obtenerMetricas().instantanea();
+
+            logger.setLevel(Level.INFO);
+            CalculadoraDescuentos.calcularTotalFinal(new BigDecimal("100.00"));
+            CalculadoraDescuentos.calcularTotalFinalCentavos(600_000L);
+            CalculadoraDescuentos.calcularTotalesCentavos(new long[]{100, 700_000}, new int[]{0, 1, 2}, new long[2]);
+            assertTrue(registros.isEmpty());
+
+            logger.setLevel(Level.FINE);
+            CalculadoraDescuentos.calcularTotal(List.of(new ProductoDTO("Producto", new BigDecimal("10.00"))));
+            assertEquals(List.of("Subtotal calculado para 1 productos: 10.00", "Aplicando descuento básico del 5%"),
+                    registros);
+
+            MetricasCalculadora.Instantanea despues = CalculadoraDescuentos.obtenerMetricas().instantanea();
+            assertEquals(5, despues.totalesCalculados() - antes.totalesCalculados());
+            assertEquals(10_000 + 600_000 + 100 + 700_000 + 1_000,
+                    despues.montoAcumuladoCentavos() - antes.montoAcumuladoCentavos());
+            assertEquals(3L, despues.aplicacionesPorTramo().get("básico"));
+            assertEquals(2L, despues.aplicacionesPorTramo().get("premium"));
+            assertEquals(0, despues.montosFueraDeRango() - antes.montosFueraDeRango());
+        } finally {
+            logger.removeHandler(captura);
+            logger.setLevel(nivelOriginal);
+            CalculadoraDescuentos.configurarTablaDescuentos(anterior);
+        }
+    }
+
+    @Test
+    void testMetricasRedondeanYCuentanMontosFueraDeRango() {
+        MetricasCalculadora metricas = new MetricasCalculadora();
+        metricas.registrarTotal(new BigDecimal("10.995"));
+        metricas.registrarTotal(new BigDecimal("0.004"));
+        metricas.registrarTotal(new BigDecimal("1E+30"));
+        metricas.registrarTotal(BigDecimal.valueOf(Long.MAX_VALUE));
+
+        MetricasCalculadora.Instantanea instantanea = metricas.instantanea();
+        assertEquals(4, instantanea.totalesCalculados());
+        assertEquals(1_100, instantanea.montoAcumuladoCentavos());
+        assertEquals(2, instantanea.montosFueraDeRango());
+    }
+}
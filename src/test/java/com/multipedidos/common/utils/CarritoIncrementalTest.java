@@ -0,0 +1,91 @@
+package com.multipedidos.common.utils;
+
+import com.multipedidos.common.dto.ProductoCompacto;
+import com.multipedidos.common.dto.ProductoDTO;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests de CarritoIncremental.
+ */
+class CarritoIncrementalTest {
+
+    @Test
+    void testCoincideConCalcularTotalEnCadaEdicion() {
+        Random random = new Random(42);
+        CarritoIncremental carrito = new CarritoIncremental();
+        List<ProductoDTO> productos = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            if (!productos.isEmpty() && random.nextInt(3) == 0) {
+                carrito.quitar(productos.remove(random.nextInt(productos.size())));
+            } else {
+                BigDecimal precio = random.nextInt(20) == 0 ? BigDecimal.ZERO : BigDecimal.valueOf(random.nextInt(60_000), 2);
+                ProductoDTO producto = new ProductoDTO("Producto " + i, precio);
+                productos.add(producto);
+                carrito.agregar(producto);
+            }
+
+            assertEquals(productos.size(), carrito.getCantidadProductos());
+            if (productos.isEmpty()) {
+                assertThrows(IllegalStateException.class, carrito::getTotalCentavos);
+                continue;
+            }
+            BigDecimal esperado = CalculadoraDescuentos.calcularTotal(productos);
+            assertEquals(esperado, carrito.getTotal());
+            assertEquals(carrito.getTabla().indiceTramo(CalculadoraDescuentos.desdeCentavos(carrito.getSubtotalCentavos())),
+                carrito.getTramo());
+        }
+    }
+
+    @Test
+    void testNotificaCambiosDeTramo() {
+        List<String> eventos = new ArrayList<>();
+        CarritoIncremental carrito = new CarritoIncremental(TablaDescuentos.POR_DEFECTO)
+            .alCambiarTramo((c, anterior, nuevo) -> eventos.add(
+                c.getTabla().nombreTramo(anterior) + "->" + c.getNombreTramo() + "@" + c.getSubtotalCentavos()));
+
+        carrito.agregar(new ProductoCompacto("Monitor", 99_999));
+        carrito.agregar(new ProductoCompacto("Cable", 1));
+        carrito.agregar(new ProductoDTO("Servidor", new BigDecimal("4000")));
+        carrito.quitar(new ProductoCompacto("Cable", 1));
+        carrito.quitarCentavos(400_000);
+        carrito.agregarCentavos(500_000);
+
+        assertEquals(List.of("básico->medio@100000", "medio->premium@500000", "premium->medio@499999",
+            "medio->básico@99999", "básico->premium@599999"), eventos);
+        assertEquals(CalculadoraDescuentos.calcularTotalFinalCentavos(599_999), carrito.getTotalCentavos());
+
+        carrito.limpiar();
+        assertTrue(carrito.estaVacio());
+        assertEquals("premium->básico@0", eventos.get(eventos.size() - 1));
+        assertThrows(IllegalStateException.class, () -> carrito.quitarCentavos(1));
+    }
+
+    @Test
+    void testEntradasInvalidasNoModificanElCarrito() {
+        CarritoIncremental carrito = new CarritoIncremental();
+        carrito.agregarCentavos(1_000);
+
+        assertThrows(IllegalArgumentException.class, () -> carrito.agregar((ProductoDTO) null));
+        assertThrows(IllegalArgumentException.class,
+            () -> carrito.agregar(new ProductoDTO("Fraccion", new BigDecimal("1.005"))));
+        assertThrows(IllegalArgumentException.class, () -> carrito.agregar(new ProductoDTO("Sin precio", null)));
+        assertThrows(IllegalArgumentException.class, () -> carrito.quitar(new ProductoDTO("Sin precio", null)));
+        assertThrows(ArithmeticException.class, () -> carrito.agregarCentavos(Long.MAX_VALUE / 2));
+        assertEquals(1, carrito.getCantidadProductos());
+        assertEquals(1_000, carrito.getSubtotalCentavos());
+        assertEquals(CalculadoraDescuentos.calcularTotalFinalCentavos(1_000), carrito.getTotalCentavos());
+
+        carrito.agregarCentavos(-2_000);
+        assertThrows(IllegalStateException.class, carrito::getTotal);
+        carrito.quitarCentavos(-2_000);
+        assertEquals(new BigDecimal("10.93"), carrito.getTotal());
+        assertThrows(NullPointerException.class, () -> new CarritoIncremental(null));
+    }
+}
@@ -0,0 +1,107 @@
+package com.multipedidos.common.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Tests de CatalogoPrecios.
+ */
+class CatalogoPreciosTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void testConstruirYBuscarPorIdYNombre() throws IOException {
+        Path csv = directorio.resolve("catalogo.csv");
+        Files.writeString(csv, String.join("\n",
+            "id,nombre,precio",
+            "1,Teclado,89.90",
+            "2,\"Cable, USB \"\"C\"\"\",5",
+            "",
+            "-7,Café ☕ 𝄞,1499.99",
+            "3,Gratis,0") + "\n", StandardCharsets.UTF_8);
+        Path archivo = directorio.resolve("catalogo.bin");
+
+        assertEquals(4, CatalogoPrecios.construir(csv, archivo));
+        CatalogoPrecios catalogo = CatalogoPrecios.abrir(archivo);
+
+        assertEquals(4, catalogo.cantidad());
+        assertEquals(8990L, catalogo.precioCentavos(1));
+        assertEquals(500L, catalogo.precioCentavos("Cable, USB \"C\""));
+        assertEquals(149999L, catalogo.precioCentavos(new StringBuilder("Café ☕ 𝄞")));
+        assertEquals(0L, catalogo.precioCentavos("Gratis"));
+        assertEquals("Café ☕ 𝄞", catalogo.nombre(-7));
+
+        assertEquals(CatalogoPrecios.PRECIO_INEXISTENTE, catalogo.precioCentavos(99));
+        assertEquals(CatalogoPrecios.PRECIO_INEXISTENTE, catalogo.precioCentavos("Teclad"));
+        assertEquals(CatalogoPrecios.PRECIO_INEXISTENTE, catalogo.precioCentavos("Café ☕"));
+        assertEquals(CatalogoPrecios.PRECIO_INEXISTENTE, catalogo.precioCentavos("\uD834"));
+        assertEquals(CatalogoPrecios.PRECIO_INEXISTENTE, catalogo.precioCentavos((CharSequence) null));
+        assertNull(catalogo.nombre(99));
+
+        assertEquals(8990L + 8990L + 149999L, catalogo.subtotalCentavos(new long[]{1, 1, -7}));
+        assertThrows(IllegalArgumentException.class, () -> catalogo.subtotalCentavos(new long[]{1, 99}));
+    }
+
+    @Test
+    void testCatalogoGrandeYReemplazoAtomico() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            csv.append(i * 31L).append(",Producto ").append(i).append(',').append(i).append(String.format(".%02d", i % 100)).append('\n');
+        }
+        Path archivo = directorio.resolve("grande.bin");
+        CatalogoPrecios.construir(new StringReader(csv.toString()), archivo);
+        CatalogoPrecios anterior = CatalogoPrecios.abrir(archivo);
+        CatalogoPrecios otro = CatalogoPrecios.abrir(archivo);
+
+        for (int i = 0; i < 20_000; i++) {
+            long esperado = i * 100L + i % 100;
+            assertEquals(esperado, anterior.precioCentavos(i * 31L));
+            assertEquals(esperado, otro.precioCentavos("Producto " + i));
+        }
+        assertEquals(CatalogoPrecios.PRECIO_INEXISTENTE, anterior.precioCentavos(20_000L * 31));
+
+        CatalogoPrecios.construir(new StringReader("5,Nuevo,1.50\n"), archivo);
+        assertEquals(150L, CatalogoPrecios.abrir(archivo).precioCentavos(5));
+        assertEquals(20_000, anterior.cantidad());
+        assertEquals(31L * 100 + 31, anterior.precioCentavos(31L * 31));
+        assertEquals(1, Files.list(directorio).count());
+    }
+
+    @Test
+    void testCsvYArchivosInvalidos() throws IOException {
+        Path archivo = directorio.resolve("catalogo.bin");
+        String[] invalidos = {
+            "1,Teclado",
+            "x,Teclado,1",
+            "1,Teclado,1.005",
+            "1,Teclado,-1",
+            "1,,1",
+            "1,\"Sin cerrar,1",
+            "1,Teclado,1\n1,Mouse,2",
+            "1,Teclado,1\n2,Teclado,2"
+        };
+        for (String csv : invalidos) {
+            assertThrows(IllegalArgumentException.class,
+                () -> CatalogoPrecios.construir(new StringReader(csv), archivo), csv);
+        }
+        assertFalse(Files.exists(archivo));
+
+        CatalogoPrecios.construir(new StringReader(""), archivo);
+        CatalogoPrecios vacio = CatalogoPrecios.abrir(archivo);
+        assertEquals(0, vacio.cantidad());
+        assertEquals(CatalogoPrecios.PRECIO_INEXISTENTE, vacio.precioCentavos(1));
+        assertEquals(CatalogoPrecios.PRECIO_INEXISTENTE, vacio.precioCentavos("Teclado"));
+
+        Path basura = Files.write(directorio.resolve("basura.bin"), new byte[64]);
+        assertThrows(IllegalArgumentException.class, () -> CatalogoPrecios.abrir(basura));
+    }
+}
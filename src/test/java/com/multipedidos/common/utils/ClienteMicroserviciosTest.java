@@ -0,0 +1,110 @@
+package com.multipedidos.common.utils;
+
+import com.multipedidos.common.dto.PedidoDTO;
+import com.multipedidos.common.exceptions.IntegracionMicroserviciosException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests de ClienteMicroservicios contra un servidor HTTP local.
+ */
+class ClienteMicroserviciosTest {
+
+    private final ServidorPrueba servidor = new ServidorPrueba();
+
+    @BeforeEach
+    void iniciarServidor() {
+        servidor.manejar("/api/pedidos/", exchange -> {
+            long id = ServidorPrueba.idDeRuta(exchange);
+            if (id == 404) {
+                ServidorPrueba.responder(exchange, 404, "");
+            } else if (id == 500) {
+                ServidorPrueba.responder(exchange, 500, "{}");
+            } else {
+                ServidorPrueba.responder(exchange, 200, "{\"id\":" + id + ",\"codigo\":\"PED-" + id + "\"}");
+            }
+        });
+    }
+
+    @AfterEach
+    void detenerServidor() {
+        servidor.close();
+    }
+
+    @Test
+    void testConsultaConClienteReutilizable() {
+        ClienteMicroservicios cliente = ClienteMicroservicios.builder(servidor.baseUrl() + "/")
+                .version(HttpClient.Version.HTTP_1_1)
+                .timeoutPeticion(Duration.ofSeconds(2))
+                .build();
+
+        assertEquals(Optional.of("{\"id\":7,\"codigo\":\"PED-7\"}"), cliente.obtenerPedidoJson(7));
+        assertEquals(Optional.empty(), cliente.obtenerPedidoJson(404));
+        IntegracionMicroserviciosException error = assertThrows(IntegracionMicroserviciosException.class,
+            () -> cliente.obtenerPedidoJson(500));
+        assertEquals(500, error.getCodigoEstado());
+
+        PedidoDTO pedido = cliente.obtenerPedido(9).orElseThrow();
+        assertEquals(9L, pedido.getId());
+        assertEquals("PED-9", pedido.getCodigo());
+        assertEquals(Optional.empty(), cliente.obtenerPedido(404));
+    }
+
+    @Test
+    void testAsincronoUsaExecutorConfigurado() {
+        AtomicInteger tareas = new AtomicInteger();
+        Executor executor = tarea -> {
+            tareas.incrementAndGet();
+            new Thread(tarea).start();
+        };
+        // HTTP/2 sobre http:// intenta h2c; el servidor de prueba solo habla HTTP/1.1
+        ClienteMicroservicios cliente = ClienteMicroservicios.builder(servidor.baseUrl())
+                .executor(executor)
+                .build();
+
+        assertEquals(Optional.of("{\"id\":3,\"codigo\":\"PED-3\"}"), cliente.obtenerPedidoJsonAsync(3).join());
+        assertTrue(tareas.get() > 0);
+
+        CompletionException error = assertThrows(CompletionException.class,
+            () -> cliente.obtenerPedidoJsonAsync(500).join());
+        assertInstanceOf(IntegracionMicroserviciosException.class, error.getCause());
+    }
+
+    @Test
+    void testCompatibleConIntegradorResiliente() {
+        ClienteMicroservicios cliente = ClienteMicroservicios.builder(servidor.baseUrl()).build();
+        IntegradorResiliente integrador = new IntegradorResiliente(servidor.baseUrl(),
+                PoliticaResiliencia.builder().build());
+
+        assertEquals(Optional.of("{\"id\":5,\"codigo\":\"PED-5\"}"),
+                integrador.ejecutar(timeout -> cliente.obtenerPedidoJson(5, timeout), true));
+    }
+
+    @Test
+    void testValidacionesDelCliente() {
+        assertThrows(IllegalArgumentException.class, () -> ClienteMicroservicios.builder("no es una url"));
+        assertThrows(IllegalArgumentException.class, () -> ClienteMicroservicios.builder("ftp://localhost"));
+        assertThrows(IllegalArgumentException.class, () -> ClienteMicroservicios.builder(" "));
+        assertThrows(NullPointerException.class, () -> ClienteMicroservicios.builder(null));
+        ClienteMicroservicios.Builder builder = ClienteMicroservicios.builder(servidor.baseUrl());
+        assertThrows(IllegalArgumentException.class, () -> builder.timeoutConexion(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> builder.timeoutPeticion(Duration.ofMillis(-1)));
+        assertThrows(NullPointerException.class, () -> builder.timeoutPeticion(null));
+
+        HttpClient compartido = HttpClient.newHttpClient();
+        ClienteMicroservicios cliente = ClienteMicroservicios.builder(servidor.baseUrl())
+                .httpClient(compartido)
+                .build();
+        assertSame(compartido, cliente.getHttpClient());
+        assertThrows(IllegalArgumentException.class, () -> cliente.obtenerPedidoJson(0));
+    }
+}
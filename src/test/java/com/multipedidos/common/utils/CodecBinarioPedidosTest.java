@@ -0,0 +1,210 @@
+package com.multipedidos.common.utils;
+
+import com.multipedidos.common.dto.PedidoDTO;
+import com.multipedidos.common.dto.ProductoDTO;
+import com.multipedidos.common.exceptions.IntegracionMicroserviciosException;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests de ida y vuelta, entradas corruptas y negociación de CodecBinarioPedidos.
+ */
+class CodecBinarioPedidosTest {
+
+    private static final String[] NOMBRES = {"Teclado", "Monitor 27\"", "Café de Loja", "ñandú 🦤", ""};
+    private static final String[] ESTADOS = {"PENDIENTE", "PAGADO", "ENVIADO"};
+
+    private static BigDecimal montoAleatorio(Random random) {
+        switch (random.nextInt(6)) {
+            case 0:
+                return null;
+            case 1:
+                return new BigDecimal(BigInteger.valueOf(random.nextLong()), random.nextInt(41) - 20);
+            default:
+                return BigDecimal.valueOf(random.nextInt(1_000_000), 2);
+        }
+    }
+
+    private static List<ProductoDTO> productosAleatorios(Random random, int maximo) {
+        List<ProductoDTO> productos = new ArrayList<>();
+        int cantidad = random.nextInt(maximo + 1);
+        for (int i = 0; i < cantidad; i++) {
+            productos.add(random.nextInt(20) == 0 ? null : new ProductoDTO(
+                    random.nextInt(10) == 0 ? null : NOMBRES[random.nextInt(NOMBRES.length)],
+                    montoAleatorio(random)));
+        }
+        return productos;
+    }
+
+    private static PedidoDTO pedidoAleatorio(Random random) {
+        PedidoDTO pedido = new PedidoDTO();
+        pedido.setId(random.nextBoolean() ? random.nextLong() : null);
+        pedido.setCodigo(random.nextBoolean() ? "PED-" + random.nextInt(1_000_000) : null);
+        pedido.setClienteId(random.nextBoolean() ? (long) random.nextInt(5000) : null);
+        pedido.setEstado(random.nextBoolean() ? ESTADOS[random.nextInt(ESTADOS.length)] : null);
+        pedido.setTotal(montoAleatorio(random));
+        pedido.setProductos(random.nextInt(8) == 0 ? null : productosAleatorios(random, 12));
+        return pedido;
+    }
+
+    @Test
+    void testIdaYVueltaConservaValoresYEscalas() {
+        Random random = new Random(18);
+        for (int i = 0; i < 2000; i++) {
+            List<ProductoDTO> productos = productosAleatorios(random, 40);
+            ByteBuffer mensaje = CodecBinarioPedidos.codificarProductos(productos);
+            assertEquals(productos, CodecBinarioPedidos.decodificarProductos(mensaje));
+            assertFalse(mensaje.hasRemaining());
+
+            PedidoDTO pedido = pedidoAleatorio(random);
+            assertEquals(pedido, CodecBinarioPedidos.decodificarPedido(CodecBinarioPedidos.codificarPedido(pedido)));
+        }
+
+        List<PedidoDTO> pedidos = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            pedidos.add(i % 50 == 0 ? null : pedidoAleatorio(random));
+        }
+        ByteBuffer mensaje = CodecBinarioPedidos.codificarPedidos(pedidos);
+        // Búfer directo: las cadenas se copian, el resto se lee en el lugar
+        ByteBuffer directo = ByteBuffer.allocateDirect(mensaje.remaining()).put(mensaje.duplicate()).flip();
+        List<PedidoDTO> leidos = new ArrayList<>();
+        assertEquals(500, CodecBinarioPedidos.decodificarPedidos(directo, leidos::add));
+        assertEquals(pedidos, leidos);
+
+        assertEquals(new BigDecimal("89.90"), CodecBinarioPedidos.decodificarProductos(CodecBinarioPedidos.codificarProductos(
+                List.of(new ProductoDTO("x", new BigDecimal("89.90"))))).get(0).getPrecio());
+        assertThrows(IllegalArgumentException.class, () -> CodecBinarioPedidos.codificarProductos(
+                List.of(new ProductoDTO("x", new BigDecimal("1e-2").add(BigDecimal.valueOf(Long.MAX_VALUE))))));
+    }
+
+    @Test
+    void testMensajesConcatenadosSeSeparanSinCopiar() {
+        ByteBuffer primero = CodecBinarioPedidos.codificarProductos(List.of(new ProductoDTO("A", BigDecimal.ONE)));
+        PedidoDTO pedido = new PedidoDTO(7L, "PED-000007", List.of(new ProductoDTO("A", BigDecimal.TEN)), BigDecimal.TEN);
+        ByteBuffer segundo = CodecBinarioPedidos.codificarPedido(pedido);
+
+        ByteBuffer flujo = ByteBuffer.allocate(primero.remaining() + segundo.remaining() + 3);
+        flujo.put(primero.duplicate()).put(segundo.duplicate()).put(new byte[]{'M', 'P', 1}).flip();
+
+        ByteBuffer vista = CodecBinarioPedidos.separarMensaje(flujo);
+        assertSame(flujo.array(), vista.array());
+        assertEquals(primero, vista);
+        assertEquals(pedido, CodecBinarioPedidos.decodificarPedido(flujo));
+        // Solo queda un encabezado incompleto
+        assertNull(CodecBinarioPedidos.separarMensaje(flujo));
+        assertEquals(3, flujo.remaining());
+
+        assertThrows(IntegracionMicroserviciosException.class,
+            () -> CodecBinarioPedidos.decodificarPedido(primero.duplicate()));
+        assertThrows(IntegracionMicroserviciosException.class,
+            () -> CodecBinarioPedidos.decodificarProductos(ByteBuffer.wrap("{\"id\":1}".getBytes())));
+    }
+
+    @Test
+    void testLargoConBitsDeMasSeRechaza() {
+        ByteBuffer encabezado = CodecBinarioPedidos.codificarProductos(List.of());
+        byte[] largoMaximo = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+        // Integer.MAX_VALUE es un largo válido: solo falta el cuerpo
+        assertNull(CodecBinarioPedidos.separarMensaje(conLargo(encabezado, largoMaximo)));
+
+        for (byte ultimo : new byte[]{0x08, 0x17, 0x70, (byte) 0x81}) {
+            byte[] largo = largoMaximo.clone();
+            largo[4] = ultimo;
+            ByteBuffer mensaje = conLargo(encabezado, largo);
+            IntegracionMicroserviciosException error = assertThrows(IntegracionMicroserviciosException.class,
+                () -> CodecBinarioPedidos.separarMensaje(mensaje));
+            assertTrue(error.getMessage().contains("largo del mensaje mal formado"), error.getMessage());
+        }
+    }
+
+    @Test
+    void testEntradasCorruptasSoloLanzanExcepcionDeIntegracion() {
+        Random random = new Random(2024);
+        List<PedidoDTO> pedidos = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            pedidos.add(pedidoAleatorio(random));
+        }
+        byte[] valido = copiar(CodecBinarioPedidos.codificarPedidos(pedidos));
+
+        for (int i = 0; i < 100_000; i++) {
+            byte[] corrupto;
+            if (i % 3 == 0) {
+                corrupto = Arrays.copyOf(valido, random.nextInt(valido.length));
+            } else {
+                corrupto = valido.clone();
+                for (int cambios = 1 + random.nextInt(4); cambios > 0; cambios--) {
+                    // Se conserva el encabezado la mayoría de las veces para llegar al cuerpo
+                    int posicion = random.nextInt(10) == 0 ? random.nextInt(corrupto.length)
+                            : 4 + random.nextInt(corrupto.length - 4);
+                    corrupto[posicion] = (byte) random.nextInt(256);
+                }
+            }
+            try {
+                CodecBinarioPedidos.decodificarPedidos(ByteBuffer.wrap(corrupto), pedido -> { });
+            } catch (IntegracionMicroserviciosException e) {
+                assertTrue(e.getMessage().startsWith("Mensaje binario inválido"));
+            }
+        }
+    }
+
+    @Test
+    void testNegociacionConAccept() {
+        PedidoDTO pedido = new PedidoDTO(15L, "PED-000015",
+                List.of(new ProductoDTO("Teclado", new BigDecimal("89.90"))), new BigDecimal("103.39"));
+        try (ServidorPrueba servidor = new ServidorPrueba()) {
+            servidor.manejar("/api/pedidos/", exchange -> {
+                String aceptar = exchange.getRequestHeaders().getFirst("Accept");
+                if (aceptar != null && aceptar.startsWith(CodecBinarioPedidos.TIPO_CONTENIDO)) {
+                    exchange.getResponseHeaders().set("Content-Type", CodecBinarioPedidos.TIPO_CONTENIDO);
+                    ServidorPrueba.responder(exchange, 200, copiar(CodecBinarioPedidos.codificarPedido(pedido)));
+                } else {
+                    ServidorPrueba.responder(exchange, 200, "{\"id\":15,\"codigo\":\"PED-000015\"}");
+                }
+            });
+            AtomicReference<String> aceptarListado = new AtomicReference<>();
+            servidor.manejar("/api/pedidos", exchange -> {
+                String aceptar = exchange.getRequestHeaders().getFirst("Accept");
+                aceptarListado.set(aceptar);
+                if (aceptar != null && aceptar.startsWith(CodecBinarioPedidos.TIPO_CONTENIDO)) {
+                    exchange.getResponseHeaders().set("Content-Type", CodecBinarioPedidos.TIPO_CONTENIDO + "; v=1");
+                    ServidorPrueba.responder(exchange, 200, copiar(CodecBinarioPedidos.codificarPedidos(List.of(pedido, pedido))));
+                } else {
+                    ServidorPrueba.responder(exchange, 200, "[{\"id\":15},{\"id\":16}]");
+                }
+            });
+
+            assertEquals(pedido, IntegradorMicroservicios.obtenerPedido(servidor.baseUrl(), 15L).orElseThrow());
+            assertEquals(pedido, ClienteMicroservicios.builder(servidor.baseUrl()).build().obtenerPedido(15).orElseThrow());
+            // El JSON crudo sigue pidiéndose solo como JSON
+            assertEquals("{\"id\":15,\"codigo\":\"PED-000015\"}",
+                IntegradorMicroservicios.obtenerPedidoJson(servidor.baseUrl(), 15L).orElseThrow());
+
+            // El listado se pide solo como JSON para decodificarlo en flujo, sin leer el cuerpo completo
+            List<PedidoDTO> recorridos = new ArrayList<>();
+            assertEquals(2, IntegradorMicroservicios.recorrerPedidos(servidor.baseUrl(), recorridos::add));
+            assertEquals("application/json", aceptarListado.get());
+            assertEquals(16L, recorridos.get(1).getId());
+        }
+    }
+
+    private static ByteBuffer conLargo(ByteBuffer mensaje, byte[] largo) {
+        ByteBuffer resultado = ByteBuffer.allocate(4 + largo.length);
+        resultado.put(mensaje.duplicate().limit(mensaje.position() + 4)).put(largo).flip();
+        return resultado;
+    }
+
+    private static byte[] copiar(ByteBuffer mensaje) {
+        byte[] bytes = new byte[mensaje.remaining()];
+        mensaje.duplicate().get(bytes);
+        return bytes;
+    }
+}
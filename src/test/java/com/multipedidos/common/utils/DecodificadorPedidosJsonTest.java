@@ -0,0 +1,74 @@
+package com.multipedidos.common.utils;
+
+import com.multipedidos.common.dto.PedidoDTO;
+import com.multipedidos.common.dto.ProductoDTO;
+import com.multipedidos.common.exceptions.IntegracionMicroserviciosException;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests unitarios para DecodificadorPedidosJson.
+ */
+class DecodificadorPedidosJsonTest {
+
+    private static InputStream json(String texto) {
+        return new ByteArrayInputStream(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testLeerPedido() {
+        PedidoDTO pedido = DecodificadorPedidosJson.leerPedido(json(
+            "{ \"id\": 15, \"codigo\": \"PED-000015\", \"clienteId\": 3, \"estado\": null,\n" +
+            "  \"cliente\": {\"nombre\": \"Ana\", \"tags\": [1, true, false, null, -2.5e3]},\n" +
+            "  \"productos\": [ {\"nombre\": \"Caf\\u00e9 \\\"premium\\\"\", \"precio\": 12.50, \"stock\": 3},\n" +
+            "                   {\"nombre\": \"Té\", \"precio\": 0.99} ],\n" +
+            "  \"total\": 15.52 }"));
+
+        assertEquals(15L, pedido.getId());
+        assertEquals("PED-000015", pedido.getCodigo());
+        assertEquals(3L, pedido.getClienteId());
+        assertNull(pedido.getEstado());
+        assertEquals(List.of(
+            new ProductoDTO("Café \"premium\"", new BigDecimal("12.50")),
+            new ProductoDTO("Té", new BigDecimal("0.99"))), pedido.getProductos());
+        assertEquals(new BigDecimal("15.52"), pedido.getTotal());
+    }
+
+    @Test
+    void testLeerPedidosElementoPorElemento() {
+        StringBuilder texto = new StringBuilder("[");
+        for (int i = 1; i <= 3_000; i++) {
+            if (i > 1) {
+                texto.append(',');
+            }
+            texto.append("{\"id\":").append(i).append(",\"productos\":[{\"nombre\":\"P\",\"precio\":1.00}]}");
+        }
+        texto.append(']');
+
+        List<Long> ids = new ArrayList<>();
+        long cantidad = DecodificadorPedidosJson.leerPedidos(json(texto.toString()), pedido -> ids.add(pedido.getId()));
+
+        assertEquals(3_000, cantidad);
+        assertEquals(3_000L, ids.get(2_999));
+        assertEquals(0, DecodificadorPedidosJson.leerPedidos(json(" [ ] "), pedido -> fail()));
+    }
+
+    @Test
+    void testJsonInvalidoLanzaExcepcion() {
+        assertThrows(IntegracionMicroserviciosException.class, () ->
+            DecodificadorPedidosJson.leerPedido(json("{\"id\": 1")));
+        assertThrows(IntegracionMicroserviciosException.class, () ->
+            DecodificadorPedidosJson.leerPedido(json("{\"id\": \"uno\"}")));
+        assertThrows(IntegracionMicroserviciosException.class, () ->
+            DecodificadorPedidosJson.leerPedido(json("{\"id\": 1} extra")));
+        assertThrows(IntegracionMicroserviciosException.class, () ->
+            DecodificadorPedidosJson.leerPedidos(json("[{\"id\": 1} {\"id\": 2}]"), pedido -> { }));
+    }
+}
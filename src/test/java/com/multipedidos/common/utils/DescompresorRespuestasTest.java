@@ -0,0 +1,209 @@
+package com.multipedidos.common.utils;
+
+import com.multipedidos.common.dto.PedidoDTO;
+import com.multipedidos.common.exceptions.IntegracionMicroserviciosException;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Tests de DescompresorRespuestas, directos y a través del integrador contra un servidor local.
+ */
+class DescompresorRespuestasTest {
+
+    private static final String PEDIDO = pedidoGrande();
+
+    private static String pedidoGrande() {
+        StringBuilder json = new StringBuilder("{\"id\":4,\"codigo\":\"PED-ÑANDÚ\",\"productos\":[");
+        for (int i = 0; i < 500; i++) {
+            json.append(i > 0 ? "," : "").append("{\"nombre\":\"Producto ").append(i).append("\",\"precio\":10.50}");
+        }
+        return json.append("],\"total\":5250.00}").toString();
+    }
+
+    private static byte[] comprimir(String codificacion, byte[] datos) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        switch (codificacion) {
+            case "gzip" -> {
+                try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+                    gzip.write(datos);
+                }
+            }
+            case "deflate" -> {
+                try (DeflaterOutputStream zlib = new DeflaterOutputStream(salida)) {
+                    zlib.write(datos);
+                }
+            }
+            case "deflate-crudo" -> {
+                try (DeflaterOutputStream crudo = new DeflaterOutputStream(salida, new Deflater(Deflater.DEFAULT_COMPRESSION, true))) {
+                    crudo.write(datos);
+                }
+            }
+            default -> salida.write(datos);
+        }
+        return salida.toByteArray();
+    }
+
+    /** Servidor que comprime según la ruta: /gzip, /deflate, /deflate-crudo o /identity. */
+    private static ServidorPrueba servidorComprimido(List<String> aceptados) {
+        return new ServidorPrueba().manejar("/", exchange -> {
+            aceptados.add(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            String codificacion = exchange.getRequestURI().getPath().split("/")[1];
+            if (!codificacion.equals("identity")) {
+                exchange.getResponseHeaders().set("Content-Encoding", codificacion.replace("-crudo", ""));
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            ServidorPrueba.responder(exchange, 200, comprimir(codificacion, PEDIDO.getBytes(StandardCharsets.UTF_8)));
+        });
+    }
+
+    @Test
+    void testNegociaYDescomprimeCadaCodificacion() {
+        List<String> aceptados = new CopyOnWriteArrayList<>();
+        try (ServidorPrueba servidor = servidorComprimido(aceptados)) {
+            DescompresorRespuestas.Estadisticas antes = DescompresorRespuestas.estadisticas();
+            for (String codificacion : List.of("gzip", "deflate", "deflate-crudo", "identity")) {
+                String baseUrl = servidor.baseUrl() + "/" + codificacion;
+                ClienteMicroservicios cliente = ClienteMicroservicios.builder(baseUrl).build();
+
+                assertEquals(Optional.of(PEDIDO), IntegradorMicroservicios.obtenerPedidoJson(baseUrl, 4L), codificacion);
+                assertEquals(Optional.of(PEDIDO), IntegradorMicroservicios.obtenerPedidoJsonAsync(baseUrl, 4L).join(), codificacion);
+                assertEquals(Optional.of(PEDIDO), cliente.obtenerPedidoJsonAsync(4).join(), codificacion);
+                PedidoDTO pedido = cliente.obtenerPedido(4).orElseThrow();
+                assertEquals("PED-ÑANDÚ", pedido.getCodigo());
+                assertEquals(500, pedido.getProductos().size());
+            }
+            assertTrue(aceptados.stream().allMatch(DescompresorRespuestas.ACEPTA_CODIFICACION::equals), aceptados.toString());
+
+            DescompresorRespuestas.Estadisticas despues = DescompresorRespuestas.estadisticas();
+            assertTrue(despues.respuestas() - antes.respuestas() >= 12);
+            long recibidos = despues.bytesRecibidos() - antes.bytesRecibidos();
+            long descomprimidos = despues.bytesDescomprimidos() - antes.bytesDescomprimidos();
+            assertTrue(descomprimidos >= 12L * PEDIDO.length(), "descomprimidos=" + descomprimidos);
+            assertTrue(recibidos * 10 < descomprimidos, "recibidos=" + recibidos);
+            assertTrue(despues.bytesAhorrados() > antes.bytesAhorrados());
+        }
+    }
+
+    @Test
+    void testReutilizaLosInflaters() throws IOException {
+        byte[] comprimido = comprimir("gzip", PEDIDO.getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < 3; i++) {
+            try (InputStream entrada = DescompresorRespuestas.descomprimir(new ByteArrayInputStream(comprimido), "gzip")) {
+                entrada.readAllBytes();
+            }
+        }
+        long creados = DescompresorRespuestas.estadisticas().inflatersCreados();
+        for (int i = 0; i < 50; i++) {
+            try (InputStream entrada = DescompresorRespuestas.descomprimir(new ByteArrayInputStream(comprimido), "GZIP")) {
+                assertEquals(PEDIDO, new String(entrada.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        // Otros tests pueden tomar inflaters en paralelo, pero nunca uno por respuesta
+        assertTrue(DescompresorRespuestas.estadisticas().inflatersCreados() - creados < 10);
+
+        InputStream sinCompresion = new ByteArrayInputStream(comprimido);
+        assertSame(sinCompresion, DescompresorRespuestas.descomprimir(sinCompresion, " identity "));
+        assertSame(sinCompresion, DescompresorRespuestas.descomprimir(sinCompresion, null));
+    }
+
+    @Test
+    void testCabeceraGzipCompletaEnBloquesDeUnByte() throws Exception {
+        byte[] datos = PEDIDO.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        // FEXTRA, FNAME y FCOMMENT, que GZIPOutputStream nunca escribe
+        gzip.write(new byte[]{0x1F, (byte) 0x8B, 8, 0x1C, 0, 0, 0, 0, 0, 3, 2, 0, 'x', 'y'});
+        gzip.write("pedido.json\0comentario\0".getBytes(StandardCharsets.ISO_8859_1));
+        gzip.write(comprimir("deflate-crudo", datos));
+        CRC32 crc = new CRC32();
+        crc.update(datos);
+        gzip.write(ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN)
+            .putInt((int) crc.getValue()).putInt(datos.length).array());
+        byte[] completo = gzip.toByteArray();
+
+        assertArrayEquals(datos, suscribir(completo, 1, "gzip").toCompletableFuture().join());
+        assertArrayEquals(datos, suscribir(completo, 7, "gzip").toCompletableFuture().join());
+
+        byte[] colaCorrupta = completo.clone();
+        colaCorrupta[colaCorrupta.length - 5]++;
+        assertThrows(CompletionException.class, () -> suscribir(colaCorrupta, 64, "gzip").toCompletableFuture().join());
+        byte[] truncado = Arrays.copyOf(completo, completo.length - 3);
+        assertThrows(CompletionException.class, () -> suscribir(truncado, 64, "gzip").toCompletableFuture().join());
+        assertThrows(CompletionException.class, () -> suscribir(completo, 64, "br").toCompletableFuture().join());
+
+        IOException error = assertThrows(IOException.class,
+            () -> DescompresorRespuestas.descomprimir(new ByteArrayInputStream(truncado), "gzip").readAllBytes());
+        assertTrue(error.getMessage().contains("truncado"));
+    }
+
+    @Test
+    void testErroresDeDescompresionDelIntegrador() {
+        try (ServidorPrueba servidor = new ServidorPrueba().manejar("/api/pedidos/", exchange -> {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            ServidorPrueba.responder(exchange, 200, "{\"id\":1,\"codigo\":\"PED-1\"}");
+        })) {
+            IntegracionMicroserviciosException error = assertThrows(IntegracionMicroserviciosException.class,
+                () -> IntegradorMicroservicios.obtenerPedidoJson(servidor.baseUrl(), 1L));
+            assertTrue(error.getMessage().contains("gzip"), error.getMessage());
+            assertThrows(IntegracionMicroserviciosException.class,
+                () -> IntegradorMicroservicios.obtenerPedido(servidor.baseUrl(), 1L));
+        }
+    }
+
+    /** Entrega el cuerpo al manejador de bytes en bloques del tamaño indicado. */
+    private static CompletionStage<byte[]> suscribir(byte[] cuerpo, int bloque, String codificacion) {
+        HttpHeaders encabezados = HttpHeaders.of(Map.of("Content-Encoding", List.of(codificacion)), (a, b) -> true);
+        HttpResponse.BodySubscriber<byte[]> suscriptor = DescompresorRespuestas.ofByteArray().apply(new HttpResponse.ResponseInfo() {
+            @Override
+            public int statusCode() {
+                return 200;
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return encabezados;
+            }
+
+            @Override
+            public HttpClient.Version version() {
+                return HttpClient.Version.HTTP_1_1;
+            }
+        });
+        suscriptor.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        for (int i = 0; i < cuerpo.length && !suscriptor.getBody().toCompletableFuture().isDone(); i += bloque) {
+            suscriptor.onNext(List.of(ByteBuffer.wrap(cuerpo, i, Math.min(bloque, cuerpo.length - i)).slice()));
+        }
+        suscriptor.onComplete();
+        return suscriptor.getBody();
+    }
+}
@@ -0,0 +1,86 @@
+package com.multipedidos.common.utils;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Tests unitarios para FormateadorCodigos.
+ */
+class FormateadorCodigosTest {
+
+    @Test
+    void testFormatoIgualAStringFormat() {
+        Random random = new Random(13L);
+        char[] bufer = new char[FormateadorCodigos.LARGO_MAXIMO + 2];
+        ByteBuffer bytes = ByteBuffer.allocate(FormateadorCodigos.LARGO_MAXIMO);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200_000; i++) {
+            // IDs repartidos en todas las magnitudes, incluidos los de más de seis dígitos
+            long id = i < 20 ? i : random.nextLong() >>> (1 + random.nextInt(63));
+            if (i == 20) {
+                id = Long.MAX_VALUE;
+            }
+            String esperado = String.format(Locale.ROOT, "PED-%06d", id);
+
+            assertEquals(esperado, FormateadorCodigos.formatear(TipoCodigo.PEDIDO, id));
+            assertEquals(String.format(Locale.ROOT, "FAC-%06d", id), FormateadorCodigos.formatear(TipoCodigo.FACTURA, id));
+
+            int fin = FormateadorCodigos.escribir(TipoCodigo.PEDIDO, id, bufer, 2);
+            assertEquals(esperado, new String(bufer, 2, fin - 2));
+
+            sb.setLength(0);
+            assertEquals(esperado, FormateadorCodigos.agregar(TipoCodigo.PEDIDO, id, sb).toString());
+
+            bytes.clear();
+            FormateadorCodigos.escribir(TipoCodigo.PEDIDO, id, bytes).flip();
+            assertEquals(esperado, StandardCharsets.US_ASCII.decode(bytes).toString());
+        }
+        assertEquals("PED-012345", ValidadorCodigos.generarCodigoPedido(12345L));
+        assertEquals("FAC-1234567", ValidadorCodigos.generarCodigoFactura(1234567L));
+    }
+
+    @Test
+    void testParsearYCompactar() {
+        Random random = new Random(5L);
+        for (int i = 0; i < 100_000; i++) {
+            long id = random.nextLong() >>> (4 + random.nextInt(60));
+            TipoCodigo tipo = i % 2 == 0 ? TipoCodigo.PEDIDO : TipoCodigo.FACTURA;
+            String codigo = FormateadorCodigos.formatear(tipo, id);
+
+            assertEquals(id, FormateadorCodigos.parsearCodigo(codigo));
+            assertEquals(id, FormateadorCodigos.parsearCodigo(" " + codigo + "\n"));
+            long compacto = FormateadorCodigos.compactar(codigo);
+            assertEquals(FormateadorCodigos.compactar(tipo, id), compacto);
+            assertEquals(tipo, FormateadorCodigos.tipoCompacto(compacto));
+            assertEquals(id, FormateadorCodigos.idCompacto(compacto));
+            assertEquals(codigo, FormateadorCodigos.expandir(compacto));
+        }
+        assertNotEquals(FormateadorCodigos.compactar("PED-000001"), FormateadorCodigos.compactar("FAC-000001"));
+    }
+
+    @Test
+    void testCodigosInvalidos() {
+        String[] invalidos = {null, "", "PED-12345", "PED-0123456", "PEDX000001", "ped-000001", "ABC-000001",
+            "PED-00000a", "PED-99999999999999999999", "PED-9223372036854775808", "PED-+00001"};
+        for (String codigo : invalidos) {
+            assertEquals(FormateadorCodigos.CODIGO_INVALIDO, FormateadorCodigos.parsearCodigo(codigo), codigo);
+            assertEquals(FormateadorCodigos.CODIGO_INVALIDO, FormateadorCodigos.compactar(codigo), codigo);
+        }
+        assertEquals((1L << 60) - 1, FormateadorCodigos.parsearCodigo("FAC-" + ((1L << 60) - 1)));
+        // El ID completo se lee aunque no quepa en la forma compacta
+        assertEquals(1L << 60, FormateadorCodigos.parsearCodigo("PED-" + (1L << 60)));
+        assertEquals(Long.MAX_VALUE, FormateadorCodigos.parsearCodigo("FAC-" + Long.MAX_VALUE));
+        assertEquals(FormateadorCodigos.CODIGO_INVALIDO, FormateadorCodigos.compactar("PED-" + (1L << 60)));
+
+        assertThrows(IllegalArgumentException.class, () -> FormateadorCodigos.formatear(TipoCodigo.PEDIDO, -1));
+        assertThrows(IllegalArgumentException.class, () -> FormateadorCodigos.compactar(TipoCodigo.PEDIDO, 1L << 60));
+        assertThrows(IllegalArgumentException.class, () -> FormateadorCodigos.tipoCompacto(42L));
+        assertThrows(IndexOutOfBoundsException.class,
+            () -> FormateadorCodigos.escribir(TipoCodigo.PEDIDO, 1, new char[9], 0));
+    }
+}
@@ -0,0 +1,179 @@
+package com.multipedidos.common.utils;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests de GeneradorSecuencias, incluida una prueba de carga multihilo.
+ */
+class GeneradorSecuenciasTest {
+
+    private static final int HILOS = 8;
+    private static final int IDS_POR_HILO = 500_000;
+
+    @Test
+    void testSinColisionesEntreHilosYNodos() throws InterruptedException {
+        GeneradorSecuencias nodo1 = new GeneradorSecuencias(1);
+        GeneradorSecuencias nodo2 = new GeneradorSecuencias(2);
+        long[][] generados = new long[HILOS][IDS_POR_HILO];
+        CountDownLatch inicio = new CountDownLatch(1);
+        Thread[] hilos = new Thread[HILOS];
+        for (int h = 0; h < HILOS; h++) {
+            long[] destino = generados[h];
+            // Mitad de los hilos pide IDs sueltos y la otra mitad reserva rangos, sobre dos nodos
+            GeneradorSecuencias generador = h % 4 < 2 ? nodo1 : nodo2;
+            boolean conRangos = h % 2 == 1;
+            hilos[h] = new Thread(() -> {
+                try {
+                    inicio.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (conRangos) {
+                    int i = 0;
+                    while (i < destino.length) {
+                        GeneradorSecuencias.Rango rango = generador.reservar(Math.min(1000, destino.length - i));
+                        while (rango.hasNext()) {
+                            destino[i++] = rango.nextLong();
+                        }
+                    }
+                } else {
+                    long anterior = -1;
+                    for (int i = 0; i < destino.length; i++) {
+                        destino[i] = generador.siguiente();
+                        if (destino[i] <= anterior) {
+                            throw new AssertionError("IDs no crecientes en un mismo hilo");
+                        }
+                        anterior = destino[i];
+                    }
+                }
+            });
+            hilos[h].start();
+        }
+
+        long desde = System.nanoTime();
+        inicio.countDown();
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        long nanos = System.nanoTime() - desde;
+
+        long[] todos = new long[HILOS * IDS_POR_HILO];
+        for (int h = 0; h < HILOS; h++) {
+            System.arraycopy(generados[h], 0, todos, h * IDS_POR_HILO, IDS_POR_HILO);
+        }
+        Arrays.sort(todos);
+        for (int i = 1; i < todos.length; i++) {
+            assertNotEquals(todos[i - 1], todos[i], "ID duplicado");
+        }
+        assertTrue(todos[0] > 0);
+        long porSegundo = todos.length * 1_000_000_000L / Math.max(1, nanos);
+        assertTrue(porSegundo > 1_000_000, "Rendimiento insuficiente: " + porSegundo + " IDs/s");
+    }
+
+    @Test
+    void testRelojQueRetrocedeYSecuenciaAgotada() {
+        AtomicLong reloj = new AtomicLong(1_000);
+        // Cada espera avanza el reloj falso un milisegundo
+        GeneradorSecuencias generador = new GeneradorSecuencias(7, 0, reloj::get, reloj::incrementAndGet);
+
+        long anterior = generador.siguiente();
+        for (int i = 0; i < 3 * GeneradorSecuencias.RANGO_MAXIMO; i++) {
+            if (i == 100) {
+                reloj.set(500);
+            }
+            long id = generador.siguiente();
+            assertTrue(id > anterior);
+            assertEquals(7, GeneradorSecuencias.nodoDe(id));
+            anterior = id;
+        }
+        // Se tomaron prestados milisegundos futuros, pero se esperó al reloj en lugar de adelantarse sin límite
+        assertTrue(generador.instanteDe(anterior).toEpochMilli() > 1_000);
+        assertTrue(generador.instanteDe(anterior).toEpochMilli() <= reloj.get() + GeneradorSecuencias.ADELANTO_MAXIMO_MS);
+    }
+
+    @Test
+    void testReservasMasivasNoAdelantanElRelojMasDelLimite() {
+        AtomicLong reloj = new AtomicLong(1_000);
+        AtomicLong esperas = new AtomicLong();
+        GeneradorSecuencias generador = new GeneradorSecuencias(1, 0, reloj::get, () -> {
+            esperas.incrementAndGet();
+            reloj.incrementAndGet();
+        });
+
+        long ultimo = 0;
+        for (int i = 0; i < 1_000; i++) {
+            GeneradorSecuencias.Rango rango = generador.reservar(GeneradorSecuencias.RANGO_MAXIMO);
+            while (rango.hasNext()) {
+                ultimo = rango.nextLong();
+            }
+            assertTrue(generador.instanteDe(ultimo).toEpochMilli() - reloj.get() <= GeneradorSecuencias.ADELANTO_MAXIMO_MS);
+        }
+        // Cada rango completo ocupa un milisegundo: sin el límite el tiempo iría ~1000 ms adelante.
+        // Solo el milisegundo actual y los ADELANTO_MAXIMO_MS siguientes se usan sin esperar
+        assertEquals(1_000 - 1 - GeneradorSecuencias.ADELANTO_MAXIMO_MS, esperas.get());
+
+        // Un reinicio que tarda más que el límite no repite IDs del mismo nodo
+        long reinicio = reloj.get() + GeneradorSecuencias.ADELANTO_MAXIMO_MS + 1;
+        GeneradorSecuencias nuevo = new GeneradorSecuencias(1, 0, () -> reinicio);
+        assertTrue(nuevo.siguiente() > ultimo);
+    }
+
+    @Test
+    void testRangos() {
+        AtomicLong reloj = new AtomicLong(10);
+        GeneradorSecuencias generador = new GeneradorSecuencias(3, 0, reloj::get);
+
+        GeneradorSecuencias.Rango rango = generador.reservar(GeneradorSecuencias.RANGO_MAXIMO);
+        assertEquals(GeneradorSecuencias.RANGO_MAXIMO, rango.restantes());
+        long primero = rango.nextLong();
+        long ultimo = primero;
+        while (rango.hasNext()) {
+            ultimo = rango.nextLong();
+        }
+        assertEquals(primero + GeneradorSecuencias.RANGO_MAXIMO - 1, ultimo);
+        assertThrows(NoSuchElementException.class, rango::nextLong);
+        assertTrue(generador.siguiente() > ultimo);
+
+        assertThrows(IllegalArgumentException.class, () -> generador.reservar(0));
+        assertThrows(IllegalArgumentException.class, () -> generador.reservar(GeneradorSecuencias.RANGO_MAXIMO + 1));
+        assertThrows(IllegalArgumentException.class, () -> new GeneradorSecuencias(GeneradorSecuencias.NODO_MAXIMO + 1));
+        assertThrows(IllegalStateException.class, () -> new GeneradorSecuencias(1, 100, () -> 50).siguiente());
+    }
+
+    @Test
+    void testCodigoSecuencial() {
+        GeneradorSecuencias generador = new GeneradorSecuencias(5);
+
+        String primero = ValidadorCodigos.generarCodigoSecuencial("pedido", generador);
+        String segundo = ValidadorCodigos.generarCodigoSecuencial("PED", generador);
+
+        assertTrue(primero.startsWith("PED-"));
+        assertTrue(FormateadorCodigos.parsearCodigo(segundo) > FormateadorCodigos.parsearCodigo(primero));
+        assertTrue(ValidadorCodigos.generarCodigoSecuencial("fac", generador).startsWith("FAC-"));
+        assertThrows(IllegalArgumentException.class, () -> ValidadorCodigos.generarCodigoSecuencial("CLIENTE", generador));
+        assertThrows(IllegalArgumentException.class, () -> ValidadorCodigos.generarCodigoSecuencial("PED", null));
+    }
+
+    @Test
+    void testCodigoSecuencialPosteriorA2032SeSigueLeyendo() {
+        // Desde 2^38 ms tras la época (2032-09-17) los IDs superan los 60 bits de la forma compacta
+        long reloj = Instant.parse("2040-01-01T00:00:00Z").toEpochMilli();
+        GeneradorSecuencias generador = new GeneradorSecuencias(GeneradorSecuencias.NODO_MAXIMO,
+            GeneradorSecuencias.EPOCA_POR_DEFECTO, () -> reloj);
+
+        String codigo = ValidadorCodigos.generarCodigoSecuencial("PED", generador);
+        long id = FormateadorCodigos.parsearCodigo(codigo);
+
+        assertTrue(id >= 1L << 60, codigo);
+        assertEquals(codigo, FormateadorCodigos.formatear(TipoCodigo.PEDIDO, id));
+        assertEquals(FormateadorCodigos.CODIGO_INVALIDO, FormateadorCodigos.compactar(codigo));
+    }
+}
@@ -0,0 +1,55 @@
+package com.multipedidos.common.utils;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Tests de HistogramaLatencias contra percentiles exactos.
+ */
+class HistogramaLatenciasTest {
+
+    @Test
+    void testCubetasContiguasYErrorRelativoAcotado() {
+        int anterior = -1;
+        for (long valor = 0; valor < 1_000_000; valor++) {
+            int indice = HistogramaLatencias.indice(valor);
+            assertTrue(indice == anterior || indice == anterior + 1, "valor " + valor);
+            assertTrue(HistogramaLatencias.limiteSuperior(indice) >= valor);
+            anterior = indice;
+        }
+        Random random = new Random(3);
+        for (int i = 0; i < 100_000; i++) {
+            long valor = random.nextLong() >>> (1 + random.nextInt(63));
+            long limite = HistogramaLatencias.limiteSuperior(HistogramaLatencias.indice(valor));
+            assertTrue(limite >= valor && limite - valor <= valor / 32, "valor " + valor);
+        }
+        assertTrue(HistogramaLatencias.limiteSuperior(HistogramaLatencias.indice(Long.MAX_VALUE)) >= Long.MAX_VALUE);
+    }
+
+    @Test
+    void testPercentilesCercanosALosExactos() {
+        HistogramaLatencias histograma = new HistogramaLatencias();
+        Random random = new Random(20241018L);
+        long[] valores = new long[200_000];
+        for (int i = 0; i < valores.length; i++) {
+            // Distribución log-normal alrededor de 1 ms, con cola larga
+            valores[i] = (long) Math.exp(Math.log(1_000_000) + random.nextGaussian());
+            histograma.registrar(valores[i]);
+        }
+        Arrays.sort(valores);
+
+        HistogramaLatencias.Instantanea instantanea = histograma.instantanea();
+        assertEquals(valores.length, instantanea.getTotal());
+        assertEquals(valores[valores.length - 1], instantanea.getMaximo());
+        for (double p : new double[]{0, 50, 90, 99, 99.9, 100}) {
+            long exacto = valores[(int) Math.max(0, Math.ceil(valores.length * p / 100) - 1)];
+            long aproximado = instantanea.percentil(p);
+            assertTrue(aproximado >= exacto && aproximado - exacto <= exacto / 32, "p" + p);
+        }
+        assertThrows(IllegalArgumentException.class, () -> instantanea.percentil(101));
+        assertEquals(0, new HistogramaLatencias().instantanea().getP99());
+    }
+}
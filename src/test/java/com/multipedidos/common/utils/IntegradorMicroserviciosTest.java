@@ -0,0 +1,208 @@
+package com.multipedidos.common.utils;
+
+import com.multipedidos.common.dto.PedidoDTO;
+import com.multipedidos.common.exceptions.IntegracionMicroserviciosException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests de IntegradorMicroservicios contra un servidor HTTP local que simula
+ * el microservicio de pedidos.
+ * - ID 404: pedido inexistente
+ * - ID 500: error del servidor
+ * - Cualquier otro ID: pedido en JSON
+ * - Listado: arreglo JSON con {@value #PEDIDOS_LISTADO} pedidos
+ */
+class IntegradorMicroserviciosTest {
+
+    private static final int PEDIDOS_LISTADO = 2_000;
+
+    private static HttpServer servidor;
+    private static ExecutorService hilosServidor;
+    private static String baseUrl;
+
+    private static final AtomicInteger enVuelo = new AtomicInteger();
+    private static final AtomicInteger maximoEnVuelo = new AtomicInteger();
+    private static final AtomicInteger peticiones = new AtomicInteger();
+
+    @BeforeAll
+    static void iniciarServidor() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/api/pedidos/", IntegradorMicroserviciosTest::responderPedido);
+        servidor.createContext("/api/pedidos", IntegradorMicroserviciosTest::responderListado);
+        hilosServidor = Executors.newCachedThreadPool();
+        servidor.setExecutor(hilosServidor);
+        servidor.start();
+        baseUrl = "http://127.0.0.1:" + servidor.getAddress().getPort() + "/";
+    }
+
+    @AfterAll
+    static void detenerServidor() {
+        servidor.stop(0);
+        hilosServidor.shutdownNow();
+    }
+
+    @BeforeEach
+    void reiniciarContadores() {
+        maximoEnVuelo.set(0);
+        peticiones.set(0);
+    }
+
+    static void responderPedido(HttpExchange exchange) throws IOException {
+        int actuales = enVuelo.incrementAndGet();
+        maximoEnVuelo.accumulateAndGet(actuales, Math::max);
+        peticiones.incrementAndGet();
+        try {
+            String path = exchange.getRequestURI().getPath();
+            long id = Long.parseLong(path.substring(path.lastIndexOf('/') + 1));
+            Thread.sleep(5);
+            if (id == 404) {
+                responder(exchange, 404, "");
+            } else if (id == 500) {
+                responder(exchange, 500, "{\"error\":\"interno\"}");
+            } else {
+                responder(exchange, 200, "{\"id\":" + id + "}");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            enVuelo.decrementAndGet();
+        }
+    }
+
+    static void responderListado(HttpExchange exchange) throws IOException {
+        StringBuilder cuerpo = new StringBuilder("[");
+        for (int i = 1; i <= PEDIDOS_LISTADO; i++) {
+            if (i > 1) {
+                cuerpo.append(',');
+            }
+            cuerpo.append("{\"id\":").append(i)
+                    .append(",\"productos\":[{\"nombre\":\"Producto\",\"precio\":10.00}],\"total\":10.93}");
+        }
+        responder(exchange, 200, cuerpo.append(']').toString());
+    }
+
+    static void responder(HttpExchange exchange, int estado, String cuerpo) throws IOException {
+        byte[] bytes = cuerpo.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(estado, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream cuerpoRespuesta = exchange.getResponseBody()) {
+            cuerpoRespuesta.write(bytes);
+        }
+    }
+
+    @Test
+    void testObtenerPedidoJson() {
+        assertEquals(Optional.of("{\"id\":7}"), IntegradorMicroservicios.obtenerPedidoJson(baseUrl, 7L));
+        assertEquals(Optional.empty(), IntegradorMicroservicios.obtenerPedidoJson(baseUrl, 404L));
+        IntegracionMicroserviciosException error = assertThrows(IntegracionMicroserviciosException.class, () ->
+            IntegradorMicroservicios.obtenerPedidoJson(baseUrl, 500L));
+        assertEquals(500, error.getCodigoEstado());
+        // Los errores de estado conservan la traza de quien llamó
+        assertTrue(error.getStackTrace().length > 0);
+    }
+
+    @Test
+    void testObtenerPedidoDecodificado() {
+        PedidoDTO pedido = IntegradorMicroservicios.obtenerPedido(baseUrl, 12L).orElseThrow();
+        assertEquals(12L, pedido.getId());
+        assertEquals(Optional.empty(), IntegradorMicroservicios.obtenerPedido(baseUrl, 404L));
+        assertThrows(IntegracionMicroserviciosException.class, () ->
+            IntegradorMicroservicios.obtenerPedido(baseUrl, 500L));
+    }
+
+    @Test
+    void testRecorrerPedidos() {
+        List<PedidoDTO> recibidos = new ArrayList<>();
+        long cantidad = IntegradorMicroservicios.recorrerPedidos(baseUrl, recibidos::add);
+
+        assertEquals(PEDIDOS_LISTADO, cantidad);
+        assertEquals(PEDIDOS_LISTADO, recibidos.size());
+        assertEquals(new BigDecimal("10.00"), recibidos.get(0).getProductos().get(0).getPrecio());
+        assertEquals(new BigDecimal("10.93"), recibidos.get(PEDIDOS_LISTADO - 1).getTotal());
+    }
+
+    @Test
+    void testObtenerPedidoJsonAsync() {
+        assertEquals(Optional.of("{\"id\":8}"), IntegradorMicroservicios.obtenerPedidoJsonAsync(baseUrl, 8L).join());
+        assertEquals(Optional.empty(), IntegradorMicroservicios.obtenerPedidoJsonAsync(baseUrl, 404L).join());
+
+        Exception error = assertThrows(Exception.class, () ->
+            IntegradorMicroservicios.obtenerPedidoJsonAsync(baseUrl, 500L).join());
+        assertInstanceOf(IntegracionMicroserviciosException.class, error.getCause());
+
+        assertThrows(IllegalArgumentException.class, () ->
+            IntegradorMicroservicios.obtenerPedidoJsonAsync(baseUrl, 0L));
+    }
+
+    @Test
+    void testObtenerPedidosJsonRespetaConcurrencia() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            ids.add(id);
+        }
+        ids.add(404L);
+        ids.add(3L);
+
+        Map<Long, Optional<String>> pedidos = IntegradorMicroservicios.obtenerPedidosJson(baseUrl, ids, 4);
+
+        assertEquals(51, pedidos.size());
+        assertEquals(51, peticiones.get());
+        assertTrue(maximoEnVuelo.get() <= 4, "en vuelo: " + maximoEnVuelo.get());
+        assertEquals(Optional.of("{\"id\":50}"), pedidos.get(50L));
+        assertEquals(Optional.empty(), pedidos.get(404L));
+        assertEquals(List.copyOf(new LinkedHashSet<>(ids)), List.copyOf(pedidos.keySet()));
+    }
+
+    @Test
+    void testObtenerPedidosJsonFallaConElPrimerError() {
+        assertThrows(IntegracionMicroserviciosException.class, () ->
+            IntegradorMicroservicios.obtenerPedidosJson(baseUrl, List.of(1L, 500L, 2L), 1));
+        assertTrue(IntegradorMicroservicios.obtenerPedidosJson(baseUrl, List.of()).isEmpty());
+    }
+
+    /**
+     * En JDK 21 cada consulta síncrona puede ejecutarse en su propio hilo virtual.
+     * Se crea el ejecutor por reflexión porque la librería compila con Java 17.
+     */
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void testObtenerPedidoJsonDesdeHilosVirtuales() throws Exception {
+        ExecutorService virtuales = (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        try {
+            List<Future<Optional<String>>> futuros = new ArrayList<>();
+            for (long id = 1; id <= 200; id++) {
+                long pedidoId = id;
+                futuros.add(virtuales.submit(() -> IntegradorMicroservicios.obtenerPedidoJson(baseUrl, pedidoId)));
+            }
+            for (int i = 0; i < futuros.size(); i++) {
+                assertEquals(Optional.of("{\"id\":" + (i + 1) + "}"), futuros.get(i).get());
+            }
+        } finally {
+            virtuales.shutdown();
+        }
+    }
+}
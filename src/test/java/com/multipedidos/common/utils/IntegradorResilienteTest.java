@@ -0,0 +1,215 @@
+package com.multipedidos.common.utils;
+
+import com.multipedidos.common.exceptions.IntegracionMicroserviciosException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests de IntegradorResiliente contra un servidor HTTP local.
+ */
+class IntegradorResilienteTest {
+
+    private final ServidorPrueba servidor = new ServidorPrueba();
+    private final AtomicInteger peticiones = new AtomicInteger();
+
+    @AfterEach
+    void detenerServidor() {
+        servidor.close();
+    }
+
+    private static PoliticaResiliencia.Builder politicaRapida() {
+        return PoliticaResiliencia.builder()
+                .timeoutIntento(Duration.ofSeconds(2))
+                .plazoTotal(Duration.ofSeconds(5))
+                .espera(Duration.ofMillis(1), Duration.ofMillis(5));
+    }
+
+    @Test
+    void testReintentaErroresTransitorios() {
+        servidor.manejar("/api/pedidos/", exchange -> {
+            int numero = peticiones.incrementAndGet();
+            ServidorPrueba.responder(exchange, numero < 3 ? 503 : 200, "{\"id\":1}");
+        });
+        IntegradorResiliente integrador = new IntegradorResiliente(servidor.baseUrl(), politicaRapida().build());
+
+        assertEquals(Optional.of("{\"id\":1}"), integrador.obtenerPedidoJson(1L));
+        assertEquals(3, peticiones.get());
+        assertEquals(CircuitoInterruptor.Estado.CERRADO, integrador.getEstadoCircuito());
+    }
+
+    @Test
+    void testNoReintentaErroresDelCliente() {
+        servidor.manejar("/api/pedidos/", exchange -> {
+            peticiones.incrementAndGet();
+            ServidorPrueba.responder(exchange, 400, "{}");
+        });
+        IntegradorResiliente integrador = new IntegradorResiliente(servidor.baseUrl(),
+                politicaRapida().circuito(1, Duration.ofSeconds(10)).build());
+
+        IntegracionMicroserviciosException error = assertThrows(IntegracionMicroserviciosException.class,
+            () -> integrador.obtenerPedidoJson(1L));
+        assertEquals(400, error.getCodigoEstado());
+        assertEquals(1, peticiones.get());
+        assertEquals(CircuitoInterruptor.Estado.CERRADO, integrador.getEstadoCircuito());
+    }
+
+    @Test
+    void testTimeoutPorIntentoYReintento() {
+        servidor.manejar("/api/pedidos/", exchange -> {
+            if (peticiones.incrementAndGet() == 1) {
+                dormir(1_000);
+            }
+            ServidorPrueba.responder(exchange, 200, "{\"id\":2}");
+        });
+        IntegradorResiliente integrador = new IntegradorResiliente(servidor.baseUrl(),
+                politicaRapida().timeoutIntento(Duration.ofMillis(200)).build());
+
+        assertEquals(Optional.of("{\"id\":2}"), integrador.obtenerPedidoJson(2L));
+        assertEquals(2, peticiones.get());
+    }
+
+    @Test
+    void testPlazoTotalAcotaLaLlamada() {
+        servidor.manejar("/api/pedidos/", exchange -> {
+            peticiones.incrementAndGet();
+            dormir(1_000);
+            ServidorPrueba.responder(exchange, 200, "{}");
+        });
+        IntegradorResiliente integrador = new IntegradorResiliente(servidor.baseUrl(), politicaRapida()
+                .timeoutIntento(Duration.ofMillis(150))
+                .plazoTotal(Duration.ofMillis(400))
+                .maxIntentos(10)
+                .build());
+
+        long inicio = System.nanoTime();
+        assertThrows(IntegracionMicroserviciosException.class, () -> integrador.obtenerPedidoJson(3L));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) < 900);
+        assertTrue(peticiones.get() <= 3, "peticiones: " + peticiones.get());
+    }
+
+    @Test
+    void testCircuitoSeAbreYSeRecupera() throws Exception {
+        AtomicInteger estado = new AtomicInteger(500);
+        servidor.manejar("/api/pedidos/", exchange -> {
+            peticiones.incrementAndGet();
+            ServidorPrueba.responder(exchange, estado.get(), "{\"id\":4}");
+        });
+        IntegradorResiliente integrador = new IntegradorResiliente(servidor.baseUrl(), politicaRapida()
+                .maxIntentos(1)
+                .circuito(2, Duration.ofMillis(200))
+                .build());
+
+        assertThrows(IntegracionMicroserviciosException.class, () -> integrador.obtenerPedidoJson(4L));
+        assertThrows(IntegracionMicroserviciosException.class, () -> integrador.obtenerPedidoJson(4L));
+        assertEquals(CircuitoInterruptor.Estado.ABIERTO, integrador.getEstadoCircuito());
+
+        IntegracionMicroserviciosException rapido = assertThrows(IntegracionMicroserviciosException.class,
+            () -> integrador.obtenerPedidoJson(4L));
+        assertTrue(rapido.getMessage().startsWith("Circuito abierto"));
+        assertEquals(2, peticiones.get());
+
+        estado.set(200);
+        Thread.sleep(250);
+        assertEquals(CircuitoInterruptor.Estado.SEMIABIERTO, integrador.getEstadoCircuito());
+        assertEquals(Optional.of("{\"id\":4}"), integrador.obtenerPedidoJson(4L));
+        assertEquals(CircuitoInterruptor.Estado.CERRADO, integrador.getEstadoCircuito());
+    }
+
+    @Test
+    void testErrorDelLlamadorLiberaLaPruebaDelCircuito() {
+        AtomicLong reloj = new AtomicLong();
+        IntegradorResiliente integrador = new IntegradorResiliente("http://localhost:1", politicaRapida()
+                .maxIntentos(1)
+                .circuito(1, Duration.ofSeconds(1))
+                .build(), reloj::get);
+
+        assertThrows(IntegracionMicroserviciosException.class, () -> integrador.ejecutar(timeout -> {
+            throw new IntegracionMicroserviciosException("Respuesta inesperada 503", 503);
+        }, true));
+        assertEquals(CircuitoInterruptor.Estado.ABIERTO, integrador.getEstadoCircuito());
+
+        reloj.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertEquals(CircuitoInterruptor.Estado.SEMIABIERTO, integrador.getEstadoCircuito());
+        assertThrows(IllegalArgumentException.class, () -> integrador.ejecutar(timeout -> {
+            throw new IllegalArgumentException("Error del llamador");
+        }, true));
+
+        // La prueba quedó libre: la siguiente llamada se permite y cierra el circuito
+        assertEquals("ok", integrador.ejecutar(timeout -> "ok", true));
+        assertEquals(CircuitoInterruptor.Estado.CERRADO, integrador.getEstadoCircuito());
+    }
+
+    @Test
+    void testIdInvalidoNoTocaCircuitoNiCupo() {
+        AtomicLong reloj = new AtomicLong();
+        IntegradorResiliente integrador = new IntegradorResiliente("http://localhost:1", politicaRapida()
+                .circuito(1, Duration.ofSeconds(1))
+                .build(), reloj::get);
+        int cupo = integrador.getLlamadasDisponibles();
+
+        assertThrows(IllegalArgumentException.class, () -> integrador.obtenerPedidoJson(0L));
+        assertThrows(NullPointerException.class, () -> integrador.obtenerPedidoJson(null));
+        assertEquals(cupo, integrador.getLlamadasDisponibles());
+        assertEquals(CircuitoInterruptor.Estado.CERRADO, integrador.getEstadoCircuito());
+    }
+
+    @Test
+    void testLimiteDeLlamadasSimultaneas() throws Exception {
+        CountDownLatch recibida = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        servidor.manejar("/api/pedidos/", exchange -> {
+            recibida.countDown();
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ServidorPrueba.responder(exchange, 200, "{\"id\":5}");
+        });
+        IntegradorResiliente integrador = new IntegradorResiliente(servidor.baseUrl(),
+                politicaRapida().maxConcurrencia(1).build());
+
+        CompletableFuture<Optional<String>> primera = CompletableFuture.supplyAsync(() -> integrador.obtenerPedidoJson(5L));
+        assertTrue(recibida.await(5, TimeUnit.SECONDS));
+
+        assertEquals(0, integrador.getLlamadasDisponibles());
+        assertThrows(IntegracionMicroserviciosException.class, () -> integrador.obtenerPedidoJson(5L));
+
+        liberar.countDown();
+        assertEquals(Optional.of("{\"id\":5}"), primera.get(5, TimeUnit.SECONDS));
+        assertEquals(1, integrador.getLlamadasDisponibles());
+    }
+
+    @Test
+    void testEsperaExponencialAcotada() {
+        IntegradorResiliente integrador = new IntegradorResiliente(servidor.baseUrl(), PoliticaResiliencia.builder()
+                .espera(Duration.ofMillis(100), Duration.ofSeconds(1))
+                .build());
+
+        for (int i = 0; i < 1_000; i++) {
+            long primera = integrador.calcularEspera(1);
+            assertTrue(primera >= 50_000_000L && primera <= 100_000_000L);
+            long tercera = integrador.calcularEspera(3);
+            assertTrue(tercera >= 200_000_000L && tercera <= 400_000_000L);
+            long lejana = integrador.calcularEspera(80);
+            assertTrue(lejana >= 500_000_000L && lejana <= 1_000_000_000L);
+        }
+    }
+
+    private static void dormir(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
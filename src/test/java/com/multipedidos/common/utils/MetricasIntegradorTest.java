@@ -0,0 +1,131 @@
+package com.multipedidos.common.utils;
+
+import com.multipedidos.common.exceptions.IntegracionMicroserviciosException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.ServerSocket;
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests de MetricasIntegrador sobre llamadas reales a un servidor local.
+ */
+class MetricasIntegradorTest {
+
+    private final ServidorPrueba servidor = new ServidorPrueba();
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private final MetricasIntegrador metricas = IntegradorMicroservicios.obtenerMetricas();
+
+    @BeforeEach
+    void iniciarServidor() {
+        servidor.manejar("/api/pedidos/", exchange -> {
+            long id = ServidorPrueba.idDeRuta(exchange);
+            if (id == 1) {
+                try {
+                    liberar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            int estado = id == 404 ? 404 : id == 500 ? 500 : 200;
+            ServidorPrueba.responder(exchange, estado, estado == 404 ? "" : "{\"id\":" + id + "}");
+        });
+    }
+
+    @AfterEach
+    void detenerServidor() {
+        liberar.countDown();
+        servidor.close();
+    }
+
+    private String endpointPedido() {
+        return servidor.baseUrl() + IntegradorMicroservicios.RUTA_PEDIDO;
+    }
+
+    @Test
+    void testContadoresPorClaseYLatencias() {
+        String baseUrl = servidor.baseUrl();
+        IntegradorMicroservicios.obtenerPedidoJson(baseUrl, 7L);
+        IntegradorMicroservicios.obtenerPedidoJson(baseUrl + "/", 8L);
+        IntegradorMicroservicios.obtenerPedidoJson(baseUrl, 404L);
+        assertThrows(IntegracionMicroserviciosException.class,
+            () -> IntegradorMicroservicios.obtenerPedidoJson(baseUrl, 500L));
+        // El cliente comparte el endpoint con las llamadas estáticas a la misma URL base
+        ClienteMicroservicios.builder(baseUrl).version(HttpClient.Version.HTTP_1_1).build().obtenerPedidoJsonAsync(9).join();
+        // ... también si la URL base se escribe con otro formato
+        IntegradorMicroservicios.obtenerPedidoJson(baseUrl.replace("http://", "HTTP://") + "/", 10L);
+
+        MetricasIntegrador.InstantaneaEndpoint instantanea = metricas.instantanea().get(endpointPedido());
+        assertEquals(4, instantanea.exitos());
+        assertEquals(1, instantanea.noEncontrados());
+        assertEquals(1, instantanea.otrosEstados());
+        assertEquals(0, instantanea.erroresES());
+        assertEquals(0, instantanea.enVuelo());
+        assertEquals(6, instantanea.total());
+        assertEquals(6, instantanea.latencias().getTotal());
+        assertTrue(instantanea.latencias().getP50() > 0);
+        assertTrue(instantanea.latencias().getP999() <= instantanea.latencias().getMaximo());
+    }
+
+    @Test
+    void testErrorDeConexionYPeticionesEnVuelo() throws Exception {
+        int puertoCerrado;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            puertoCerrado = socket.getLocalPort();
+        }
+        String destinoCerrado = "http://127.0.0.1:" + puertoCerrado;
+        assertThrows(IntegracionMicroserviciosException.class,
+            () -> IntegradorMicroservicios.obtenerPedidoJson(destinoCerrado, 1L));
+        MetricasIntegrador.InstantaneaEndpoint cerrado =
+            metricas.instantanea().get(destinoCerrado + IntegradorMicroservicios.RUTA_PEDIDO);
+        assertEquals(1, cerrado.erroresES());
+        assertEquals(0, cerrado.enVuelo());
+
+        CompletableFuture<Optional<String>> bloqueada = IntegradorMicroservicios.obtenerPedidoJsonAsync(servidor.baseUrl(), 1L);
+        MetricasIntegrador.Endpoint endpoint = metricas.endpoint(servidor.baseUrl(), IntegradorMicroservicios.RUTA_PEDIDO);
+        assertEquals(1, endpoint.instantanea().enVuelo());
+        assertTrue(metricas.enVuelo() >= 1);
+        liberar.countDown();
+        bloqueada.join();
+        assertEquals(0, endpoint.instantanea().enVuelo());
+        assertEquals(1, endpoint.instantanea().exitos());
+    }
+
+    @Test
+    void testObservadoresRecibenCadaPeticion() {
+        List<String> eventos = new CopyOnWriteArrayList<>();
+        MetricasIntegrador.Observador observador =
+            (endpoint, clase, estado, nanos) -> eventos.add(endpoint + " " + clase + " " + estado);
+        MetricasIntegrador.Observador defectuoso = (endpoint, clase, estado, nanos) -> {
+            throw new IllegalStateException("falla del observador");
+        };
+        metricas.agregarObservador(defectuoso);
+        metricas.agregarObservador(observador);
+        try {
+            assertEquals(Optional.empty(), IntegradorMicroservicios.obtenerPedidoJson(servidor.baseUrl(), 404L));
+            assertTrue(IntegradorMicroservicios.obtenerPedido(servidor.baseUrl(), 5L).isPresent());
+        } finally {
+            assertTrue(metricas.quitarObservador(defectuoso));
+            assertTrue(metricas.quitarObservador(observador));
+        }
+        assertFalse(metricas.quitarObservador(observador));
+
+        assertEquals(List.of(endpointPedido() + " NO_ENCONTRADO 404", endpointPedido() + " EXITO 200"), eventos);
+    }
+
+    @Test
+    void testNormalizacionDelDestino() {
+        assertEquals("http://localhost", MetricasIntegrador.normalizarDestino("HTTP://LocalHost:80/"));
+        assertEquals("https://api.multipedidos.com:8443/v1", MetricasIntegrador.normalizarDestino("https://API.multipedidos.com:8443/v1//"));
+        assertEquals("https://api.multipedidos.com", MetricasIntegrador.normalizarDestino("https://api.multipedidos.com:443"));
+        assertEquals("no es una url", MetricasIntegrador.normalizarDestino("no es una url/"));
+    }
+}
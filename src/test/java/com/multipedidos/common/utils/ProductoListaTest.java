@@ -0,0 +1,88 @@
+package com.multipedidos.common.utils;
+
+import com.multipedidos.common.dto.ProductoCompacto;
+import com.multipedidos.common.dto.ProductoDTO;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Tests de ProductoLista y ProductoCompacto.
+ */
+class ProductoListaTest {
+
+    @Test
+    void testConversionIdaYVueltaConNombresDeduplicados() {
+        List<ProductoDTO> productos = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            productos.add(new ProductoDTO(new String("Producto " + (i % 10)), BigDecimal.valueOf(i * 7 + 1, 2)));
+        }
+        productos.add(new ProductoDTO(null, BigDecimal.ZERO));
+        productos.add(new ProductoDTO("Entero", new BigDecimal("12")));
+
+        ProductoLista lista = ProductoLista.desde(productos);
+        assertEquals(1002, lista.tamano());
+        assertEquals(11, lista.cantidadNombres());
+        assertSame(lista.nombre(3), lista.nombre(13));
+        assertNull(lista.nombre(1000));
+        assertEquals(0L, lista.precioCentavos(1000));
+        assertEquals(1200L, lista.precioCentavos(1001));
+        assertThrows(IndexOutOfBoundsException.class, () -> lista.precioCentavos(1002));
+
+        List<ProductoDTO> vuelta = lista.aProductosDTO();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(productos.get(i), vuelta.get(i));
+        }
+        assertEquals(new BigDecimal("12.00"), vuelta.get(1001).getPrecio());
+        assertEquals(new ProductoCompacto("Producto 3", 22), lista.producto(3));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> lista.agregar(new ProductoDTO("Fraccion", new BigDecimal("1.005"))));
+        // Un precio ausente es un error, no un producto gratis
+        assertThrows(IllegalArgumentException.class, () -> lista.agregar(new ProductoDTO("Sin precio", null)));
+        assertThrows(IllegalArgumentException.class, () -> ProductoCompacto.desde(new ProductoDTO("Sin precio", null)));
+        assertThrows(IllegalArgumentException.class, () -> CalculadoraDescuentos.aCentavos(null));
+        assertEquals(1002, lista.tamano());
+        assertThrows(IllegalArgumentException.class, () -> ProductoLista.desde(null));
+    }
+
+    @Test
+    void testTotalSinObjetosCoincideConCalcularTotal() {
+        List<ProductoDTO> productos = Arrays.asList(
+            new ProductoDTO("Teclado", new BigDecimal("89.90")),
+            new ProductoDTO("Monitor", new BigDecimal("1499.99")),
+            new ProductoDTO("Cable", new BigDecimal("4.5")),
+            new ProductoDTO("Teclado", new BigDecimal("89.90")));
+
+        ProductoLista lista = ProductoLista.desde(productos);
+        assertEquals(CalculadoraDescuentos.calcularTotal(productos),
+            CalculadoraDescuentos.desdeCentavos(CalculadoraDescuentos.calcularTotalCentavos(lista)));
+        assertThrows(IllegalArgumentException.class, () -> CalculadoraDescuentos.calcularTotalCentavos(new ProductoLista()));
+
+        lista.limpiar();
+        lista.agregar(new ProductoCompacto("Teclado", -100));
+        assertThrows(IllegalArgumentException.class, () -> CalculadoraDescuentos.calcularTotalCentavos(lista));
+        assertEquals(3, lista.cantidadNombres());
+    }
+
+    @Test
+    void testProductoCompactoYHashDeProductoDTO() {
+        ProductoCompacto compacto = ProductoCompacto.desde(new ProductoDTO("Mouse", new BigDecimal("25.5")));
+        assertEquals(2550L, compacto.getPrecioCentavos());
+        assertEquals(new ProductoCompacto("Mouse", 2550), compacto);
+        assertEquals(new ProductoCompacto("Mouse", 2550).hashCode(), compacto.hashCode());
+        assertNotEquals(new ProductoCompacto("Mouse", 2551), compacto);
+        assertEquals(new ProductoDTO("Mouse", new BigDecimal("25.50")), compacto.aProductoDTO());
+
+        // El hash de ProductoDTO conserva el valor de Objects.hash
+        for (ProductoDTO producto : List.of(new ProductoDTO("Mouse", new BigDecimal("25.50")),
+                new ProductoDTO(null, BigDecimal.ONE), new ProductoDTO("Sin precio", null), new ProductoDTO())) {
+            assertEquals(Objects.hash(producto.getNombre(), producto.getPrecio()), producto.hashCode());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.multipedidos.common.utils;
+
+import com.multipedidos.common.dto.ProductoDTO;
+import com.multipedidos.common.exceptions.DatosInvalidosException;
+import com.multipedidos.common.exceptions.IntegracionMicroserviciosException;
+import com.multipedidos.common.exceptions.RecursoNoEncontradoException;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Tests de Resultado, las variantes intentar* y las excepciones sin traza.
+ */
+class ResultadoTest {
+
+    @Test
+    void testVariantesDeCalculadoraCoincidenConLasQueLanzan() {
+        BigDecimal subtotal = new BigDecimal("1234.56");
+        assertEquals(Resultado.exito(CalculadoraDescuentos.calcularTotalFinal(subtotal)),
+            CalculadoraDescuentos.intentarCalcularTotalFinal(subtotal));
+        assertEquals(CodigoError.SUBTOTAL_INVALIDO, CalculadoraDescuentos.intentarCalcularTotalFinal(null).getError());
+        assertEquals(CodigoError.SUBTOTAL_INVALIDO,
+            CalculadoraDescuentos.intentarCalcularTotalFinal(new BigDecimal("-0.01")).getError());
+
+        List<ProductoDTO> productos = List.of(new ProductoDTO("A", new BigDecimal("10.50")), new ProductoDTO("B", null));
+        assertEquals(CalculadoraDescuentos.calcularTotal(productos),
+            CalculadoraDescuentos.intentarCalcularTotal(productos).getValor());
+        assertEquals(CodigoError.PRODUCTOS_VACIOS, CalculadoraDescuentos.intentarCalcularTotal(List.of()).getError());
+
+        assertEquals(CalculadoraDescuentos.aplicarDescuentoPersonalizado(subtotal, 12.5),
+            CalculadoraDescuentos.intentarAplicarDescuentoPersonalizado(subtotal, 12.5).getValor());
+        assertEquals(CodigoError.PORCENTAJE_INVALIDO,
+            CalculadoraDescuentos.intentarAplicarDescuentoPersonalizado(subtotal, Double.NaN).getError());
+        assertEquals(CodigoError.MONTO_INVALIDO,
+            CalculadoraDescuentos.intentarAplicarDescuentoPersonalizado(null, 10).getError());
+
+        assertEquals(CalculadoraDescuentos.calcularTotalFinalCentavos(123_456),
+            CalculadoraDescuentos.intentarCalcularTotalFinalCentavos(123_456).getValor());
+        assertEquals(CodigoError.SUBTOTAL_INVALIDO, CalculadoraDescuentos.intentarCalcularTotalFinalCentavos(-1).getError());
+        assertEquals(CodigoError.DESBORDAMIENTO,
+            CalculadoraDescuentos.intentarCalcularTotalFinalCentavos(Long.MAX_VALUE / 2).getError());
+
+        ProductoLista lista = new ProductoLista();
+        assertEquals(CodigoError.PRODUCTOS_VACIOS, CalculadoraDescuentos.intentarCalcularTotalCentavos(lista).getError());
+        lista.agregar("A", Long.MAX_VALUE);
+        lista.agregar("B", 1);
+        assertEquals(CodigoError.DESBORDAMIENTO, CalculadoraDescuentos.intentarCalcularTotalCentavos(lista).getError());
+
+        assertEquals(Resultado.exito(1050L), CalculadoraDescuentos.intentarACentavos(new BigDecimal("10.5000")));
+        assertEquals(CodigoError.DEMASIADOS_DECIMALES,
+            CalculadoraDescuentos.intentarACentavos(new BigDecimal("10.505")).getError());
+        assertEquals(CodigoError.DESBORDAMIENTO,
+            CalculadoraDescuentos.intentarACentavos(new BigDecimal("1e17")).getError());
+        assertEquals(CodigoError.MONTO_INVALIDO, CalculadoraDescuentos.intentarACentavos(null).getError());
+    }
+
+    @Test
+    void testVariantesDeValidadorCodigos() {
+        assertEquals(Resultado.exito("PED-000042"), ValidadorCodigos.intentarGenerarCodigoUnico(" ped ", 42L));
+        assertEquals(Resultado.exito("FAC-000007"), ValidadorCodigos.intentarGenerarCodigoFactura(7L));
+        assertEquals(ValidadorCodigos.generarCodigoPedido(15L), ValidadorCodigos.intentarGenerarCodigoPedido(15L).getValor());
+        assertEquals(CodigoError.ID_INVALIDO, ValidadorCodigos.intentarGenerarCodigoPedido(-1L).getError());
+        assertEquals(CodigoError.ID_INVALIDO, ValidadorCodigos.intentarGenerarCodigoUnico("FACTURA", null).getError());
+        assertEquals(CodigoError.TIPO_ENTIDAD_INVALIDO, ValidadorCodigos.intentarGenerarCodigoUnico("CLIENTE", 1L).getError());
+        assertEquals(CodigoError.TIPO_ENTIDAD_INVALIDO, ValidadorCodigos.intentarGenerarCodigoUnico(null, 1L).getError());
+
+        // Las variantes que lanzan conservan sus mensajes
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> ValidadorCodigos.generarCodigoUnico("CLIENTE", 1L));
+        assertTrue(error.getMessage().startsWith("Tipo de entidad no soportado: CLIENTE"));
+    }
+
+    @Test
+    void testErroresCompartidosYSinTraza() {
+        Resultado<String> error = ValidadorCodigos.intentarGenerarCodigoPedido(-5L);
+        assertSame(error, ValidadorCodigos.intentarGenerarCodigoFactura(-9L));
+        assertFalse(error.esExito());
+        assertEquals("otro", error.valorO("otro"));
+        assertSame(error, error.mapear(String::length));
+        assertThrows(IllegalStateException.class, error::getValor);
+        assertEquals(Resultado.exito(10), ValidadorCodigos.intentarGenerarCodigoPedido(5L).mapear(String::length));
+
+        DatosInvalidosException lanzada = assertThrows(DatosInvalidosException.class, error::valorOLanzar);
+        assertSame(CodigoError.ID_INVALIDO.excepcion(), lanzada);
+        assertEquals("El ID debe ser un número positivo", lanzada.getMessage());
+        assertEquals(0, lanzada.getStackTrace().length);
+        lanzada.addSuppressed(new RuntimeException());
+        assertEquals(0, lanzada.getSuppressed().length);
+        // La instancia compartida no admite causa ni traza
+        assertThrows(IllegalStateException.class, () -> lanzada.initCause(new RuntimeException()));
+        assertNull(lanzada.getCause());
+        lanzada.setStackTrace(new Throwable().getStackTrace());
+        assertEquals(0, lanzada.getStackTrace().length);
+
+        assertEquals(0, RecursoNoEncontradoException.sinTraza("Pedido no encontrado").getStackTrace().length);
+        IntegracionMicroserviciosException integracion = IntegracionMicroserviciosException.sinTraza("Respuesta 503", 503);
+        assertEquals(503, integracion.getCodigoEstado());
+        assertEquals(0, integracion.getStackTrace().length);
+        assertTrue(new DatosInvalidosException("con traza").getStackTrace().length > 0);
+
+        assertThrows(NullPointerException.class, () -> Resultado.exito(null));
+        assertThrows(NullPointerException.class, () -> Resultado.error(null));
+    }
+}
@@ -0,0 +1,68 @@
+package com.multipedidos.common.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Servidor HTTP local que simula microservicios en los tests, sin acceso a la red.
+ */
+final class ServidorPrueba implements AutoCloseable {
+
+    private final HttpServer servidor;
+    private final ExecutorService hilos;
+
+    ServidorPrueba() {
+        try {
+            servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        hilos = Executors.newCachedThreadPool();
+        servidor.setExecutor(hilos);
+        servidor.start();
+    }
+
+    ServidorPrueba manejar(String contexto, HttpHandler manejador) {
+        servidor.createContext(contexto, manejador);
+        return this;
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + servidor.getAddress().getPort();
+    }
+
+    static void responder(HttpExchange exchange, int estado, String cuerpo) throws IOException {
+        responder(exchange, estado, cuerpo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static void responder(HttpExchange exchange, int estado, byte[] cuerpo) throws IOException {
+        if (!exchange.getResponseHeaders().containsKey("Content-Type")) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+        }
+        exchange.sendResponseHeaders(estado, cuerpo.length == 0 ? -1 : cuerpo.length);
+        try (OutputStream salida = exchange.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+    }
+
+    /** ID numérico al final de la ruta, por ejemplo 15 en /api/pedidos/15. */
+    static long idDeRuta(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        return Long.parseLong(path.substring(path.lastIndexOf('/') + 1));
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        hilos.shutdownNow();
+    }
+}
@@ -0,0 +1,88 @@
+package com.multipedidos.common.utils;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Tests unitarios para TablaDescuentos.
+ */
+class TablaDescuentosTest {
+
+    @Test
+    void testTablaPorDefectoMantieneTramosActuales() {
+        TablaDescuentos tabla = TablaDescuentos.POR_DEFECTO;
+
+        assertEquals(3, tabla.cantidadTramos());
+        assertEquals(0, tabla.indiceTramo(new BigDecimal("999.99")));
+        assertEquals(1, tabla.indiceTramo(new BigDecimal("1000")));
+        assertEquals(2, tabla.indiceTramo(500_000L));
+        assertEquals(new BigDecimal("15"), CalculadoraDescuentos.obtenerPorcentajeIVA().stripTrailingZeros());
+    }
+
+    @Test
+    void testTablaPersonalizada() {
+        TablaDescuentos campana = TablaDescuentos.compilar(new BigDecimal("0.12"), List.of(
+            new TablaDescuentos.Tramo("oro", new BigDecimal("250.50"), new BigDecimal("0.125")),
+            new TablaDescuentos.Tramo("base", BigDecimal.ZERO, BigDecimal.ZERO)
+        ));
+
+        // 300 - 12.5% = 262.50, 262.50 + 12% IVA = 294.00
+        assertEquals(new BigDecimal("294.00"), CalculadoraDescuentos.calcularTotalFinal(new BigDecimal("300"), campana));
+        assertEquals(29_400L, CalculadoraDescuentos.calcularTotalFinalCentavos(30_000L, campana));
+        // 250.49 queda en el tramo base
+        assertEquals(0, campana.indiceTramo(25_049L));
+        assertEquals(1, campana.indiceTramo(25_050L));
+    }
+
+    @Test
+    void testTablaInvalidaLanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> TablaDescuentos.compilar(new BigDecimal("0.15"), List.of(
+            new TablaDescuentos.Tramo("sin-base", new BigDecimal("100"), new BigDecimal("0.05")))));
+
+        assertThrows(IllegalArgumentException.class, () -> TablaDescuentos.compilar(new BigDecimal("0.15"), List.of(
+            new TablaDescuentos.Tramo("base", BigDecimal.ZERO, new BigDecimal("1.5")))));
+
+        assertThrows(IllegalArgumentException.class, () -> TablaDescuentos.compilar(new BigDecimal("0.15"), List.of(
+            new TablaDescuentos.Tramo("a", BigDecimal.ZERO, new BigDecimal("0.05")),
+            new TablaDescuentos.Tramo("b", new BigDecimal("0.00"), new BigDecimal("0.10")))));
+    }
+
+    @Test
+    void testBusquedaBinariaConMuchosTramos() {
+        List<TablaDescuentos.Tramo> tramos = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            tramos.add(new TablaDescuentos.Tramo("t" + i, BigDecimal.valueOf(i * 250L), BigDecimal.valueOf(i, 3)));
+        }
+        TablaDescuentos tabla = TablaDescuentos.compilar(new BigDecimal("0.15"), tramos);
+
+        SplittableRandom random = new SplittableRandom(3L);
+        for (int i = 0; i < 10_000; i++) {
+            long centavos = random.nextLong(1_100_000L);
+            int esperado = (int) Math.min(39, centavos / 25_000L);
+            assertEquals(esperado, tabla.indiceTramo(centavos));
+            assertEquals(esperado, tabla.indiceTramo(BigDecimal.valueOf(centavos, 2)));
+            assertEquals(CalculadoraDescuentos.calcularTotalFinal(BigDecimal.valueOf(centavos, 2), tabla),
+                    CalculadoraDescuentos.desdeCentavos(CalculadoraDescuentos.calcularTotalFinalCentavos(centavos, tabla)));
+        }
+    }
+
+    @Test
+    void testReemplazoEnCaliente() {
+        TablaDescuentos sinDescuento = TablaDescuentos.compilar(new BigDecimal("0.15"), List.of(
+            new TablaDescuentos.Tramo("ninguno", BigDecimal.ZERO, BigDecimal.ZERO)));
+
+        TablaDescuentos anterior = CalculadoraDescuentos.configurarTablaDescuentos(sinDescuento);
+        try {
+            assertSame(TablaDescuentos.POR_DEFECTO, anterior);
+            assertEquals(new BigDecimal("115.00"), CalculadoraDescuentos.calcularTotalFinal(new BigDecimal("100")));
+        } finally {
+            CalculadoraDescuentos.configurarTablaDescuentos(anterior);
+        }
+        assertEquals(new BigDecimal("109.25"), CalculadoraDescuentos.calcularTotalFinal(new BigDecimal("100")));
+    }
+}
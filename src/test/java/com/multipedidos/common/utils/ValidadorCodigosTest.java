@@ -3,11 +3,80 @@ package com.multipedidos.common.utils;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.Duration;
+import java.util.Random;
+import java.util.regex.Pattern;
+
 /**
  * Tests unitarios para ValidadorCodigos.
  */
 class ValidadorCodigosTest {
 
+    // Patrones originales, usados como referencia para las validaciones sin regex
+    private static final Pattern PATTERN_EMAIL = Pattern.compile(
+        "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$"
+    );
+    private static final Pattern PATTERN_CODIGO_PEDIDO = Pattern.compile("^PED-[0-9]{6}$");
+    private static final Pattern PATTERN_CODIGO_FACTURA = Pattern.compile("^FAC-[0-9]{6}$");
+
+    // Alfabetos sesgados hacia los caracteres que deciden cada lenguaje, incluidos bordes
+    // como '/' y ':' (vecinos de los dígitos), '@' y '[' (vecinos de las letras) y no ASCII
+    private static final String ALFABETO_EMAIL = "aZz09+_.-@.@..-/:[`{ \t\u00e9\u0661A";
+    private static final String ALFABETO_CODIGO = "PEDFAC-0123456789/: \t\u0660x";
+
+    private static boolean referencia(Pattern patron, String valor) {
+        if (valor == null || valor.trim().isEmpty()) {
+            return false;
+        }
+        return patron.matcher(valor.trim()).matches();
+    }
+
+    private static String aleatoria(Random random, String alfabeto, int maxLargo) {
+        int largo = random.nextInt(maxLargo + 1);
+        StringBuilder sb = new StringBuilder(largo);
+        for (int i = 0; i < largo; i++) {
+            sb.append(alfabeto.charAt(random.nextInt(alfabeto.length())));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void testEmailEquivalenteAlPatron() {
+        Random random = new Random(20240611L);
+        for (int i = 0; i < 500_000; i++) {
+            String email = i % 2 == 0
+                    ? aleatoria(random, ALFABETO_EMAIL, 12)
+                    // Forma casi válida con mutaciones, para cubrir la frontera del lenguaje
+                    : aleatoria(random, ALFABETO_EMAIL, 4) + "a@b" + aleatoria(random, ALFABETO_EMAIL, 4)
+                        + "." + aleatoria(random, "abZ.9-", 3);
+            assertEquals(referencia(PATTERN_EMAIL, email), ValidadorCodigos.validarEmail(email), email);
+            assertEquals(referencia(PATTERN_EMAIL, email),
+                    ValidadorCodigos.validarEmail(new StringBuilder(email)), email);
+        }
+    }
+
+    @Test
+    void testCodigosEquivalentesAlPatron() {
+        Random random = new Random(7L);
+        for (int i = 0; i < 500_000; i++) {
+            String codigo = i % 2 == 0
+                    ? aleatoria(random, ALFABETO_CODIGO, 12)
+                    : aleatoria(random, " \t", 2) + (random.nextBoolean() ? "PED-" : "FAC-")
+                        + aleatoria(random, "0123456789/:x", 7) + aleatoria(random, " \n", 2);
+            assertEquals(referencia(PATTERN_CODIGO_PEDIDO, codigo), ValidadorCodigos.validarCodigoPedido(codigo), codigo);
+            assertEquals(referencia(PATTERN_CODIGO_FACTURA, codigo), ValidadorCodigos.validarCodigoFactura(codigo), codigo);
+        }
+    }
+
+    @Test
+    void testEmailTiempoLinealConEntradaAdversa() {
+        // Con el patrón original esta entrada retrocede de forma cuadrática en el dominio
+        String adversa = "a@" + "a.".repeat(200_000) + "!";
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> assertFalse(ValidadorCodigos.validarEmail(adversa)));
+        assertTrue(ValidadorCodigos.validarEmail("  usuario@ejemplo.com\n"));
+        assertTrue(ValidadorCodigos.validarCodigoFactura(new StringBuilder(" FAC-000123 ")));
+    }
+
     @Test
     void testValidarEmailValido() {
         assertTrue(ValidadorCodigos.validarEmail("usuario@ejemplo.com"));
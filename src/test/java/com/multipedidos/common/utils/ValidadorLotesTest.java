@@ -0,0 +1,125 @@
+package com.multipedidos.common.utils;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests de ValidadorLotes contra la validación fila por fila de ValidadorCodigos.
+ */
+class ValidadorLotesTest {
+
+    private static final String[] MUESTRAS = {
+        "usuario@ejemplo.com", " test.user@domain.co.uk ", "email-invalido", "usuario@", "ñandú@correo.com",
+        "PED-000001", " PED-123456\t", "PED-123", "FAC-098765", "FAC-12345x", "", "   ", "pedido@é.com"
+    };
+
+    private static List<String> filasAleatorias(int cantidad) {
+        Random random = new Random(99L);
+        List<String> filas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            filas.add(MUESTRAS[random.nextInt(MUESTRAS.length)]);
+        }
+        return filas;
+    }
+
+    private static BitSet esperado(ValidadorLotes.Formato formato, List<String> filas) {
+        BitSet esperado = new BitSet();
+        for (int i = 0; i < filas.size(); i++) {
+            String fila = filas.get(i);
+            boolean valida = switch (formato) {
+                case EMAIL -> ValidadorCodigos.validarEmail(fila);
+                case CODIGO_PEDIDO -> ValidadorCodigos.validarCodigoPedido(fila);
+                case CODIGO_FACTURA -> ValidadorCodigos.validarCodigoFactura(fila);
+            };
+            esperado.set(i, valida);
+        }
+        return esperado;
+    }
+
+    @Test
+    void testBuferesEquivalentesALaValidacionPorFila() {
+        List<String> filas = filasAleatorias(10_000);
+        StringBuilder contenido = new StringBuilder();
+        int[] inicios = new int[filas.size() + 1];
+        for (int i = 0; i < filas.size(); i++) {
+            contenido.append(filas.get(i));
+            inicios[i + 1] = contenido.length();
+        }
+        char[] chars = contenido.toString().toCharArray();
+
+        // En UTF-8 los desplazamientos son en bytes
+        List<byte[]> codificadas = new ArrayList<>();
+        int[] iniciosBytes = new int[filas.size() + 1];
+        for (int i = 0; i < filas.size(); i++) {
+            codificadas.add(filas.get(i).getBytes(StandardCharsets.UTF_8));
+            iniciosBytes[i + 1] = iniciosBytes[i] + codificadas.get(i).length;
+        }
+        byte[] bytes = new byte[iniciosBytes[filas.size()]];
+        for (int i = 0; i < filas.size(); i++) {
+            System.arraycopy(codificadas.get(i), 0, bytes, iniciosBytes[i], codificadas.get(i).length);
+        }
+
+        for (ValidadorLotes.Formato formato : ValidadorLotes.Formato.values()) {
+            BitSet esperado = esperado(formato, filas);
+            assertFalse(esperado.isEmpty());
+            assertEquals(esperado, ValidadorLotes.validar(formato, filas));
+            assertEquals(esperado, ValidadorLotes.validar(formato, chars, inicios));
+            assertEquals(esperado, ValidadorLotes.validar(formato, bytes, iniciosBytes));
+        }
+    }
+
+    @Test
+    void testParaleloIgualAlSecuencial() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ModoParalelo modo = new ModoParalelo(pool, 0);
+            for (int cantidad : new int[]{0, 1, 63, 64, 65, 1000, 100_003}) {
+                List<String> filas = filasAleatorias(cantidad);
+                char[] chars = String.join("", filas).toCharArray();
+                int[] inicios = new int[cantidad + 1];
+                for (int i = 0; i < cantidad; i++) {
+                    inicios[i + 1] = inicios[i] + filas.get(i).length();
+                }
+                for (ValidadorLotes.Formato formato : ValidadorLotes.Formato.values()) {
+                    BitSet esperado = esperado(formato, filas);
+                    assertEquals(esperado, ValidadorLotes.validar(formato, filas, modo), "filas=" + cantidad);
+                    assertEquals(esperado, ValidadorLotes.validar(formato, chars, inicios, modo), "filas=" + cantidad);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testListasEnlazadasYNulos() {
+        List<CharSequence> filas = new LinkedList<>(Arrays.asList("PED-000001", null, new StringBuilder("PED-000002 ")));
+
+        BitSet validas = ValidadorLotes.validar(ValidadorLotes.Formato.CODIGO_PEDIDO, filas);
+
+        assertEquals(BitSet.valueOf(new long[]{0b101}), validas);
+    }
+
+    @Test
+    void testDesplazamientosInvalidos() {
+        char[] datos = "PED-000001".toCharArray();
+        ValidadorLotes.Formato formato = ValidadorLotes.Formato.CODIGO_PEDIDO;
+
+        assertThrows(IllegalArgumentException.class, () -> ValidadorLotes.validar(formato, datos, new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> ValidadorLotes.validar(formato, datos, new int[]{1, 10}));
+        assertThrows(IllegalArgumentException.class, () -> ValidadorLotes.validar(formato, datos, new int[]{0, 11}));
+        assertThrows(IllegalArgumentException.class, () -> ValidadorLotes.validar(formato, datos, new int[]{0, 6, 4, 10}));
+        assertThrows(IllegalArgumentException.class, () -> ValidadorLotes.validar(formato, (char[]) null, new int[]{0}));
+        assertThrows(IllegalArgumentException.class, () -> ValidadorLotes.validar(formato, (List<String>) null));
+        assertEquals(new BitSet(), ValidadorLotes.validar(formato, datos, new int[]{0}));
+    }
+}
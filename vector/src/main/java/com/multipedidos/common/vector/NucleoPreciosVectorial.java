@@ -0,0 +1,148 @@
+package com.multipedidos.common.vector;
+
+import com.multipedidos.common.utils.NucleoPrecios;
+import com.multipedidos.common.utils.TablaDescuentos;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Objects;
+
+/**
+ * {@link NucleoPrecios} que evalúa tramo, descuento e IVA de varios montos a la vez con la
+ * Vector API ({@code jdk.incubator.vector}). Se registra con {@link java.util.ServiceLoader}
+ * y solo se declara disponible si la JVM se inició con {@code --add-modules jdk.incubator.vector}
+ * y la forma preferida tiene al menos dos carriles; si no, la librería usa el núcleo escalar.
+ *
+ * <p>En cada carril el tramo se elige comparando contra los umbrales y mezclando los factores
+ * de la tabla, llevados a una escala común. La división HALF_UP se estima en {@code double}
+ * (exacto mientras el producto no supere 2^52), se corrige con el resto entero y se redondea,
+ * por lo que el resultado coincide exactamente con el cálculo escalar. Los bloques con algún
+ * monto negativo o demasiado grande para esa garantía, y el remanente final, se delegan a
+ * {@link NucleoPrecios#escalar()}, que además produce las mismas excepciones.</p>
+ */
+public final class NucleoPreciosVectorial implements NucleoPrecios {
+
+    private static final boolean MODULO_PRESENTE =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    @Override
+    public String nombre() {
+        return MODULO_PRESENTE ? "vectorial (" + Carriles.LARGOS + ")" : "vectorial (jdk.incubator.vector ausente)";
+    }
+
+    @Override
+    public boolean disponible() {
+        return MODULO_PRESENTE && Carriles.LARGOS.length() >= 2;
+    }
+
+    @Override
+    public long calcular(long[] subtotalesCentavos, long[] totalesCentavos, int desde, int hasta,
+                         TablaDescuentos tabla, long[] aplicacionesPorTramo) {
+        if (!MODULO_PRESENTE) {
+            return NucleoPrecios.escalar().calcular(subtotalesCentavos, totalesCentavos, desde, hasta,
+                    tabla, aplicacionesPorTramo);
+        }
+        return Carriles.calcular(subtotalesCentavos, totalesCentavos, desde, hasta, tabla, aplicacionesPorTramo);
+    }
+
+    @Override
+    public String toString() {
+        return nombre();
+    }
+
+    /**
+     * Código que usa la Vector API; se carga solo si el módulo está presente.
+     */
+    private static final class Carriles {
+
+        static final VectorSpecies<Long> LARGOS = LongVector.SPECIES_PREFERRED;
+
+        /** Por debajo de 2^52 los productos son exactos en {@code double} y la estimación yerra en menos de 1. */
+        static final long PRODUCTO_MAXIMO = 1L << 52;
+        static final double DOS_A_LA_52 = 0x1p52;
+        static final long BITS_DOS_A_LA_52 = Double.doubleToRawLongBits(DOS_A_LA_52);
+
+        static long calcular(long[] subtotales, long[] totales, int desde, int hasta,
+                             TablaDescuentos tabla, long[] aplicacionesPorTramo) {
+            Objects.checkFromToIndex(desde, hasta, subtotales.length);
+            Objects.checkFromToIndex(desde, hasta, totales.length);
+            NucleoPrecios escalar = NucleoPrecios.escalar();
+
+            int tramos = tabla.cantidadTramos();
+            long[] umbrales = new long[tramos];
+            long[] factores = new long[tramos];
+            long factorIva = tabla.factorIva();
+            long factorMaximo = Math.max(1, factorIva);
+            for (int t = 0; t < tramos; t++) {
+                umbrales[t] = tabla.umbralTramoCentavos(t);
+                factores[t] = tabla.factorDescuento(t);
+                factorMaximo = Math.max(factorMaximo, factores[t]);
+            }
+            // El monto con descuento nunca supera al subtotal, así que basta acotar el subtotal
+            long subtotalMaximo = PRODUCTO_MAXIMO / factorMaximo - 1;
+            long escala = tabla.escalaDescuentos();
+            long escalaIva = tabla.escalaIva();
+            double inversaEscala = 1.0 / escala;
+            double inversaIva = 1.0 / escalaIva;
+
+            // mayoresOIguales[t]: montos de los bloques vectoriales con subtotal >= umbral del tramo t
+            long[] mayoresOIguales = new long[tramos];
+            LongVector suma = LongVector.zero(LARGOS);
+            long montoEscalar = 0;
+            int paso = LARGOS.length();
+            int i = desde;
+            for (; i <= hasta - paso; i += paso) {
+                LongVector subtotal = LongVector.fromArray(LARGOS, subtotales, i);
+                if (subtotal.compare(VectorOperators.LT, 0).or(subtotal.compare(VectorOperators.GT, subtotalMaximo)).anyTrue()) {
+                    montoEscalar += escalar.calcular(subtotales, totales, i, i + paso, tabla, aplicacionesPorTramo);
+                    continue;
+                }
+
+                LongVector factor = LongVector.broadcast(LARGOS, factores[0]);
+                for (int t = 1; t < tramos; t++) {
+                    VectorMask<Long> alcanza = subtotal.compare(VectorOperators.GE, umbrales[t]);
+                    factor = factor.blend(factores[t], alcanza);
+                    mayoresOIguales[t] += alcanza.trueCount();
+                }
+                mayoresOIguales[0] += paso;
+
+                LongVector conDescuento = dividirHalfUp(subtotal.mul(factor), escala, inversaEscala);
+                dividirHalfUp(conDescuento.mul(factorIva), escalaIva, inversaIva).intoArray(totales, i);
+                suma = suma.add(subtotal);
+            }
+
+            for (int t = 0; t < tramos; t++) {
+                aplicacionesPorTramo[t] += mayoresOIguales[t] - (t + 1 < tramos ? mayoresOIguales[t + 1] : 0);
+            }
+            long monto = suma.reduceLanes(VectorOperators.ADD) + montoEscalar;
+            if (i < hasta) {
+                monto += escalar.calcular(subtotales, totales, i, hasta, tabla, aplicacionesPorTramo);
+            }
+            return monto;
+        }
+
+        /**
+         * {@code producto / divisor} redondeado HALF_UP, para productos en {@code [0, 2^52)}.
+         * Las conversiones entre {@code long} y {@code double} se hacen con el desplazamiento
+         * 2^52, que solo reinterpreta los bits: la conversión vectorial D2L no es intrínseca en
+         * todas las JDK. La estimación queda a lo sumo a una unidad y el resto la corrige.
+         */
+        private static LongVector dividirHalfUp(LongVector producto, long divisor, double inverso) {
+            DoubleVector exacto = producto.or(BITS_DOS_A_LA_52).reinterpretAsDoubles().sub(DOS_A_LA_52);
+            LongVector cociente = exacto.mul(inverso).add(DOS_A_LA_52).reinterpretAsLongs().sub(BITS_DOS_A_LA_52);
+            LongVector resto = producto.sub(cociente.mul(divisor));
+
+            VectorMask<Long> debajo = resto.compare(VectorOperators.LT, 0);
+            cociente = cociente.sub(1, debajo);
+            resto = resto.add(divisor, debajo);
+            VectorMask<Long> encima = resto.compare(VectorOperators.GE, divisor);
+            cociente = cociente.add(1, encima);
+            resto = resto.sub(divisor, encima);
+
+            return cociente.add(1, resto.add(resto).compare(VectorOperators.GE, divisor));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+/**
+ * Núcleo de precios opcional con la Vector API. El módulo {@code jdk.incubator.vector} es
+ * estático: sin {@code --add-modules jdk.incubator.vector} el núcleo se declara no disponible.
+ */
+module com.multipedidos.common.vector {
+    requires com.multipedidos.common;
+    requires static jdk.incubator.vector;
+
+    exports com.multipedidos.common.vector;
+
+    provides com.multipedidos.common.utils.NucleoPrecios
+            with com.multipedidos.common.vector.NucleoPreciosVectorial;
+}
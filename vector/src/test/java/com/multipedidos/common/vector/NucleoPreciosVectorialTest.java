@@ -0,0 +1,101 @@
+package com.multipedidos.common.vector;
+
+import com.multipedidos.common.utils.CalculadoraDescuentos;
+import com.multipedidos.common.utils.NucleoPrecios;
+import com.multipedidos.common.utils.TablaDescuentos;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Tests diferenciales de NucleoPreciosVectorial contra el cálculo con BigDecimal.
+ */
+class NucleoPreciosVectorialTest {
+
+    private final NucleoPrecios nucleo = new NucleoPreciosVectorial();
+
+    @Test
+    void testSeleccionadoPorServiceLoader() {
+        assertTrue(nucleo.disponible(), nucleo.nombre());
+        assertTrue(CalculadoraDescuentos.obtenerNucleoPrecios() instanceof NucleoPreciosVectorial);
+    }
+
+    @Test
+    void testCoincideConBigDecimalEnTablaPorDefecto() {
+        SplittableRandom random = new SplittableRandom(3L);
+        long[] subtotales = new long[4_099];
+        for (int i = 0; i < subtotales.length; i++) {
+            // Uno de cada cuatro cae junto a un umbral; el resto, entre 0 y 100 000.00
+            subtotales[i] = i % 4 == 0 ? 100_000 + random.nextInt(-2, 3) : random.nextLong(10_000_000L);
+        }
+        verificar(subtotales, TablaDescuentos.POR_DEFECTO);
+    }
+
+    @Test
+    void testCoincideConBigDecimalEnTablaConEscalasDistintas() {
+        TablaDescuentos tabla = TablaDescuentos.compilar(new BigDecimal("0.16"), List.of(
+            new TablaDescuentos.Tramo("sin descuento", BigDecimal.ZERO, BigDecimal.ZERO),
+            new TablaDescuentos.Tramo("medio", new BigDecimal("250.01"), new BigDecimal("0.035")),
+            new TablaDescuentos.Tramo("alto", new BigDecimal("1000"), new BigDecimal("0.123457")),
+            new TablaDescuentos.Tramo("total", new BigDecimal("50000"), BigDecimal.ONE)));
+        SplittableRandom random = new SplittableRandom(5L);
+        long[] subtotales = new long[1_027];
+        for (int i = 0; i < subtotales.length; i++) {
+            subtotales[i] = switch (i % 5) {
+                case 0 -> 25_001 + random.nextInt(-1, 2);
+                case 1 -> 100_000 + random.nextInt(-1, 2);
+                case 2 -> 5_000_000 + random.nextInt(-1, 2);
+                default -> random.nextLong(6_000_000L);
+            };
+        }
+        verificar(subtotales, tabla);
+    }
+
+    @Test
+    void testMontosGrandesUsanElCaminoEscalar() {
+        SplittableRandom random = new SplittableRandom(7L);
+        long[] subtotales = new long[515];
+        for (int i = 0; i < subtotales.length; i++) {
+            subtotales[i] = i % 37 == 0 ? 1_000_000_000_000_000L + random.nextLong(1_000_000L) : random.nextLong(1_000_000L);
+        }
+        verificar(subtotales, TablaDescuentos.POR_DEFECTO);
+
+        long[] totales = new long[3];
+        assertThrows(ArithmeticException.class, () -> nucleo.calcular(new long[]{1, Long.MAX_VALUE / 2, 1}, totales,
+            0, 3, TablaDescuentos.POR_DEFECTO, new long[TablaDescuentos.POR_DEFECTO.cantidadTramos()]));
+    }
+
+    @Test
+    void testSubtotalNegativoLanzaComoElEscalar() {
+        long[] subtotales = new long[67];
+        subtotales[41] = -1;
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> nucleo.calcular(subtotales,
+            new long[subtotales.length], 0, subtotales.length, TablaDescuentos.POR_DEFECTO, new long[4]));
+        assertEquals("El subtotal en la posición 41 no puede ser negativo", error.getMessage());
+    }
+
+    private void verificar(long[] subtotales, TablaDescuentos tabla) {
+        long[] totales = new long[subtotales.length];
+        long[] aplicaciones = new long[tabla.cantidadTramos()];
+        long[] aplicacionesEscalar = new long[tabla.cantidadTramos()];
+        // Un rango que no empieza ni termina alineado con los carriles
+        int desde = 3;
+        int hasta = subtotales.length - 2;
+
+        long monto = nucleo.calcular(subtotales, totales, desde, hasta, tabla, aplicaciones);
+        long montoEscalar = NucleoPrecios.escalar().calcular(subtotales, new long[subtotales.length], desde, hasta,
+            tabla, aplicacionesEscalar);
+
+        assertEquals(montoEscalar, monto);
+        assertArrayEquals(aplicacionesEscalar, aplicaciones);
+        for (int i = desde; i < hasta; i++) {
+            BigDecimal esperado = CalculadoraDescuentos.calcularTotalFinal(CalculadoraDescuentos.desdeCentavos(subtotales[i]), tabla);
+            assertEquals(esperado, CalculadoraDescuentos.desdeCentavos(totales[i]), "subtotal " + subtotales[i]);
+        }
+        assertEquals(0, totales[desde - 1]);
+        assertEquals(0, totales[hasta]);
+    }
+}